@@ -0,0 +1,68 @@
+/*
+ * File name:
+ * Benchmark.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Represents a benchmark that can be run by BenchmarkRunner
+ */
+
+package org.team19;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a benchmark whose invocations are timed by {@link BenchmarkRunner}
+ * <p></p>
+ * A benchmark is run once for every combination of the values of its parameters; for each combination, {@link #setUp(Map)} is called once, and
+ * then {@link #setUpInvocation()} and {@link #run()} are called repeatedly, with only {@link #run()} being timed
+ */
+public interface Benchmark {
+    
+    /**
+     * Returns the names of the parameters of this {@link Benchmark} mapped to their default values, in the order in which they should be varied
+     *
+     * @return The names of the parameters of this {@link Benchmark} mapped to their default values
+     */
+    Map<String, List<String>> getDefaultParameters();
+    
+    /**
+     * Prepares this {@link Benchmark} to be run with the given parameter values, which is not timed
+     *
+     * @param parameters The names of the parameters mapped to their values for the upcoming runs
+     * @throws Exception Thrown if there is an issue in preparing the benchmark, such as an invalid parameter value
+     */
+    void setUp(final Map<String, String> parameters) throws Exception;
+    
+    /**
+     * Prepares the state for the next call to {@link #run()}, which is not timed
+     * <p></p>
+     * By default, there is no state to prepare
+     *
+     * @throws Exception Thrown if there is an issue in preparing the state
+     */
+    default void setUpInvocation() throws Exception {}
+    
+    /**
+     * Runs a single invocation of this {@link Benchmark}, which is timed
+     *
+     * @return A value derived from the work performed, which is consumed by {@link BenchmarkRunner} so that the work cannot be optimized away
+     * @throws Exception Thrown if there is an issue in running the benchmark
+     */
+    long run() throws Exception;
+    
+    /**
+     * Returns the number of operations performed by a single call to {@link #run()}, which the time of each invocation is divided by
+     * <p></p>
+     * By default, a single call performs a single operation
+     *
+     * @return The number of operations performed by a single call to {@link #run()}
+     */
+    default int getOperationsPerInvocation() {
+        return 1;
+    }
+    
+}
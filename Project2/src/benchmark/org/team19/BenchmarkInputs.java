@@ -0,0 +1,150 @@
+/*
+ * File name:
+ * BenchmarkInputs.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Generates the deterministic election inputs used by the benchmarks
+ */
+
+package org.team19;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.text.ParseException;
+import java.util.Map;
+
+/**
+ * Generates deterministic election inputs for the benchmarks and parses them into {@link VotingSystem}s
+ */
+final class BenchmarkInputs {
+    
+    /**
+     * The seed used for all generated inputs and for the tie-breaking in the benchmarked elections so that every run sees identical work
+     */
+    static final long SEED = 19;
+    
+    /**
+     * The {@link OutputStream} to which the audit and report output of the benchmarked elections is discarded
+     */
+    static final OutputStream NULL_OUTPUT = OutputStream.nullOutputStream();
+    
+    /**
+     * The mapping of election header strings to their {@link VotingSystem}s, the same as in {@link VotingSystemRunner}
+     */
+    private static final Map<String, Class<? extends VotingSystem>> HEADER_SYSTEM_MAP = Map.of(
+        "IR", InstantRunoffSystem.class,
+        "OPL", OpenPartyListSystem.class
+    );
+    
+    /**
+     * Prevents {@link BenchmarkInputs} from being instantiated
+     */
+    private BenchmarkInputs() {}
+    
+    /**
+     * Returns the contents of an IR election file with the given number of candidates and ballots, where the first preferences are uniformly
+     * random and each ballot stops ranking after each candidate with probability 1/4
+     *
+     * @param numCandidates The number of candidates
+     * @param numBallots    The number of ballots
+     * @return The contents of the IR election file
+     */
+    static byte[] generateIr(final int numCandidates, final int numBallots) {
+        return generate(ElectionGenerator.forInstantRunoff(numCandidates, Math.min(4, numCandidates), numBallots).setTruncation(0.25));
+    }
+    
+    /**
+     * Returns the contents of an OPL election file with the given number of candidates and ballots, where the candidates are split between one
+     * party for every four candidates, there is one seat for every four candidates, and the votes follow a Zipf distribution so that there is no
+     * near-uniform tie between every candidate
+     *
+     * @param numCandidates The number of candidates
+     * @param numBallots    The number of ballots
+     * @return The contents of the OPL election file
+     */
+    static byte[] generateOpl(final int numCandidates, final int numBallots) {
+        final int numParties = Math.max(1, numCandidates / 4);
+        return generate(ElectionGenerator.forOpenPartyList(numCandidates, numParties, numParties, numBallots)
+            .setDistribution(ElectionGenerator.Distribution.ZIPF));
+    }
+    
+    /**
+     * Returns the contents of the election file produced by the given {@link ElectionGenerator} with the benchmark seed
+     *
+     * @param generator The {@link ElectionGenerator} to use
+     * @return The contents of the election file
+     */
+    private static byte[] generate(final ElectionGenerator generator) {
+        final ByteArrayOutputStream election = new ByteArrayOutputStream();
+        try {
+            generator.setSeed(SEED).generate(election);
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return election.toByteArray();
+    }
+    
+    /**
+     * Parses the given election file contents into a {@link VotingSystem} whose audit and report output is discarded
+     *
+     * @param election The contents of the election file
+     * @param audited  Whether the audit is formatted before it is discarded, or skipped with {@link VotingSystem#NO_AUDIT}
+     * @return The parsed {@link VotingSystem}
+     * @throws ParseException Thrown if there is an issue in parsing the election
+     */
+    static VotingSystem parse(final byte[] election, final boolean audited) throws ParseException {
+        return VotingStreamParser.parse(
+            new InputStream[] {new ByteArrayInputStream(election)},
+            new String[] {"benchmark"},
+            audited ? NULL_OUTPUT : VotingSystem.NO_AUDIT,
+            NULL_OUTPUT,
+            HEADER_SYSTEM_MAP
+        );
+    }
+    
+    /**
+     * Returns whether the audit parameter asks for the audit to be formatted
+     *
+     * @param parameters The names of the parameters mapped to their values
+     * @return True if the audit parameter is "text", or false if it is "none"
+     * @throws IllegalArgumentException Thrown if the audit parameter is not "text" or "none"
+     */
+    static boolean getAuditParameter(final Map<String, String> parameters) throws IllegalArgumentException {
+        final String audit = parameters.get("audit");
+        if(!"text".equals(audit) && !"none".equals(audit)) {
+            throw new IllegalArgumentException(String.format("The audit must be text or none but was %s", audit));
+        }
+        return "text".equals(audit);
+    }
+    
+    /**
+     * Returns the integer value of the given parameter
+     *
+     * @param parameters The names of the parameters mapped to their values
+     * @param name       The name of the parameter to retrieve
+     * @return The integer value of the given parameter
+     * @throws IllegalArgumentException Thrown if the parameter is not a positive integer
+     */
+    static int getPositiveIntParameter(final Map<String, String> parameters, final String name) throws IllegalArgumentException {
+        final int value;
+        try {
+            value = Integer.parseInt(parameters.get(name));
+        }
+        catch(NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("The parameter %s must be an integer but was %s", name, parameters.get(name)));
+        }
+        if(value < 1) {
+            throw new IllegalArgumentException(String.format("The parameter %s must be positive but was %d", name, value));
+        }
+        return value;
+    }
+    
+}
@@ -0,0 +1,491 @@
+/*
+ * File name:
+ * BenchmarkRunner.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Runs the benchmarks for the core data types and election engines and writes their results in a machine-readable form
+ */
+
+package org.team19;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Runs {@link Benchmark}s in the average time mode and writes the results as JSON or CSV in the same layout as JMH so that results from different
+ * releases can be compared with the same tools
+ * <p></p>
+ * Usage: {@code BenchmarkRunner [options] [benchmark regexes...]}, where the options are as follows:
+ * <ul>
+ *     <li>{@code -l}: list the benchmarks and their default parameters and exit</li>
+ *     <li>{@code -p name=v1,v2,...}: run with the given values of a parameter instead of its defaults</li>
+ *     <li>{@code -wi n}: the number of warmup iterations (default 3)</li>
+ *     <li>{@code -i n}: the number of measurement iterations (default 5)</li>
+ *     <li>{@code -r seconds}: the minimum duration of each iteration (default 1)</li>
+ *     <li>{@code -tu ns|us|ms|s}: the time unit of the scores (default us)</li>
+ *     <li>{@code -rf json|csv}: the format of the result file (default json)</li>
+ *     <li>{@code -rff path}: the path of the result file (default benchmark-result.[format])</li>
+ * </ul>
+ * If an option is not valid, then the usage is printed to standard error and the runner exits with code 64
+ * <p></p>
+ * Every benchmark runs in this JVM one after another; to compare releases, run each release's benchmarks in a fresh JVM with the same options
+ */
+public final class BenchmarkRunner {
+    
+    /**
+     * The suppliers of each of the available {@link Benchmark}s
+     */
+    private static final List<Supplier<Benchmark>> BENCHMARKS = List.of(
+        FractionBenchmark::new,
+        InstantRunoffBenchmark::new,
+        OpenPartyListBenchmark::new,
+        TableFormatterBenchmark::new
+    );
+    
+    /**
+     * The two-sided 99.9% critical values of Student's t-distribution for 1 through 30 degrees of freedom, which are used for the score error in
+     * the same manner as JMH
+     */
+    private static final double[] T_CRITICAL_VALUES = {
+        636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587, 4.437, 4.318, 4.221, 4.140, 4.073,
+        4.015, 3.965, 3.922, 3.883, 3.850, 3.819, 3.792, 3.768, 3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646
+    };
+    
+    /**
+     * The two-sided 99.9% critical value of the normal distribution, which is used for more than 30 degrees of freedom
+     */
+    private static final double Z_CRITICAL_VALUE = 3.291;
+    
+    /**
+     * The values returned by the benchmarks, which is written after every iteration so that the work of the benchmarks cannot be optimized away
+     */
+    @SuppressWarnings("unused")
+    private static volatile long sink;
+    
+    /**
+     * Prevents {@link BenchmarkRunner} from being instantiated
+     */
+    private BenchmarkRunner() {}
+    
+    /**
+     * Represents the results of running a {@link Benchmark} with one combination of parameter values
+     */
+    private static final class Result {
+        
+        /**
+         * The fully-qualified name of the {@link Benchmark}
+         */
+        private final String benchmark;
+        
+        /**
+         * The names of the parameters mapped to their values
+         */
+        private final Map<String, String> parameters;
+        
+        /**
+         * The average time per operation of each measurement iteration in the chosen time unit
+         */
+        private final double[] scores;
+        
+        /**
+         * Initializes a {@link Result}
+         *
+         * @param benchmark  The fully-qualified name of the {@link Benchmark}
+         * @param parameters The names of the parameters mapped to their values
+         * @param scores     The average time per operation of each measurement iteration in the chosen time unit
+         */
+        private Result(final String benchmark, final Map<String, String> parameters, final double[] scores) {
+            this.benchmark = benchmark;
+            this.parameters = parameters;
+            this.scores = scores;
+        }
+        
+        /**
+         * Returns the mean of the scores
+         *
+         * @return The mean of the scores
+         */
+        private double getScore() {
+            return Arrays.stream(scores).average().orElse(Double.NaN);
+        }
+        
+        /**
+         * Returns the half-width of the 99.9% confidence interval of the mean of the scores, or NaN if there is only one score
+         *
+         * @return The half-width of the 99.9% confidence interval of the mean of the scores
+         */
+        private double getScoreError() {
+            final int n = scores.length;
+            if(n < 2) {
+                return Double.NaN;
+            }
+            final double mean = getScore();
+            double sumSquares = 0;
+            for(final double score : scores) {
+                sumSquares += (score - mean) * (score - mean);
+            }
+            final double standardDeviation = Math.sqrt(sumSquares / (n - 1));
+            final double criticalValue = n - 1 <= T_CRITICAL_VALUES.length ? T_CRITICAL_VALUES[n - 2] : Z_CRITICAL_VALUE;
+            return criticalValue * standardDeviation / Math.sqrt(n);
+        }
+        
+    }
+    
+    /**
+     * Returns every combination of the given parameter values, varying the last parameter the fastest
+     *
+     * @param parameters The names of the parameters mapped to their possible values
+     * @return Every combination of the given parameter values
+     */
+    private static List<Map<String, String>> getParameterCombinations(final Map<String, List<String>> parameters) {
+        List<Map<String, String>> combinations = List.of(new LinkedHashMap<>());
+        for(final Map.Entry<String, List<String>> parameter : parameters.entrySet()) {
+            final List<Map<String, String>> newCombinations = new ArrayList<>();
+            for(final Map<String, String> combination : combinations) {
+                for(final String value : parameter.getValue()) {
+                    final Map<String, String> newCombination = new LinkedHashMap<>(combination);
+                    newCombination.put(parameter.getKey(), value);
+                    newCombinations.add(newCombination);
+                }
+            }
+            combinations = newCombinations;
+        }
+        return combinations;
+    }
+    
+    /**
+     * Runs a single iteration of the given {@link Benchmark} for at least the given duration and returns the average time per operation
+     *
+     * @param benchmark       The {@link Benchmark} to run
+     * @param iterationNanos  The minimum duration of the iteration in nanoseconds
+     * @param nanosPerUnit    The number of nanoseconds in the chosen time unit
+     * @return The average time per operation in the chosen time unit
+     * @throws Exception Thrown if there is an issue in running the benchmark
+     */
+    private static double runIteration(final Benchmark benchmark, final long iterationNanos, final long nanosPerUnit) throws Exception {
+        final long iterationStart = System.nanoTime();
+        long measuredNanos = 0;
+        long operations = 0;
+        long values = 0;
+        
+        //Run invocations until the duration is reached, only timing the invocations themselves
+        do {
+            benchmark.setUpInvocation();
+            final long invocationStart = System.nanoTime();
+            values += benchmark.run();
+            measuredNanos += System.nanoTime() - invocationStart;
+            operations += benchmark.getOperationsPerInvocation();
+        }
+        while(System.nanoTime() - iterationStart < iterationNanos);
+        
+        sink = values;
+        return (double) measuredNanos / operations / nanosPerUnit;
+    }
+    
+    /**
+     * Returns the JSON string literal for the given string
+     *
+     * @param str The string to convert
+     * @return The JSON string literal for the given string
+     */
+    private static String toJsonString(final String str) {
+        return '"' + str.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+    
+    /**
+     * Returns the JSON number for the given value, which is the string "NaN" if the value is not finite, as in JMH
+     *
+     * @param value The value to convert
+     * @return The JSON number for the given value
+     */
+    private static String toJsonNumber(final double value) {
+        return Double.isFinite(value) ? String.valueOf(value) : "\"NaN\"";
+    }
+    
+    /**
+     * Writes the results in the JSON format of JMH
+     *
+     * @param writer            The {@link PrintWriter} to which to write
+     * @param results           The results to write
+     * @param warmupIterations  The number of warmup iterations
+     * @param iterations        The number of measurement iterations
+     * @param iterationSeconds  The minimum duration of each iteration in seconds
+     * @param unit              The abbreviation of the time unit of the scores
+     */
+    private static void writeJson(final PrintWriter writer, final List<Result> results, final int warmupIterations, final int iterations,
+        final int iterationSeconds, final String unit) {
+        writer.println("[");
+        for(int i = 0; i < results.size(); i++) {
+            final Result result = results.get(i);
+            final double score = result.getScore();
+            final double scoreError = result.getScoreError();
+            
+            writer.println("    {");
+            writer.printf("        \"benchmark\" : %s,\n", toJsonString(result.benchmark));
+            writer.println("        \"mode\" : \"avgt\",");
+            writer.println("        \"threads\" : 1,");
+            writer.println("        \"forks\" : 0,");
+            writer.printf("        \"jvm\" : %s,\n", toJsonString(System.getProperty("java.home")));
+            writer.printf("        \"jdkVersion\" : %s,\n", toJsonString(System.getProperty("java.version")));
+            writer.printf("        \"warmupIterations\" : %d,\n", warmupIterations);
+            writer.printf("        \"warmupTime\" : \"%d s\",\n", iterationSeconds);
+            writer.printf("        \"measurementIterations\" : %d,\n", iterations);
+            writer.printf("        \"measurementTime\" : \"%d s\",\n", iterationSeconds);
+            writer.printf("        \"params\" : {%s},\n", result.parameters.entrySet().stream()
+                .map(parameter -> String.format("%s : %s", toJsonString(parameter.getKey()), toJsonString(parameter.getValue())))
+                .collect(Collectors.joining(", ")));
+            writer.println("        \"primaryMetric\" : {");
+            writer.printf("            \"score\" : %s,\n", toJsonNumber(score));
+            writer.printf("            \"scoreError\" : %s,\n", toJsonNumber(scoreError));
+            writer.printf("            \"scoreConfidence\" : [%s, %s],\n", toJsonNumber(score - scoreError), toJsonNumber(score + scoreError));
+            writer.printf("            \"scoreUnit\" : \"%s/op\",\n", unit);
+            writer.printf("            \"rawData\" : [[%s]]\n", Arrays.stream(result.scores)
+                .mapToObj(BenchmarkRunner::toJsonNumber)
+                .collect(Collectors.joining(", ")));
+            writer.println("        },");
+            writer.println("        \"secondaryMetrics\" : {}");
+            writer.println(i == results.size() - 1 ? "    }" : "    },");
+        }
+        writer.println("]");
+    }
+    
+    /**
+     * Writes the results in the CSV format of JMH, with a column for each parameter used by any of the results
+     *
+     * @param writer     The {@link PrintWriter} to which to write
+     * @param results    The results to write
+     * @param iterations The number of measurement iterations
+     * @param unit       The abbreviation of the time unit of the scores
+     */
+    private static void writeCsv(final PrintWriter writer, final List<Result> results, final int iterations, final String unit) {
+        final Set<String> parameterNames = new LinkedHashSet<>();
+        for(final Result result : results) {
+            parameterNames.addAll(result.parameters.keySet());
+        }
+        
+        writer.print("\"Benchmark\",\"Mode\",\"Threads\",\"Samples\",\"Score\",\"Score Error (99.9%)\",\"Unit\"");
+        for(final String parameterName : parameterNames) {
+            writer.printf(",\"Param: %s\"", parameterName);
+        }
+        writer.println();
+        
+        for(final Result result : results) {
+            writer.printf(Locale.ROOT, "\"%s\",\"avgt\",1,%d,%f,%f,\"%s/op\"", result.benchmark, iterations, result.getScore(),
+                result.getScoreError(), unit);
+            for(final String parameterName : parameterNames) {
+                writer.printf(",%s", result.parameters.getOrDefault(parameterName, ""));
+            }
+            writer.println();
+        }
+    }
+    
+    /**
+     * Returns the value of the option at the given index
+     *
+     * @param args  The command-line arguments
+     * @param index The index of the option's value
+     * @return The value of the option at the given index
+     * @throws IllegalArgumentException Thrown if the option does not have a value
+     */
+    private static String getOptionValue(final String[] args, final int index) throws IllegalArgumentException {
+        if(index >= args.length) {
+            throw new IllegalArgumentException(String.format("The option %s requires a value", args[index - 1]));
+        }
+        return args[index];
+    }
+    
+    /**
+     * Prints the usage of {@link #main(String...)} to standard error and exits with the usage error code
+     *
+     * @param message The message explaining what was wrong with the arguments
+     */
+    private static void exitWithUsage(final String message) {
+        System.err.println(message);
+        System.err.println("Usage: BenchmarkRunner [-l] [-p name=v1,v2,...] [-wi n] [-i n] [-r seconds] [-tu ns|us|ms|s] [-rf json|csv] [-rff path] "
+            + "[benchmark regexes...]");
+        final int usageExitCode = 64;
+        System.exit(usageExitCode);
+    }
+    
+    /**
+     * Runs the benchmarks selected by the given command-line arguments and writes their results
+     *
+     * @param args The command-line arguments, as described in {@link BenchmarkRunner}
+     * @throws Exception Thrown if there is an issue in running a benchmark or writing the results
+     */
+    public static void main(final String... args) throws Exception {
+        boolean list = false;
+        int warmupIterations = 3;
+        int iterations = 5;
+        int iterationSeconds = 1;
+        TimeUnit timeUnit = TimeUnit.MICROSECONDS;
+        String resultFormat = "json";
+        String resultFile = null;
+        final Map<String, List<String>> parameterOverrides = new LinkedHashMap<>();
+        final List<Pattern> filters = new ArrayList<>();
+        
+        //Parse the command-line arguments, exiting with the usage if any of them is not valid
+        try {
+            for(int i = 0; i < args.length; i++) {
+                switch(args[i]) {
+                    case "-l":
+                        list = true;
+                        break;
+                    case "-p":
+                        final String parameter = getOptionValue(args, ++i);
+                        final int equalsIndex = parameter.indexOf('=');
+                        if(equalsIndex < 1) {
+                            throw new IllegalArgumentException(String.format("The parameter %s must be in the form name=v1,v2,...", parameter));
+                        }
+                        parameterOverrides.put(parameter.substring(0, equalsIndex), List.of(parameter.substring(equalsIndex + 1).split(",")));
+                        break;
+                    case "-wi":
+                        warmupIterations = Integer.parseInt(getOptionValue(args, ++i));
+                        break;
+                    case "-i":
+                        iterations = Integer.parseInt(getOptionValue(args, ++i));
+                        break;
+                    case "-r":
+                        iterationSeconds = Integer.parseInt(getOptionValue(args, ++i));
+                        break;
+                    case "-tu":
+                        final String unitOption = getOptionValue(args, ++i);
+                        timeUnit = Map.of("ns", TimeUnit.NANOSECONDS, "us", TimeUnit.MICROSECONDS, "ms", TimeUnit.MILLISECONDS, "s", TimeUnit.SECONDS)
+                            .get(unitOption);
+                        if(timeUnit == null) {
+                            throw new IllegalArgumentException(String.format("The time unit %s is not one of ns, us, ms, or s", unitOption));
+                        }
+                        break;
+                    case "-rf":
+                        resultFormat = getOptionValue(args, ++i);
+                        if(!"json".equals(resultFormat) && !"csv".equals(resultFormat)) {
+                            throw new IllegalArgumentException(String.format("The result format %s is not one of json or csv", resultFormat));
+                        }
+                        break;
+                    case "-rff":
+                        resultFile = getOptionValue(args, ++i);
+                        break;
+                    default:
+                        filters.add(Pattern.compile(args[i]));
+                }
+            }
+        }
+        catch(NumberFormatException e) {
+            exitWithUsage(String.format("An option value was not a valid integer: %s", e.getMessage()));
+        }
+        catch(IllegalArgumentException e) {
+            exitWithUsage(e.getMessage());
+        }
+        if(iterations < 1 || warmupIterations < 0 || iterationSeconds < 1) {
+            exitWithUsage("There must be at least one measurement iteration and each iteration must be at least one second");
+        }
+        if(resultFile == null) {
+            resultFile = "benchmark-result." + resultFormat;
+        }
+        
+        final String unit = Map.of(
+            TimeUnit.NANOSECONDS, "ns", TimeUnit.MICROSECONDS, "us", TimeUnit.MILLISECONDS, "ms", TimeUnit.SECONDS, "s"
+        ).get(timeUnit);
+        final long nanosPerUnit = timeUnit.toNanos(1);
+        final long iterationNanos = TimeUnit.SECONDS.toNanos(iterationSeconds);
+        
+        //The election engines print their results to STDOUT, so it is redirected to a null device print stream while the benchmarks run
+        final PrintStream originalSystemOut = System.out;
+        final List<Result> results = new ArrayList<>();
+        
+        try {
+            System.setOut(new PrintStream(BenchmarkInputs.NULL_OUTPUT));
+            
+            for(final Supplier<Benchmark> benchmarkSupplier : BENCHMARKS) {
+                final Benchmark benchmark = benchmarkSupplier.get();
+                final String name = benchmark.getClass().getName();
+                
+                //Skip the benchmark if it does not match any of the filters
+                if(!filters.isEmpty() && filters.stream().noneMatch(filter -> filter.matcher(name).find())) {
+                    continue;
+                }
+                
+                //Replace the default values of any parameters that were given on the command line
+                final Map<String, List<String>> parameters = new LinkedHashMap<>(benchmark.getDefaultParameters());
+                if(list) {
+                    originalSystemOut.printf("%s %s\n", name, parameters);
+                    continue;
+                }
+                parameters.replaceAll((parameterName, values) -> parameterOverrides.getOrDefault(parameterName, values));
+                
+                for(final Map<String, String> combination : getParameterCombinations(parameters)) {
+                    originalSystemOut.printf("# Benchmark: %s %s\n", name, combination);
+                    benchmark.setUp(combination);
+                    
+                    for(int i = 1; i <= warmupIterations; i++) {
+                        final double score = runIteration(benchmark, iterationNanos, nanosPerUnit);
+                        originalSystemOut.printf(Locale.ROOT, "# Warmup Iteration %d: %.3f %s/op\n", i, score, unit);
+                    }
+                    
+                    final double[] scores = new double[iterations];
+                    for(int i = 0; i < iterations; i++) {
+                        scores[i] = runIteration(benchmark, iterationNanos, nanosPerUnit);
+                        originalSystemOut.printf(Locale.ROOT, "Iteration %d: %.3f %s/op\n", i + 1, scores[i], unit);
+                    }
+                    
+                    results.add(new Result(name, combination, scores));
+                }
+            }
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+        
+        if(list) {
+            return;
+        }
+        
+        //Print the summary of the results as a table
+        final TableFormatter tableFormatter = new TableFormatter('+', '-', '|');
+        System.out.println(tableFormatter.formatAsTable(
+            List.of("Benchmark", "Parameters", "Score", "Error", "Units"),
+            List.of(
+                results.stream().map(result -> result.benchmark.substring(result.benchmark.lastIndexOf('.') + 1)).collect(Collectors.toList()),
+                results.stream().map(result -> result.parameters.toString()).collect(Collectors.toList()),
+                results.stream().map(result -> String.format(Locale.ROOT, "%.3f", result.getScore())).collect(Collectors.toList()),
+                results.stream().map(result -> String.format(Locale.ROOT, "+/- %.3f", result.getScoreError())).collect(Collectors.toList()),
+                results.stream().map(result -> unit + "/op").collect(Collectors.toList())
+            ),
+            List.of(TableFormatter.Alignment.LEFT, TableFormatter.Alignment.LEFT, TableFormatter.Alignment.RIGHT, TableFormatter.Alignment.RIGHT,
+                TableFormatter.Alignment.LEFT)
+        ));
+        
+        //Write the results to the result file
+        try(final PrintWriter writer = new PrintWriter(resultFile)) {
+            if("json".equals(resultFormat)) {
+                writeJson(writer, results, warmupIterations, iterations, iterationSeconds, unit);
+            }
+            else {
+                writeCsv(writer, results, iterations, unit);
+            }
+        }
+        catch(FileNotFoundException e) {
+            System.err.printf("Unable to write the results to %s\n", resultFile);
+            System.exit(1);
+        }
+        System.out.printf("Results written to %s\n", resultFile);
+    }
+    
+}
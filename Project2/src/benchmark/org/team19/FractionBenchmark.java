@@ -0,0 +1,146 @@
+/*
+ * File name:
+ * FractionBenchmark.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Benchmarks the arithmetic and comparison of Fraction and FractionAccumulator
+ */
+
+package org.team19;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmarks a single {@link Fraction} or {@link FractionAccumulator} operation applied to each consecutive pair of an array of random fractions
+ */
+public final class FractionBenchmark implements Benchmark {
+    
+    /**
+     * The operation to time, which is one of "gcd", "add", "multiply", "compare", "compareRaw", or "accumulate"
+     */
+    private String operation;
+    
+    /**
+     * The numerators of the random fractions
+     */
+    private long[] numerators;
+    
+    /**
+     * The positive denominators of the random fractions
+     */
+    private long[] denominators;
+    
+    /**
+     * The random fractions, which are made of the numerators and denominators
+     */
+    private Fraction[] fractions;
+    
+    /**
+     * Initializes a {@link FractionBenchmark}
+     */
+    public FractionBenchmark() {}
+    
+    /**
+     * Returns the names of the parameters of this {@link Benchmark} mapped to their default values
+     *
+     * @return The names of the parameters of this {@link Benchmark} mapped to their default values
+     */
+    @Override
+    public Map<String, List<String>> getDefaultParameters() {
+        final Map<String, List<String>> defaultParameters = new LinkedHashMap<>();
+        defaultParameters.put("operation", List.of("gcd", "add", "multiply", "compare", "compareRaw", "accumulate"));
+        defaultParameters.put("size", List.of("1024"));
+        return defaultParameters;
+    }
+    
+    /**
+     * Generates the random fractions, whose numerators and denominators are below 2^20 so that all of the operations stay on the long path
+     *
+     * @param parameters The names of the parameters mapped to their values for the upcoming runs
+     * @throws IllegalArgumentException Thrown if the operation is not supported or if the size is not a positive integer
+     */
+    @Override
+    public void setUp(final Map<String, String> parameters) throws IllegalArgumentException {
+        operation = parameters.get("operation");
+        if(!List.of("gcd", "add", "multiply", "compare", "compareRaw", "accumulate").contains(operation)) {
+            throw new IllegalArgumentException(String.format("The operation %s is not supported", operation));
+        }
+        
+        final int size = BenchmarkInputs.getPositiveIntParameter(parameters, "size");
+        final Random rand = new Random(BenchmarkInputs.SEED);
+        numerators = new long[size + 1];
+        denominators = new long[size + 1];
+        fractions = new Fraction[size + 1];
+        for(int i = 0; i <= size; i++) {
+            numerators[i] = rand.nextInt(1 << 20) - (1 << 19);
+            denominators[i] = rand.nextInt(1 << 20) + 1;
+            fractions[i] = new Fraction(numerators[i], denominators[i]);
+        }
+    }
+    
+    /**
+     * Applies the operation to each consecutive pair of fractions
+     *
+     * @return A value combining the results of the operations
+     */
+    @Override
+    public long run() {
+        final int size = fractions.length - 1;
+        long result = 0;
+        switch(operation) {
+            case "gcd":
+                for(int i = 0; i < size; i++) {
+                    result += Fraction.gcd(Math.abs(numerators[i]), denominators[i + 1]);
+                }
+                break;
+            case "add":
+                for(int i = 0; i < size; i++) {
+                    result += fractions[i].add(fractions[i + 1]).denominator;
+                }
+                break;
+            case "multiply":
+                for(int i = 0; i < size; i++) {
+                    result += fractions[i].multiply(fractions[i + 1]).denominator;
+                }
+                break;
+            case "compare":
+                for(int i = 0; i < size; i++) {
+                    result += fractions[i].compareTo(fractions[i + 1]);
+                }
+                break;
+            case "compareRaw":
+                for(int i = 0; i < size; i++) {
+                    result += Fraction.compare(numerators[i], denominators[i], numerators[i + 1], denominators[i + 1]);
+                }
+                break;
+            default:
+                //Add every fraction to a single accumulator, truncating it to its whole part after every 2 additions to keep the denominator below 2^40
+                final FractionAccumulator accumulator = new FractionAccumulator();
+                for(int i = 0; i < size; i++) {
+                    accumulator.add(numerators[i], denominators[i]);
+                    if(i % 2 == 1) {
+                        accumulator.set(accumulator.getWholePart(), 1);
+                    }
+                }
+                result = accumulator.getNumerator();
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the number of fractions to which the operation is applied in each invocation
+     *
+     * @return The number of fractions to which the operation is applied in each invocation
+     */
+    @Override
+    public int getOperationsPerInvocation() {
+        return fractions.length - 1;
+    }
+    
+}
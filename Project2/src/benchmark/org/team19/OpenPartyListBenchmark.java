@@ -0,0 +1,113 @@
+/*
+ * File name:
+ * OpenPartyListBenchmark.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Benchmarks the parsing of ballots and the seat allocation of OpenPartyListSystem
+ */
+
+package org.team19;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmarks {@link OpenPartyListSystem} on generated elections, either parsing an entire election file or running the seat allocation of an
+ * already-parsed election
+ */
+public final class OpenPartyListBenchmark implements Benchmark {
+    
+    /**
+     * The phase of the election to time, which is either "parse" or "election"
+     */
+    private String phase;
+    
+    /**
+     * The contents of the generated election file
+     */
+    private byte[] election;
+    
+    /**
+     * Whether the audit is formatted, or skipped with {@link VotingSystem#NO_AUDIT}
+     */
+    private boolean audited;
+    
+    /**
+     * The freshly-parsed {@link OpenPartyListSystem} on which the next election is run
+     */
+    private OpenPartyListSystem openPartyListSystem;
+    
+    /**
+     * Initializes an {@link OpenPartyListBenchmark}
+     */
+    public OpenPartyListBenchmark() {}
+    
+    /**
+     * Returns the names of the parameters of this {@link Benchmark} mapped to their default values
+     *
+     * @return The names of the parameters of this {@link Benchmark} mapped to their default values
+     */
+    @Override
+    public Map<String, List<String>> getDefaultParameters() {
+        final Map<String, List<String>> defaultParameters = new LinkedHashMap<>();
+        defaultParameters.put("phase", List.of("parse", "election"));
+        defaultParameters.put("candidates", List.of("8", "64"));
+        defaultParameters.put("ballots", List.of("10000", "100000"));
+        defaultParameters.put("audit", List.of("text", "none"));
+        return defaultParameters;
+    }
+    
+    /**
+     * Generates the election file for the given number of candidates and ballots
+     *
+     * @param parameters The names of the parameters mapped to their values for the upcoming runs
+     * @throws IllegalArgumentException Thrown if the phase is not "parse" or "election", if the counts are not positive integers, or if the audit is
+     *                                  not "text" or "none"
+     */
+    @Override
+    public void setUp(final Map<String, String> parameters) throws IllegalArgumentException {
+        phase = parameters.get("phase");
+        if(!"parse".equals(phase) && !"election".equals(phase)) {
+            throw new IllegalArgumentException(String.format("The phase must be parse or election but was %s", phase));
+        }
+        audited = BenchmarkInputs.getAuditParameter(parameters);
+        election = BenchmarkInputs.generateOpl(
+            BenchmarkInputs.getPositiveIntParameter(parameters, "candidates"),
+            BenchmarkInputs.getPositiveIntParameter(parameters, "ballots")
+        );
+    }
+    
+    /**
+     * Parses a fresh {@link OpenPartyListSystem} if the election phase is being timed
+     *
+     * @throws Exception Thrown if there is an issue in parsing the election
+     */
+    @Override
+    public void setUpInvocation() throws Exception {
+        if("election".equals(phase)) {
+            openPartyListSystem = (OpenPartyListSystem) BenchmarkInputs.parse(election, audited);
+            openPartyListSystem.rand = new Random(BenchmarkInputs.SEED);
+        }
+    }
+    
+    /**
+     * Parses the election or runs the seat allocation, depending on the phase
+     *
+     * @return The number of ballots in the election
+     * @throws Exception Thrown if there is an issue in parsing the election
+     */
+    @Override
+    public long run() throws Exception {
+        if("parse".equals(phase)) {
+            return BenchmarkInputs.parse(election, audited).getNumBallots();
+        }
+        openPartyListSystem.runElection();
+        return openPartyListSystem.getNumBallots();
+    }
+    
+}
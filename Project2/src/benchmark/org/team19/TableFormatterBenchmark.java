@@ -0,0 +1,148 @@
+/*
+ * File name:
+ * TableFormatterBenchmark.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Benchmarks the rendering of tables by TableFormatter
+ */
+
+package org.team19;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmarks rendering a table with a column of names and columns of integers, either from boxed lists through
+ * {@link TableFormatter#formatAsTable(List, java.util.Collection, List)} or from primitive arrays through
+ * {@link TableFormatter#formatColumnsAsTable(List, List, List)}
+ */
+public final class TableFormatterBenchmark implements Benchmark {
+    
+    /**
+     * The {@link TableFormatter} used to render the tables
+     */
+    private final TableFormatter tableFormatter = new TableFormatter('+', '-', '|');
+    
+    /**
+     * Whether the table is rendered from {@link TableFormatter.Column}s rather than boxed lists
+     */
+    private boolean columnar;
+    
+    /**
+     * The headers of the table
+     */
+    private List<String> headers;
+    
+    /**
+     * The alignments of the columns of the table
+     */
+    private List<TableFormatter.Alignment> alignments;
+    
+    /**
+     * The number of rows in the table, excluding the header
+     */
+    private int numRows;
+    
+    /**
+     * The names in the first column of the table
+     */
+    private String[] names;
+    
+    /**
+     * The integers in the remaining columns of the table
+     */
+    private int[][] values;
+    
+    /**
+     * Initializes a {@link TableFormatterBenchmark}
+     */
+    public TableFormatterBenchmark() {}
+    
+    /**
+     * Returns the names of the parameters of this {@link Benchmark} mapped to their default values
+     *
+     * @return The names of the parameters of this {@link Benchmark} mapped to their default values
+     */
+    @Override
+    public Map<String, List<String>> getDefaultParameters() {
+        final Map<String, List<String>> defaultParameters = new LinkedHashMap<>();
+        defaultParameters.put("api", List.of("lists", "columns"));
+        defaultParameters.put("rows", List.of("8", "512"));
+        defaultParameters.put("columns", List.of("3", "7"));
+        return defaultParameters;
+    }
+    
+    /**
+     * Generates the random contents of the table
+     *
+     * @param parameters The names of the parameters mapped to their values for the upcoming runs
+     * @throws IllegalArgumentException Thrown if the api is not "lists" or "columns" or if the counts are not positive integers
+     */
+    @Override
+    public void setUp(final Map<String, String> parameters) throws IllegalArgumentException {
+        final String api = parameters.get("api");
+        if(!"lists".equals(api) && !"columns".equals(api)) {
+            throw new IllegalArgumentException(String.format("The api must be lists or columns but was %s", api));
+        }
+        columnar = "columns".equals(api);
+        numRows = BenchmarkInputs.getPositiveIntParameter(parameters, "rows");
+        final int numCols = BenchmarkInputs.getPositiveIntParameter(parameters, "columns");
+        
+        final Random rand = new Random(BenchmarkInputs.SEED);
+        headers = new ArrayList<>();
+        alignments = new ArrayList<>();
+        names = new String[numRows];
+        values = new int[numCols - 1][numRows];
+        
+        headers.add("Party");
+        alignments.add(TableFormatter.Alignment.LEFT);
+        for(int row = 0; row < numRows; row++) {
+            names[row] = "P" + row;
+        }
+        for(int col = 0; col < numCols - 1; col++) {
+            headers.add("Column " + col);
+            alignments.add(TableFormatter.Alignment.RIGHT);
+            for(int row = 0; row < numRows; row++) {
+                values[col][row] = rand.nextInt(1000000);
+            }
+        }
+    }
+    
+    /**
+     * Renders the table
+     *
+     * @return The length of the rendered table
+     */
+    @Override
+    public long run() {
+        if(columnar) {
+            final List<TableFormatter.Column> columns = new ArrayList<>();
+            columns.add(TableFormatter.Column.of(names, numRows));
+            for(final int[] column : values) {
+                columns.add(TableFormatter.Column.of(column, numRows));
+            }
+            return tableFormatter.formatColumnsAsTable(headers, columns, alignments).length();
+        }
+        
+        final List<List<?>> columns = new ArrayList<>();
+        final List<String> nameColumn = new ArrayList<>(numRows);
+        Collections.addAll(nameColumn, names);
+        columns.add(nameColumn);
+        for(final int[] column : values) {
+            final List<Integer> valueColumn = new ArrayList<>(numRows);
+            for(final int value : column) {
+                valueColumn.add(value);
+            }
+            columns.add(valueColumn);
+        }
+        return tableFormatter.formatAsTable(headers, columns, alignments).length();
+    }
+    
+}
@@ -0,0 +1,615 @@
+/*
+ * File name:
+ * AuditEventLog.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * An audit output that records the per-ballot steps of an election as compact binary events in an append-only log instead of formatting them as
+ * text, which AuditRenderer turns back into the exact text audit when it is needed
+ */
+
+package org.team19;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An audit output that records the per-ballot steps of an election as compact binary events in an append-only log instead of formatting them as
+ * text
+ * <p></p>
+ * Giving an {@link AuditEventLog} to a {@link VotingSystem} as its audit output puts it in binary audit mode: the steps repeated for every ballot,
+ * such as a ballot choosing a candidate or being transferred from an eliminated candidate, are written as an opcode followed by variable-length
+ * integers, and every other line of the audit is kept as a text event. {@link AuditRenderer} reproduces the exact text audit from the log
+ * <p></p>
+ * Each candidate's name is written once, the first time an event refers to it, and later events refer to it by its index. The log starts with
+ * {@link #MAGIC} followed by {@link #VERSION}
+ * <p></p>
+ * Like a {@link PrintWriter}, the events never throw an {@link IOException}; instead, {@link #checkError()} returns true once writing has failed
+ */
+public final class AuditEventLog extends OutputStream {
+    
+    /**
+     * The bytes at the start of every audit event log
+     */
+    static final byte[] MAGIC = {'T', '1', '9', 'A'};
+    
+    /**
+     * The version of the audit event log format
+     */
+    static final int VERSION = 1;
+    
+    /**
+     * The event of text written to the audit, followed by the length and bytes of the text in UTF-8
+     */
+    static final int TEXT = 1;
+    
+    /**
+     * The event of bytes written directly to the audit output, followed by their length and the bytes themselves
+     */
+    static final int BYTES = 2;
+    
+    /**
+     * The event of a candidate first being referred to, followed by the length and bytes of its name in UTF-8, where the candidates are indexed in
+     * the order they are defined
+     */
+    static final int CANDIDATE = 3;
+    
+    /**
+     * The event of an OPL ballot choosing a candidate, followed by the ballot number and the candidate's index
+     */
+    static final int BALLOT_CHOSE = 4;
+    
+    /**
+     * The event of the start of an IR ballot's rankings, followed by the ballot number
+     */
+    static final int BALLOT_RANKINGS = 5;
+    
+    /**
+     * The event of one ranking of an IR ballot, followed by the rank and the candidate's index
+     */
+    static final int RANKING = 6;
+    
+    /**
+     * The event of an IR ballot going to its first ranked candidate, followed by the ballot number and the candidate's index
+     */
+    static final int BALLOT_GOES_TO = 7;
+    
+    /**
+     * The event of an IR ballot being invalidated, followed by the ballot number
+     */
+    static final int BALLOT_INVALIDATED = 8;
+    
+    /**
+     * The event of IR ballots skipping an eliminated next choice, followed by the first ballot number, the number of ballots, and the indices of
+     * the eliminated candidate whose ballots are being transferred and of the eliminated next choice
+     */
+    static final int BALLOTS_SKIPPED = 9;
+    
+    /**
+     * The event of IR ballots having no more candidates ranked, followed by the first ballot number, the number of ballots, and the index of the
+     * eliminated candidate whose ballots are being transferred
+     */
+    static final int BALLOTS_EXHAUSTED = 10;
+    
+    /**
+     * The event of IR ballots being transferred to their next choice, followed by the first ballot number, the number of ballots, and the index of
+     * the next choice
+     */
+    static final int BALLOTS_TRANSFERRED = 11;
+    
+    /**
+     * The event of a pre-aggregated OPL ballot count line choosing a candidate, followed by the first ballot number, the number of ballots, and the
+     * candidate's index
+     */
+    static final int BALLOTS_CHOSE = 12;
+    
+    /**
+     * The event of the start of the rankings of a pre-aggregated IR ballot count line, followed by the first ballot number and the number of
+     * ballots
+     */
+    static final int BALLOTS_RANKINGS = 13;
+    
+    /**
+     * The event of the ballots of a pre-aggregated IR ballot count line going to their first ranked candidate, followed by the first ballot
+     * number, the number of ballots, and the candidate's index
+     */
+    static final int BALLOTS_GO_TO = 14;
+    
+    /**
+     * The event of the ballots of a pre-aggregated IR ballot count line being invalidated, followed by the first ballot number and the number of
+     * ballots
+     */
+    static final int BALLOTS_INVALIDATED = 15;
+    
+    /**
+     * The event of the end of the rankings of a pre-aggregated IR ballot count line with no ballots
+     */
+    static final int NO_BALLOTS_END = 16;
+    
+    /**
+     * The number of bytes buffered before they are written to the underlying {@link OutputStream}
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    /**
+     * The {@link OutputStream} to which the log is written
+     */
+    private final OutputStream output;
+    
+    /**
+     * The bytes of the log not yet written to the underlying {@link OutputStream}
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    
+    /**
+     * The number of bytes in the buffer
+     */
+    private int bufferSize = 0;
+    
+    /**
+     * The text written to the audit since the last event, which is written as a single text event before the next one
+     */
+    private final StringBuilder pendingText = new StringBuilder();
+    
+    /**
+     * The candidates referred to so far mapped to their indices
+     */
+    private final Map<Candidate, Integer> candidateIndices = new IdentityHashMap<>();
+    
+    /**
+     * The {@link PrintWriter} through which the {@link VotingSystem} writes the text of the audit
+     */
+    private final PrintWriter textWriter = new PrintWriter(new TextWriter());
+    
+    /**
+     * Whether writing the log has failed
+     */
+    private boolean error = false;
+    
+    /**
+     * Whether the log has been closed
+     */
+    private boolean closed = false;
+    
+    /**
+     * Creates an {@link AuditEventLog} that writes to the given {@link OutputStream}
+     *
+     * @param output The {@link OutputStream} to which the log is written
+     * @throws NullPointerException Thrown if the output is null
+     */
+    public AuditEventLog(final OutputStream output) throws NullPointerException {
+        this.output = Objects.requireNonNull(output);
+        System.arraycopy(MAGIC, 0, buffer, 0, MAGIC.length);
+        bufferSize = MAGIC.length;
+        buffer[bufferSize++] = VERSION;
+    }
+    
+    /**
+     * Returns the {@link PrintWriter} through which the text of the audit is written, which keeps the text in order with the events
+     *
+     * @return The {@link PrintWriter} through which the text of the audit is written
+     */
+    PrintWriter getTextWriter() {
+        return textWriter;
+    }
+    
+    /**
+     * Returns whether writing the log has failed
+     *
+     * @return Whether writing the log has failed
+     */
+    public boolean checkError() {
+        return error;
+    }
+    
+    /**
+     * Writes the buffered bytes to the underlying {@link OutputStream}, recording any failure
+     */
+    private void drainBuffer() {
+        if(bufferSize != 0 && !error) {
+            try {
+                output.write(buffer, 0, bufferSize);
+            }
+            catch(IOException e) {
+                error = true;
+            }
+        }
+        bufferSize = 0;
+    }
+    
+    /**
+     * Adds a byte to the buffer
+     *
+     * @param value The byte to add
+     */
+    private void putByte(final int value) {
+        if(bufferSize == BUFFER_SIZE) {
+            drainBuffer();
+        }
+        buffer[bufferSize++] = (byte) value;
+    }
+    
+    /**
+     * Adds a nonnegative integer to the buffer as an unsigned variable-length integer of seven bits per byte, least significant first
+     *
+     * @param value The nonnegative integer to add
+     */
+    private void putVarint(int value) {
+        //Make sure that the largest variable-length integer fits so that the loop does not check for room
+        if(BUFFER_SIZE - bufferSize < 5) {
+            drainBuffer();
+        }
+        while((value & ~0x7F) != 0) {
+            buffer[bufferSize++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[bufferSize++] = (byte) value;
+    }
+    
+    /**
+     * Adds an event holding the given bytes to the buffer
+     *
+     * @param opcode The opcode of the event
+     * @param bytes  The array holding the bytes
+     * @param offset The position of the first byte in the array
+     * @param length The number of bytes
+     */
+    private void putBytesEvent(final int opcode, final byte[] bytes, final int offset, final int length) {
+        putByte(opcode);
+        putVarint(length);
+        if(length > BUFFER_SIZE - bufferSize) {
+            drainBuffer();
+            
+            //Bytes that would not fit in the buffer anyway are written directly
+            if(length > BUFFER_SIZE) {
+                if(!error) {
+                    try {
+                        output.write(bytes, offset, length);
+                    }
+                    catch(IOException e) {
+                        error = true;
+                    }
+                }
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buffer, bufferSize, length);
+        bufferSize += length;
+    }
+    
+    /**
+     * Writes the text written since the last event as a text event, if there is any
+     */
+    private void putPendingText() {
+        if(pendingText.length() != 0) {
+            final byte[] text = pendingText.toString().getBytes(StandardCharsets.UTF_8);
+            pendingText.setLength(0);
+            putBytesEvent(TEXT, text, 0, text.length);
+        }
+    }
+    
+    /**
+     * Starts an event, writing the pending text before it
+     *
+     * @param opcode The opcode of the event
+     */
+    private void startEvent(final int opcode) {
+        putPendingText();
+        putByte(opcode);
+    }
+    
+    /**
+     * Returns the index of the given candidate, defining it in the log if this is the first time it is referred to
+     *
+     * @param candidate The candidate of which to get the index
+     * @return The index of the candidate
+     */
+    private int getCandidateIndex(final Candidate candidate) {
+        final Integer index = candidateIndices.get(candidate);
+        if(index != null) {
+            return index;
+        }
+        
+        final byte[] name = candidate.toString().getBytes(StandardCharsets.UTF_8);
+        putPendingText();
+        putBytesEvent(CANDIDATE, name, 0, name.length);
+        final int newIndex = candidateIndices.size();
+        candidateIndices.put(candidate, newIndex);
+        return newIndex;
+    }
+    
+    /**
+     * Records an OPL ballot choosing a candidate
+     *
+     * @param ballotNumber The number of the ballot
+     * @param candidate    The candidate the ballot chose
+     */
+    void ballotChose(final int ballotNumber, final Candidate candidate) {
+        final int candidateIndex = getCandidateIndex(candidate);
+        startEvent(BALLOT_CHOSE);
+        putVarint(ballotNumber);
+        putVarint(candidateIndex);
+    }
+    
+    /**
+     * Records the start of an IR ballot's rankings
+     *
+     * @param ballotNumber The number of the ballot
+     */
+    void ballotRankings(final int ballotNumber) {
+        startEvent(BALLOT_RANKINGS);
+        putVarint(ballotNumber);
+    }
+    
+    /**
+     * Records one ranking of an IR ballot
+     *
+     * @param rank      The rank, starting at 1
+     * @param candidate The candidate given the rank
+     */
+    void ranking(final int rank, final Candidate candidate) {
+        final int candidateIndex = getCandidateIndex(candidate);
+        startEvent(RANKING);
+        putVarint(rank);
+        putVarint(candidateIndex);
+    }
+    
+    /**
+     * Records an IR ballot going to its first ranked candidate
+     *
+     * @param ballotNumber The number of the ballot
+     * @param candidate    The first ranked candidate of the ballot
+     */
+    void ballotGoesTo(final int ballotNumber, final Candidate candidate) {
+        final int candidateIndex = getCandidateIndex(candidate);
+        startEvent(BALLOT_GOES_TO);
+        putVarint(ballotNumber);
+        putVarint(candidateIndex);
+    }
+    
+    /**
+     * Records an IR ballot being invalidated for not ranking at least half of the candidates
+     *
+     * @param ballotNumber The number of the ballot
+     */
+    void ballotInvalidated(final int ballotNumber) {
+        startEvent(BALLOT_INVALIDATED);
+        putVarint(ballotNumber);
+    }
+    
+    /**
+     * Records IR ballots skipping a next choice that was already eliminated
+     *
+     * @param firstBallotNumber The number of the first of the ballots
+     * @param count             The number of ballots
+     * @param eliminated        The eliminated candidate whose ballots are being transferred
+     * @param nextChoice        The next choice of the ballots, which was already eliminated
+     */
+    void ballotsSkipped(final int firstBallotNumber, final int count, final Candidate eliminated, final Candidate nextChoice) {
+        final int eliminatedIndex = getCandidateIndex(eliminated);
+        final int nextChoiceIndex = getCandidateIndex(nextChoice);
+        startEvent(BALLOTS_SKIPPED);
+        putVarint(firstBallotNumber);
+        putVarint(count);
+        putVarint(eliminatedIndex);
+        putVarint(nextChoiceIndex);
+    }
+    
+    /**
+     * Records IR ballots having no more candidates ranked
+     *
+     * @param firstBallotNumber The number of the first of the ballots
+     * @param count             The number of ballots
+     * @param eliminated        The eliminated candidate whose ballots are being transferred
+     */
+    void ballotsExhausted(final int firstBallotNumber, final int count, final Candidate eliminated) {
+        final int eliminatedIndex = getCandidateIndex(eliminated);
+        startEvent(BALLOTS_EXHAUSTED);
+        putVarint(firstBallotNumber);
+        putVarint(count);
+        putVarint(eliminatedIndex);
+    }
+    
+    /**
+     * Records IR ballots being transferred to their next choice
+     *
+     * @param firstBallotNumber The number of the first of the ballots
+     * @param count             The number of ballots
+     * @param nextChoice        The next choice to which the ballots are transferred
+     */
+    void ballotsTransferred(final int firstBallotNumber, final int count, final Candidate nextChoice) {
+        final int nextChoiceIndex = getCandidateIndex(nextChoice);
+        startEvent(BALLOTS_TRANSFERRED);
+        putVarint(firstBallotNumber);
+        putVarint(count);
+        putVarint(nextChoiceIndex);
+    }
+    
+    /**
+     * Records the ballots of a pre-aggregated OPL ballot count line choosing a candidate
+     *
+     * @param firstBallotNumber The number of the first of the ballots
+     * @param count             The number of ballots, which may be 0
+     * @param candidate         The candidate the ballots chose
+     */
+    void ballotsChose(final int firstBallotNumber, final int count, final Candidate candidate) {
+        final int candidateIndex = getCandidateIndex(candidate);
+        startEvent(BALLOTS_CHOSE);
+        putVarint(firstBallotNumber);
+        putVarint(count);
+        putVarint(candidateIndex);
+    }
+    
+    /**
+     * Records the start of the rankings of a pre-aggregated IR ballot count line
+     *
+     * @param firstBallotNumber The number of the first of the ballots
+     * @param count             The number of ballots, which may be 0
+     */
+    void ballotsRankings(final int firstBallotNumber, final int count) {
+        startEvent(BALLOTS_RANKINGS);
+        putVarint(firstBallotNumber);
+        putVarint(count);
+    }
+    
+    /**
+     * Records the ballots of a pre-aggregated IR ballot count line going to their first ranked candidate
+     *
+     * @param firstBallotNumber The number of the first of the ballots
+     * @param count             The number of ballots
+     * @param candidate         The first ranked candidate of the ballots
+     */
+    void ballotsGoTo(final int firstBallotNumber, final int count, final Candidate candidate) {
+        final int candidateIndex = getCandidateIndex(candidate);
+        startEvent(BALLOTS_GO_TO);
+        putVarint(firstBallotNumber);
+        putVarint(count);
+        putVarint(candidateIndex);
+    }
+    
+    /**
+     * Records the ballots of a pre-aggregated IR ballot count line being invalidated for not ranking at least half of the candidates
+     *
+     * @param firstBallotNumber The number of the first of the ballots
+     * @param count             The number of ballots
+     */
+    void ballotsInvalidated(final int firstBallotNumber, final int count) {
+        startEvent(BALLOTS_INVALIDATED);
+        putVarint(firstBallotNumber);
+        putVarint(count);
+    }
+    
+    /**
+     * Records the end of the rankings of a pre-aggregated IR ballot count line with no ballots
+     */
+    void noBallotsEnd() {
+        startEvent(NO_BALLOTS_END);
+    }
+    
+    /**
+     * Records a byte written directly to the audit output
+     *
+     * @param value The byte to record
+     * @throws IOException Thrown if the log has been closed
+     */
+    @Override
+    public void write(final int value) throws IOException {
+        write(new byte[] {(byte) value}, 0, 1);
+    }
+    
+    /**
+     * Records bytes written directly to the audit output
+     *
+     * @param bytes  The array holding the bytes
+     * @param offset The position of the first byte in the array
+     * @param length The number of bytes
+     * @throws IOException Thrown if the log has been closed
+     */
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        if(closed) {
+            throw new IOException("The audit event log has been closed");
+        }
+        if(length != 0) {
+            putPendingText();
+            putBytesEvent(BYTES, bytes, offset, length);
+        }
+    }
+    
+    /**
+     * Writes the text and events recorded so far to the underlying {@link OutputStream} and flushes it
+     *
+     * @throws IOException Thrown if the log could not be written or flushed
+     */
+    @Override
+    public void flush() throws IOException {
+        if(!closed) {
+            putPendingText();
+            drainBuffer();
+            output.flush();
+        }
+        if(error) {
+            throw new IOException("The audit event log could not be written");
+        }
+    }
+    
+    /**
+     * Writes the text and events recorded so far to the underlying {@link OutputStream} and closes it
+     *
+     * @throws IOException Thrown if the log could not be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        if(!closed) {
+            putPendingText();
+            drainBuffer();
+            closed = true;
+            output.close();
+        }
+        if(error) {
+            throw new IOException("The audit event log could not be written");
+        }
+    }
+    
+    /**
+     * The {@link Writer} under the {@link PrintWriter} through which the text of the audit is written, which collects the text until the next
+     * event
+     */
+    private final class TextWriter extends Writer {
+        
+        /**
+         * Collects the given characters until the next event
+         *
+         * @param chars  The array holding the characters
+         * @param offset The position of the first character in the array
+         * @param length The number of characters
+         */
+        @Override
+        public void write(final char[] chars, final int offset, final int length) {
+            pendingText.append(chars, offset, length);
+        }
+        
+        /**
+         * Collects the given part of a {@link String} until the next event
+         *
+         * @param str    The {@link String} holding the characters
+         * @param offset The position of the first character in the {@link String}
+         * @param length The number of characters
+         */
+        @Override
+        public void write(final String str, final int offset, final int length) {
+            pendingText.append(str, offset, offset + length);
+        }
+        
+        /**
+         * Writes the text and events recorded so far to the underlying {@link OutputStream} and flushes it
+         *
+         * @throws IOException Thrown if the log could not be written or flushed
+         */
+        @Override
+        public void flush() throws IOException {
+            AuditEventLog.this.flush();
+        }
+        
+        /**
+         * Closes the log, which is done once the {@link VotingSystem} has finished the audit
+         *
+         * @throws IOException Thrown if the log could not be written or closed
+         */
+        @Override
+        public void close() throws IOException {
+            AuditEventLog.this.close();
+        }
+        
+    }
+    
+}
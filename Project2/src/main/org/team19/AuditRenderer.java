@@ -0,0 +1,373 @@
+/*
+ * File name:
+ * AuditRenderer.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Renders an audit event log recorded by AuditEventLog back into the exact text audit that the election would have written, for when an audit
+ * is actually read, such as during a recount
+ */
+
+package org.team19;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Renders an audit event log recorded by {@link AuditEventLog} back into the exact text audit that the election would have written
+ * <p></p>
+ * The text is written in the default charset, as the {@link VotingSystem}s write their text audits, so the rendered audit is byte for byte the same
+ * as the audit of the same election run without an {@link AuditEventLog}
+ * <p></p>
+ * From the command line, the first argument is the path to the log, and the text audit is written to the path given by the second argument or to
+ * standard output if there is none
+ */
+public final class AuditRenderer {
+    
+    /**
+     * The {@link InputStream} from which the log is read
+     */
+    private final InputStream input;
+    
+    /**
+     * The {@link PrintWriter} to which the text audit is written
+     */
+    private final PrintWriter textWriter;
+    
+    /**
+     * The {@link OutputStream} to which the text audit is written, which bytes written directly to the audit output are copied to
+     */
+    private final OutputStream textOutput;
+    
+    /**
+     * The names of the candidates defined so far, in order of their indices
+     */
+    private final List<String> candidates = new ArrayList<>();
+    
+    /**
+     * The number of bytes of the log read so far, which locates any malformed event
+     */
+    private long position = 0;
+    
+    /**
+     * Creates an {@link AuditRenderer} that reads a log from the given {@link InputStream} and writes the text audit to the given
+     * {@link OutputStream}
+     *
+     * @param input      The {@link InputStream} from which the log is read
+     * @param textOutput The {@link OutputStream} to which the text audit is written
+     */
+    private AuditRenderer(final InputStream input, final OutputStream textOutput) {
+        this.input = new BufferedInputStream(input, 1 << 16);
+        this.textOutput = textOutput;
+        textWriter = new PrintWriter(textOutput);
+    }
+    
+    /**
+     * Reads the log from the given {@link InputStream} and writes the text audit it records to the given {@link OutputStream}, flushing but not
+     * closing it
+     *
+     * @param input      The {@link InputStream} from which the log is read
+     * @param textOutput The {@link OutputStream} to which the text audit is written
+     * @throws IOException    Thrown if the log could not be read or the text audit could not be written
+     * @throws ParseException Thrown if the log is not an audit event log or is malformed, where the error offset is the position in the log
+     */
+    public static void render(final InputStream input, final OutputStream textOutput) throws IOException, ParseException {
+        new AuditRenderer(input, textOutput).render();
+    }
+    
+    /**
+     * Reads a byte of the log
+     *
+     * @return The byte read, or -1 at the end of the log
+     * @throws IOException Thrown if the log could not be read
+     */
+    private int readByte() throws IOException {
+        final int value = input.read();
+        if(value != -1) {
+            position++;
+        }
+        return value;
+    }
+    
+    /**
+     * Reads a nonnegative variable-length integer as written by {@link AuditEventLog}
+     *
+     * @return The integer read
+     * @throws IOException    Thrown if the log could not be read
+     * @throws ParseException Thrown if the log ends within the integer or the integer does not fit in an int
+     */
+    private int readVarint() throws IOException, ParseException {
+        int value = 0;
+        for(int shift = 0; shift < 32; shift += 7) {
+            final int next = readByte();
+            if(next == -1) {
+                throw new ParseException("The audit event log ends within an event", (int) Math.min(position, Integer.MAX_VALUE));
+            }
+            value |= (next & 0x7F) << shift;
+            if((next & 0x80) == 0) {
+                if(value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new ParseException("The audit event log contains an integer that is out of range", (int) Math.min(position, Integer.MAX_VALUE));
+    }
+    
+    /**
+     * Reads the length and bytes of an event that holds bytes
+     *
+     * @return The bytes of the event
+     * @throws IOException    Thrown if the log could not be read
+     * @throws ParseException Thrown if the log ends within the event
+     */
+    private byte[] readBytes() throws IOException, ParseException {
+        final int length = readVarint();
+        final byte[] bytes = input.readNBytes(length);
+        position += bytes.length;
+        if(bytes.length != length) {
+            throw new ParseException("The audit event log ends within an event", (int) Math.min(position, Integer.MAX_VALUE));
+        }
+        return bytes;
+    }
+    
+    /**
+     * Reads the index of a candidate and returns its name
+     *
+     * @return The name of the candidate
+     * @throws IOException    Thrown if the log could not be read
+     * @throws ParseException Thrown if the candidate has not been defined
+     */
+    private String readCandidate() throws IOException, ParseException {
+        final int index = readVarint();
+        if(index >= candidates.size()) {
+            throw new ParseException(
+                String.format("The audit event log refers to candidate %d before it is defined", index), (int) Math.min(position, Integer.MAX_VALUE)
+            );
+        }
+        return candidates.get(index);
+    }
+    
+    /**
+     * Returns the ballot numbers of a group of ballots as written in the audit
+     *
+     * @param firstBallotNumber The number of the first of the ballots
+     * @param count             The number of ballots
+     * @return The ballot numbers of the group of ballots as written in the audit
+     */
+    private static String getBallotNumbersString(final int firstBallotNumber, final int count) {
+        if(count == 1) {
+            return "Ballot " + firstBallotNumber;
+        }
+        return String.format("Ballots %d through %d", firstBallotNumber, firstBallotNumber + count - 1);
+    }
+    
+    /**
+     * Checks the start of the log and renders each of its events
+     *
+     * @throws IOException    Thrown if the log could not be read or the text audit could not be written
+     * @throws ParseException Thrown if the log is not an audit event log or is malformed
+     */
+    private void render() throws IOException, ParseException {
+        final byte[] start = input.readNBytes(AuditEventLog.MAGIC.length + 1);
+        position = start.length;
+        if(start.length != AuditEventLog.MAGIC.length + 1
+            || !Arrays.equals(start, 0, AuditEventLog.MAGIC.length, AuditEventLog.MAGIC, 0, AuditEventLog.MAGIC.length)) {
+            throw new ParseException("The input is not an audit event log", 0);
+        }
+        if(start[AuditEventLog.MAGIC.length] != AuditEventLog.VERSION) {
+            throw new ParseException(String.format(
+                "The audit event log has version %d, but only version %d is supported", start[AuditEventLog.MAGIC.length], AuditEventLog.VERSION
+            ), AuditEventLog.MAGIC.length);
+        }
+        
+        int opcode;
+        while((opcode = readByte()) != -1) {
+            switch(opcode) {
+                case AuditEventLog.TEXT:
+                    textWriter.print(new String(readBytes(), StandardCharsets.UTF_8));
+                    break;
+                case AuditEventLog.BYTES: {
+                    final byte[] bytes = readBytes();
+                    textWriter.flush();
+                    textOutput.write(bytes);
+                    break;
+                }
+                case AuditEventLog.CANDIDATE:
+                    candidates.add(new String(readBytes(), StandardCharsets.UTF_8));
+                    break;
+                case AuditEventLog.BALLOT_CHOSE: {
+                    final int ballotNumber = readVarint();
+                    textWriter.printf("Ballot %d chose %s\n", ballotNumber, readCandidate());
+                    break;
+                }
+                case AuditEventLog.BALLOT_RANKINGS:
+                    textWriter.printf("Ballot %d's rankings are as follows:\n", readVarint());
+                    break;
+                case AuditEventLog.RANKING: {
+                    final int rank = readVarint();
+                    textWriter.printf("    %d – %s\n", rank, readCandidate());
+                    break;
+                }
+                case AuditEventLog.BALLOT_GOES_TO: {
+                    final int ballotNumber = readVarint();
+                    textWriter.printf("Therefore, ballot %d goes to %s\n\n", ballotNumber, readCandidate());
+                    break;
+                }
+                case AuditEventLog.BALLOT_INVALIDATED:
+                    textWriter.printf("Ballot %d has been invalidated because it does not rank at least half of the candidates\n\n", readVarint());
+                    break;
+                case AuditEventLog.BALLOTS_SKIPPED: {
+                    final int firstBallotNumber = readVarint();
+                    final int count = readVarint();
+                    final String eliminated = readCandidate();
+                    final String nextChoice = readCandidate();
+                    textWriter.printf(
+                        "%s associated with %s %s their next choice as candidate %s. but %s was already eliminated. Trying the next choice.\n\n",
+                        getBallotNumbersString(firstBallotNumber, count), eliminated, count == 1 ? "has" : "have", nextChoice, nextChoice
+                    );
+                    break;
+                }
+                case AuditEventLog.BALLOTS_EXHAUSTED: {
+                    final int firstBallotNumber = readVarint();
+                    final int count = readVarint();
+                    textWriter.printf(
+                        "%s associated with %s did not have any other candidates ranked. As such, their %s will not be distributed.\n\n",
+                        getBallotNumbersString(firstBallotNumber, count), readCandidate(), count == 1 ? "ballot" : "ballots"
+                    );
+                    break;
+                }
+                case AuditEventLog.BALLOTS_TRANSFERRED: {
+                    final int firstBallotNumber = readVarint();
+                    final int count = readVarint();
+                    final String nextChoice = readCandidate();
+                    textWriter.printf("%s %s their next choice as candidate %s. The %s will be distributed to %s.\n\n",
+                        getBallotNumbersString(firstBallotNumber, count), count == 1 ? "has" : "have", nextChoice, count == 1 ? "ballot" : "ballots",
+                        nextChoice
+                    );
+                    break;
+                }
+                case AuditEventLog.BALLOTS_CHOSE: {
+                    final int firstBallotNumber = readVarint();
+                    final int count = readVarint();
+                    final String candidate = readCandidate();
+                    if(count == 0) {
+                        textWriter.printf("No ballots chose %s\n", candidate);
+                    }
+                    else if(count == 1) {
+                        textWriter.printf("Ballot %d chose %s\n", firstBallotNumber, candidate);
+                    }
+                    else {
+                        textWriter.printf(
+                            "Ballots %d through %d (%d ballots) chose %s\n", firstBallotNumber, firstBallotNumber + count - 1, count, candidate
+                        );
+                    }
+                    break;
+                }
+                case AuditEventLog.BALLOTS_RANKINGS: {
+                    final int firstBallotNumber = readVarint();
+                    final int count = readVarint();
+                    if(count == 0) {
+                        textWriter.println("No ballots have the following rankings:");
+                    }
+                    else if(count == 1) {
+                        textWriter.printf("Ballot %d's rankings are as follows:\n", firstBallotNumber);
+                    }
+                    else {
+                        textWriter.printf("Ballots %d through %d (%d ballots) have the following rankings:\n",
+                            firstBallotNumber, firstBallotNumber + count - 1, count
+                        );
+                    }
+                    break;
+                }
+                case AuditEventLog.BALLOTS_GO_TO: {
+                    final int firstBallotNumber = readVarint();
+                    final int count = readVarint();
+                    textWriter.printf("Therefore, %s %s to %s\n\n",
+                        getBallotNumbersString(firstBallotNumber, count).toLowerCase(), count == 1 ? "goes" : "go", readCandidate()
+                    );
+                    break;
+                }
+                case AuditEventLog.BALLOTS_INVALIDATED: {
+                    final int firstBallotNumber = readVarint();
+                    final int count = readVarint();
+                    textWriter.printf("%s %s been invalidated because %s not rank at least half of the candidates\n\n",
+                        getBallotNumbersString(firstBallotNumber, count), count == 1 ? "has" : "have", count == 1 ? "it does" : "they do"
+                    );
+                    break;
+                }
+                case AuditEventLog.NO_BALLOTS_END:
+                    textWriter.println();
+                    break;
+                default:
+                    throw new ParseException(
+                        String.format("The audit event log contains the unknown event %d", opcode), (int) Math.min(position - 1, Integer.MAX_VALUE)
+                    );
+            }
+        }
+        textWriter.flush();
+        if(textWriter.checkError()) {
+            throw new IOException("The text audit could not be written");
+        }
+    }
+    
+    /**
+     * Renders the audit event log at the path given by the first argument to the path given by the second argument, or to standard output if
+     * there is none, and returns the exit code
+     *
+     * @param args The path to the log, optionally followed by the path to which to write the text audit
+     * @return 0 on success, 64 for invalid arguments, 2 if a file could not be read or written, or 65 if the log is malformed
+     */
+    static int run(final String... args) {
+        if(args.length < 1 || args.length > 2) {
+            System.err.println("Usage: AuditRenderer auditLog [textAudit]");
+            return 64;
+        }
+        
+        try(final InputStream input = new FileInputStream(args[0])) {
+            if(args.length == 2) {
+                try(final OutputStream textOutput = new FileOutputStream(args[1])) {
+                    render(input, textOutput);
+                }
+            }
+            else {
+                render(input, System.out);
+            }
+        }
+        catch(IOException e) {
+            System.err.println("The audit event log could not be rendered: " + e.getMessage());
+            return 2;
+        }
+        catch(ParseException e) {
+            System.err.printf("%s at byte %d of %s\n", e.getMessage(), e.getErrorOffset(), args[0]);
+            return 65;
+        }
+        return 0;
+    }
+    
+    /**
+     * Renders the audit event log at the path given by the first argument to the path given by the second argument, or to standard output if
+     * there is none
+     *
+     * @param args The path to the log, optionally followed by the path to which to write the text audit
+     */
+    public static void main(final String... args) {
+        final int exitCode = run(args);
+        if(exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+    
+}
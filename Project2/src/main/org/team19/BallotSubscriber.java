@@ -0,0 +1,291 @@
+/*
+ * File name:
+ * BallotSubscriber.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Receives the lines of an input source of an election from a Flow.Publisher, such as a ballot scanner, with bounded, batched demand, and exposes
+ * them as an InputStream that can be parsed as the input source without staging them in a file
+ */
+
+package org.team19;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+
+/**
+ * Receives the lines of an input source of an election from a {@link Flow.Publisher}, such as a ballot scanner, and exposes them as an
+ * {@link InputStream} that can be given to an {@link ElectionRun} like any other input source
+ * <p></p>
+ * Each item is one line of the input source in the same format as an election file, so the publisher sends the headers followed by the ballots,
+ * and the ballots header must still give the number of ballots that will follow
+ * <p></p>
+ * Demand is requested in batches: twice the batch size is requested upfront, and another batch is requested each time a batch of lines has been
+ * read from the {@link InputStream}. At most twice the batch size of lines is therefore ever held, and a publisher that gets ahead of the parsing is
+ * held back instead of buffered. The input sources of an election are parsed one after another, so the publishers of later input sources are held
+ * back until the earlier ones complete
+ * <p></p>
+ * Closing the {@link InputStream} cancels the subscription, which should be done if the election fails to parse before the publisher completes
+ */
+public final class BallotSubscriber implements Flow.Subscriber<String> {
+    
+    /**
+     * The number of lines requested at a time if no batch size is given
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    
+    /**
+     * The item placed after the last line when the publisher completes
+     */
+    private static final Object COMPLETE = new Object();
+    
+    /**
+     * The number of lines requested at a time
+     */
+    private final int batchSize;
+    
+    /**
+     * The lines received but not yet read, followed by {@link #COMPLETE} or the {@link Throwable} the publisher failed with, which has room for
+     * twice the batch size of lines plus the terminal item so that adding to it never blocks the publisher
+     */
+    private final BlockingQueue<Object> received;
+    
+    /**
+     * The {@link InputStream} from which the received lines are read
+     */
+    private final InputStream input = new ReceivedLinesInputStream();
+    
+    /**
+     * The {@link Flow.Subscription} of the publisher, or null before subscribing
+     */
+    private Flow.Subscription subscription = null;
+    
+    /**
+     * Whether the subscription has been cancelled by closing the {@link InputStream}
+     */
+    private boolean cancelled = false;
+    
+    /**
+     * Creates a {@link BallotSubscriber} that requests {@link #DEFAULT_BATCH_SIZE} lines at a time
+     */
+    public BallotSubscriber() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+    
+    /**
+     * Creates a {@link BallotSubscriber} that requests the given number of lines at a time
+     *
+     * @param batchSize The number of lines requested at a time
+     * @throws IllegalArgumentException Thrown if the batch size is not at least 1
+     */
+    public BallotSubscriber(final int batchSize) throws IllegalArgumentException {
+        if(batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+        received = new ArrayBlockingQueue<>(2 * batchSize + 1);
+    }
+    
+    /**
+     * Returns the {@link InputStream} from which the received lines are read, each followed by a line feed and encoded in the default charset that
+     * {@link VotingStreamParser} decodes input sources with
+     *
+     * @return The {@link InputStream} from which the received lines are read
+     */
+    public InputStream getInput() {
+        return input;
+    }
+    
+    /**
+     * Requests more lines from the publisher unless the subscription has been cancelled
+     * <p></p>
+     * Requests and cancellations are synchronized so that they reach the {@link Flow.Subscription} one at a time, as it requires
+     *
+     * @param numLines The number of lines to request
+     */
+    private synchronized void request(final long numLines) {
+        if(!cancelled) {
+            subscription.request(numLines);
+        }
+    }
+    
+    /**
+     * Cancels the subscription, if any, so that the publisher stops sending lines
+     */
+    private synchronized void cancel() {
+        cancelled = true;
+        if(subscription != null) {
+            subscription.cancel();
+        }
+    }
+    
+    /**
+     * Stores the {@link Flow.Subscription} and requests the first two batches of lines, or cancels the {@link Flow.Subscription} if this
+     * {@link BallotSubscriber} already has one, since it reads only one input source
+     *
+     * @param subscription The {@link Flow.Subscription} of the publisher
+     */
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        synchronized(this) {
+            if(this.subscription != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+        }
+        request(2L * batchSize);
+    }
+    
+    /**
+     * Receives the next line of the input source
+     *
+     * @param line The next line of the input source
+     * @throws IllegalStateException Thrown if the publisher sends more lines than were requested
+     */
+    @Override
+    public void onNext(final String line) throws IllegalStateException {
+        //There is always room for every line requested, so only a publisher that ignores the demand can fill the queue
+        received.add(Objects.requireNonNull(line));
+    }
+    
+    /**
+     * Receives the failure of the publisher, which is thrown as an {@link IOException} once the lines before it have been read
+     *
+     * @param throwable The failure of the publisher
+     */
+    @Override
+    public void onError(final Throwable throwable) {
+        received.add(Objects.requireNonNull(throwable));
+    }
+    
+    /**
+     * Receives the completion of the publisher, which ends the {@link InputStream} once the lines before it have been read
+     */
+    @Override
+    public void onComplete() {
+        received.add(COMPLETE);
+    }
+    
+    /**
+     * The {@link InputStream} that reads the received lines, blocking until the next line arrives
+     */
+    private final class ReceivedLinesInputStream extends InputStream {
+        
+        /**
+         * The encoded bytes of the line being read, including its line feed
+         */
+        private byte[] line = new byte[0];
+        
+        /**
+         * The position in the line being read
+         */
+        private int position = 0;
+        
+        /**
+         * The number of lines read since more lines were last requested
+         */
+        private int numLinesSinceRequest = 0;
+        
+        /**
+         * Whether the publisher has completed and every line has been read
+         */
+        private boolean ended = false;
+        
+        /**
+         * Takes the next line if the current one has been read, requesting another batch once a batch of lines has been read, and returns
+         * whether there are bytes left to read
+         *
+         * @return Whether there are bytes left to read
+         * @throws IOException Thrown if the publisher failed or if the thread is interrupted while waiting for the next line
+         */
+        private boolean fill() throws IOException {
+            if(position < line.length) {
+                return true;
+            }
+            if(ended) {
+                return false;
+            }
+            
+            final Object next;
+            try {
+                next = received.take();
+            }
+            catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the next line");
+            }
+            
+            if(next == COMPLETE) {
+                ended = true;
+                return false;
+            }
+            if(next instanceof Throwable) {
+                ended = true;
+                throw new IOException("The publisher of the input source failed", (Throwable) next);
+            }
+            
+            line = (next + "\n").getBytes(Charset.defaultCharset());
+            position = 0;
+            if(++numLinesSinceRequest == batchSize) {
+                numLinesSinceRequest = 0;
+                request(batchSize);
+            }
+            return true;
+        }
+        
+        /**
+         * Reads the next byte of the received lines, blocking until it arrives
+         *
+         * @return The next byte, or -1 if the publisher has completed and every line has been read
+         * @throws IOException Thrown if the publisher failed or if the thread is interrupted while waiting for the next line
+         */
+        @Override
+        public int read() throws IOException {
+            return fill() ? line[position++] & 0xFF : -1;
+        }
+        
+        /**
+         * Reads up to the rest of the current line into the given array, blocking only if no byte of it has arrived
+         *
+         * @param bytes  The array into which to read
+         * @param offset The position in the array at which to start
+         * @param length The most bytes to read
+         * @return The number of bytes read, or -1 if the publisher has completed and every line has been read
+         * @throws IOException Thrown if the publisher failed or if the thread is interrupted while waiting for the next line
+         */
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            Objects.checkFromIndexSize(offset, length, bytes.length);
+            if(length == 0) {
+                return 0;
+            }
+            if(!fill()) {
+                return -1;
+            }
+            final int numRead = Math.min(length, line.length - position);
+            System.arraycopy(line, position, bytes, offset, numRead);
+            position += numRead;
+            return numRead;
+        }
+        
+        /**
+         * Cancels the subscription so that the publisher stops sending lines
+         */
+        @Override
+        public void close() {
+            cancel();
+        }
+        
+    }
+    
+}
@@ -0,0 +1,461 @@
+/*
+ * File name:
+ * ElectionBatchRunner.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Runs the elections for a directory or manifest of election files on a bounded thread pool in a single JVM, writing an audit and report file for
+ * each election and a summary of all of them
+ */
+
+package org.team19;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the elections for a directory or manifest of election files on a bounded thread pool in a single JVM, so that the JVM's startup and warm-up
+ * are paid once for the whole batch rather than once per election
+ * <p></p>
+ * Given a directory, each regular file in it is one election. Given a manifest file, each line that is not blank and does not start with "#" is one
+ * election, listed as comma-separated paths to its input sources that are absolute or relative to the manifest's directory
+ * <p></p>
+ * Each election gets its own audit and report file named after its first input file, and a summary table of every election's system, ballots,
+ * winners, and time, or of why it failed, is printed and written to a batch summary file. The console output of the elections themselves is
+ * discarded, since it would interleave across threads and is already in their reports
+ */
+public final class ElectionBatchRunner {
+    
+    /**
+     * The exit code for invalid command-line arguments
+     */
+    private static final int USAGE_EXIT_CODE = 64;
+    
+    /**
+     * The exit code for when the directory or manifest could not be read or the summary could not be written
+     */
+    private static final int IO_EXIT_CODE = 2;
+    
+    /**
+     * The exit code for when at least one election in the batch failed
+     */
+    private static final int FAILED_ELECTION_EXIT_CODE = 65;
+    
+    /**
+     * A private constructor for the utility class {@link ElectionBatchRunner} to prevent instantiation
+     */
+    private ElectionBatchRunner() {}
+    
+    /**
+     * Represents one election in a batch
+     */
+    static final class Contest {
+        
+        /**
+         * The name of the election, which is the name of its first input file without the extension
+         */
+        final String name;
+        
+        /**
+         * The paths to the input sources of the election
+         */
+        final List<File> inputFiles;
+        
+        /**
+         * Initializes a {@link Contest}
+         *
+         * @param inputFiles The paths to the input sources of the election, of which there is at least one
+         */
+        Contest(final List<File> inputFiles) {
+            final String fileName = inputFiles.get(0).getName();
+            final int extensionIndex = fileName.lastIndexOf('.');
+            this.name = extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName;
+            this.inputFiles = List.copyOf(inputFiles);
+        }
+        
+    }
+    
+    /**
+     * Represents the outcome of running one election in a batch
+     */
+    static final class ContestResult {
+        
+        /**
+         * The {@link Contest} that was run
+         */
+        final Contest contest;
+        
+        /**
+         * The short name of the {@link VotingSystem} of the election, or null if the election could not be parsed
+         */
+        final String systemName;
+        
+        /**
+         * The number of ballots in the election
+         */
+        final int numBallots;
+        
+        /**
+         * The winners of the election
+         */
+        final List<Candidate> winners;
+        
+        /**
+         * The seconds spent running the election
+         */
+        final double seconds;
+        
+        /**
+         * The reason the election failed, or null if it succeeded
+         */
+        final String error;
+        
+        /**
+         * Initializes a {@link ContestResult}
+         *
+         * @param contest    The {@link Contest} that was run
+         * @param systemName The short name of the {@link VotingSystem} of the election, or null if the election could not be parsed
+         * @param numBallots The number of ballots in the election
+         * @param winners    The winners of the election
+         * @param seconds    The seconds spent running the election
+         * @param error      The reason the election failed, or null if it succeeded
+         */
+        ContestResult(final Contest contest, final String systemName, final int numBallots, final List<Candidate> winners, final double seconds,
+            final String error) {
+            this.contest = contest;
+            this.systemName = systemName;
+            this.numBallots = numBallots;
+            this.winners = winners;
+            this.seconds = seconds;
+            this.error = error;
+        }
+        
+    }
+    
+    /**
+     * Returns the elections listed by the given directory or manifest file
+     *
+     * @param source The directory, each of whose regular files is one election, or the manifest file, each of whose lines lists the comma-separated
+     *               input sources of one election
+     * @return The elections listed by the given directory or manifest file, in file name order for a directory and line order for a manifest
+     * @throws IOException Thrown if the directory or manifest file could not be read
+     */
+    static List<Contest> readContests(final File source) throws IOException {
+        final List<Contest> contests = new ArrayList<>();
+        
+        //Each regular file in a directory is an election with a single input source
+        if(source.isDirectory()) {
+            final File[] files = source.listFiles(File::isFile);
+            if(files == null) {
+                throw new IOException("The directory " + source + " could not be listed");
+            }
+            Arrays.sort(files);
+            for(final File file : files) {
+                contests.add(new Contest(List.of(file)));
+            }
+        }
+        //Each line in a manifest is an election, with relative paths resolved against the manifest's directory
+        else {
+            final File manifestDirectory = source.getAbsoluteFile().getParentFile();
+            for(final String line : Files.readAllLines(source.toPath(), StandardCharsets.UTF_8)) {
+                final String strippedLine = line.strip();
+                if(strippedLine.isEmpty() || strippedLine.startsWith("#")) {
+                    continue;
+                }
+                final List<File> inputFiles = new ArrayList<>();
+                for(final String path : strippedLine.split(",")) {
+                    final File inputFile = new File(path.strip());
+                    inputFiles.add(inputFile.isAbsolute() ? inputFile : new File(manifestDirectory, path.strip()));
+                }
+                contests.add(new Contest(inputFiles));
+            }
+        }
+        return contests;
+    }
+    
+    /**
+     * Returns the given election name with every character other than letters, digits, periods, hyphens, and underscores replaced by underscores
+     * so that it can be used in a file name
+     *
+     * @param name The election name
+     * @return The election name with every character that is not safe for file names replaced by underscores
+     */
+    private static String toFileNamePart(final String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+    
+    /**
+     * Closes the given {@link InputStream}s, ignoring any that are null or cannot be closed
+     *
+     * @param inputs The {@link InputStream}s to close
+     */
+    private static void closeInputs(final InputStream[] inputs) {
+        for(final InputStream input : inputs) {
+            if(input != null) {
+                try {
+                    input.close();
+                }
+                catch(IOException ignored) {
+                    //The input was only read from, so nothing is lost if it cannot be closed
+                }
+            }
+        }
+    }
+    
+    /**
+     * Runs the given election, writing its audit and report files to the given output directory
+     *
+     * @param contest          The election to run
+     * @param outputDirectory  The directory under whose "audits" and "reports" subdirectories the audit and report files are written
+     * @param currentTimestamp The timestamp of the batch to use for the file names
+     * @return The outcome of running the election, which records the reason the election failed instead of throwing an exception
+     */
+    static ContestResult runContest(final Contest contest, final String outputDirectory, final LocalDateTime currentTimestamp) {
+        final long startNanos = System.nanoTime();
+        final InputStream[] inputs = new InputStream[contest.inputFiles.size()];
+        final String[] inputNames = new String[inputs.length];
+        OutputStream auditOutput = null;
+        OutputStream reportOutput = null;
+        
+        try {
+            for(int i = 0; i < inputs.length; i++) {
+                inputNames[i] = contest.inputFiles.get(i).getPath();
+                inputs[i] = new FileInputStream(contest.inputFiles.get(i));
+            }
+            
+            //The report claims the timestamped name of the election, and the audit is named after it so that the two have the same suffix
+            final String fileNamePart = toFileNamePart(contest.name);
+            final File reportFile = VotingSystemRunner.createTimestampedFile(
+                outputDirectory + File.separator + "reports", "report_" + fileNamePart, "txt", currentTimestamp
+            );
+            reportOutput = new FileOutputStream(reportFile);
+            auditOutput = new FileOutputStream(VotingSystemRunner.getRunFile(
+                outputDirectory + File.separator + "audits", "audit_" + fileNamePart,
+                VotingSystemRunner.getRunStamp(reportFile, "report_" + fileNamePart, "txt"), "txt"
+            ));
+            
+            //Each election gets its own run, so the elections running on other threads cannot affect it
+            final VotingSystem votingSystem = new ElectionRun(inputs, inputNames, auditOutput, reportOutput).run();
+            return new ContestResult(
+                contest, votingSystem.getShortName(), votingSystem.getNumBallots(), votingSystem.getWinners(),
+                (System.nanoTime() - startNanos) / 1e9, null
+            );
+        }
+        catch(IOException e) {
+            return new ContestResult(contest, null, 0, List.of(), (System.nanoTime() - startNanos) / 1e9, "I/O error: " + e.getMessage());
+        }
+        catch(ParseException e) {
+            return new ContestResult(contest, null, 0, List.of(), (System.nanoTime() - startNanos) / 1e9, e.getMessage());
+        }
+        //Any other failure in one election must not stop the rest of the batch
+        catch(RuntimeException e) {
+            return new ContestResult(contest, null, 0, List.of(), (System.nanoTime() - startNanos) / 1e9, e.toString());
+        }
+        finally {
+            closeInputs(inputs);
+            
+            //The voting system closes its outputs after the election, but not if the election failed, and closing them again has no effect
+            for(final OutputStream output : new OutputStream[] {auditOutput, reportOutput}) {
+                if(output != null) {
+                    try {
+                        output.close();
+                    }
+                    catch(IOException ignored) {
+                        //Anything that could not be written has already been recorded as the reason the election failed
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Runs the given elections on a fixed pool of the given number of threads and returns their outcomes in the order the elections were given
+     *
+     * @param contests         The elections to run
+     * @param numThreads       The number of threads on which to run the elections
+     * @param outputDirectory  The directory under whose "audits" and "reports" subdirectories the audit and report files are written
+     * @param currentTimestamp The timestamp of the batch to use for the file names
+     * @return The outcomes of the elections in the order they were given
+     * @throws InterruptedException Thrown if the current thread is interrupted while waiting for the elections to finish
+     */
+    static List<ContestResult> runContests(final List<Contest> contests, final int numThreads, final String outputDirectory,
+        final LocalDateTime currentTimestamp) throws InterruptedException {
+        final List<Callable<ContestResult>> tasks = contests.stream()
+            .map(contest -> (Callable<ContestResult>) () -> runContest(contest, outputDirectory, currentTimestamp))
+            .collect(Collectors.toList());
+        
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<ContestResult> results = new ArrayList<>();
+            for(final Future<ContestResult> future : executor.invokeAll(tasks)) {
+                try {
+                    results.add(future.get());
+                }
+                //runContest catches every exception, so only an error such as running out of memory reaches here
+                catch(ExecutionException e) {
+                    throw new IllegalStateException("An election in the batch failed unexpectedly", e.getCause());
+                }
+            }
+            return results;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Returns the summary table of the given outcomes of the elections in a batch
+     *
+     * @param results The outcomes of the elections in the batch
+     * @return The summary table of the given outcomes, followed by the number of elections that succeeded and failed
+     */
+    static String formatSummary(final List<ContestResult> results) {
+        final List<String> names = new ArrayList<>();
+        final List<String> systems = new ArrayList<>();
+        final List<Integer> ballots = new ArrayList<>();
+        final List<String> outcomes = new ArrayList<>();
+        final List<String> seconds = new ArrayList<>();
+        int numFailed = 0;
+        
+        for(final ContestResult result : results) {
+            names.add(result.contest.name);
+            systems.add(result.systemName == null ? "-" : result.systemName);
+            ballots.add(result.numBallots);
+            if(result.error == null) {
+                outcomes.add(result.winners.stream().map(Candidate::toString).collect(Collectors.joining(", ")));
+            }
+            else {
+                outcomes.add("FAILED: " + result.error.replace('\n', ' '));
+                numFailed++;
+            }
+            seconds.add(String.format("%.3f", result.seconds));
+        }
+        
+        final String table = new TableFormatter('+', '-', '|').formatAsTable(
+            Arrays.asList("Election", "System", "Ballots", "Winners", "Seconds"),
+            Arrays.asList(names, systems, ballots, outcomes, seconds),
+            Arrays.asList(
+                TableFormatter.Alignment.LEFT, TableFormatter.Alignment.LEFT, TableFormatter.Alignment.RIGHT, TableFormatter.Alignment.LEFT,
+                TableFormatter.Alignment.RIGHT
+            )
+        );
+        return String.format("%s\n%d of %d elections succeeded and %d failed\n", table, results.size() - numFailed, results.size(), numFailed);
+    }
+    
+    /**
+     * Runs the batch described by the given command-line arguments and returns the exit code
+     *
+     * @param args The command-line arguments, which are the optional "-t [threads]" and "-o [outputDirectory]" options followed by the path to a
+     *             directory or manifest of elections
+     * @return Zero if every election succeeded, and otherwise the exit code describing why the batch failed
+     */
+    static int run(final String... args) {
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        String outputDirectory = "Project2";
+        String sourcePath = null;
+        
+        try {
+            for(int i = 0; i < args.length; i++) {
+                if(args[i].equals("-t")) {
+                    numThreads = Integer.parseInt(args[++i]);
+                    if(numThreads < 1) {
+                        throw new IllegalArgumentException("The number of threads must be at least 1");
+                    }
+                }
+                else if(args[i].equals("-o")) {
+                    outputDirectory = args[++i];
+                }
+                else if(sourcePath == null) {
+                    sourcePath = args[i];
+                }
+                else {
+                    throw new IllegalArgumentException("Only one directory or manifest may be given, but found " + args[i]);
+                }
+            }
+            if(sourcePath == null) {
+                throw new IllegalArgumentException("A directory or manifest of elections must be given");
+            }
+        }
+        catch(ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Usage: ElectionBatchRunner [-t threads] [-o outputDirectory] <directory|manifest>");
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "An option is missing its value" : e.getMessage());
+            return USAGE_EXIT_CODE;
+        }
+        
+        final LocalDateTime currentTimestamp = LocalDateTime.now();
+        final List<Contest> contests;
+        try {
+            contests = readContests(new File(sourcePath));
+        }
+        catch(IOException e) {
+            System.err.printf("The elections could not be read from %s: %s\n", sourcePath, e.getMessage());
+            return IO_EXIT_CODE;
+        }
+        
+        //Discard the console output of the elections, which would interleave across threads and is already written to their reports
+        final PrintStream originalSystemOut = System.out;
+        final List<ContestResult> results;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            results = runContests(contests, numThreads, outputDirectory, currentTimestamp);
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("The batch was interrupted before every election finished");
+            return IO_EXIT_CODE;
+        }
+        finally {
+            System.setOut(originalSystemOut);
+        }
+        
+        //Print the summary and write it next to the reports
+        final String summary = formatSummary(results);
+        System.out.print(summary);
+        try(final PrintWriter summaryWriter = new PrintWriter(VotingSystemRunner.createTimestampedFileOutputStream(
+            outputDirectory + File.separator + "reports", "batch_summary", "txt", currentTimestamp
+        ), false, StandardCharsets.UTF_8)) {
+            summaryWriter.print(summary);
+        }
+        catch(IOException e) {
+            System.err.println("The batch summary file could not be created: " + e.getMessage());
+            return IO_EXIT_CODE;
+        }
+        
+        return results.stream().anyMatch(result -> result.error != null) ? FAILED_ELECTION_EXIT_CODE : 0;
+    }
+    
+    /**
+     * Runs the elections for a directory or manifest of election files on a bounded thread pool
+     *
+     * @param args The command-line arguments, which are the optional "-t [threads]" and "-o [outputDirectory]" options followed by the path to a
+     *             directory or manifest of elections
+     */
+    public static void main(final String... args) {
+        final int exitCode = run(args);
+        if(exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+    
+}
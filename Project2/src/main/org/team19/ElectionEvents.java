@@ -0,0 +1,167 @@
+/*
+ * File name:
+ * ElectionEvents.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Defines the Java Flight Recorder events emitted while parsing and running elections
+ */
+
+package org.team19;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Defines the Java Flight Recorder events emitted while parsing and running elections, which appear under the "CompuVote" category in JDK Mission
+ * Control
+ * <p></p>
+ * Each event is timed from its {@link Event#begin()} to its {@link Event#commit()}, and its fields are only filled in if
+ * {@link Event#shouldCommit()} is true, so the events cost almost nothing when no recording has enabled them
+ */
+final class ElectionEvents {
+    
+    /**
+     * The number of ballot lines covered by each {@link BallotChunkParsed} event
+     */
+    static final int BALLOT_CHUNK_LINES = 10000;
+    
+    /**
+     * Prevents {@link ElectionEvents} from being instantiated
+     */
+    private ElectionEvents() {}
+    
+    /**
+     * Emitted by {@link VotingStreamParser} for each input source once its ballots have been parsed
+     */
+    @Name("org.team19.InputSourceParsed")
+    @Label("Input Source Parsed")
+    @Category({"CompuVote", "Parsing"})
+    @Description("The parsing of the ballots of one input source")
+    static final class InputSourceParsed extends Event {
+        
+        /**
+         * The identifier of the input source
+         */
+        @Label("Input Source")
+        String inputSource;
+        
+        /**
+         * The number of ballots in the input source, including any that were invalidated
+         */
+        @Label("Ballots")
+        int ballots;
+        
+        /**
+         * The number of ballot lines in the input source, which is less than the number of ballots if ballots are aggregated
+         */
+        @Label("Ballot Lines")
+        int ballotLines;
+        
+    }
+    
+    /**
+     * Emitted by {@link VotingStreamParser} for each chunk of up to {@link #BALLOT_CHUNK_LINES} ballot lines
+     */
+    @Name("org.team19.BallotChunkParsed")
+    @Label("Ballot Chunk Parsed")
+    @Category({"CompuVote", "Parsing"})
+    @Description("The parsing of a chunk of consecutive ballot lines from one input source")
+    static final class BallotChunkParsed extends Event {
+        
+        /**
+         * The identifier of the input source
+         */
+        @Label("Input Source")
+        String inputSource;
+        
+        /**
+         * The line number of the first ballot line in the chunk
+         */
+        @Label("First Line")
+        int firstLine;
+        
+        /**
+         * The number of ballot lines in the chunk
+         */
+        @Label("Ballot Lines")
+        int ballotLines;
+        
+        /**
+         * The number of ballots in the chunk
+         */
+        @Label("Ballots")
+        int ballots;
+        
+    }
+    
+    /**
+     * Emitted by {@link InstantRunoffSystem#eliminateLowest(Candidate)} for each elimination
+     */
+    @Name("org.team19.EliminationRound")
+    @Label("Elimination Round")
+    @Category({"CompuVote", "Election"})
+    @Description("The elimination of an IR candidate and the redistribution of their ballots")
+    static final class EliminationRound extends Event {
+        
+        /**
+         * The eliminated candidate
+         */
+        @Label("Eliminated Candidate")
+        String eliminatedCandidate;
+        
+        /**
+         * The number of ballots moved to the remaining candidates
+         */
+        @Label("Ballots Moved")
+        int ballotsMoved;
+        
+        /**
+         * The number of ballots that ranked no remaining candidate and were therefore not moved
+         */
+        @Label("Ballots Exhausted")
+        int ballotsExhausted;
+        
+        /**
+         * The number of candidates remaining after the elimination
+         */
+        @Label("Remaining Candidates")
+        int remainingCandidates;
+        
+    }
+    
+    /**
+     * Emitted by {@link OpenPartyListSystem#runElection()} for each phase of allocating seats
+     */
+    @Name("org.team19.AllocationPhase")
+    @Label("Allocation Phase")
+    @Category({"CompuVote", "Election"})
+    @Description("A phase of allocating OPL seats to parties or distributing them to candidates")
+    static final class AllocationPhase extends Event {
+        
+        /**
+         * The name of the phase
+         */
+        @Label("Phase")
+        String phase;
+        
+        /**
+         * The apportionment method of the election
+         */
+        @Label("Apportionment Method")
+        String apportionmentMethod;
+        
+        /**
+         * The number of seats allocated or distributed during the phase
+         */
+        @Label("Seats")
+        int seats;
+        
+    }
+    
+}
@@ -0,0 +1,596 @@
+/*
+ * File name:
+ * ElectionGenerator.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Generates synthetic IR and OPL election files of any size for load and scale testing
+ */
+
+package org.team19;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic IR and OPL elections that can be parsed by {@link VotingStreamParser}, optionally split across several input sources
+ * <p></p>
+ * Ballots are written as they are generated, so the memory used depends only on the number of candidates and never on the number of ballots,
+ * and the same configuration and seed always produce the same election
+ * <p></p>
+ * Candidates are named "C1", "C2", ..., and are assigned to the parties "P1", "P2", ..., in turn; the first preference of each ballot is drawn from
+ * the chosen {@link Distribution}, and the remaining rankings of an IR ballot are a uniformly random ordering of the other candidates
+ */
+public final class ElectionGenerator {
+    
+    /**
+     * The distributions from which the first preference of each ballot can be drawn
+     */
+    public enum Distribution {
+        
+        /**
+         * Every candidate is equally likely to be the first preference
+         */
+        UNIFORM,
+        
+        /**
+         * The candidate Ck is the first preference with probability proportional to 1 / k^s, where s is the Zipf exponent, so a few candidates
+         * receive most of the first preferences
+         */
+        ZIPF,
+        
+        /**
+         * The first preferences cycle through the candidates in order, so the first preference counts of every pair of candidates differ by at
+         * most one
+         */
+        NEAR_TIE
+    }
+    
+    /**
+     * The number of bytes buffered for each output before being written
+     */
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    
+    /**
+     * The header of the election type, which is either "IR" or "OPL"
+     */
+    private final String electionType;
+    
+    /**
+     * The number of candidates
+     */
+    private final int numCandidates;
+    
+    /**
+     * The number of parties to which the candidates are assigned in turn
+     */
+    private final int numParties;
+    
+    /**
+     * The number of seats, which is only used for OPL elections
+     */
+    private final int numSeats;
+    
+    /**
+     * The total number of ballots across all of the input sources
+     */
+    private final int numBallots;
+    
+    /**
+     * The distribution from which the first preference of each ballot is drawn
+     */
+    private Distribution distribution = Distribution.UNIFORM;
+    
+    /**
+     * The exponent of the Zipf distribution, which is only used if the distribution is {@link Distribution#ZIPF}
+     */
+    private double zipfExponent = 1.0;
+    
+    /**
+     * The probability that an IR ballot stops after each ranked candidate, where zero ranks every candidate on every ballot
+     */
+    private double truncation = 0.0;
+    
+    /**
+     * Whether IR ballots are written in the sparse format, which lists the indices of the ranked candidates in order of rank
+     */
+    private boolean sparse = false;
+    
+    /**
+     * The seed of the random number generator used to generate the ballots
+     */
+    private long seed = 0;
+    
+    /**
+     * Initializes an {@link ElectionGenerator}
+     *
+     * @param electionType  The header of the election type, which is either "IR" or "OPL"
+     * @param numCandidates The number of candidates
+     * @param numParties    The number of parties to which the candidates are assigned in turn
+     * @param numSeats      The number of seats, which is only used for OPL elections
+     * @param numBallots    The total number of ballots across all of the input sources
+     * @throws IllegalArgumentException Thrown if there is not at least one candidate and one party, if there are more parties than candidates, or if
+     *                                  the number of seats or ballots is negative
+     */
+    private ElectionGenerator(final String electionType, final int numCandidates, final int numParties, final int numSeats, final int numBallots) {
+        if(numCandidates < 1 || numParties < 1 || numParties > numCandidates) {
+            throw new IllegalArgumentException(String.format(
+                "There must be at least one candidate and between one and %d parties, but there were %d candidates and %d parties",
+                numCandidates, numCandidates, numParties
+            ));
+        }
+        else if(numSeats < 0 || numBallots < 0) {
+            throw new IllegalArgumentException(String.format(
+                "The numbers of seats and ballots must be nonnegative, but there were %d seats and %d ballots", numSeats, numBallots
+            ));
+        }
+        this.electionType = electionType;
+        this.numCandidates = numCandidates;
+        this.numParties = numParties;
+        this.numSeats = numSeats;
+        this.numBallots = numBallots;
+    }
+    
+    /**
+     * Returns an {@link ElectionGenerator} for an IR election
+     *
+     * @param numCandidates The number of candidates
+     * @param numParties    The number of parties to which the candidates are assigned in turn
+     * @param numBallots    The total number of ballots across all of the input sources
+     * @return An {@link ElectionGenerator} for an IR election
+     * @throws IllegalArgumentException Thrown if there is not at least one candidate and one party, if there are more parties than candidates, or if
+     *                                  the number of ballots is negative
+     */
+    public static ElectionGenerator forInstantRunoff(final int numCandidates, final int numParties, final int numBallots) {
+        return new ElectionGenerator("IR", numCandidates, numParties, 0, numBallots);
+    }
+    
+    /**
+     * Returns an {@link ElectionGenerator} for an OPL election
+     *
+     * @param numCandidates The number of candidates
+     * @param numParties    The number of parties to which the candidates are assigned in turn
+     * @param numSeats      The number of seats
+     * @param numBallots    The total number of ballots across all of the input sources
+     * @return An {@link ElectionGenerator} for an OPL election
+     * @throws IllegalArgumentException Thrown if there is not at least one candidate and one party, if there are more parties than candidates, or if
+     *                                  the number of seats or ballots is negative
+     */
+    public static ElectionGenerator forOpenPartyList(final int numCandidates, final int numParties, final int numSeats, final int numBallots) {
+        return new ElectionGenerator("OPL", numCandidates, numParties, numSeats, numBallots);
+    }
+    
+    /**
+     * Sets the distribution from which the first preference of each ballot is drawn, which is {@link Distribution#UNIFORM} by default
+     *
+     * @param distribution The distribution from which the first preference of each ballot is drawn
+     * @return This {@link ElectionGenerator}
+     * @throws NullPointerException Thrown if the distribution is null
+     */
+    public ElectionGenerator setDistribution(final Distribution distribution) {
+        if(distribution == null) {
+            throw new NullPointerException("The distribution must not be null");
+        }
+        this.distribution = distribution;
+        return this;
+    }
+    
+    /**
+     * Sets the exponent of the Zipf distribution, which is 1 by default
+     *
+     * @param zipfExponent The exponent of the Zipf distribution
+     * @return This {@link ElectionGenerator}
+     * @throws IllegalArgumentException Thrown if the exponent is not a positive, finite number
+     */
+    public ElectionGenerator setZipfExponent(final double zipfExponent) {
+        if(!(zipfExponent > 0) || Double.isInfinite(zipfExponent)) {
+            throw new IllegalArgumentException(String.format("The Zipf exponent must be positive and finite but was %s", zipfExponent));
+        }
+        this.zipfExponent = zipfExponent;
+        return this;
+    }
+    
+    /**
+     * Sets the probability that an IR ballot stops after each ranked candidate, which is 0 by default so that every candidate is ranked
+     *
+     * @param truncation The probability that an IR ballot stops after each ranked candidate
+     * @return This {@link ElectionGenerator}
+     * @throws IllegalArgumentException Thrown if the probability is not in the range [0, 1]
+     */
+    public ElectionGenerator setTruncation(final double truncation) {
+        if(!(truncation >= 0 && truncation <= 1)) {
+            throw new IllegalArgumentException(String.format("The truncation probability must be between 0 and 1 but was %s", truncation));
+        }
+        this.truncation = truncation;
+        return this;
+    }
+    
+    /**
+     * Sets whether IR ballots are written in the sparse format, which is false by default
+     *
+     * @param sparse Whether IR ballots are written in the sparse format
+     * @return This {@link ElectionGenerator}
+     * @throws IllegalArgumentException Thrown if the sparse format is requested for an election other than IR
+     */
+    public ElectionGenerator setSparse(final boolean sparse) {
+        if(sparse && !"IR".equals(electionType)) {
+            throw new IllegalArgumentException(String.format("The sparse format is only supported for IR, not %s", electionType));
+        }
+        this.sparse = sparse;
+        return this;
+    }
+    
+    /**
+     * Sets the seed of the random number generator used to generate the ballots, which is 0 by default
+     *
+     * @param seed The seed of the random number generator used to generate the ballots
+     * @return This {@link ElectionGenerator}
+     */
+    public ElectionGenerator setSeed(final long seed) {
+        this.seed = seed;
+        return this;
+    }
+    
+    /**
+     * Writes a line of text followed by a newline to the output
+     *
+     * @param output The output to which to write
+     * @param line   The line of text to write
+     * @throws IOException Thrown if there is an issue in writing to the output
+     */
+    private static void writeLine(final OutputStream output, final String line) throws IOException {
+        output.write(line.getBytes(StandardCharsets.UTF_8));
+        output.write('\n');
+    }
+    
+    /**
+     * Writes the decimal form of a nonnegative integer into the buffer at the given position and returns the position after it
+     *
+     * @param buffer   The buffer into which to write
+     * @param position The position at which to write
+     * @param value    The nonnegative integer to write
+     * @return The position in the buffer after the written integer
+     */
+    private static int putInt(final byte[] buffer, int position, final int value) {
+        //Find the number of digits, and then write the digits from the last to the first
+        int numDigits = 1;
+        for(int remaining = value / 10; remaining != 0; remaining /= 10) {
+            numDigits++;
+        }
+        int remaining = value;
+        for(int i = position + numDigits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return position + numDigits;
+    }
+    
+    /**
+     * Returns the election header lines up to and including the candidates line, which are shared by every input source
+     *
+     * @return The election header lines up to and including the candidates line
+     */
+    private List<String> getCandidatesHeader() {
+        final List<String> header = new ArrayList<>();
+        
+        //Add the election type along with the sparse option if used
+        header.add(sparse ? electionType + ", SPARSE" : electionType);
+        header.add(Integer.toString(numCandidates));
+        
+        //IR candidates are written as "C1 (P1)" while OPL candidates are written as "[C1,P1]"
+        final StringBuilder candidatesLine = new StringBuilder();
+        for(int i = 0; i < numCandidates; i++) {
+            if(i != 0) {
+                candidatesLine.append(',');
+            }
+            final int party = i % numParties + 1;
+            if("IR".equals(electionType)) {
+                candidatesLine.append('C').append(i + 1).append(" (P").append(party).append(')');
+            }
+            else {
+                candidatesLine.append("[C").append(i + 1).append(",P").append(party).append(']');
+            }
+        }
+        header.add(candidatesLine.toString());
+        return header;
+    }
+    
+    /**
+     * Returns the cumulative weights of the candidates under the Zipf distribution, which are searched to draw a first preference
+     *
+     * @return The cumulative weights of the candidates under the Zipf distribution
+     */
+    private double[] getZipfCumulativeWeights() {
+        final double[] cumulativeWeights = new double[numCandidates];
+        double total = 0;
+        for(int i = 0; i < numCandidates; i++) {
+            total += 1 / Math.pow(i + 1, zipfExponent);
+            cumulativeWeights[i] = total;
+        }
+        return cumulativeWeights;
+    }
+    
+    /**
+     * Draws the index of the first preference of a ballot
+     *
+     * @param rand              The random number generator
+     * @param ballotIndex       The index of the ballot across all of the input sources
+     * @param cumulativeWeights The cumulative weights of the candidates, which are only used for the Zipf distribution
+     * @return The index of the first preference
+     */
+    private int drawFirstPreference(final SplittableRandom rand, final int ballotIndex, final double[] cumulativeWeights) {
+        switch(distribution) {
+            case ZIPF:
+                //Find the first candidate whose cumulative weight exceeds a uniformly random point in the total weight
+                final double point = rand.nextDouble() * cumulativeWeights[numCandidates - 1];
+                final int searchIndex = Arrays.binarySearch(cumulativeWeights, point);
+                return Math.min(searchIndex >= 0 ? searchIndex + 1 : -searchIndex - 1, numCandidates - 1);
+            case NEAR_TIE:
+                return ballotIndex % numCandidates;
+            default:
+                return rand.nextInt(numCandidates);
+        }
+    }
+    
+    /**
+     * Returns the number of candidates ranked on an IR ballot, where each ranked candidate is followed by another with probability one minus the
+     * truncation probability
+     *
+     * @param rand The random number generator
+     * @return The number of candidates ranked on an IR ballot
+     */
+    private int drawNumRanked(final SplittableRandom rand) {
+        if(truncation == 0) {
+            return numCandidates;
+        }
+        int numRanked = 1;
+        while(numRanked < numCandidates && rand.nextDouble() >= truncation) {
+            numRanked++;
+        }
+        return numRanked;
+    }
+    
+    /**
+     * Generates the election and writes it to the given outputs, each of which is a complete input source with an equal share of the ballots
+     * <p></p>
+     * The outputs are written one after another and are flushed but not closed
+     *
+     * @param outputs The outputs to which to write the input sources of the election
+     * @throws IOException              Thrown if there is an issue in writing to an output
+     * @throws IllegalArgumentException Thrown if no outputs are given
+     */
+    public void generate(final OutputStream... outputs) throws IOException {
+        if(outputs.length < 1) {
+            throw new IllegalArgumentException("The number of outputs must be at least 1");
+        }
+        
+        final SplittableRandom rand = new SplittableRandom(seed);
+        final List<String> candidatesHeader = getCandidatesHeader();
+        final double[] cumulativeWeights = distribution == Distribution.ZIPF ? getZipfCumulativeWeights() : null;
+        final boolean isIr = "IR".equals(electionType);
+        
+        //The candidates of an IR ballot in order of rank, which is kept between ballots along with the position of each candidate within it
+        final int[] ranking = new int[numCandidates];
+        final int[] rankingPositions = new int[numCandidates];
+        for(int i = 0; i < numCandidates; i++) {
+            ranking[i] = i;
+            rankingPositions[i] = i;
+        }
+        
+        //The rank of each candidate on the current dense IR ballot, or 0 if unranked
+        final int[] ranks = new int[numCandidates];
+        
+        //The buffer for a single ballot line, which has room for a comma and a rank or index of up to 10 digits per candidate
+        final byte[] line = new byte[numCandidates * 11 + 1];
+        
+        int ballotIndex = 0;
+        for(int source = 0; source < outputs.length; source++) {
+            final OutputStream output = new BufferedOutputStream(outputs[source], OUTPUT_BUFFER_SIZE);
+            final int sourceBallots = numBallots / outputs.length + (source < numBallots % outputs.length ? 1 : 0);
+            
+            //Write the header, which is repeated for every input source
+            for(final String headerLine : candidatesHeader) {
+                writeLine(output, headerLine);
+            }
+            if(!isIr) {
+                writeLine(output, Integer.toString(numSeats));
+            }
+            writeLine(output, Integer.toString(sourceBallots));
+            
+            for(int i = 0; i < sourceBallots; i++, ballotIndex++) {
+                final int firstPreference = drawFirstPreference(rand, ballotIndex, cumulativeWeights);
+                int length = 0;
+                
+                //An OPL ballot marks the first preference with a 1
+                if(!isIr) {
+                    for(int j = 0; j < numCandidates; j++) {
+                        if(j != 0) {
+                            line[length++] = ',';
+                        }
+                        if(j == firstPreference) {
+                            line[length++] = '1';
+                        }
+                    }
+                }
+                else {
+                    //Move the first preference to the front, and then shuffle as many of the remaining candidates as are ranked
+                    final int numRanked = drawNumRanked(rand);
+                    for(int rank = 0; rank < numRanked; rank++) {
+                        final int position = rank == 0 ? rankingPositions[firstPreference] : rank + rand.nextInt(numCandidates - rank);
+                        final int candidate = ranking[position];
+                        ranking[position] = ranking[rank];
+                        rankingPositions[ranking[position]] = position;
+                        ranking[rank] = candidate;
+                        rankingPositions[candidate] = rank;
+                    }
+                    
+                    //A sparse ballot lists the candidate indices in order of rank, while a dense ballot lists the rank of each candidate
+                    if(sparse) {
+                        for(int rank = 0; rank < numRanked; rank++) {
+                            if(rank != 0) {
+                                line[length++] = ',';
+                            }
+                            length = putInt(line, length, ranking[rank] + 1);
+                        }
+                    }
+                    else {
+                        for(int rank = 0; rank < numRanked; rank++) {
+                            ranks[ranking[rank]] = rank + 1;
+                        }
+                        for(int j = 0; j < numCandidates; j++) {
+                            if(j != 0) {
+                                line[length++] = ',';
+                            }
+                            if(ranks[j] != 0) {
+                                length = putInt(line, length, ranks[j]);
+                                ranks[j] = 0;
+                            }
+                        }
+                    }
+                }
+                
+                line[length++] = '\n';
+                output.write(line, 0, length);
+            }
+            output.flush();
+        }
+    }
+    
+    /**
+     * Prints the usage of {@link #main(String...)} to standard error and exits with the usage error code
+     *
+     * @param message The message explaining what was wrong with the arguments
+     */
+    private static void exitWithUsage(final String message) {
+        System.err.println(message);
+        System.err.println("Usage: ElectionGenerator <IR|OPL> [-c candidates] [-p parties] [-s seats] [-b ballots] [-d uniform|zipf|near_tie] "
+            + "[-z zipfExponent] [-t truncation] [--sparse] [--seed seed] <outputPath> [outputPath...]");
+        final int usageExitCode = 64;
+        System.exit(usageExitCode);
+    }
+    
+    /**
+     * Generates an election with the configuration given by the command-line arguments and writes one input source to each of the given paths,
+     * which can then be passed together to {@link VotingSystemRunner}
+     * <p></p>
+     * The defaults are 8 candidates, 4 parties, 4 seats, 1000 ballots, the uniform distribution with a Zipf exponent of 1, no truncation, the dense
+     * format, and a seed of 0
+     *
+     * @param args The election type, followed by the options, followed by the paths to which to write the input sources
+     */
+    public static void main(final String... args) {
+        if(args.length < 2) {
+            exitWithUsage("An election type and at least one output path must be given");
+        }
+        
+        final String electionType = args[0].toUpperCase();
+        int numCandidates = 8;
+        int numParties = 4;
+        int numSeats = 4;
+        int numBallots = 1000;
+        Distribution distribution = Distribution.UNIFORM;
+        double zipfExponent = 1.0;
+        double truncation = 0.0;
+        boolean sparse = false;
+        long seed = 0;
+        final List<String> outputPaths = new ArrayList<>();
+        
+        //Parse the options and the output paths
+        try {
+            for(int i = 1; i < args.length; i++) {
+                switch(args[i]) {
+                    case "-c":
+                        numCandidates = Integer.parseInt(args[++i]);
+                        break;
+                    case "-p":
+                        numParties = Integer.parseInt(args[++i]);
+                        break;
+                    case "-s":
+                        numSeats = Integer.parseInt(args[++i]);
+                        break;
+                    case "-b":
+                        numBallots = Integer.parseInt(args[++i]);
+                        break;
+                    case "-d":
+                        distribution = Distribution.valueOf(args[++i].toUpperCase());
+                        break;
+                    case "-z":
+                        zipfExponent = Double.parseDouble(args[++i]);
+                        break;
+                    case "-t":
+                        truncation = Double.parseDouble(args[++i]);
+                        break;
+                    case "--sparse":
+                        sparse = true;
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    default:
+                        outputPaths.add(args[i]);
+                }
+            }
+        }
+        catch(ArrayIndexOutOfBoundsException e) {
+            exitWithUsage(String.format("The option %s requires a value", args[args.length - 1]));
+        }
+        catch(IllegalArgumentException e) {
+            exitWithUsage(String.format("An option value was not valid: %s", e.getMessage()));
+        }
+        if(outputPaths.isEmpty()) {
+            exitWithUsage("At least one output path must be given");
+        }
+        
+        //Configure the generator
+        ElectionGenerator generator = null;
+        try {
+            switch(electionType) {
+                case "IR":
+                    generator = forInstantRunoff(numCandidates, numParties, numBallots);
+                    break;
+                case "OPL":
+                    generator = forOpenPartyList(numCandidates, numParties, numSeats, numBallots);
+                    break;
+                default:
+                    exitWithUsage(String.format("The election type %s is not one of IR or OPL", args[0]));
+            }
+            //noinspection ConstantConditions
+            generator.setDistribution(distribution).setZipfExponent(zipfExponent).setTruncation(truncation).setSparse(sparse).setSeed(seed);
+        }
+        catch(IllegalArgumentException e) {
+            exitWithUsage(e.getMessage());
+        }
+        
+        //Open every output, write the election, and close them
+        final OutputStream[] outputs = new OutputStream[outputPaths.size()];
+        try {
+            for(int i = 0; i < outputs.length; i++) {
+                final File outputFile = new File(outputPaths.get(i)).getAbsoluteFile();
+                //noinspection ResultOfMethodCallIgnored
+                outputFile.getParentFile().mkdirs();
+                outputs[i] = new FileOutputStream(outputFile);
+            }
+            generator.generate(outputs);
+            for(final OutputStream output : outputs) {
+                output.close();
+            }
+        }
+        catch(IOException e) {
+            System.err.printf("The election could not be written: %s\n", e.getMessage());
+            System.exit(2);
+        }
+        
+        System.out.printf("Wrote %d %s ballots to %s\n", numBallots, electionType, String.join(", ", outputPaths));
+    }
+    
+}
@@ -0,0 +1,316 @@
+/*
+ * File name:
+ * ElectionMetrics.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Records the time spent in each phase of running an election along with throughput counters, and writes them in a machine-readable form
+ */
+
+package org.team19;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records the time spent in each phase of running an election, the rounds of the election, and counters such as the number of ballots and bytes
+ * read, and writes them as JSON
+ * <p></p>
+ * Every method of {@link #DISABLED} returns immediately without reading the clock, and the input and output streams are only wrapped when metrics
+ * are enabled, so running an election without metrics does not pay for them
+ */
+public class ElectionMetrics {
+    
+    /**
+     * The {@link ElectionMetrics} that records nothing, which is used when metrics are not requested
+     */
+    public static final ElectionMetrics DISABLED = new ElectionMetrics(false);
+    
+    /**
+     * Whether this {@link ElectionMetrics} records anything
+     */
+    protected final boolean enabled;
+    
+    /**
+     * The names of the phases mapped to the total nanoseconds spent in them and the number of times they were entered
+     */
+    protected final Map<String, long[]> phases = new LinkedHashMap<>();
+    
+    /**
+     * The names of the counters mapped to their values
+     */
+    protected final Map<String, Long> counters = new LinkedHashMap<>();
+    
+    /**
+     * The nanoseconds spent in and the number of ballots transferred during each round of the election, in order
+     */
+    protected final List<long[]> rounds = new ArrayList<>();
+    
+    /**
+     * The number of bytes read from the election inputs
+     */
+    protected long bytesRead = 0;
+    
+    /**
+     * The number of bytes written to the audit output
+     */
+    protected long auditBytesWritten = 0;
+    
+    /**
+     * The nanoseconds spent writing to the audit output
+     */
+    protected long auditWriteNanos = 0;
+    
+    /**
+     * Initializes an enabled {@link ElectionMetrics}
+     */
+    public ElectionMetrics() {
+        this(true);
+    }
+    
+    /**
+     * Initializes an {@link ElectionMetrics}
+     *
+     * @param enabled Whether the {@link ElectionMetrics} records anything
+     */
+    protected ElectionMetrics(final boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    /**
+     * Returns whether this {@link ElectionMetrics} records anything
+     *
+     * @return Whether this {@link ElectionMetrics} records anything
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Returns the current time in nanoseconds to be passed to {@link #endPhase(String, long)} or {@link #recordRound(long, long)}, or zero if this
+     * {@link ElectionMetrics} is disabled
+     *
+     * @return The current time in nanoseconds, or zero if this {@link ElectionMetrics} is disabled
+     */
+    public long startTimer() {
+        return enabled ? System.nanoTime() : 0;
+    }
+    
+    /**
+     * Adds the time since the given start time to the given phase
+     *
+     * @param phase      The name of the phase
+     * @param startNanos The start time of the phase from {@link #startTimer()}
+     */
+    public void endPhase(final String phase, final long startNanos) {
+        if(enabled) {
+            final long elapsedNanos = System.nanoTime() - startNanos;
+            final long[] phaseTotals = phases.computeIfAbsent(phase, ignored -> new long[2]);
+            phaseTotals[0] += elapsedNanos;
+            phaseTotals[1]++;
+        }
+    }
+    
+    /**
+     * Adds the given amount to the given counter
+     *
+     * @param counter The name of the counter
+     * @param amount  The amount to add
+     */
+    public void addCount(final String counter, final long amount) {
+        if(enabled) {
+            counters.merge(counter, amount, Long::sum);
+        }
+    }
+    
+    /**
+     * Records a round of the election that started at the given time
+     *
+     * @param startNanos The start time of the round from {@link #startTimer()}
+     * @param transfers  The number of ballots transferred during the round
+     */
+    public void recordRound(final long startNanos, final long transfers) {
+        if(enabled) {
+            rounds.add(new long[] {System.nanoTime() - startNanos, transfers});
+        }
+    }
+    
+    /**
+     * Returns the total nanoseconds spent in the given phase
+     *
+     * @param phase The name of the phase
+     * @return The total nanoseconds spent in the given phase, or zero if it was never entered
+     */
+    public long getPhaseNanos(final String phase) {
+        return phases.containsKey(phase) ? phases.get(phase)[0] : 0;
+    }
+    
+    /**
+     * Returns the value of the given counter
+     *
+     * @param counter The name of the counter
+     * @return The value of the given counter, or zero if it was never added to
+     */
+    public long getCount(final String counter) {
+        return counters.getOrDefault(counter, 0L);
+    }
+    
+    /**
+     * Returns the number of rounds recorded
+     *
+     * @return The number of rounds recorded
+     */
+    public int getNumRounds() {
+        return rounds.size();
+    }
+    
+    /**
+     * Returns the number of bytes read from the inputs returned by {@link #countInput(InputStream)}
+     *
+     * @return The number of bytes read from the election inputs
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+    
+    /**
+     * Returns the number of bytes written to the output returned by {@link #countAuditOutput(OutputStream)}
+     *
+     * @return The number of bytes written to the audit output
+     */
+    public long getAuditBytesWritten() {
+        return auditBytesWritten;
+    }
+    
+    /**
+     * Returns an {@link InputStream} that reads from the given election input and counts the bytes read, or the given input itself if this
+     * {@link ElectionMetrics} is disabled
+     *
+     * @param input The election input to count
+     * @return An {@link InputStream} that counts the bytes read from the given election input
+     */
+    public InputStream countInput(final InputStream input) {
+        if(!enabled) {
+            return input;
+        }
+        return new FilterInputStream(input) {
+            @Override
+            public int read() throws IOException {
+                final int value = super.read();
+                if(value != -1) {
+                    bytesRead++;
+                }
+                return value;
+            }
+            
+            @Override
+            public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+                final int numRead = super.read(bytes, offset, length);
+                if(numRead > 0) {
+                    bytesRead += numRead;
+                }
+                return numRead;
+            }
+        };
+    }
+    
+    /**
+     * Returns an {@link OutputStream} that writes to the given audit output and counts the bytes written and the time spent writing them, or the
+     * given output itself if this {@link ElectionMetrics} is disabled
+     *
+     * @param auditOutput The audit output to count
+     * @return An {@link OutputStream} that counts the bytes written to the given audit output and the time spent writing them
+     */
+    public OutputStream countAuditOutput(final OutputStream auditOutput) {
+        if(!enabled) {
+            return auditOutput;
+        }
+        return new FilterOutputStream(auditOutput) {
+            @Override
+            public void write(final int value) throws IOException {
+                final long startNanos = System.nanoTime();
+                out.write(value);
+                auditWriteNanos += System.nanoTime() - startNanos;
+                auditBytesWritten++;
+            }
+            
+            //FilterOutputStream writes arrays one byte at a time, so arrays are passed through directly
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+                final long startNanos = System.nanoTime();
+                out.write(bytes, offset, length);
+                auditWriteNanos += System.nanoTime() - startNanos;
+                auditBytesWritten += length;
+            }
+        };
+    }
+    
+    /**
+     * Returns the given number of nanoseconds in seconds
+     *
+     * @param nanos The number of nanoseconds
+     * @return The given number of nanoseconds in seconds
+     */
+    private static String toSeconds(final long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+    
+    /**
+     * Writes the recorded metrics to the given output as a JSON object, which includes the ballots parsed per second if the ballots were counted
+     * and timed by {@link VotingStreamParser}
+     * <p></p>
+     * Times are in seconds, and every phase has its total time and the number of times it was entered
+     *
+     * @param output     The {@link OutputStream} to which to write
+     * @param systemName The short name of the {@link VotingSystem} that ran the election, or null if none was created
+     */
+    public void write(final OutputStream output, final String systemName) {
+        final PrintWriter writer = new PrintWriter(output);
+        writer.println("{");
+        writer.printf("    \"system\" : %s,\n", systemName == null ? "null" : '"' + systemName + '"');
+        
+        writer.println("    \"phases\" : {");
+        int i = 0;
+        for(final Map.Entry<String, long[]> phase : phases.entrySet()) {
+            writer.printf("        \"%s\" : {\"seconds\" : %s, \"count\" : %d}%s\n", phase.getKey(), toSeconds(phase.getValue()[0]),
+                phase.getValue()[1], ++i == phases.size() ? "" : ",");
+        }
+        writer.println("    },");
+        
+        writer.println("    \"counters\" : {");
+        i = 0;
+        for(final Map.Entry<String, Long> counter : counters.entrySet()) {
+            writer.printf("        \"%s\" : %d%s\n", counter.getKey(), counter.getValue(), ++i == counters.size() ? "" : ",");
+        }
+        writer.println("    },");
+        
+        //The throughput of parsing ballots, which is only known if the ballots were parsed
+        final long ballotNanos = getPhaseNanos("parse.ballots");
+        writer.printf("    \"ballotsPerSecond\" : %s,\n", ballotNanos == 0 ? "null"
+            : String.format(Locale.ROOT, "%.1f", getCount("ballots") * 1e9 / ballotNanos));
+        writer.printf("    \"bytesRead\" : %d,\n", bytesRead);
+        writer.printf("    \"auditBytesWritten\" : %d,\n", auditBytesWritten);
+        writer.printf("    \"auditWriteSeconds\" : %s,\n", toSeconds(auditWriteNanos));
+        
+        writer.println("    \"rounds\" : [");
+        for(i = 0; i < rounds.size(); i++) {
+            writer.printf("        {\"round\" : %d, \"seconds\" : %s, \"transfers\" : %d}%s\n", i + 1, toSeconds(rounds.get(i)[0]),
+                rounds.get(i)[1], i == rounds.size() - 1 ? "" : ",");
+        }
+        writer.println("    ]");
+        writer.println("}");
+        writer.flush();
+    }
+    
+}
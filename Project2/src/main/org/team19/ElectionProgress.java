@@ -0,0 +1,276 @@
+/*
+ * File name:
+ * ElectionProgress.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tracks the live progress of an election so that it can be watched over JMX
+ */
+
+package org.team19;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the live progress of an election so that it can be watched over JMX under {@link #OBJECT_NAME}
+ * <p></p>
+ * The parser publishes its ballot counts once per chunk of ballot lines and the voting systems publish their tallies once per round, so the progress
+ * is read by JMX clients without adding work to the parsing of each ballot. Every update to {@link #DISABLED} returns immediately
+ */
+public class ElectionProgress implements ElectionProgressMXBean {
+    
+    /**
+     * The name under which an {@link ElectionProgress} is registered with the platform MBean server
+     */
+    public static final String OBJECT_NAME = "org.team19:type=ElectionProgress";
+    
+    /**
+     * The {@link ElectionProgress} that tracks nothing, which is used when progress is not requested
+     */
+    public static final ElectionProgress DISABLED = new ElectionProgress(false);
+    
+    /**
+     * Whether this {@link ElectionProgress} tracks anything
+     */
+    protected final boolean enabled;
+    
+    /**
+     * The names of the input sources mapped to the number of ballots parsed from each of them so far
+     */
+    protected final Map<String, Long> ballotsParsedBySource = new ConcurrentHashMap<>();
+    
+    /**
+     * The current phase of the run
+     */
+    protected volatile String phase = "Starting";
+    
+    /**
+     * The time in nanoseconds at which parsing started, or zero if it has not started
+     */
+    protected volatile long parseStartNanos = 0;
+    
+    /**
+     * The time in nanoseconds at which parsing finished, or zero if it has not finished
+     */
+    protected volatile long parseEndNanos = 0;
+    
+    /**
+     * The current round of the election
+     */
+    protected volatile int round = 0;
+    
+    /**
+     * The number of candidates remaining in the election
+     */
+    protected volatile int remainingCandidates = 0;
+    
+    /**
+     * The latest tallies of the election, which are replaced as a whole each round
+     */
+    protected volatile Map<String, Long> tallies = Collections.emptyMap();
+    
+    /**
+     * Initializes an enabled {@link ElectionProgress}
+     */
+    public ElectionProgress() {
+        this(true);
+    }
+    
+    /**
+     * Initializes an {@link ElectionProgress}
+     *
+     * @param enabled Whether the {@link ElectionProgress} tracks anything
+     */
+    protected ElectionProgress(final boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    /**
+     * Returns whether this {@link ElectionProgress} tracks anything
+     *
+     * @return Whether this {@link ElectionProgress} tracks anything
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Registers this {@link ElectionProgress} with the platform MBean server under {@link #OBJECT_NAME}, replacing any {@link ElectionProgress}
+     * registered by an earlier run in the same JVM
+     *
+     * @throws JMException Thrown if this {@link ElectionProgress} could not be registered
+     */
+    public void register() throws JMException {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName(OBJECT_NAME);
+        try {
+            server.registerMBean(this, name);
+        }
+        catch(InstanceAlreadyExistsException e) {
+            server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        }
+    }
+    
+    /**
+     * Unregisters the {@link ElectionProgress} registered under {@link #OBJECT_NAME}, if any
+     *
+     * @throws JMException Thrown if the {@link ElectionProgress} could not be unregistered
+     */
+    public static void unregister() throws JMException {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        }
+        catch(InstanceNotFoundException ignored) {
+            //Nothing was registered, so there is nothing to unregister
+        }
+    }
+    
+    /**
+     * Sets the current phase of the run
+     *
+     * @param phase The current phase of the run
+     */
+    public void setPhase(final String phase) {
+        if(enabled) {
+            this.phase = phase;
+        }
+    }
+    
+    /**
+     * Marks the start of parsing, from which the parse rate is measured
+     */
+    public void startParsing() {
+        if(enabled) {
+            parseStartNanos = System.nanoTime();
+            parseEndNanos = 0;
+            phase = "Parsing";
+        }
+    }
+    
+    /**
+     * Marks the end of parsing, after which the parse rate no longer changes
+     */
+    public void endParsing() {
+        if(enabled) {
+            parseEndNanos = System.nanoTime();
+        }
+    }
+    
+    /**
+     * Sets the number of ballots parsed so far from the given input source
+     *
+     * @param inputSource The name of the input source
+     * @param ballots     The number of ballots parsed so far from the input source
+     */
+    public void setBallotsParsed(final String inputSource, final long ballots) {
+        if(enabled) {
+            ballotsParsedBySource.put(inputSource, ballots);
+        }
+    }
+    
+    /**
+     * Sets the current round of the election along with the candidates remaining and the latest tallies
+     *
+     * @param round               The current round of the election
+     * @param remainingCandidates The number of candidates remaining in the election
+     * @param tallies             The latest tallies of the election, which must not be modified afterwards
+     */
+    public void setRound(final int round, final int remainingCandidates, final Map<String, Long> tallies) {
+        if(enabled) {
+            this.tallies = Collections.unmodifiableMap(tallies);
+            this.remainingCandidates = remainingCandidates;
+            this.round = round;
+        }
+    }
+    
+    /**
+     * Returns the current phase of the run
+     *
+     * @return The current phase of the run
+     */
+    @Override
+    public String getPhase() {
+        return phase;
+    }
+    
+    /**
+     * Returns the names of the input sources mapped to the number of ballots parsed from each of them so far
+     *
+     * @return The names of the input sources mapped to the number of ballots parsed from each of them so far
+     */
+    @Override
+    public Map<String, Long> getBallotsParsedBySource() {
+        return Map.copyOf(ballotsParsedBySource);
+    }
+    
+    /**
+     * Returns the total number of ballots parsed so far
+     *
+     * @return The total number of ballots parsed so far
+     */
+    @Override
+    public long getBallotsParsed() {
+        long ballotsParsed = 0;
+        for(final long ballots : ballotsParsedBySource.values()) {
+            ballotsParsed += ballots;
+        }
+        return ballotsParsed;
+    }
+    
+    /**
+     * Returns the number of ballots parsed per second since parsing started, up to when it finished
+     *
+     * @return The number of ballots parsed per second, or zero if parsing has not started
+     */
+    @Override
+    public double getParseRate() {
+        final long startNanos = parseStartNanos;
+        if(startNanos == 0) {
+            return 0;
+        }
+        final long endNanos = parseEndNanos == 0 ? System.nanoTime() : parseEndNanos;
+        return endNanos == startNanos ? 0 : getBallotsParsed() * 1e9 / (endNanos - startNanos);
+    }
+    
+    /**
+     * Returns the current round of the election
+     *
+     * @return The current round of the election, or zero if the election has not started
+     */
+    @Override
+    public int getRound() {
+        return round;
+    }
+    
+    /**
+     * Returns the number of candidates remaining in the election
+     *
+     * @return The number of candidates remaining in the election, or zero if the election has not started
+     */
+    @Override
+    public int getRemainingCandidates() {
+        return remainingCandidates;
+    }
+    
+    /**
+     * Returns the latest tallies of the election, which are the candidates' current ballots for IR and the parties' ballots for OPL
+     *
+     * @return The latest tallies of the election
+     */
+    @Override
+    public Map<String, Long> getTallies() {
+        return tallies;
+    }
+    
+}
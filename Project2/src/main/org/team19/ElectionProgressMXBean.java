@@ -0,0 +1,70 @@
+/*
+ * File name:
+ * ElectionProgressMXBean.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Defines the live progress of an election exposed over JMX
+ */
+
+package org.team19;
+
+import java.util.Map;
+
+/**
+ * Defines the live progress of an election exposed over JMX, which can be watched with jconsole or any other JMX client while the election runs
+ */
+public interface ElectionProgressMXBean {
+    
+    /**
+     * Returns the current phase of the run
+     *
+     * @return The current phase of the run
+     */
+    String getPhase();
+    
+    /**
+     * Returns the names of the input sources mapped to the number of ballots parsed from each of them so far
+     *
+     * @return The names of the input sources mapped to the number of ballots parsed from each of them so far
+     */
+    Map<String, Long> getBallotsParsedBySource();
+    
+    /**
+     * Returns the total number of ballots parsed so far
+     *
+     * @return The total number of ballots parsed so far
+     */
+    long getBallotsParsed();
+    
+    /**
+     * Returns the number of ballots parsed per second since parsing started, up to when it finished
+     *
+     * @return The number of ballots parsed per second, or zero if parsing has not started
+     */
+    double getParseRate();
+    
+    /**
+     * Returns the current round of the election
+     *
+     * @return The current round of the election, or zero if the election has not started
+     */
+    int getRound();
+    
+    /**
+     * Returns the number of candidates remaining in the election
+     *
+     * @return The number of candidates remaining in the election, or zero if the election has not started
+     */
+    int getRemainingCandidates();
+    
+    /**
+     * Returns the latest tallies of the election, which are the candidates' current ballots for IR and the parties' ballots for OPL
+     *
+     * @return The latest tallies of the election
+     */
+    Map<String, Long> getTallies();
+    
+}
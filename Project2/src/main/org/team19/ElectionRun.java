@@ -0,0 +1,345 @@
+/*
+ * File name:
+ * ElectionRun.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * A single run of an election that carries its own inputs, outputs, header registry, metrics, progress, and hooks, so that many elections can be
+ * parsed and run in parallel threads of one JVM without sharing any mutable state
+ */
+
+package org.team19;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.ParseException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A single run of an election that carries its own inputs, outputs, header registry, metrics, progress, and hooks
+ * <p></p>
+ * Nothing about a run is kept in static state, so separate {@link ElectionRun}s can be parsed and run in parallel threads without interfering with
+ * each other, although a single {@link ElectionRun} must only be used by one thread at a time
+ * <p></p>
+ * The summaries that the {@link VotingSystem}s print to standard output are still written to the shared {@link System#out}
+ */
+public final class ElectionRun {
+    
+    /**
+     * The mapping between the supported header strings and their corresponding {@link VotingSystem} classes
+     */
+    public static final Map<String, Class<? extends VotingSystem>> DEFAULT_HEADER_SYSTEM_MAP = Map.of(
+        "IR", InstantRunoffSystem.class,
+        "OPL", OpenPartyListSystem.class
+    );
+    
+    /**
+     * The {@link InputStream}s to parse as a single election
+     */
+    private final InputStream[] inputs;
+    
+    /**
+     * The names corresponding to each of the {@link InputStream}s
+     */
+    private final String[] inputNames;
+    
+    /**
+     * The {@link OutputStream} to write detailed information about the running of the election
+     */
+    private final OutputStream auditOutput;
+    
+    /**
+     * The {@link OutputStream} to write a summary about the running of the election
+     */
+    private final OutputStream reportOutput;
+    
+    /**
+     * The mapping between header strings and their corresponding {@link VotingSystem} classes
+     */
+    private Map<String, Class<? extends VotingSystem>> headerSystemMap = DEFAULT_HEADER_SYSTEM_MAP;
+    
+    /**
+     * The {@link ElectionMetrics} to record the run in
+     */
+    private ElectionMetrics metrics = ElectionMetrics.DISABLED;
+    
+    /**
+     * The {@link ElectionProgress} to publish the live progress of the run to
+     */
+    private ElectionProgress progress = ElectionProgress.DISABLED;
+    
+    /**
+     * The potential consumer used to modify the {@link VotingSystem} after its election type is parsed and before the rest of the input is
+     */
+    private Consumer<VotingSystem> beforeParsing = null;
+    
+    /**
+     * The potential consumer used to modify the {@link VotingSystem} after parsing and before the election is run
+     */
+    private Consumer<VotingSystem> beforeElection = null;
+    
+    /**
+     * The potential consumer given the {@link VotingSystem} each time another interval of ballots has been parsed
+     */
+    private Consumer<VotingSystem> ballotListener = null;
+    
+    /**
+     * The number of ballots between each call to the ballot listener
+     */
+    private int ballotListenerInterval = 1;
+    
+    /**
+     * The number of ballots after which the ballot listener is next called
+     */
+    private long nextBallotListenerCount = 1;
+    
+    /**
+     * Creates a run of the election composed of the given {@link InputStream}s that writes to the given audit and report {@link OutputStream}s
+     *
+     * @param inputs       The {@link InputStream}s to parse as a single election
+     * @param inputNames   The names corresponding to each of the {@link InputStream}s
+     * @param auditOutput  The {@link OutputStream} to write detailed information about the running of the election
+     * @param reportOutput The {@link OutputStream} to write a summary about the running of the election
+     * @throws NullPointerException     Thrown if any of the given streams or names are null
+     * @throws IllegalArgumentException Thrown if the number of {@link InputStream}s is not at least 1 or does not match the number of names
+     */
+    public ElectionRun(final InputStream[] inputs, final String[] inputNames, final OutputStream auditOutput, final OutputStream reportOutput)
+        throws NullPointerException, IllegalArgumentException {
+        //Require that the input streams, their names, and the output streams are nonnull
+        Objects.requireNonNull(inputs);
+        for(final InputStream input : inputs) {
+            Objects.requireNonNull(input);
+        }
+        Objects.requireNonNull(inputNames);
+        for(final String inputName : inputNames) {
+            Objects.requireNonNull(inputName);
+        }
+        Objects.requireNonNull(auditOutput);
+        Objects.requireNonNull(reportOutput);
+        
+        //Throw an exception if not at least 1 InputStream instance is provided
+        if(inputs.length < 1) {
+            throw new IllegalArgumentException("The number of InputStream instances provided must be at least 1");
+        }
+        
+        //Throw an exception if any InputStream instance is missing its name
+        if(inputs.length != inputNames.length) {
+            throw new IllegalArgumentException("The number of input names provided must match the number of InputStream instances");
+        }
+        
+        this.inputs = inputs.clone();
+        this.inputNames = inputNames.clone();
+        this.auditOutput = auditOutput;
+        this.reportOutput = reportOutput;
+    }
+    
+    /**
+     * Sets the mapping between header strings and their corresponding {@link VotingSystem} classes, which defaults to
+     * {@link #DEFAULT_HEADER_SYSTEM_MAP}
+     *
+     * @param headerSystemMap The mapping between header strings and their corresponding {@link VotingSystem} classes
+     * @return This {@link ElectionRun}
+     * @throws NullPointerException Thrown if the headerSystemMap is null
+     */
+    public ElectionRun setHeaderSystemMap(final Map<String, Class<? extends VotingSystem>> headerSystemMap) throws NullPointerException {
+        this.headerSystemMap = Objects.requireNonNull(headerSystemMap);
+        return this;
+    }
+    
+    /**
+     * Sets the {@link ElectionMetrics} to record the run in, which defaults to {@link ElectionMetrics#DISABLED}
+     *
+     * @param metrics The {@link ElectionMetrics} to record the run in
+     * @return This {@link ElectionRun}
+     * @throws NullPointerException Thrown if the metrics are null
+     */
+    public ElectionRun setMetrics(final ElectionMetrics metrics) throws NullPointerException {
+        this.metrics = Objects.requireNonNull(metrics);
+        return this;
+    }
+    
+    /**
+     * Sets the {@link ElectionProgress} to publish the live progress of the run to, which defaults to {@link ElectionProgress#DISABLED}
+     *
+     * @param progress The {@link ElectionProgress} to publish the live progress of the run to
+     * @return This {@link ElectionRun}
+     * @throws NullPointerException Thrown if the progress is null
+     */
+    public ElectionRun setProgress(final ElectionProgress progress) throws NullPointerException {
+        this.progress = Objects.requireNonNull(progress);
+        return this;
+    }
+    
+    /**
+     * Sets the consumer used to modify the {@link VotingSystem} after its election type is parsed and before the rest of the input is, or null for
+     * none
+     *
+     * @param beforeParsing The consumer used to modify the {@link VotingSystem} before the rest of the input is parsed
+     * @return This {@link ElectionRun}
+     */
+    public ElectionRun setBeforeParsing(final Consumer<VotingSystem> beforeParsing) {
+        this.beforeParsing = beforeParsing;
+        return this;
+    }
+    
+    /**
+     * Sets the consumer used to modify the {@link VotingSystem} after parsing and before the election is run, or null for none
+     *
+     * @param beforeElection The consumer used to modify the {@link VotingSystem} before the election is run
+     * @return This {@link ElectionRun}
+     */
+    public ElectionRun setBeforeElection(final Consumer<VotingSystem> beforeElection) {
+        this.beforeElection = beforeElection;
+        return this;
+    }
+    
+    /**
+     * Sets the consumer given the {@link VotingSystem} on the parsing thread each time another interval of ballots has been parsed, or null for
+     * none
+     * <p></p>
+     * The consumer is called between ballot lines, so it sees every ballot parsed up to that point and parsing resumes as soon as it returns. A
+     * line of pre-aggregated ballots that crosses several intervals calls it only once, and it is not called for the ballots after the last full
+     * interval
+     *
+     * @param interval The number of ballots between each call to the consumer
+     * @param listener The consumer given the {@link VotingSystem} each time another interval of ballots has been parsed
+     * @return This {@link ElectionRun}
+     * @throws IllegalArgumentException Thrown if the interval is not at least 1
+     */
+    public ElectionRun setBallotListener(final int interval, final Consumer<VotingSystem> listener) throws IllegalArgumentException {
+        if(interval < 1) {
+            throw new IllegalArgumentException("The ballot listener interval must be at least 1");
+        }
+        ballotListener = listener;
+        ballotListenerInterval = interval;
+        nextBallotListenerCount = interval;
+        return this;
+    }
+    
+    /**
+     * Returns the {@link InputStream}s to parse as a single election
+     *
+     * @return The {@link InputStream}s to parse as a single election
+     */
+    InputStream[] getInputs() {
+        return inputs;
+    }
+    
+    /**
+     * Returns the names corresponding to each of the {@link InputStream}s
+     *
+     * @return The names corresponding to each of the {@link InputStream}s
+     */
+    String[] getInputNames() {
+        return inputNames;
+    }
+    
+    /**
+     * Returns the {@link OutputStream} to write detailed information about the running of the election
+     *
+     * @return The {@link OutputStream} to write detailed information about the running of the election
+     */
+    OutputStream getAuditOutput() {
+        return auditOutput;
+    }
+    
+    /**
+     * Returns the {@link OutputStream} to write a summary about the running of the election
+     *
+     * @return The {@link OutputStream} to write a summary about the running of the election
+     */
+    OutputStream getReportOutput() {
+        return reportOutput;
+    }
+    
+    /**
+     * Returns the mapping between header strings and their corresponding {@link VotingSystem} classes
+     *
+     * @return The mapping between header strings and their corresponding {@link VotingSystem} classes
+     */
+    Map<String, Class<? extends VotingSystem>> getHeaderSystemMap() {
+        return headerSystemMap;
+    }
+    
+    /**
+     * Returns the {@link ElectionMetrics} to record the run in
+     *
+     * @return The {@link ElectionMetrics} to record the run in
+     */
+    ElectionMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Returns the {@link ElectionProgress} to publish the live progress of the run to
+     *
+     * @return The {@link ElectionProgress} to publish the live progress of the run to
+     */
+    ElectionProgress getProgress() {
+        return progress;
+    }
+    
+    /**
+     * Applies the consumer used to modify the {@link VotingSystem} before the rest of the input is parsed, if one is set
+     *
+     * @param votingSystem The {@link VotingSystem} whose election type has just been parsed
+     */
+    void applyBeforeParsing(final VotingSystem votingSystem) {
+        if(beforeParsing != null) {
+            beforeParsing.accept(votingSystem);
+        }
+    }
+    
+    /**
+     * Calls the ballot listener, if one is set, if the number of ballots parsed has reached the next interval
+     *
+     * @param votingSystem  The {@link VotingSystem} being parsed
+     * @param ballotsParsed The number of ballots parsed so far across all of the input sources
+     */
+    void notifyBallotsParsed(final VotingSystem votingSystem, final int ballotsParsed) {
+        if(ballotListener != null && ballotsParsed >= nextBallotListenerCount) {
+            ballotListener.accept(votingSystem);
+            nextBallotListenerCount = (ballotsParsed / ballotListenerInterval + 1L) * ballotListenerInterval;
+        }
+    }
+    
+    /**
+     * Parses the inputs of this run and returns the {@link VotingSystem} constructed from them without running its election
+     *
+     * @return The parsed {@link VotingSystem}
+     * @throws ParseException Thrown if there is an issue in parsing the inputs
+     */
+    public VotingSystem parse() throws ParseException {
+        return VotingStreamParser.parse(this);
+    }
+    
+    /**
+     * Parses the inputs of this run, runs the election, and returns the {@link VotingSystem} whose election was run
+     * <p></p>
+     * The time spent parsing and running the election is recorded in the "parse" and "election" phases of the metrics
+     *
+     * @return The {@link VotingSystem} whose election was run
+     * @throws ParseException Thrown if there is an issue in parsing the inputs
+     */
+    public VotingSystem run() throws ParseException {
+        final long parseStartNanos = metrics.startTimer();
+        final VotingSystem votingSystem = parse();
+        metrics.endPhase("parse", parseStartNanos);
+        
+        //Modify the voting system before running the election if requested
+        if(beforeElection != null) {
+            beforeElection.accept(votingSystem);
+        }
+        
+        final long electionStartNanos = metrics.startTimer();
+        progress.setPhase("Running election");
+        votingSystem.runElection();
+        metrics.endPhase("election", electionStartNanos);
+        return votingSystem;
+    }
+    
+}
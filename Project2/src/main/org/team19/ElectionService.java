@@ -0,0 +1,496 @@
+/*
+ * File name:
+ * ElectionService.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Serves elections over HTTP on localhost from a long-running JVM, running each election posted to it on its own virtual thread where the JVM
+ * supports them, or on a bounded pool otherwise, and returning its report along with a handle to its audit file
+ */
+
+package org.team19;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves elections over HTTP on localhost from a long-running JVM, so that the JVM's startup and warm-up are paid once rather than once per
+ * election and small elections are tabulated in milliseconds
+ * <p></p>
+ * POST an election file to "/elections" to run it as a single election. Each request gets its own {@link ElectionRun}, and so its own
+ * {@link VotingSystem}, and responds with the report of the election along with an "X-Audit-Id" header naming its audit file, which can then be
+ * retrieved with GET from "/audits/[id]". If the election cannot be parsed, then the response has the status 400 and the parse error instead
+ * <p></p>
+ * Where the JVM supports virtual threads, each election and each exchange runs on its own virtual thread, so an election blocked on reading its
+ * request or writing its audit does not hold a platform thread and thousands of small elections can be in progress at once. Otherwise, the
+ * elections run on a fixed pool of platform threads. Virtual threads are looked up reflectively, since the project targets an older Java release
+ * <p></p>
+ * Either way, at most a fixed number of elections are admitted at once. Requests beyond those are refused right away with the status 503 and a
+ * "Retry-After" header rather than queueing without bound
+ */
+public final class ElectionService {
+    
+    /**
+     * The exit code for invalid command-line arguments
+     */
+    private static final int USAGE_EXIT_CODE = 64;
+    
+    /**
+     * The exit code for when the service could not listen on its port
+     */
+    private static final int IO_EXIT_CODE = 2;
+    
+    /**
+     * The port to listen on if none is given
+     */
+    static final int DEFAULT_PORT = 8019;
+    
+    /**
+     * The number of elections that may wait for a platform thread if no number is given
+     */
+    static final int DEFAULT_QUEUE_CAPACITY = 64;
+    
+    /**
+     * The number of elections that may be in progress at once on virtual threads if no number is given
+     */
+    static final int DEFAULT_MAX_VIRTUAL_ELECTIONS = 10000;
+    
+    /**
+     * The {@link HttpServer} that accepts the requests
+     */
+    private final HttpServer server;
+    
+    /**
+     * The {@link ExecutorService} on which the {@link HttpServer} handles exchanges, which only wait on elections rather than run them, and which
+     * starts a virtual thread for each exchange where the JVM supports them
+     */
+    private final ExecutorService exchangeExecutor = Objects.requireNonNullElseGet(
+        newVirtualThreadExecutor(), Executors::newCachedThreadPool
+    );
+    
+    /**
+     * The {@link ExecutorService} on which the elections are run
+     */
+    private final ExecutorService electionExecutor;
+    
+    /**
+     * The permits for the elections admitted at once, which are taken when an election is submitted and returned when it finishes
+     */
+    private final Semaphore electionPermits;
+    
+    /**
+     * The directory in which the audit files are written
+     */
+    private final String auditDirectory;
+    
+    /**
+     * The number of elections that have been posted, which numbers the audit files so that their names are unique within the service
+     */
+    private final AtomicLong numElectionsPosted = new AtomicLong();
+    
+    /**
+     * Represents the outcome of running one election posted to the service
+     */
+    static final class PostedElection {
+        
+        /**
+         * The name of the audit file of the election
+         */
+        final String auditId;
+        
+        /**
+         * The report of the election, which is empty if the election could not be parsed
+         */
+        final byte[] report;
+        
+        /**
+         * The reason the election could not be parsed, or null if it was run
+         */
+        final String error;
+        
+        /**
+         * Initializes a {@link PostedElection}
+         *
+         * @param auditId The name of the audit file of the election
+         * @param report  The report of the election, which is empty if the election could not be parsed
+         * @param error   The reason the election could not be parsed, or null if it was run
+         */
+        PostedElection(final String auditId, final byte[] report, final String error) {
+            this.auditId = auditId;
+            this.report = report;
+            this.error = error;
+        }
+        
+    }
+    
+    /**
+     * Creates an {@link ElectionService} listening on the given port of localhost, which does not accept requests until it is started
+     *
+     * @param port             The port to listen on, or 0 for any free port
+     * @param electionExecutor The {@link ExecutorService} on which to run the elections, which the service shuts down when it is stopped
+     * @param maxElections     The number of elections that may be running or waiting to run at once before requests are refused
+     * @param outputDirectory  The directory under whose "audits" subdirectory the audit files are written
+     * @throws IOException Thrown if the service cannot listen on the given port
+     */
+    ElectionService(final int port, final ExecutorService electionExecutor, final int maxElections, final String outputDirectory)
+        throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/elections", this::handleElection);
+        server.createContext("/audits/", this::handleAudit);
+        server.setExecutor(exchangeExecutor);
+        
+        this.electionExecutor = electionExecutor;
+        electionPermits = new Semaphore(maxElections);
+        auditDirectory = outputDirectory + File.separator + "audits";
+    }
+    
+    /**
+     * Returns an {@link ExecutorService} that starts a new virtual thread for each task, or null if the JVM does not support virtual threads
+     *
+     * @return An {@link ExecutorService} that starts a new virtual thread for each task, or null if the JVM does not support virtual threads
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        //Thrown before Java 21, where the method is missing or, without preview features enabled, unsupported
+        catch(NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Starts accepting requests
+     */
+    void start() {
+        server.start();
+    }
+    
+    /**
+     * Stops accepting requests and interrupts any elections that are still running
+     */
+    void stop() {
+        server.stop(0);
+        electionExecutor.shutdownNow();
+        exchangeExecutor.shutdownNow();
+    }
+    
+    /**
+     * Returns the port the service is listening on
+     *
+     * @return The port the service is listening on
+     */
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    /**
+     * Sends a plain-text response with the given status
+     *
+     * @param exchange The {@link HttpExchange} to respond to
+     * @param status   The status of the response
+     * @param text     The body of the response
+     * @throws IOException Thrown if the response cannot be sent
+     */
+    private static void sendText(final HttpExchange exchange, final int status, final String text) throws IOException {
+        sendBytes(exchange, status, text.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Sends a plain-text response with the given status
+     *
+     * @param exchange The {@link HttpExchange} to respond to
+     * @param status   The status of the response
+     * @param body     The UTF-8 encoded body of the response
+     * @throws IOException Thrown if the response cannot be sent
+     */
+    private static void sendBytes(final HttpExchange exchange, final int status, final byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        
+        //A length of -1 tells the HttpServer that there is no body at all
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if(body.length != 0) {
+            exchange.getResponseBody().write(body);
+        }
+    }
+    
+    /**
+     * Parses and runs the election read from the given {@link InputStream}, writing its audit to a new file and collecting its report
+     *
+     * @param input        The {@link InputStream} of the election file
+     * @param postedNumber The number of the election among those posted to the service
+     * @return The outcome of running the election
+     * @throws IOException Thrown if the audit file cannot be created
+     */
+    PostedElection runElection(final InputStream input, final long postedNumber) throws IOException {
+        final File auditFile = VotingSystemRunner.createTimestampedFile(auditDirectory, "audit_" + postedNumber, "txt", LocalDateTime.now());
+        final ByteArrayOutputStream reportOutput = new ByteArrayOutputStream();
+        
+        try(final OutputStream auditOutput = new FileOutputStream(auditFile)) {
+            new ElectionRun(new InputStream[] {input}, new String[] {"Request " + postedNumber}, auditOutput, reportOutput).run();
+            return new PostedElection(auditFile.getName(), reportOutput.toByteArray(), null);
+        }
+        catch(ParseException e) {
+            return new PostedElection(auditFile.getName(), new byte[0], e.getMessage());
+        }
+    }
+    
+    /**
+     * Submits an election to the election {@link ExecutorService} if a permit for it is available, returning the permit once the election finishes
+     *
+     * @param election The election to run
+     * @return The {@link Future} of the outcome of the election
+     * @throws RejectedExecutionException Thrown if the most elections that may be admitted at once already are
+     */
+    Future<PostedElection> submitElection(final Callable<PostedElection> election) throws RejectedExecutionException {
+        if(!electionPermits.tryAcquire()) {
+            throw new RejectedExecutionException("Too many elections are running or waiting to run");
+        }
+        try {
+            return electionExecutor.submit(() -> {
+                try {
+                    return election.call();
+                }
+                finally {
+                    electionPermits.release();
+                }
+            });
+        }
+        //The service is stopping, so the election will never run to return its permit
+        catch(RejectedExecutionException e) {
+            electionPermits.release();
+            throw e;
+        }
+    }
+    
+    /**
+     * Handles a request to "/elections" by running the posted election and responding with its report, or refusing it if the most elections that
+     * may be admitted at once already are
+     *
+     * @param exchange The {@link HttpExchange} of the request
+     * @throws IOException Thrown if the response cannot be sent
+     */
+    private void handleElection(final HttpExchange exchange) throws IOException {
+        try {
+            if(!exchange.getRequestURI().getPath().equals("/elections")) {
+                sendText(exchange, 404, "Not found\n");
+                return;
+            }
+            if(!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendText(exchange, 405, "Elections must be posted\n");
+                return;
+            }
+            
+            //The election reads the request body on its own thread, so a slow upload only holds a thread once the election has one
+            final long postedNumber = numElectionsPosted.incrementAndGet();
+            final Future<PostedElection> future;
+            try {
+                future = submitElection(() -> runElection(exchange.getRequestBody(), postedNumber));
+            }
+            catch(RejectedExecutionException e) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendText(exchange, 503, "Too many elections are running or waiting to run\n");
+                return;
+            }
+            
+            final PostedElection postedElection;
+            try {
+                postedElection = future.get();
+            }
+            catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                sendText(exchange, 503, "The service is stopping\n");
+                return;
+            }
+            //Anything other than a parse error is a problem with the service rather than the election
+            catch(ExecutionException e) {
+                sendText(exchange, 500, "The election could not be run: " + e.getCause() + "\n");
+                return;
+            }
+            
+            exchange.getResponseHeaders().set("X-Audit-Id", postedElection.auditId);
+            exchange.getResponseHeaders().set("Location", "/audits/" + postedElection.auditId);
+            if(postedElection.error != null) {
+                sendText(exchange, 400, postedElection.error + "\n");
+            }
+            else {
+                sendBytes(exchange, 200, postedElection.report);
+            }
+        }
+        finally {
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Handles a request to "/audits/[id]" by responding with the audit file of that id
+     *
+     * @param exchange The {@link HttpExchange} of the request
+     * @throws IOException Thrown if the response cannot be sent
+     */
+    private void handleAudit(final HttpExchange exchange) throws IOException {
+        try {
+            if(!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendText(exchange, 405, "Audits can only be retrieved\n");
+                return;
+            }
+            
+            //Only names the service itself could have given out are looked up, so no other file can be read
+            final String auditId = exchange.getRequestURI().getPath().substring("/audits/".length());
+            final File auditFile = new File(auditDirectory, auditId);
+            if(!auditId.matches("audit_[0-9]+_[0-9_-]+\\.txt") || !auditFile.isFile()) {
+                sendText(exchange, 404, "No audit was found for " + auditId + "\n");
+                return;
+            }
+            
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+            exchange.sendResponseHeaders(200, auditFile.length() == 0 ? -1 : auditFile.length());
+            Files.copy(auditFile.toPath(), exchange.getResponseBody());
+        }
+        finally {
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Starts an {@link ElectionService} from the given command-line arguments and returns the exit code, which is 0 once the service is serving
+     * <p></p>
+     * Each election runs on its own virtual thread, of which at most "-m [maxElections]" are admitted at once, where the JVM supports them and
+     * "--platform-threads" is not given. Otherwise, the elections run on a pool of "-t [threads]" platform threads with at most "-q [queueCapacity]"
+     * more waiting
+     * <p></p>
+     * The console output of the elections is discarded while serving, since it would interleave across threads and is already in their reports
+     *
+     * @param args The command-line arguments, which are the optional "-p [port]", "-t [threads]", "-q [queueCapacity]", "-m [maxElections]",
+     *             "--platform-threads", and "-o [outputDirectory]" options
+     * @return The exit code, which is 0 if the service started, 64 if the arguments are invalid, or 2 if the service could not listen on its port
+     */
+    static int run(final String... args) {
+        int port = DEFAULT_PORT;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        int maxVirtualElections = DEFAULT_MAX_VIRTUAL_ELECTIONS;
+        boolean platformThreadsRequested = false;
+        String outputDirectory = "Project2";
+        
+        try {
+            for(int i = 0; i < args.length; i++) {
+                if(args[i].equals("-p")) {
+                    port = Integer.parseInt(args[++i]);
+                    if(port < 0 || port > 65535) {
+                        throw new IllegalArgumentException("The port must be between 0 and 65535");
+                    }
+                }
+                else if(args[i].equals("-t")) {
+                    numThreads = Integer.parseInt(args[++i]);
+                    if(numThreads < 1) {
+                        throw new IllegalArgumentException("The number of threads must be at least 1");
+                    }
+                }
+                else if(args[i].equals("-q")) {
+                    queueCapacity = Integer.parseInt(args[++i]);
+                    if(queueCapacity < 0) {
+                        throw new IllegalArgumentException("The queue capacity must be at least 0");
+                    }
+                }
+                else if(args[i].equals("-m")) {
+                    maxVirtualElections = Integer.parseInt(args[++i]);
+                    if(maxVirtualElections < 1) {
+                        throw new IllegalArgumentException("The maximum number of elections must be at least 1");
+                    }
+                }
+                else if(args[i].equals("--platform-threads")) {
+                    platformThreadsRequested = true;
+                }
+                else if(args[i].equals("-o")) {
+                    outputDirectory = args[++i];
+                }
+                else {
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        }
+        catch(ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(
+                "Usage: ElectionService [-p port] [-t threads] [-q queueCapacity] [-m maxElections] [--platform-threads] [-o outputDirectory]"
+            );
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "An option is missing its value" : e.getMessage());
+            return USAGE_EXIT_CODE;
+        }
+        
+        //Use a virtual thread for each election if possible, and otherwise fall back to a fixed pool of platform threads
+        final ExecutorService virtualThreadExecutor = platformThreadsRequested ? null : newVirtualThreadExecutor();
+        final ExecutorService electionExecutor = virtualThreadExecutor != null ? virtualThreadExecutor : Executors.newFixedThreadPool(numThreads);
+        final int maxElections = virtualThreadExecutor != null ? maxVirtualElections : numThreads + queueCapacity;
+        
+        final ElectionService service;
+        try {
+            service = new ElectionService(port, electionExecutor, maxElections, outputDirectory);
+        }
+        catch(IOException e) {
+            electionExecutor.shutdownNow();
+            System.err.printf("The service could not listen on port %d: %s\n", port, e.getMessage());
+            return IO_EXIT_CODE;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+        service.start();
+        
+        if(virtualThreadExecutor != null) {
+            System.out.printf(
+                "Serving elections on http://localhost:%d/elections with a virtual thread for each of up to %d elections\n", service.getPort(),
+                maxElections
+            );
+        }
+        else {
+            System.out.printf(
+                "Serving elections on http://localhost:%d/elections with %d threads and room for %d more waiting\n", service.getPort(), numThreads,
+                queueCapacity
+            );
+        }
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return 0;
+    }
+    
+    /**
+     * Serves elections over HTTP on localhost until the JVM is stopped
+     *
+     * @param args The command-line arguments, which are the optional "-p [port]", "-t [threads]", "-q [queueCapacity]", "-m [maxElections]",
+     *             "--platform-threads", and "-o [outputDirectory]" options
+     */
+    public static void main(final String... args) {
+        final int exitCode = run(args);
+        if(exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+    
+}
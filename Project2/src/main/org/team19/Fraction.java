@@ -11,25 +11,39 @@
 
 package org.team19;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
 import java.util.Objects;
 
 /**
  * Represents a rational number in the form of a simplified fraction
  * <p></p>
- * This class does not account for long overflows
+ * The numerator and denominator are stored as longs, and arithmetic on them is performed with exact long operations; only when an operation would
+ * overflow a long is its result computed and stored with {@link BigInteger}s instead, so values that fit in longs never allocate them
  */
 public class Fraction implements Comparable<Fraction> {
     
     /**
-     * The numerator of this {@link Fraction}
+     * The numerator of this {@link Fraction}, which is zero if the {@link Fraction} has been promoted to {@link BigInteger}s
      */
     protected long numerator;
     
     /**
-     * The denominator of this {@link Fraction}
+     * The denominator of this {@link Fraction}, which is one if the {@link Fraction} has been promoted to {@link BigInteger}s
      */
     protected long denominator;
     
+    /**
+     * The numerator of this {@link Fraction} if either its numerator or its denominator does not fit in a long, or null otherwise
+     */
+    protected BigInteger bigNumerator;
+    
+    /**
+     * The denominator of this {@link Fraction} if either its numerator or its denominator does not fit in a long, or null otherwise
+     */
+    protected BigInteger bigDenominator;
+    
     /**
      * The truncation of the floating-point form of the {@link Fraction}, which is assigned upon the first usage of {@link #getWholePart()} and then
      * returned for any subsequent usage
@@ -64,11 +78,101 @@ public class Fraction implements Comparable<Fraction> {
         if(denominator == 0) {
             throw new ArithmeticException(String.format("%d / %d is not a valid fraction as it has a denominator of zero", numerator, denominator));
         }
+        
+        //Long.MIN_VALUE cannot be negated or have its absolute value taken as a long, so such fractions are simplified as BigIntegers
+        if(numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+            setBigIntegers(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+            return;
+        }
+        
         this.numerator = numerator;
         this.denominator = denominator;
         simplify();
     }
     
+    /**
+     * Initializes a {@link Fraction} given a numerator and denominator that are already in simplified form with a positive denominator, which
+     * skips the simplification performed by {@link #Fraction(long, long)}
+     *
+     * @param numerator   The simplified numerator of the {@link Fraction}
+     * @param denominator The simplified, positive denominator of the {@link Fraction}
+     * @return The {@link Fraction} with the given numerator and denominator
+     */
+    protected static Fraction ofSimplified(final long numerator, final long denominator) {
+        final Fraction fraction = new Fraction(0, 1);
+        fraction.numerator = numerator;
+        fraction.denominator = denominator;
+        return fraction;
+    }
+    
+    /**
+     * Returns a {@link Fraction} given a numerator and denominator as {@link BigInteger}s, which is stored as longs if its simplified form fits
+     *
+     * @param numerator   The numerator of the {@link Fraction}
+     * @param denominator The denominator of the {@link Fraction}
+     * @return The {@link Fraction} with the given numerator and denominator
+     * @throws ArithmeticException Thrown if the denominator is zero
+     */
+    public static Fraction valueOf(final BigInteger numerator, final BigInteger denominator) {
+        final Fraction fraction = new Fraction(0, 1);
+        fraction.setBigIntegers(numerator, denominator);
+        return fraction;
+    }
+    
+    /**
+     * Returns whether the given {@link BigInteger} is within the range of longs, excluding {@link Long#MIN_VALUE} as it cannot be negated
+     *
+     * @param value The value to check
+     * @return Whether the given {@link BigInteger} is strictly greater than {@link Long#MIN_VALUE} and at most {@link Long#MAX_VALUE}
+     */
+    private static boolean fitsInLong(final BigInteger value) {
+        return value.bitLength() < Long.SIZE && value.longValue() != Long.MIN_VALUE;
+    }
+    
+    /**
+     * Sets this {@link Fraction} to the simplified form of the given numerator and denominator, storing them as longs if they both fit and as
+     * {@link BigInteger}s otherwise
+     *
+     * @param numerator   The numerator to set
+     * @param denominator The denominator to set
+     * @throws ArithmeticException Thrown if the denominator is zero
+     */
+    private void setBigIntegers(BigInteger numerator, BigInteger denominator) {
+        if(denominator.signum() == 0) {
+            throw new ArithmeticException(String.format("%s / %s is not a valid fraction as it has a denominator of zero", numerator, denominator));
+        }
+        
+        //Divide both by their signed gcd so that the fraction is simplified and the denominator is positive
+        BigInteger signedNumDenomGcd = numerator.gcd(denominator);
+        if(denominator.signum() < 0) {
+            signedNumDenomGcd = signedNumDenomGcd.negate();
+        }
+        numerator = numerator.divide(signedNumDenomGcd);
+        denominator = denominator.divide(signedNumDenomGcd);
+        
+        if(fitsInLong(numerator) && fitsInLong(denominator)) {
+            this.numerator = numerator.longValue();
+            this.denominator = denominator.longValue();
+            bigNumerator = null;
+            bigDenominator = null;
+        }
+        else {
+            this.numerator = 0;
+            this.denominator = 1;
+            bigNumerator = numerator;
+            bigDenominator = denominator;
+        }
+    }
+    
+    /**
+     * Returns whether this {@link Fraction} has a numerator or denominator that does not fit in a long and is thus stored as {@link BigInteger}s
+     *
+     * @return Whether this {@link Fraction} is stored as {@link BigInteger}s
+     */
+    public boolean isPromoted() {
+        return bigNumerator != null;
+    }
+    
     /**
      * The iterative form of the binary GCD algorithm, returning the gcd of the given two numbers if they are nonnegative
      * <p></p>
@@ -144,8 +248,12 @@ public class Fraction implements Comparable<Fraction> {
      * Returns the numerator of this {@link Fraction}
      *
      * @return The numerator of this {@link Fraction}
+     * @throws ArithmeticException Thrown if this {@link Fraction} is stored as {@link BigInteger}s
      */
     public long getNumerator() {
+        if(isPromoted()) {
+            throw new ArithmeticException(String.format("The numerator of %s does not fit in a long", this));
+        }
         return numerator;
     }
     
@@ -153,19 +261,42 @@ public class Fraction implements Comparable<Fraction> {
      * Returns the denominator of this {@link Fraction}
      *
      * @return The denominator of this {@link Fraction}
+     * @throws ArithmeticException Thrown if this {@link Fraction} is stored as {@link BigInteger}s
      */
     public long getDenominator() {
+        if(isPromoted()) {
+            throw new ArithmeticException(String.format("The denominator of %s does not fit in a long", this));
+        }
         return denominator;
     }
     
+    /**
+     * Returns the numerator of this {@link Fraction} as a {@link BigInteger}
+     *
+     * @return The numerator of this {@link Fraction} as a {@link BigInteger}
+     */
+    public BigInteger getBigNumerator() {
+        return isPromoted() ? bigNumerator : BigInteger.valueOf(numerator);
+    }
+    
+    /**
+     * Returns the denominator of this {@link Fraction} as a {@link BigInteger}
+     *
+     * @return The denominator of this {@link Fraction} as a {@link BigInteger}
+     */
+    public BigInteger getBigDenominator() {
+        return isPromoted() ? bigDenominator : BigInteger.valueOf(denominator);
+    }
+    
     /**
      * Returns the truncation of the floating-point form of this {@link Fraction}
      *
      * @return The truncation of the floating-point form of this {@link Fraction}
+     * @throws ArithmeticException Thrown if the truncation does not fit in a long
      */
     public long getWholePart() {
         if(wholePart == null) {
-            wholePart = new Fraction(numerator / denominator, 1);
+            wholePart = isPromoted() ? valueOf(bigNumerator.divide(bigDenominator), BigInteger.ONE) : new Fraction(numerator / denominator, 1);
         }
         return wholePart.getNumerator();
     }
@@ -191,6 +322,9 @@ public class Fraction implements Comparable<Fraction> {
      * @return The value represented by the fraction as a double
      */
     public double getDoubleValue() {
+        if(isPromoted()) {
+            return new BigDecimal(bigNumerator).divide(new BigDecimal(bigDenominator), MathContext.DECIMAL64).doubleValue();
+        }
         return (double) numerator / denominator;
     }
     
@@ -201,15 +335,24 @@ public class Fraction implements Comparable<Fraction> {
      * @throws ArithmeticException Thrown if the numerator is zero as the reciprocal would result in a division by zero
      */
     public Fraction reciprocal() {
-        if(numerator == 0) {
-            throw new ArithmeticException(String.format("The reciprocal of %d / %d would cause an illegal division by zero", numerator, denominator));
+        if(isZero()) {
+            throw new ArithmeticException(String.format("The reciprocal of %s would cause an illegal division by zero", this));
         }
         else if(reciprocal == null) {
-            reciprocal = new Fraction(denominator, numerator);
+            reciprocal = isPromoted() ? valueOf(bigDenominator, bigNumerator) : new Fraction(denominator, numerator);
         }
         return reciprocal;
     }
     
+    /**
+     * Returns whether this {@link Fraction} is zero
+     *
+     * @return Whether this {@link Fraction} is zero
+     */
+    private boolean isZero() {
+        return !isPromoted() && numerator == 0;
+    }
+    
     /**
      * Returns the sum of this {@link Fraction} and the provided {@link Fraction}
      *
@@ -217,9 +360,19 @@ public class Fraction implements Comparable<Fraction> {
      * @return The sum of this and the other fraction
      */
     public Fraction add(final Fraction other) {
-        final long n1 = numerator, d1 = denominator;
-        final long n2 = other.numerator, d2 = other.denominator;
-        return new Fraction(n1 * d2 + n2 * d1, d1 * d2);
+        if(!isPromoted() && !other.isPromoted()) {
+            final long n1 = numerator, d1 = denominator;
+            final long n2 = other.numerator, d2 = other.denominator;
+            try {
+                return new Fraction(Math.addExact(Math.multiplyExact(n1, d2), Math.multiplyExact(n2, d1)), Math.multiplyExact(d1, d2));
+            }
+            //If the result overflows, then compute it with BigIntegers
+            catch(ArithmeticException ignored) {}
+        }
+        return valueOf(
+            getBigNumerator().multiply(other.getBigDenominator()).add(other.getBigNumerator().multiply(getBigDenominator())),
+            getBigDenominator().multiply(other.getBigDenominator())
+        );
     }
     
     /**
@@ -229,9 +382,19 @@ public class Fraction implements Comparable<Fraction> {
      * @return The difference of this and the other fraction
      */
     public Fraction subtract(final Fraction other) {
-        final long n1 = numerator, d1 = denominator;
-        final long n2 = other.numerator, d2 = other.denominator;
-        return new Fraction(n1 * d2 - n2 * d1, d1 * d2);
+        if(!isPromoted() && !other.isPromoted()) {
+            final long n1 = numerator, d1 = denominator;
+            final long n2 = other.numerator, d2 = other.denominator;
+            try {
+                return new Fraction(Math.subtractExact(Math.multiplyExact(n1, d2), Math.multiplyExact(n2, d1)), Math.multiplyExact(d1, d2));
+            }
+            //If the result overflows, then compute it with BigIntegers
+            catch(ArithmeticException ignored) {}
+        }
+        return valueOf(
+            getBigNumerator().multiply(other.getBigDenominator()).subtract(other.getBigNumerator().multiply(getBigDenominator())),
+            getBigDenominator().multiply(other.getBigDenominator())
+        );
     }
     
     /**
@@ -241,9 +404,16 @@ public class Fraction implements Comparable<Fraction> {
      * @return The product of this and the other fraction
      */
     public Fraction multiply(final Fraction other) {
-        final long n1 = numerator, d1 = denominator;
-        final long n2 = other.numerator, d2 = other.denominator;
-        return new Fraction(n1 * n2, d1 * d2);
+        if(!isPromoted() && !other.isPromoted()) {
+            final long n1 = numerator, d1 = denominator;
+            final long n2 = other.numerator, d2 = other.denominator;
+            try {
+                return new Fraction(Math.multiplyExact(n1, n2), Math.multiplyExact(d1, d2));
+            }
+            //If the result overflows, then compute it with BigIntegers
+            catch(ArithmeticException ignored) {}
+        }
+        return valueOf(getBigNumerator().multiply(other.getBigNumerator()), getBigDenominator().multiply(other.getBigDenominator()));
     }
     
     /**
@@ -251,11 +421,22 @@ public class Fraction implements Comparable<Fraction> {
      *
      * @param other The other fraction to act as the divisor in the quotient
      * @return The quotient of this and the other fraction
+     * @throws ArithmeticException Thrown if the other fraction is zero
      */
     public Fraction divide(final Fraction other) {
-        final long n1 = numerator, d1 = denominator;
-        final long n2 = other.numerator, d2 = other.denominator;
-        return new Fraction(n1 * d2, d1 * n2);
+        if(other.isZero()) {
+            throw new ArithmeticException(String.format("Dividing %s by %s would cause an illegal division by zero", this, other));
+        }
+        if(!isPromoted() && !other.isPromoted()) {
+            final long n1 = numerator, d1 = denominator;
+            final long n2 = other.numerator, d2 = other.denominator;
+            try {
+                return new Fraction(Math.multiplyExact(n1, d2), Math.multiplyExact(d1, n2));
+            }
+            //If the result overflows, then compute it with BigIntegers
+            catch(ArithmeticException ignored) {}
+        }
+        return valueOf(getBigNumerator().multiply(other.getBigDenominator()), getBigDenominator().multiply(other.getBigNumerator()));
     }
     
     /**
@@ -265,9 +446,32 @@ public class Fraction implements Comparable<Fraction> {
      * @return 0 if this is equal to other, -1 if this is less than other, and 1 if this is greater than other
      */
     public int compareTo(final Fraction other) {
-        final long n1 = numerator, d1 = denominator;
-        final long n2 = other.numerator, d2 = other.denominator;
-        return Long.compare(n1 * d2, n2 * d1);
+        if(!isPromoted() && !other.isPromoted()) {
+            return compare(numerator, denominator, other.numerator, other.denominator);
+        }
+        return getBigNumerator().multiply(other.getBigDenominator()).compareTo(other.getBigNumerator().multiply(getBigDenominator()));
+    }
+    
+    /**
+     * Returns the result of comparing the fractions n1 / d1 and n2 / d2 numerically, which need not be simplified, without creating any objects
+     * <p></p>
+     * The cross-products n1 * d2 and n2 * d1 are computed exactly as 128-bit values, with the upper 64 bits given by {@link Math#multiplyHigh(long,
+     * long)} and the lower 64 bits given by the overflowing long product, so the comparison never overflows
+     *
+     * @param n1 The numerator of the first fraction
+     * @param d1 The positive denominator of the first fraction
+     * @param n2 The numerator of the second fraction
+     * @param d2 The positive denominator of the second fraction
+     * @return 0 if n1 / d1 is equal to n2 / d2, -1 if n1 / d1 is less than n2 / d2, and 1 if n1 / d1 is greater than n2 / d2
+     */
+    public static int compare(final long n1, final long d1, final long n2, final long d2) {
+        //Compare the signed upper halves first, and if they are equal, then compare the lower halves as unsigned values
+        final long high1 = Math.multiplyHigh(n1, d2);
+        final long high2 = Math.multiplyHigh(n2, d1);
+        if(high1 != high2) {
+            return high1 < high2 ? -1 : 1;
+        }
+        return Long.compareUnsigned(n1 * d2, n2 * d1);
     }
     
     /**
@@ -279,7 +483,9 @@ public class Fraction implements Comparable<Fraction> {
     @Override
     public String toString() {
         if(fractionStr == null) {
-            fractionStr = String.format("%d / %d", numerator, denominator);
+            fractionStr = isPromoted()
+                ? String.format("%s / %s", bigNumerator, bigDenominator)
+                : String.format("%d / %d", numerator, denominator);
         }
         return fractionStr;
     }
@@ -299,7 +505,8 @@ public class Fraction implements Comparable<Fraction> {
             return false;
         }
         final Fraction fraction = (Fraction) other;
-        return numerator == fraction.numerator && denominator == fraction.denominator;
+        return numerator == fraction.numerator && denominator == fraction.denominator && Objects.equals(bigNumerator, fraction.bigNumerator)
+            && Objects.equals(bigDenominator, fraction.bigDenominator);
     }
     
     /**
@@ -309,6 +516,6 @@ public class Fraction implements Comparable<Fraction> {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(numerator, denominator);
+        return isPromoted() ? Objects.hash(bigNumerator, bigDenominator) : Objects.hash(numerator, denominator);
     }
 }
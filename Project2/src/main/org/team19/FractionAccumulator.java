@@ -0,0 +1,330 @@
+/*
+ * File name:
+ * FractionAccumulator.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Represents a mutable rational number for performing repeated arithmetic on fractions without creating a Fraction for every intermediate result
+ */
+
+package org.team19;
+
+/**
+ * Represents a mutable rational number on which arithmetic is performed in place
+ * <p></p>
+ * Unlike {@link Fraction}, the result of each operation is not simplified immediately; instead, simplification is deferred until the value is read
+ * or until the numerator or denominator grows beyond {@link #SIMPLIFY_THRESHOLD}, so a sequence of operations creates no objects and runs the gcd
+ * algorithm rarely
+ * <p></p>
+ * Arithmetic is performed with exact long operations; if an operation would overflow even after simplifying, then an {@link ArithmeticException} is
+ * thrown, in which case {@link Fraction} should be used as it promotes to {@link java.math.BigInteger}s instead
+ */
+public class FractionAccumulator {
+    
+    /**
+     * The magnitude beyond which the numerator or denominator causes the value to be simplified after an operation, which keeps the operands of the
+     * next operation small enough that their products fit in a long
+     */
+    protected static final long SIMPLIFY_THRESHOLD = 1L << 31;
+    
+    /**
+     * The numerator of this {@link FractionAccumulator}, which is not necessarily simplified
+     */
+    protected long numerator;
+    
+    /**
+     * The denominator of this {@link FractionAccumulator}, which is always positive but is not necessarily simplified
+     */
+    protected long denominator;
+    
+    /**
+     * Whether the numerator and denominator are currently in simplified form
+     */
+    protected boolean simplified;
+    
+    /**
+     * Initializes a {@link FractionAccumulator} with a value of zero
+     */
+    public FractionAccumulator() {
+        numerator = 0;
+        denominator = 1;
+        simplified = true;
+    }
+    
+    /**
+     * Initializes a {@link FractionAccumulator} with the given numerator and denominator
+     *
+     * @param numerator   The numerator of the {@link FractionAccumulator}
+     * @param denominator The denominator of the {@link FractionAccumulator}
+     * @throws ArithmeticException Thrown if the denominator is zero
+     */
+    public FractionAccumulator(final long numerator, final long denominator) {
+        set(numerator, denominator);
+    }
+    
+    /**
+     * Initializes a {@link FractionAccumulator} with the value of the given {@link Fraction}
+     *
+     * @param fraction The {@link Fraction} whose value to use
+     */
+    public FractionAccumulator(final Fraction fraction) {
+        set(fraction);
+    }
+    
+    /**
+     * Sets the numerator and denominator of this {@link FractionAccumulator}, such that the denominator is positive
+     *
+     * @param numerator   The numerator to set
+     * @param denominator The denominator to set
+     * @throws ArithmeticException Thrown if the denominator is zero or if either value is {@link Long#MIN_VALUE}, which cannot be negated
+     */
+    private void setNormalized(final long numerator, final long denominator) {
+        if(denominator == 0) {
+            throw new ArithmeticException(String.format("%d / %d is not a valid fraction as it has a denominator of zero", numerator, denominator));
+        }
+        else if(numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+            throw new ArithmeticException(String.format("%d / %d cannot be represented by a FractionAccumulator", numerator, denominator));
+        }
+        
+        //Move the sign to the numerator so that the whole part can be found by truncating division
+        if(denominator < 0) {
+            this.numerator = -numerator;
+            this.denominator = -denominator;
+        }
+        else {
+            this.numerator = numerator;
+            this.denominator = denominator;
+        }
+        
+        //Simplify early if the value has grown large enough that the next operation might overflow
+        simplified = false;
+        if(Math.abs(this.numerator) > SIMPLIFY_THRESHOLD || this.denominator > SIMPLIFY_THRESHOLD) {
+            simplify();
+        }
+    }
+    
+    /**
+     * Sets this {@link FractionAccumulator} to the given numerator and denominator
+     *
+     * @param numerator   The numerator to set
+     * @param denominator The denominator to set
+     * @return This {@link FractionAccumulator}
+     * @throws ArithmeticException Thrown if the denominator is zero
+     */
+    public FractionAccumulator set(final long numerator, final long denominator) {
+        setNormalized(numerator, denominator);
+        return this;
+    }
+    
+    /**
+     * Sets this {@link FractionAccumulator} to the value of the given {@link Fraction}, which is already simplified
+     *
+     * @param fraction The {@link Fraction} whose value to use
+     * @return This {@link FractionAccumulator}
+     * @throws ArithmeticException Thrown if the {@link Fraction} does not fit in longs
+     */
+    public FractionAccumulator set(final Fraction fraction) {
+        numerator = fraction.getNumerator();
+        denominator = fraction.getDenominator();
+        simplified = true;
+        return this;
+    }
+    
+    /**
+     * Adds the given numerator and denominator to this {@link FractionAccumulator}
+     *
+     * @param otherNumerator   The numerator of the value to add
+     * @param otherDenominator The denominator of the value to add
+     * @return This {@link FractionAccumulator}
+     * @throws ArithmeticException Thrown if the given denominator is zero or if the result overflows
+     */
+    public FractionAccumulator add(final long otherNumerator, final long otherDenominator) {
+        try {
+            //Values with the same denominator can be added without growing the denominator
+            if(otherDenominator == denominator) {
+                setNormalized(Math.addExact(numerator, otherNumerator), denominator);
+            }
+            else {
+                setNormalized(
+                    Math.addExact(Math.multiplyExact(numerator, otherDenominator), Math.multiplyExact(otherNumerator, denominator)),
+                    Math.multiplyExact(denominator, otherDenominator)
+                );
+            }
+        }
+        catch(ArithmeticException e) {
+            //If this has not been simplified, then the overflow may be avoidable by simplifying first
+            if(simplified || otherDenominator == 0) {
+                throw e;
+            }
+            simplify();
+            return add(otherNumerator, otherDenominator);
+        }
+        return this;
+    }
+    
+    /**
+     * Adds the given {@link Fraction} to this {@link FractionAccumulator}
+     *
+     * @param other The {@link Fraction} to add
+     * @return This {@link FractionAccumulator}
+     * @throws ArithmeticException Thrown if the {@link Fraction} does not fit in longs or if the result overflows
+     */
+    public FractionAccumulator add(final Fraction other) {
+        return add(other.getNumerator(), other.getDenominator());
+    }
+    
+    /**
+     * Subtracts the given numerator and denominator from this {@link FractionAccumulator}
+     *
+     * @param otherNumerator   The numerator of the value to subtract
+     * @param otherDenominator The denominator of the value to subtract
+     * @return This {@link FractionAccumulator}
+     * @throws ArithmeticException Thrown if the given denominator is zero or if the result overflows
+     */
+    public FractionAccumulator subtract(final long otherNumerator, final long otherDenominator) {
+        return add(Math.negateExact(otherNumerator), otherDenominator);
+    }
+    
+    /**
+     * Subtracts the given {@link Fraction} from this {@link FractionAccumulator}
+     *
+     * @param other The {@link Fraction} to subtract
+     * @return This {@link FractionAccumulator}
+     * @throws ArithmeticException Thrown if the {@link Fraction} does not fit in longs or if the result overflows
+     */
+    public FractionAccumulator subtract(final Fraction other) {
+        return add(Math.negateExact(other.getNumerator()), other.getDenominator());
+    }
+    
+    /**
+     * Multiplies this {@link FractionAccumulator} by the given numerator and denominator
+     *
+     * @param otherNumerator   The numerator of the value by which to multiply
+     * @param otherDenominator The denominator of the value by which to multiply
+     * @return This {@link FractionAccumulator}
+     * @throws ArithmeticException Thrown if the given denominator is zero or if the result overflows
+     */
+    public FractionAccumulator multiply(final long otherNumerator, final long otherDenominator) {
+        try {
+            setNormalized(Math.multiplyExact(numerator, otherNumerator), Math.multiplyExact(denominator, otherDenominator));
+        }
+        catch(ArithmeticException e) {
+            //If this has not been simplified, then the overflow may be avoidable by simplifying first
+            if(simplified || otherDenominator == 0) {
+                throw e;
+            }
+            simplify();
+            return multiply(otherNumerator, otherDenominator);
+        }
+        return this;
+    }
+    
+    /**
+     * Multiplies this {@link FractionAccumulator} by the given {@link Fraction}
+     *
+     * @param other The {@link Fraction} by which to multiply
+     * @return This {@link FractionAccumulator}
+     * @throws ArithmeticException Thrown if the {@link Fraction} does not fit in longs or if the result overflows
+     */
+    public FractionAccumulator multiply(final Fraction other) {
+        return multiply(other.getNumerator(), other.getDenominator());
+    }
+    
+    /**
+     * Divides this {@link FractionAccumulator} by the given numerator and denominator
+     *
+     * @param otherNumerator   The numerator of the value by which to divide
+     * @param otherDenominator The denominator of the value by which to divide
+     * @return This {@link FractionAccumulator}
+     * @throws ArithmeticException Thrown if the given numerator or denominator is zero or if the result overflows
+     */
+    public FractionAccumulator divide(final long otherNumerator, final long otherDenominator) {
+        if(otherNumerator == 0) {
+            throw new ArithmeticException(String.format("Dividing by %d / %d would cause an illegal division by zero", otherNumerator,
+                otherDenominator));
+        }
+        return multiply(otherDenominator, otherNumerator);
+    }
+    
+    /**
+     * Divides this {@link FractionAccumulator} by the given {@link Fraction}
+     *
+     * @param other The {@link Fraction} by which to divide
+     * @return This {@link FractionAccumulator}
+     * @throws ArithmeticException Thrown if the given {@link Fraction} is zero, if it does not fit in longs, or if the result overflows
+     */
+    public FractionAccumulator divide(final Fraction other) {
+        return divide(other.getNumerator(), other.getDenominator());
+    }
+    
+    /**
+     * Simplifies this {@link FractionAccumulator} by dividing the numerator and denominator by their gcd if it has not already been simplified
+     *
+     * @return This {@link FractionAccumulator}
+     */
+    public FractionAccumulator simplify() {
+        if(!simplified) {
+            if(numerator == 0) {
+                denominator = 1;
+            }
+            else {
+                final long numDenomGcd = Fraction.gcd(Math.abs(numerator), denominator);
+                numerator /= numDenomGcd;
+                denominator /= numDenomGcd;
+            }
+            simplified = true;
+        }
+        return this;
+    }
+    
+    /**
+     * Returns the numerator of the simplified form of this {@link FractionAccumulator}
+     *
+     * @return The numerator of the simplified form of this {@link FractionAccumulator}
+     */
+    public long getNumerator() {
+        return simplify().numerator;
+    }
+    
+    /**
+     * Returns the denominator of the simplified form of this {@link FractionAccumulator}
+     *
+     * @return The denominator of the simplified form of this {@link FractionAccumulator}
+     */
+    public long getDenominator() {
+        return simplify().denominator;
+    }
+    
+    /**
+     * Returns the truncation of the floating-point form of this {@link FractionAccumulator}, which does not require simplification
+     *
+     * @return The truncation of the floating-point form of this {@link FractionAccumulator}
+     */
+    public long getWholePart() {
+        return numerator / denominator;
+    }
+    
+    /**
+     * Returns the value of this {@link FractionAccumulator} as a {@link Fraction}
+     *
+     * @return The value of this {@link FractionAccumulator} as a {@link Fraction}
+     */
+    public Fraction toFraction() {
+        simplify();
+        return Fraction.ofSimplified(numerator, denominator);
+    }
+    
+    /**
+     * Returns the string form of this {@link FractionAccumulator}
+     *
+     * @return The string form of the simplified form of this {@link FractionAccumulator} in the format "[numerator] / [denominator]", replacing
+     * [numerator] and [denominator] accordingly
+     */
+    @Override
+    public String toString() {
+        simplify();
+        return String.format("%d / %d", numerator, denominator);
+    }
+}
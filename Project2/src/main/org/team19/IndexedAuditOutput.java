@@ -0,0 +1,1003 @@
+/*
+ * File name:
+ * IndexedAuditOutput.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * An audit output that writes the text audit while recording a sidecar index of the byte offsets of each ballot's entries and of each IR round, so
+ * that the history of a single ballot can be looked up by seeking directly to it instead of searching the whole audit
+ */
+
+package org.team19;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * An audit output that writes the text audit while recording a sidecar index of where each ballot's entries and each IR round start in it
+ * <p></p>
+ * Giving an {@link IndexedAuditOutput} to a {@link VotingSystem} as its audit output writes the same text audit, byte for byte, as the underlying
+ * {@link OutputStream} would have received, since the text is encoded in the default charset like a {@link PrintWriter} over the
+ * {@link OutputStream}. The text is encoded as it is written so that the byte offset in the audit is always known, and the {@link VotingSystem}
+ * records the offsets and lengths of the entries of each ballot, such as its rankings and each of its transfers, and the start of each round
+ * <p></p>
+ * The index is written when the audit is closed. It starts with {@link #MAGIC}, {@link #VERSION}, the length of the audit, the highest ballot
+ * number, the number of rounds, and the number of entries, followed by the offset of each round, a record for each ballot number giving the
+ * position and number of its entries, and the offset and length of each entry grouped by ballot. Every record has a fixed size, so looking up a
+ * ballot reads the header, its record, and its entries, no matter how large the audit is
+ * <p></p>
+ * The entries are recorded in memory until there are too many of them, at which point they are sorted by ballot number and spilled to a temporary
+ * file as a run, so that the memory used does not grow with the size of the audit. When the audit is closed, the runs are merged into the index and
+ * the temporary file is deleted
+ * <p></p>
+ * Ballots that share a line of a sparse election file are counted and transferred together, so each of their ballot numbers refers to the same
+ * entries
+ */
+public final class IndexedAuditOutput extends OutputStream {
+    
+    /**
+     * The bytes at the start of every audit index
+     */
+    static final byte[] MAGIC = {'T', '1', '9', 'X'};
+    
+    /**
+     * The version of the audit index format
+     */
+    static final int VERSION = 1;
+    
+    /**
+     * The size of the header of the index in bytes, which is the magic, the version, the length of the audit, the highest ballot number, the
+     * number of rounds, and the number of entries
+     */
+    private static final int HEADER_SIZE = MAGIC.length + 1 + Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES;
+    
+    /**
+     * The size of the record of a ballot number in bytes, which is the position of its first entry and the number of its entries
+     */
+    private static final int BALLOT_RECORD_SIZE = Long.BYTES + Integer.BYTES;
+    
+    /**
+     * The size of the record of an entry in bytes, which is its offset in the audit and its length
+     */
+    private static final int ENTRY_RECORD_SIZE = Long.BYTES + Integer.BYTES;
+    
+    /**
+     * The size of an entry spilled to the temporary file in bytes, which is its first ballot number, its number of ballots, its offset in the
+     * audit, and its length
+     */
+    private static final int SPILLED_ENTRY_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+    
+    /**
+     * The number of entries held in memory by default before they are spilled to the temporary file as a run
+     */
+    static final int DEFAULT_RUN_SIZE = 1 << 20;
+    
+    /**
+     * The number of spilled entries read from each run at a time while the runs are merged
+     */
+    private static final int RUN_READ_SIZE = 512;
+    
+    /**
+     * The number of bytes of encoded text buffered before they are written to the underlying {@link OutputStream}
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    /**
+     * The number of characters of text encoded at a time
+     */
+    private static final int CHAR_BUFFER_SIZE = 1 << 12;
+    
+    /**
+     * The {@link OutputStream} to which the text audit is written
+     */
+    private final OutputStream output;
+    
+    /**
+     * The {@link OutputStream} to which the index is written when the audit is closed
+     */
+    private final OutputStream indexOutput;
+    
+    /**
+     * The encoder for the default charset, which replaces malformed and unmappable characters as a {@link PrintWriter} does
+     */
+    private final CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    
+    /**
+     * The text waiting to be encoded, which only holds characters between writes if the last one ended with the first half of a surrogate pair
+     */
+    private final CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+    
+    /**
+     * The encoded bytes of the audit not yet written to the underlying {@link OutputStream}
+     */
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    
+    /**
+     * The number of bytes written to the underlying {@link OutputStream}
+     */
+    private long numBytesWritten = 0;
+    
+    /**
+     * The {@link PrintWriter} through which the {@link VotingSystem} writes the text of the audit
+     */
+    private final PrintWriter textWriter = new PrintWriter(new TextWriter());
+    
+    /**
+     * The number of entries held in memory before they are spilled to the temporary file as a run
+     */
+    private final int runSize;
+    
+    /**
+     * The first ballot number of each entry held in memory, in the order the entries were written
+     */
+    private int[] entryFirstBallotNumbers = new int[1024];
+    
+    /**
+     * The number of ballots of each entry held in memory
+     */
+    private int[] entryCounts = new int[1024];
+    
+    /**
+     * The offset of each entry held in memory in the audit
+     */
+    private long[] entryOffsets = new long[1024];
+    
+    /**
+     * The length of each entry held in memory in bytes
+     */
+    private int[] entryLengths = new int[1024];
+    
+    /**
+     * The number of entries held in memory
+     */
+    private int numBufferedEntries = 0;
+    
+    /**
+     * The number of entries recorded, including those spilled to the temporary file
+     */
+    private long numEntries = 0;
+    
+    /**
+     * The temporary file to which the entries are spilled, or null if none have been spilled
+     */
+    private File entriesFile = null;
+    
+    /**
+     * The {@link DataOutputStream} through which the entries are spilled to the temporary file, or null if none have been spilled
+     */
+    private DataOutputStream entriesOutput = null;
+    
+    /**
+     * The number of entries in each run spilled to the temporary file, in the order the runs were spilled
+     */
+    private final List<Integer> runLengths = new ArrayList<>();
+    
+    /**
+     * The highest ballot number of any entry
+     */
+    private int highestBallotNumber = 0;
+    
+    /**
+     * The offset in the audit at which each round starts
+     */
+    private final List<Long> roundOffsets = new ArrayList<>();
+    
+    /**
+     * Whether writing the audit or the index has failed
+     */
+    private boolean error = false;
+    
+    /**
+     * Whether the audit has been closed
+     */
+    private boolean closed = false;
+    
+    /**
+     * Creates an {@link IndexedAuditOutput} that writes the text audit to the given {@link OutputStream} and its index to the other
+     *
+     * @param output      The {@link OutputStream} to which the text audit is written
+     * @param indexOutput The {@link OutputStream} to which the index is written when the audit is closed
+     * @throws NullPointerException Thrown if either output is null
+     */
+    public IndexedAuditOutput(final OutputStream output, final OutputStream indexOutput) throws NullPointerException {
+        this(output, indexOutput, DEFAULT_RUN_SIZE);
+    }
+    
+    /**
+     * Creates an {@link IndexedAuditOutput} that writes the text audit to the given {@link OutputStream} and its index to the other, holding the
+     * given number of entries in memory before spilling them to a temporary file
+     *
+     * @param output      The {@link OutputStream} to which the text audit is written
+     * @param indexOutput The {@link OutputStream} to which the index is written when the audit is closed
+     * @param runSize     The number of entries held in memory before they are spilled to the temporary file as a run
+     * @throws NullPointerException     Thrown if either output is null
+     * @throws IllegalArgumentException Thrown if the run size is not positive
+     */
+    IndexedAuditOutput(final OutputStream output, final OutputStream indexOutput, final int runSize)
+        throws NullPointerException, IllegalArgumentException {
+        this.output = Objects.requireNonNull(output);
+        this.indexOutput = Objects.requireNonNull(indexOutput);
+        if(runSize < 1) {
+            throw new IllegalArgumentException("The run size must be positive");
+        }
+        this.runSize = runSize;
+    }
+    
+    /**
+     * Returns the path of the index of the audit at the given path, which replaces the extension of the audit, if any, with "idx"
+     *
+     * @param auditPath The path of the audit
+     * @return The path of the index of the audit
+     */
+    public static String getIndexPath(final String auditPath) {
+        final int nameStart = Math.max(auditPath.lastIndexOf('/'), auditPath.lastIndexOf(File.separatorChar)) + 1;
+        final int extensionStart = auditPath.lastIndexOf('.');
+        return (extensionStart > nameStart ? auditPath.substring(0, extensionStart) : auditPath) + ".idx";
+    }
+    
+    /**
+     * Returns the {@link PrintWriter} through which the text of the audit is written
+     *
+     * @return The {@link PrintWriter} through which the text of the audit is written
+     */
+    PrintWriter getTextWriter() {
+        return textWriter;
+    }
+    
+    /**
+     * Returns the number of bytes of the audit written so far, which is the offset at which the next text written will start
+     *
+     * @return The current offset in the audit
+     */
+    long getPosition() {
+        return numBytesWritten + bytes.position();
+    }
+    
+    /**
+     * Records the text written since the given offset as an entry of a group of ballots, unless no text has been written since
+     *
+     * @param firstBallotNumber The number of the first of the ballots
+     * @param count             The number of ballots
+     * @param start             The offset at which the entry starts, as returned by {@link #getPosition()} before it was written
+     */
+    void addBallotEntry(final int firstBallotNumber, final int count, final long start) {
+        //If no text was written, or writing the audit or spilling entries has failed so the index is lost anyway, then there is nothing to record
+        final long length = getPosition() - start;
+        if(length == 0 || error) {
+            return;
+        }
+        
+        //If as many entries as a run are held in memory, then spill them to the temporary file, and otherwise grow the arrays if they are full
+        if(numBufferedEntries == runSize) {
+            try {
+                spillRun();
+            }
+            catch(IOException e) {
+                //The entries are lost, so the index will not be written
+                error = true;
+                numBufferedEntries = 0;
+            }
+        }
+        else if(numBufferedEntries == entryOffsets.length) {
+            final int newLength = (int) Math.min(2L * numBufferedEntries, runSize);
+            entryFirstBallotNumbers = Arrays.copyOf(entryFirstBallotNumbers, newLength);
+            entryCounts = Arrays.copyOf(entryCounts, newLength);
+            entryOffsets = Arrays.copyOf(entryOffsets, newLength);
+            entryLengths = Arrays.copyOf(entryLengths, newLength);
+        }
+        entryFirstBallotNumbers[numBufferedEntries] = firstBallotNumber;
+        entryCounts[numBufferedEntries] = count;
+        entryOffsets[numBufferedEntries] = start;
+        entryLengths[numBufferedEntries] = (int) Math.min(length, Integer.MAX_VALUE);
+        numBufferedEntries++;
+        numEntries++;
+        highestBallotNumber = Math.max(highestBallotNumber, firstBallotNumber + count - 1);
+    }
+    
+    /**
+     * Returns the positions of the entries held in memory sorted by their first ballot numbers, keeping the entries with the same first ballot
+     * number in the order they were written
+     *
+     * @return The positions of the entries held in memory in sorted order
+     */
+    private int[] sortBufferedEntries() {
+        //Each entry is sorted by a key whose high half is its first ballot number and whose low half is its position, which keeps the written order
+        final long[] keys = new long[numBufferedEntries];
+        for(int i = 0; i < numBufferedEntries; i++) {
+            keys[i] = (long) entryFirstBallotNumbers[i] << 32 | i;
+        }
+        Arrays.sort(keys);
+        
+        final int[] order = new int[numBufferedEntries];
+        for(int i = 0; i < numBufferedEntries; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+    
+    /**
+     * Sorts the entries held in memory and writes them to the end of the temporary file as a run, creating the file if it does not exist yet
+     *
+     * @throws IOException Thrown if the temporary file could not be created or written
+     */
+    private void spillRun() throws IOException {
+        if(entriesOutput == null) {
+            entriesFile = File.createTempFile("audit_entries", ".tmp");
+            entriesFile.deleteOnExit();
+            entriesOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(entriesFile), BUFFER_SIZE));
+        }
+        
+        for(final int entry : sortBufferedEntries()) {
+            entriesOutput.writeInt(entryFirstBallotNumbers[entry]);
+            entriesOutput.writeInt(entryCounts[entry]);
+            entriesOutput.writeLong(entryOffsets[entry]);
+            entriesOutput.writeInt(entryLengths[entry]);
+        }
+        runLengths.add(numBufferedEntries);
+        numBufferedEntries = 0;
+    }
+    
+    /**
+     * Records that a round of the election starts at the current offset
+     */
+    void startRound() {
+        roundOffsets.add(getPosition());
+    }
+    
+    /**
+     * Returns whether writing the audit or the index has failed
+     *
+     * @return True if writing the audit or the index has failed
+     */
+    public boolean checkError() {
+        return error;
+    }
+    
+    /**
+     * Writes the encoded bytes of the audit to the underlying {@link OutputStream}
+     *
+     * @throws IOException Thrown if the bytes could not be written
+     */
+    private void drainBytes() throws IOException {
+        if(bytes.position() != 0) {
+            try {
+                output.write(bytes.array(), 0, bytes.position());
+            }
+            catch(IOException e) {
+                error = true;
+                throw e;
+            }
+            numBytesWritten += bytes.position();
+            bytes.clear();
+        }
+    }
+    
+    /**
+     * Encodes the text waiting to be encoded, keeping the first half of a surrogate pair at its end until the rest of the pair is written
+     *
+     * @param endOfInput Whether no more text will be written, in which case the text is encoded in full
+     * @throws IOException Thrown if the encoded bytes could not be written
+     */
+    private void encodeChars(final boolean endOfInput) throws IOException {
+        chars.flip();
+        while(encoder.encode(chars, bytes, endOfInput).isOverflow()) {
+            drainBytes();
+        }
+        chars.compact();
+    }
+    
+    /**
+     * Throws an {@link IOException} if the audit has been closed
+     *
+     * @throws IOException Thrown if the audit has been closed
+     */
+    private void ensureOpen() throws IOException {
+        if(closed) {
+            throw new IOException("The indexed audit has been closed");
+        }
+    }
+    
+    /**
+     * Writes the given byte directly to the audit
+     *
+     * @param value The byte to write
+     * @throws IOException Thrown if the audit has been closed or could not be written
+     */
+    @Override
+    public void write(final int value) throws IOException {
+        write(new byte[] {(byte) value}, 0, 1);
+    }
+    
+    /**
+     * Writes the given bytes directly to the audit after the text written before them
+     *
+     * @param bytes  The bytes to write
+     * @param offset The position of the first byte to write
+     * @param length The number of bytes to write
+     * @throws IOException Thrown if the audit has been closed or could not be written
+     */
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        ensureOpen();
+        if(length != 0) {
+            drainBytes();
+            try {
+                output.write(bytes, offset, length);
+            }
+            catch(IOException e) {
+                error = true;
+                throw e;
+            }
+            numBytesWritten += length;
+        }
+    }
+    
+    /**
+     * Writes the encoded text to the underlying {@link OutputStream} and flushes it
+     *
+     * @throws IOException Thrown if the audit could not be written
+     */
+    @Override
+    public void flush() throws IOException {
+        if(!closed) {
+            drainBytes();
+            output.flush();
+        }
+        if(error) {
+            throw new IOException("The indexed audit could not be written");
+        }
+    }
+    
+    /**
+     * Finishes and closes the audit, then writes and closes the index
+     *
+     * @throws IOException Thrown if the audit or the index could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        if(!closed) {
+            closed = true;
+            try {
+                encodeChars(true);
+                while(encoder.flush(bytes).isOverflow()) {
+                    drainBytes();
+                }
+                drainBytes();
+                output.close();
+                writeIndex();
+            }
+            catch(IOException e) {
+                error = true;
+            }
+            finally {
+                deleteEntriesFile();
+            }
+        }
+        if(error) {
+            throw new IOException("The indexed audit could not be written");
+        }
+    }
+    
+    /**
+     * Closes and deletes the temporary file to which the entries were spilled, if there is one
+     */
+    private void deleteEntriesFile() {
+        if(entriesFile != null) {
+            try {
+                entriesOutput.close();
+            }
+            catch(IOException ignored) {}
+            if(!entriesFile.delete()) {
+                entriesFile.deleteOnExit();
+            }
+            entriesFile = null;
+        }
+    }
+    
+    /**
+     * Writes the index to the index {@link OutputStream} and closes it
+     *
+     * @throws IOException Thrown if the index could not be written
+     */
+    private void writeIndex() throws IOException {
+        //If entries were spilled, then spill the rest so that every entry is in a run of the temporary file
+        if(entriesOutput != null) {
+            if(numBufferedEntries != 0) {
+                spillRun();
+            }
+            entriesOutput.close();
+        }
+        final int[] bufferedOrder = sortBufferedEntries();
+        
+        try(final DataOutputStream index = new DataOutputStream(new BufferedOutputStream(indexOutput, BUFFER_SIZE));
+            final FileChannel entriesChannel = entriesFile != null ? new RandomAccessFile(entriesFile, "r").getChannel() : null) {
+            index.write(MAGIC);
+            index.writeByte(VERSION);
+            index.writeLong(numBytesWritten);
+            index.writeInt(highestBallotNumber);
+            index.writeInt(roundOffsets.size());
+            index.writeLong(numEntries);
+            for(final long roundOffset : roundOffsets) {
+                index.writeLong(roundOffset);
+            }
+            
+            //Write the record of each ballot number from the groups of entries with the same first ballot number, in order of ballot number
+            final SortedEntries groupEntries = new SortedEntries(entriesChannel, bufferedOrder);
+            long nextBallotNumber = 1;
+            long entryPosition = 0;
+            boolean hasEntry = groupEntries.next();
+            while(hasEntry) {
+                final int groupFirstBallotNumber = groupEntries.firstBallotNumber;
+                final long groupLastBallotNumber = (long) groupFirstBallotNumber + groupEntries.count - 1;
+                final long groupStart = entryPosition;
+                do {
+                    entryPosition++;
+                    hasEntry = groupEntries.next();
+                }
+                while(hasEntry && groupEntries.firstBallotNumber == groupFirstBallotNumber);
+                
+                //Ballot numbers before the group have no entries, and each ballot number of the group has all of the group's entries
+                for(; nextBallotNumber < groupFirstBallotNumber; nextBallotNumber++) {
+                    index.writeLong(0);
+                    index.writeInt(0);
+                }
+                for(; nextBallotNumber <= groupLastBallotNumber; nextBallotNumber++) {
+                    index.writeLong(groupStart);
+                    index.writeInt((int) Math.min(entryPosition - groupStart, Integer.MAX_VALUE));
+                }
+            }
+            for(; nextBallotNumber <= highestBallotNumber; nextBallotNumber++) {
+                index.writeLong(0);
+                index.writeInt(0);
+            }
+            
+            //Write the entries in the same order
+            final SortedEntries entries = new SortedEntries(entriesChannel, bufferedOrder);
+            while(entries.next()) {
+                index.writeLong(entries.offset);
+                index.writeInt(entries.length);
+            }
+        }
+    }
+    
+    /**
+     * Writes the history of a ballot to the given {@link OutputStream}, which is each of its entries in the audit under the round in which it was
+     * written, reading only the header of the index, the record of the ballot, and its entries
+     *
+     * @param auditPath    The path of the text audit
+     * @param indexPath    The path of the index of the audit
+     * @param ballotNumber The number of the ballot to look up
+     * @param output       The {@link OutputStream} to which the history is written, which is flushed but not closed
+     * @throws IOException              Thrown if the audit or the index could not be read or the history could not be written
+     * @throws ParseException           Thrown if the index is malformed or does not belong to the audit, where the error offset is the position in
+     *                                  the index
+     * @throws IllegalArgumentException Thrown if the ballot number is not in the range of ballot numbers of the audit
+     */
+    public static void lookupBallot(final String auditPath, final String indexPath, final int ballotNumber, final OutputStream output)
+        throws IOException, ParseException, IllegalArgumentException {
+        try(final RandomAccessFile audit = new RandomAccessFile(auditPath, "r");
+            final RandomAccessFile index = new RandomAccessFile(indexPath, "r")) {
+            //Check the header of the index and that its records account for exactly the length of the index
+            if(index.length() < HEADER_SIZE) {
+                throw new ParseException("The input is not an audit index", 0);
+            }
+            final byte[] magic = new byte[MAGIC.length];
+            index.readFully(magic);
+            if(!Arrays.equals(magic, MAGIC)) {
+                throw new ParseException("The input is not an audit index", 0);
+            }
+            final int version = index.readUnsignedByte();
+            if(version != VERSION) {
+                throw new ParseException(String.format(
+                    "The audit index has version %d, but only version %d is supported", version, VERSION
+                ), MAGIC.length);
+            }
+            final long auditLength = index.readLong();
+            final int highestBallotNumber = index.readInt();
+            final int numRounds = index.readInt();
+            final long numIndexEntries = index.readLong();
+            if(highestBallotNumber < 0 || numRounds < 0 || numIndexEntries < 0 || index.length() != HEADER_SIZE + (long) Long.BYTES * numRounds
+                + (long) BALLOT_RECORD_SIZE * highestBallotNumber + ENTRY_RECORD_SIZE * numIndexEntries) {
+                throw new ParseException("The audit index is malformed", MAGIC.length + 1);
+            }
+            if(auditLength != audit.length()) {
+                throw new ParseException(
+                    String.format("The audit index is for an audit of %d bytes, but the audit has %d bytes", auditLength, audit.length()),
+                    MAGIC.length + 1
+                );
+            }
+            if(ballotNumber < 1 || ballotNumber > highestBallotNumber) {
+                throw new IllegalArgumentException(String.format(
+                    "Ballot %d is not in the audit, which has ballots 1 through %d", ballotNumber, highestBallotNumber
+                ));
+            }
+            
+            final long[] roundOffsets = new long[numRounds];
+            for(int i = 0; i < numRounds; i++) {
+                roundOffsets[i] = index.readLong();
+            }
+            
+            //Find the entries of the ballot from its record
+            final long ballotRecordPosition = HEADER_SIZE + (long) Long.BYTES * numRounds + (long) BALLOT_RECORD_SIZE * (ballotNumber - 1);
+            index.seek(ballotRecordPosition);
+            final long firstEntry = index.readLong();
+            final int numBallotEntries = index.readInt();
+            if(firstEntry < 0 || numBallotEntries < 0 || firstEntry + numBallotEntries > numIndexEntries) {
+                throw new ParseException("The audit index is malformed", (int) Math.min(ballotRecordPosition, Integer.MAX_VALUE));
+            }
+            
+            final PrintWriter writer = new PrintWriter(output);
+            if(numBallotEntries == 0) {
+                writer.printf("Ballot %d does not appear in the audit\n", ballotNumber);
+            }
+            
+            //Write each entry under the round in which it was written, where entries before the first round were written while counting ballots
+            final long entriesPosition = HEADER_SIZE + (long) Long.BYTES * numRounds + (long) BALLOT_RECORD_SIZE * highestBallotNumber;
+            int lastRound = -1;
+            for(int i = 0; i < numBallotEntries; i++) {
+                final long entryRecordPosition = entriesPosition + ENTRY_RECORD_SIZE * (firstEntry + i);
+                index.seek(entryRecordPosition);
+                final long entryOffset = index.readLong();
+                final int entryLength = index.readInt();
+                if(entryOffset < 0 || entryLength < 0 || entryOffset + entryLength > auditLength) {
+                    throw new ParseException("The audit index is malformed", (int) Math.min(entryRecordPosition, Integer.MAX_VALUE));
+                }
+                
+                final int searchResult = Arrays.binarySearch(roundOffsets, entryOffset);
+                final int round = searchResult >= 0 ? searchResult + 1 : -searchResult - 1;
+                if(round != lastRound) {
+                    writer.println(round == 0 ? "While counting the ballots:" : String.format("In round %d:", round));
+                    lastRound = round;
+                }
+                
+                final byte[] entry = new byte[entryLength];
+                audit.seek(entryOffset);
+                audit.readFully(entry);
+                writer.flush();
+                output.write(entry);
+            }
+            writer.flush();
+            if(writer.checkError()) {
+                throw new IOException("The history of the ballot could not be written");
+            }
+        }
+    }
+    
+    /**
+     * Writes the history of the ballot with the number given by the second argument from the audit at the path given by the first argument to
+     * standard output, using the index at the path given by the third argument or at {@link #getIndexPath(String)} if there is none, and returns
+     * the exit code
+     *
+     * @param args The path of the audit and the ballot number, optionally followed by the path of the index
+     * @return 0 on success, 64 for invalid arguments, 2 if a file could not be read, or 65 if the index is malformed or does not belong to the
+     * audit
+     */
+    static int runLookup(final String... args) {
+        if(args.length < 2 || args.length > 3) {
+            System.err.println("Usage: VotingSystemRunner --lookup audit ballotNumber [index]");
+            return 64;
+        }
+        
+        final int ballotNumber;
+        try {
+            ballotNumber = Integer.parseInt(args[1]);
+        }
+        catch(NumberFormatException e) {
+            System.err.printf("The ballot number %s is not an integer\n", args[1]);
+            return 64;
+        }
+        
+        final String indexPath = args.length == 3 ? args[2] : getIndexPath(args[0]);
+        try {
+            lookupBallot(args[0], indexPath, ballotNumber, System.out);
+        }
+        catch(IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 64;
+        }
+        catch(IOException e) {
+            System.err.println("The ballot could not be looked up: " + e.getMessage());
+            return 2;
+        }
+        catch(ParseException e) {
+            System.err.printf("%s at byte %d of %s\n", e.getMessage(), e.getErrorOffset(), indexPath);
+            return 65;
+        }
+        return 0;
+    }
+    
+    /**
+     * The entries in order of their first ballot numbers, keeping the entries with the same first ballot number in the order they were written,
+     * which merges the runs spilled to the temporary file with the entries held in memory
+     */
+    private final class SortedEntries {
+        
+        /**
+         * The runs that have entries left, ordered by the first ballot number of their next entry and then by the order in which they were spilled
+         */
+        private final PriorityQueue<Run> runs = new PriorityQueue<>(
+            Comparator.comparingInt((Run run) -> run.firstBallotNumber).thenComparingInt(run -> run.runNumber)
+        );
+        
+        /**
+         * The first ballot number of the current entry
+         */
+        private int firstBallotNumber;
+        
+        /**
+         * The number of ballots of the current entry
+         */
+        private int count;
+        
+        /**
+         * The offset of the current entry in the audit
+         */
+        private long offset;
+        
+        /**
+         * The length of the current entry in bytes
+         */
+        private int length;
+        
+        /**
+         * Creates a {@link SortedEntries} before the first of the entries
+         *
+         * @param entriesChannel The {@link FileChannel} of the temporary file, or null if no entries were spilled
+         * @param bufferedOrder  The positions of the entries held in memory in sorted order
+         * @throws IOException Thrown if the temporary file could not be read
+         */
+        private SortedEntries(final FileChannel entriesChannel, final int[] bufferedOrder) throws IOException {
+            long runStart = 0;
+            for(int runNumber = 0; runNumber < runLengths.size(); runNumber++) {
+                addRun(new Run(runNumber, entriesChannel, runStart, runLengths.get(runNumber), null));
+                runStart += (long) SPILLED_ENTRY_SIZE * runLengths.get(runNumber);
+            }
+            addRun(new Run(runLengths.size(), null, 0, bufferedOrder.length, bufferedOrder));
+        }
+        
+        /**
+         * Adds the given run to the runs being merged if it has entries left
+         *
+         * @param run The run to add
+         * @throws IOException Thrown if the temporary file could not be read
+         */
+        private void addRun(final Run run) throws IOException {
+            if(run.next()) {
+                runs.add(run);
+            }
+        }
+        
+        /**
+         * Moves to the next entry
+         *
+         * @return True if there is a next entry, or false if all of the entries have been read
+         * @throws IOException Thrown if the temporary file could not be read
+         */
+        private boolean next() throws IOException {
+            final Run run = runs.poll();
+            if(run == null) {
+                return false;
+            }
+            firstBallotNumber = run.firstBallotNumber;
+            count = run.count;
+            offset = run.offset;
+            length = run.length;
+            addRun(run);
+            return true;
+        }
+        
+    }
+    
+    /**
+     * A run of entries sorted by their first ballot numbers, which is either spilled to the temporary file or held in memory
+     */
+    private final class Run {
+        
+        /**
+         * The position of the run in the order in which the runs were spilled, where the entries held in memory come last
+         */
+        private final int runNumber;
+        
+        /**
+         * The {@link FileChannel} of the temporary file, or null if the run is held in memory
+         */
+        private final FileChannel entriesChannel;
+        
+        /**
+         * The entries of the run read from the temporary file but not yet used, or null if the run is held in memory
+         */
+        private final ByteBuffer buffer;
+        
+        /**
+         * The position in the temporary file of the next entry to read into the buffer
+         */
+        private long filePosition;
+        
+        /**
+         * The positions of the entries held in memory in sorted order, or null if the run is spilled
+         */
+        private final int[] bufferedOrder;
+        
+        /**
+         * The number of entries of the run left to read
+         */
+        private long numEntriesLeft;
+        
+        /**
+         * The first ballot number of the current entry of the run
+         */
+        private int firstBallotNumber;
+        
+        /**
+         * The number of ballots of the current entry of the run
+         */
+        private int count;
+        
+        /**
+         * The offset of the current entry of the run in the audit
+         */
+        private long offset;
+        
+        /**
+         * The length of the current entry of the run in bytes
+         */
+        private int length;
+        
+        /**
+         * Creates a {@link Run} before the first of its entries
+         *
+         * @param runNumber      The position of the run in the order in which the runs were spilled
+         * @param entriesChannel The {@link FileChannel} of the temporary file, or null if the run is held in memory
+         * @param runStart       The position of the run in the temporary file
+         * @param numEntries     The number of entries of the run
+         * @param bufferedOrder  The positions of the entries held in memory in sorted order, or null if the run is spilled
+         */
+        private Run(final int runNumber, final FileChannel entriesChannel, final long runStart, final long numEntries, final int[] bufferedOrder) {
+            this.runNumber = runNumber;
+            this.entriesChannel = entriesChannel;
+            buffer = entriesChannel != null ? ByteBuffer.allocate(SPILLED_ENTRY_SIZE * RUN_READ_SIZE).limit(0) : null;
+            filePosition = runStart;
+            this.bufferedOrder = bufferedOrder;
+            numEntriesLeft = numEntries;
+        }
+        
+        /**
+         * Moves to the next entry of the run
+         *
+         * @return True if the run has a next entry, or false if all of its entries have been read
+         * @throws IOException Thrown if the temporary file could not be read
+         */
+        private boolean next() throws IOException {
+            if(numEntriesLeft == 0) {
+                return false;
+            }
+            
+            //Take the entry held in memory, or read it from the buffer, refilling it from the temporary file if it is empty
+            if(bufferedOrder != null) {
+                final int entry = bufferedOrder[(int) (bufferedOrder.length - numEntriesLeft)];
+                firstBallotNumber = entryFirstBallotNumbers[entry];
+                count = entryCounts[entry];
+                offset = entryOffsets[entry];
+                length = entryLengths[entry];
+            }
+            else {
+                if(!buffer.hasRemaining()) {
+                    buffer.clear().limit((int) Math.min(buffer.capacity(), SPILLED_ENTRY_SIZE * numEntriesLeft));
+                    while(buffer.hasRemaining()) {
+                        final int numBytesRead = entriesChannel.read(buffer, filePosition);
+                        if(numBytesRead == -1) {
+                            throw new EOFException("The temporary file of the audit index entries ends within a run");
+                        }
+                        filePosition += numBytesRead;
+                    }
+                    buffer.flip();
+                }
+                firstBallotNumber = buffer.getInt();
+                count = buffer.getInt();
+                offset = buffer.getLong();
+                length = buffer.getInt();
+            }
+            numEntriesLeft--;
+            return true;
+        }
+        
+    }
+    
+    /**
+     * The {@link Writer} that encodes the text of the audit as it is written so that the offset in the audit is always known
+     */
+    private final class TextWriter extends Writer {
+        
+        /**
+         * Encodes the given characters into the audit
+         *
+         * @param buffer The characters to write
+         * @param offset The position of the first character to write
+         * @param length The number of characters to write
+         * @throws IOException Thrown if the audit has been closed or could not be written
+         */
+        @Override
+        public void write(final char[] buffer, int offset, int length) throws IOException {
+            Objects.checkFromIndexSize(offset, length, buffer.length);
+            ensureOpen();
+            while(length > 0) {
+                final int numChars = Math.min(length, chars.remaining());
+                chars.put(buffer, offset, numChars);
+                offset += numChars;
+                length -= numChars;
+                encodeChars(false);
+            }
+        }
+        
+        /**
+         * Encodes the given part of a {@link String} into the audit
+         *
+         * @param str    The {@link String} to write
+         * @param offset The position of the first character to write
+         * @param length The number of characters to write
+         * @throws IOException Thrown if the audit has been closed or could not be written
+         */
+        @Override
+        public void write(final String str, int offset, int length) throws IOException {
+            Objects.checkFromIndexSize(offset, length, str.length());
+            ensureOpen();
+            while(length > 0) {
+                //Copy the characters into the array of the buffer so that the encoder takes its fast path for arrays
+                final int numChars = Math.min(length, chars.remaining());
+                str.getChars(offset, offset + numChars, chars.array(), chars.position());
+                chars.position(chars.position() + numChars);
+                offset += numChars;
+                length -= numChars;
+                encodeChars(false);
+            }
+        }
+        
+        /**
+         * Flushes the audit
+         *
+         * @throws IOException Thrown if the audit could not be written
+         */
+        @Override
+        public void flush() throws IOException {
+            IndexedAuditOutput.this.flush();
+        }
+        
+        /**
+         * Closes the audit and writes the index
+         *
+         * @throws IOException Thrown if the audit or the index could not be written
+         */
+        @Override
+        public void close() throws IOException {
+            IndexedAuditOutput.this.close();
+        }
+        
+    }
+    
+}
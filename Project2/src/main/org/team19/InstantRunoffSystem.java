@@ -21,11 +21,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,6 +46,25 @@ public class InstantRunoffSystem extends VotingSystem {
      */
     protected boolean invalidateBallots = true;
     
+    /**
+     * Determines if ballots are pre-aggregated. If set to true, each ballot line consists of the number of ballots that share a ranking followed
+     * by the ranking itself.
+     */
+    protected boolean aggregatedBallots = false;
+    
+    /**
+     * Determines if ballots are sparse. If set to true, each ballot line consists of the indices of the ranked candidates in order of rank rather
+     * than a rank for each candidate.
+     */
+    protected boolean sparseBallots = false;
+    
+    /**
+     * Determines if the transfers of each elimination are summarized in the audit. If set to true, the audit gives the number of ballots
+     * transferred to each candidate and exhausted instead of a sentence for each ballot, and {@link #printBallotTransfers(int, int, PrintWriter)}
+     * gives the sentences for any range of ballots after the election, as does a {@link TransferReplay} file written from the election.
+     */
+    protected boolean summarizeTransfers = false;
+    
     /**
      * The number of candidates in this election
      */
@@ -69,16 +90,68 @@ public class InstantRunoffSystem extends VotingSystem {
      */
     protected Candidate[] candidates;
     
+    /**
+     * The ranked candidates of the sparse ballot line being parsed in order of rank, which is reused for every sparse ballot line
+     */
+    protected Candidate[] sparseRankedCandidates;
+    
+    /**
+     * The stamp of the last sparse ballot line that ranked each candidate, by candidate index, so that a candidate ranked more than once is found
+     * without clearing the array for every sparse ballot line
+     */
+    protected int[] sparseRankStamps;
+    
+    /**
+     * The stamp of the sparse ballot line being parsed
+     */
+    protected int sparseRankStamp = 0;
+    
     /**
      * The mapping of {@link Candidate}s to their current corresponding {@link Ballot}s
      */
     protected Map<Candidate, Deque<Ballot>> candidateBallotsMap = new LinkedHashMap<>();
     
+    /**
+     * The {@link Ballot}s given to candidates in order of ballot number, which are only kept if transfers are summarized
+     */
+    protected List<Ballot> acceptedBallots = new ArrayList<>();
+    
+    /**
+     * The candidates remaining when the first round of the election begins, which excludes candidates without any first-choice ballots
+     */
+    protected List<Candidate> firstRoundCandidates = List.of();
+    
+    /**
+     * The candidates eliminated in each round of the election, in order
+     */
+    protected List<Candidate> eliminatedCandidates = new ArrayList<>();
+    
+    /**
+     * The winner of the election, which is null until the election has been run
+     */
+    protected Candidate electionWinner = null;
+    
     /**
      * The writer to an output stream for the audit file to write detailed information about the running of the election
      */
     protected PrintWriter auditWriter;
     
+    /**
+     * The binary log to which the per-ballot steps of the audit are recorded as events, or null if the audit is written as text
+     */
+    protected AuditEventLog auditLog = null;
+    
+    /**
+     * The indexed audit whose index records where the entries of each ballot are written, or null if the audit is not indexed
+     */
+    protected IndexedAuditOutput auditIndex = null;
+    
+    /**
+     * Whether the audit is written at all, which is false if the audit output is {@link VotingSystem#NO_AUDIT}, in which case the steps repeated for
+     * every ballot are not formatted
+     */
+    protected boolean auditEnabled = true;
+    
     /**
      * The writer to an output stream for the report file to write a summary about the running of the election.
      */
@@ -110,6 +183,12 @@ public class InstantRunoffSystem extends VotingSystem {
          */
         protected int ballotNumber;
         
+        /**
+         * The number of ballots with the same ranking that this ballot represents, whose ballot numbers start at {@link #ballotNumber} and are
+         * consecutive
+         */
+        protected int count;
+        
         /**
          * The index corresponding to the current candidate this ballot is on at the current stage of eliminations
          */
@@ -128,7 +207,20 @@ public class InstantRunoffSystem extends VotingSystem {
          * @param rankedCandidates The array of candidates in order of rank for this {@link Ballot}
          */
         protected Ballot(final int ballotNumber, final Candidate[] rankedCandidates) {
+            this(ballotNumber, 1, rankedCandidates);
+        }
+        
+        /**
+         * Initializes a {@link Ballot} that represents a group of ballots with the same ranking
+         *
+         * @param ballotNumber     The ballot number associated with the first ballot of the group, corresponding to its position in the provided
+         *                         election file, starting at 1
+         * @param count            The number of ballots with the same ranking that this ballot represents
+         * @param rankedCandidates The array of candidates in order of rank for this {@link Ballot}
+         */
+        protected Ballot(final int ballotNumber, final int count, final Candidate[] rankedCandidates) {
             this.ballotNumber = ballotNumber;
+            this.count = count;
             this.rankedCandidates = rankedCandidates;
         }
         
@@ -141,6 +233,28 @@ public class InstantRunoffSystem extends VotingSystem {
             return ballotNumber;
         }
         
+        /**
+         * Returns the number of ballots with the same ranking that this ballot represents
+         *
+         * @return The number of ballots with the same ranking that this ballot represents
+         */
+        public int getCount() {
+            return count;
+        }
+        
+        /**
+         * Returns the {@link String} form of the ballot number or range of ballot numbers that this ballot represents, capitalized as the start of a
+         * sentence
+         *
+         * @return "Ballot [ballotNumber]" if this ballot represents a single ballot or "Ballots [first] through [last]" otherwise
+         */
+        protected String getBallotNumbersString() {
+            if(count == 1) {
+                return "Ballot " + ballotNumber;
+            }
+            return String.format("Ballots %d through %d", ballotNumber, ballotNumber + count - 1);
+        }
+        
         /**
          * Returns the array of {@link Candidate}s in order of rank for this {@link Ballot}
          *
@@ -193,7 +307,7 @@ public class InstantRunoffSystem extends VotingSystem {
                 return false;
             }
             final Ballot ballot = (Ballot) obj;
-            return ballotNumber == ballot.ballotNumber && candidateIndex == ballot.candidateIndex &&
+            return ballotNumber == ballot.ballotNumber && count == ballot.count && candidateIndex == ballot.candidateIndex &&
                 Arrays.equals(rankedCandidates, ballot.rankedCandidates);
         }
         
@@ -205,7 +319,7 @@ public class InstantRunoffSystem extends VotingSystem {
         @Override
         public int hashCode() {
             final int hashMultiplier = 31;
-            int result = Objects.hash(ballotNumber, candidateIndex);
+            int result = Objects.hash(ballotNumber, count, candidateIndex);
             result = hashMultiplier * result + Arrays.hashCode(rankedCandidates);
             return result;
         }
@@ -224,10 +338,63 @@ public class InstantRunoffSystem extends VotingSystem {
         Objects.requireNonNull(auditOutput);
         Objects.requireNonNull(reportOutput);
         
-        auditWriter = new PrintWriter(auditOutput);
+        //If the audit output is a binary event log, then write the text of the audit through it so that the text stays in order with the events
+        if(auditOutput instanceof AuditEventLog) {
+            auditLog = (AuditEventLog) auditOutput;
+            auditWriter = auditLog.getTextWriter();
+        }
+        //If the audit output is indexed, then write the text of the audit through it so that it knows the offset of each ballot's entries
+        else if(auditOutput instanceof IndexedAuditOutput) {
+            auditIndex = (IndexedAuditOutput) auditOutput;
+            auditWriter = auditIndex.getTextWriter();
+        }
+        else {
+            //If the audit is discarded, then the rest of the audit is still written to it, but the steps of each ballot are skipped
+            auditEnabled = auditOutput != NO_AUDIT;
+            auditWriter = new PrintWriter(auditOutput);
+        }
         reportWriter = new PrintWriter(reportOutput);
     }
     
+    /**
+     * Sets whether the transfers of each elimination are summarized in the audit, which must be set before the ballots are added
+     * <p></p>
+     * If set to true, the audit gives the number of ballots transferred to each candidate and exhausted for each elimination instead of one or
+     * more sentences for each ballot. The audit still records the rankings of every ballot and the order of the eliminations, from which the
+     * sentences for any range of ballots are given by {@link #printBallotTransfers(int, int, PrintWriter)} after the election
+     *
+     * @param summarizeTransfers Whether the transfers of each elimination are summarized in the audit
+     */
+    public void setSummarizeTransfers(final boolean summarizeTransfers) {
+        this.summarizeTransfers = summarizeTransfers;
+    }
+    
+    /**
+     * Parses the options that follow the election type, which select pre-aggregated ballots through "COUNTS" and sparse ballots through "SPARSE"
+     *
+     * @param options         The stripped options that follow the election type, which is empty if there are none
+     * @param inputIdentifier The identifier associated with the current input source
+     * @param line            The line number associated with the election type line
+     * @throws ParseException Thrown if any of the options are not supported by {@link InstantRunoffSystem}
+     */
+    @Override
+    public void importElectionTypeOptions(final String[] options, final String inputIdentifier, final int line) throws ParseException {
+        for(final String option : options) {
+            switch(option.toUpperCase()) {
+                case "COUNTS":
+                    aggregatedBallots = true;
+                    break;
+                case "SPARSE":
+                    sparseBallots = true;
+                    break;
+                default:
+                    VotingStreamParser.throwParseException(String.format(
+                        "The election type option \"%s\" is not supported for IR", option
+                    ), inputIdentifier, line);
+            }
+        }
+    }
+    
     /**
      * Returns the number of lines that makes up the header for the candidates
      *
@@ -346,6 +513,12 @@ public class InstantRunoffSystem extends VotingSystem {
         
         candidates = parseCandidates(candidatesLine, inputIdentifier, line);
         
+        //Sparse ballot lines reuse these arrays, so parsing a ballot line only allocates the ballot itself
+        if(sparseBallots) {
+            sparseRankedCandidates = new Candidate[numCandidates];
+            sparseRankStamps = new int[numCandidates];
+        }
+        
         auditWriter.println();
         reportWriter.println();
         System.out.println();
@@ -415,6 +588,11 @@ public class InstantRunoffSystem extends VotingSystem {
      * @throws ParseException Thrown if the format or contents of the ballot line are invalid
      */
     private Ballot parseBallot(final int ballotNumber, final String ballotLine, final String inputIdentifier, final int line) throws ParseException {
+        //If ballots are sparse, then they only list the ranked candidates
+        if(sparseBallots) {
+            return parseSparseBallot(ballotNumber, ballotLine, inputIdentifier, line);
+        }
+        
         int numCommas = 0;
         
         //Store the minimum and maximum rank found in the rankings
@@ -487,12 +665,120 @@ public class InstantRunoffSystem extends VotingSystem {
                 ), inputIdentifier, line);
             }
             rankedCandidates[i - 1] = rankedCandidateMap.get(i);
-            auditWriter.printf("    %d – %s\n", i, rankedCandidates[i - 1]);
+            if(auditLog != null) {
+                auditLog.ranking(i, rankedCandidates[i - 1]);
+            }
+            else if(auditEnabled) {
+                auditWriter.printf("    %d – %s\n", i, rankedCandidates[i - 1]);
+            }
         }
         
         return new Ballot(ballotNumber, rankedCandidates);
     }
     
+    /**
+     * Parses the sparse ballot line from the election file and returns the resultant {@link Ballot}
+     * <p></p>
+     * A sparse ballot line is of the form "[candidateIndex1],[candidateIndex2], ..." where each candidate index is the position of the candidate in
+     * the candidates line starting at 1 and the candidates are listed in order of rank, so the cost of parsing depends on the number of ranked
+     * candidates rather than the number of candidates
+     *
+     * @param ballotNumber    The number corresponding to the current ballot
+     * @param ballotLine      The {@link String} corresponding to a ballot
+     * @param inputIdentifier The identifier associated with the current input source
+     * @param line            The line number associated with the current ballot line being read
+     * @return The {@link Ballot} from parsing the ballot line
+     * @throws ParseException Thrown if the format or contents of the ballot line are invalid
+     */
+    private Ballot parseSparseBallot(final int ballotNumber, final String ballotLine, final String inputIdentifier, final int line)
+        throws ParseException {
+        //Stamp this ballot line, clearing the stamps only when they run out, so that the stamps of earlier ballot lines never match
+        if(sparseRankStamp == Integer.MAX_VALUE) {
+            Arrays.fill(sparseRankStamps, 0);
+            sparseRankStamp = 0;
+        }
+        sparseRankStamp++;
+        
+        //The number of candidates ranked so far, which are at the start of sparseRankedCandidates in order of rank
+        int numRanked = 0;
+        
+        //Whether a candidate index has been found since the last comma
+        boolean indexFound = false;
+        
+        //Iterate through the characters of the ballot line
+        for(int i = 0; i < ballotLine.length(); i++) {
+            final char curChar = ballotLine.charAt(i);
+            
+            if(curChar == ',') {
+                //If there is no candidate index between commas, then a rank would be skipped, so throw an exception
+                if(!indexFound) {
+                    VotingStreamParser.throwParseException(String.format(
+                        "A ballot must not skip rankings, but no candidate was found for rank %d", numRanked + 1
+                    ), inputIdentifier, line);
+                }
+                indexFound = false;
+            }
+            else if(Character.isDigit(curChar)) {
+                //If there is more than one candidate index between commas, then throw an exception
+                if(indexFound) {
+                    VotingStreamParser.throwParseException(String.format(
+                        "Only one candidate can be provided for rank %d", numRanked
+                    ), inputIdentifier, line);
+                }
+                
+                //Retrieve the candidate index by parsing the integer between the current position and the index after the full integer
+                final int posAfterIndex = getIndexAfterPositiveInteger(ballotLine, i);
+                final int candidateIndex = Integer.parseUnsignedInt(ballotLine.substring(i, posAfterIndex));
+                
+                //If the candidate index does not correspond to a candidate, then throw an exception
+                if(candidateIndex < 1 || candidateIndex > numCandidates) {
+                    VotingStreamParser.throwParseException(String.format(
+                        "The provided candidate index %d is out of the range %d to %d for %d candidates",
+                        candidateIndex, 1, numCandidates, numCandidates
+                    ), inputIdentifier, line);
+                }
+                //If the candidate has already been ranked, then throw an exception
+                else if(sparseRankStamps[candidateIndex - 1] == sparseRankStamp) {
+                    VotingStreamParser.throwParseException(String.format(
+                        "A ballot must not rank a candidate more than once, but candidate index %d was ranked more than once", candidateIndex
+                    ), inputIdentifier, line);
+                }
+                
+                sparseRankStamps[candidateIndex - 1] = sparseRankStamp;
+                sparseRankedCandidates[numRanked++] = candidates[candidateIndex - 1];
+                if(auditLog != null) {
+                    auditLog.ranking(numRanked, candidates[candidateIndex - 1]);
+                }
+                else if(auditEnabled) {
+                    auditWriter.printf("    %d – %s\n", numRanked, candidates[candidateIndex - 1]);
+                }
+                indexFound = true;
+                
+                //Change the current index i to the position of the last character of the candidate index
+                i = posAfterIndex - 1;
+            }
+            else if(!Character.isWhitespace(curChar)) {
+                VotingStreamParser.throwParseException(String.format(
+                    "Ballot lines can only consist of commas, digits, and whitespace for IR, but character %c was found",
+                    curChar
+                ), inputIdentifier, line);
+            }
+        }
+        
+        //If the ballot has not ranked a single candidate, then throw an exception
+        if(numRanked == 0) {
+            VotingStreamParser.throwParseException("A ballot must rank at least one candidate", inputIdentifier, line);
+        }
+        //If the ballot ends with a comma, then a rank would be skipped, so throw an exception
+        else if(!indexFound) {
+            VotingStreamParser.throwParseException(String.format(
+                "A ballot must not skip rankings, but no candidate was found for rank %d", numRanked + 1
+            ), inputIdentifier, line);
+        }
+        
+        return new Ballot(ballotNumber, Arrays.copyOf(sparseRankedCandidates, numRanked));
+    }
+    
     /**
      * Parses a line corresponding to a ballot and adds it internally
      *
@@ -504,8 +790,16 @@ public class InstantRunoffSystem extends VotingSystem {
      */
     @Override
     public void addBallot(final int ballotNumber, final String ballotLine, final String inputIdentifier, final int line) throws ParseException {
+        //The offset at which the entry of this ballot starts if the audit is indexed
+        final long entryStart = auditIndex != null ? auditIndex.getPosition() : 0;
+        
         //Writes the output for this ballot to the audit output
-        auditWriter.printf("Ballot %d's rankings are as follows:\n", ballotNumber);
+        if(auditLog != null) {
+            auditLog.ballotRankings(ballotNumber);
+        }
+        else if(auditEnabled) {
+            auditWriter.printf("Ballot %d's rankings are as follows:\n", ballotNumber);
+        }
         
         final Ballot ballot = parseBallot(ballotNumber, ballotLine, inputIdentifier, line);
         
@@ -514,20 +808,167 @@ public class InstantRunoffSystem extends VotingSystem {
         
         //If invalidation is enabled and the ballot does not rank at least half the candidates, print an invalidation message to the audit file
         if(invalidateBallots && ballot.getRankedCandidates().length < halfNumCandidates) {
-            auditWriter.printf("Ballot %d has been invalidated because it does not rank at least half of the candidates\n\n", ballotNumber);
+            if(auditLog != null) {
+                auditLog.ballotInvalidated(ballotNumber);
+            }
+            else if(auditEnabled) {
+                auditWriter.printf("Ballot %d has been invalidated because it does not rank at least half of the candidates\n\n", ballotNumber);
+            }
             numBallots--;
         }
         //Otherwise, add the ballot to its first ranked candidate's collection of ballots
         else {
-            //If the candidate is not in the candidatesBallotsMap, create an empty ArrayDeque for the candidate's ballots
-            if(!candidateBallotsMap.containsKey(firstRankedCandidate)) {
-                candidateBallotsMap.put(firstRankedCandidate, new ArrayDeque<>());
+            addBallotToCandidate(firstRankedCandidate, ballot);
+            if(auditLog != null) {
+                auditLog.ballotGoesTo(ballotNumber, firstRankedCandidate);
             }
-            candidateBallotsMap.get(firstRankedCandidate).add(ballot);
-            auditWriter.printf("Therefore, ballot %d goes to %s\n\n", ballotNumber, firstRankedCandidate);
+            else if(auditEnabled) {
+                auditWriter.printf("Therefore, ballot %d goes to %s\n\n", ballotNumber, firstRankedCandidate);
+            }
+        }
+        
+        if(auditIndex != null) {
+            auditIndex.addBallotEntry(ballotNumber, 1, entryStart);
         }
     }
     
+    /**
+     * Adds the given {@link Ballot} to the given {@link Candidate}'s collection of ballots
+     *
+     * @param candidate The {@link Candidate} to which to add the {@link Ballot}
+     * @param ballot    The {@link Ballot} to add
+     */
+    private void addBallotToCandidate(final Candidate candidate, final Ballot ballot) {
+        //If the candidate is not in the candidatesBallotsMap, create an empty ArrayDeque for the candidate's ballots
+        if(!candidateBallotsMap.containsKey(candidate)) {
+            candidateBallotsMap.put(candidate, new ArrayDeque<>());
+        }
+        candidateBallotsMap.get(candidate).add(ballot);
+        
+        //Keep the ballot for the transfers of any range of ballots to be given after the election
+        if(summarizeTransfers) {
+            acceptedBallots.add(ballot);
+        }
+    }
+    
+    /**
+     * Parses a line corresponding to one or more ballots, adds them internally, and returns the number of ballots the line represents
+     * <p></p>
+     * If ballots are pre-aggregated, then the line must be of the form "[count],[ranking]" where [count] is the number of ballots that share the
+     * ranking and [ranking] is in the same format as a regular ballot line, so the ballots are added as a single weighted {@link Ballot}
+     *
+     * @param ballotNumber    The number corresponding to the first ballot the line represents
+     * @param ballotLine      The {@link String} corresponding to the ballots
+     * @param inputIdentifier The identifier associated with the current input source
+     * @param line            The line number associated with the current ballot line being read
+     * @return The number of ballots the line represents
+     * @throws ParseException Thrown if there is an issue in parsing the current ballot line
+     */
+    @Override
+    public int addBallots(final int ballotNumber, final String ballotLine, final String inputIdentifier, final int line) throws ParseException {
+        //If each line is a single ballot, then add it as such
+        if(!aggregatedBallots) {
+            return super.addBallots(ballotNumber, ballotLine, inputIdentifier, line);
+        }
+        
+        //Split the count from the ranking
+        final int countEnd = ballotLine.indexOf(',');
+        if(countEnd == -1) {
+            VotingStreamParser.throwParseException(String.format(
+                "The ballot count line \"%s\" does not match the format \"[count],[ranking]\"", ballotLine
+            ), inputIdentifier, line);
+        }
+        
+        final String countStr = ballotLine.substring(0, countEnd).strip();
+        int count = -1;
+        try {
+            count = Integer.parseInt(countStr);
+        }
+        catch(NumberFormatException ignored) {}
+        
+        if(count < 0) {
+            VotingStreamParser.throwParseException(String.format(
+                "The count \"%s\" for this ballot count line is not a valid nonnegative integer", countStr
+            ), inputIdentifier, line);
+        }
+        
+        //If the ballot numbers of the ballots would go beyond the range of an int, then throw an exception rather than overflow
+        if((long) ballotNumber - 1 + count > Integer.MAX_VALUE) {
+            VotingStreamParser.throwParseException(String.format(
+                "The ballot count %d would make the number of ballots exceed %d", count, Integer.MAX_VALUE
+            ), inputIdentifier, line);
+        }
+        
+        //The offset at which the entry of these ballots starts if the audit is indexed
+        final long entryStart = auditIndex != null ? auditIndex.getPosition() : 0;
+        
+        //Writes the output for these ballots to the audit output unless the audit is discarded
+        if(auditLog != null) {
+            auditLog.ballotsRankings(ballotNumber, count);
+        }
+        else if(auditEnabled) {
+            if(count == 0) {
+                auditWriter.println("No ballots have the following rankings:");
+            }
+            else if(count == 1) {
+                auditWriter.printf("Ballot %d's rankings are as follows:\n", ballotNumber);
+            }
+            else {
+                auditWriter.printf(
+                    "Ballots %d through %d (%d ballots) have the following rankings:\n", ballotNumber, ballotNumber + count - 1, count
+                );
+            }
+        }
+        
+        final Ballot ballot = parseBallot(ballotNumber, ballotLine.substring(countEnd + 1), inputIdentifier, line);
+        ballot.count = count;
+        
+        //Get the candidate associated with the first ranking of the ballots
+        final Candidate firstRankedCandidate = ballot.getNextCandidate();
+        
+        //If there are no ballots for this ranking, then there is nothing to add
+        if(count == 0) {
+            if(auditLog != null) {
+                auditLog.noBallotsEnd();
+            }
+            else if(auditEnabled) {
+                auditWriter.println();
+            }
+        }
+        //If invalidation is enabled and the ballots do not rank at least half the candidates, print an invalidation message to the audit file
+        else if(invalidateBallots && ballot.getRankedCandidates().length < halfNumCandidates) {
+            if(auditLog != null) {
+                auditLog.ballotsInvalidated(ballotNumber, count);
+            }
+            else if(auditEnabled) {
+                auditWriter.printf(
+                    "%s %s been invalidated because %s not rank at least half of the candidates\n\n",
+                    ballot.getBallotNumbersString(), count == 1 ? "has" : "have", count == 1 ? "it does" : "they do"
+                );
+            }
+            numBallots -= count;
+        }
+        //Otherwise, add the ballots to their first ranked candidate's collection of ballots
+        else {
+            addBallotToCandidate(firstRankedCandidate, ballot);
+            if(auditLog != null) {
+                auditLog.ballotsGoTo(ballotNumber, count, firstRankedCandidate);
+            }
+            else if(auditEnabled) {
+                auditWriter.printf(
+                    "Therefore, %s %s to %s\n\n", ballot.getBallotNumbersString().toLowerCase(), count == 1 ? "goes" : "go", firstRankedCandidate
+                );
+            }
+        }
+        
+        //Ballots with no count have no ballot numbers, so they are not indexed
+        if(auditIndex != null && count != 0) {
+            auditIndex.addBallotEntry(ballotNumber, count, entryStart);
+        }
+        
+        return count;
+    }
+    
     /**
      * Returns the name of this voting system
      *
@@ -594,6 +1035,25 @@ public class InstantRunoffSystem extends VotingSystem {
         return String.format("InstantRunoffSystem{candidates=%s, numBallots=%d}", Arrays.toString(candidates), numBallots);
     }
     
+    /**
+     * Returns the number of ballots in the given collection of {@link Ballot}s, accounting for {@link Ballot}s that represent multiple ballots
+     *
+     * @param ballots The collection of {@link Ballot}s of which to get the number of ballots
+     * @return The number of ballots in the given collection of {@link Ballot}s
+     */
+    protected int getNumBallots(final Collection<Ballot> ballots) {
+        //If ballots are not pre-aggregated, then each Ballot represents one ballot
+        if(!aggregatedBallots) {
+            return ballots.size();
+        }
+        
+        int numBallotsInCollection = 0;
+        for(final Ballot ballot : ballots) {
+            numBallotsInCollection += ballot.count;
+        }
+        return numBallotsInCollection;
+    }
+    
     /**
      * Returns one of the candidate with the highest ballot counts and the candidate(s) with the lowest ballot counts
      *
@@ -615,7 +1075,7 @@ public class InstantRunoffSystem extends VotingSystem {
         
         for(final Candidate candidate : candidateBallotsMap.keySet()) {
             //Gets the number of ballots for each candidate
-            final int candidateNumBallots = candidateBallotsMap.get(candidate).size();
+            final int candidateNumBallots = getNumBallots(candidateBallotsMap.get(candidate));
             
             //Identifies new highest count and replaces highestCandidate
             if(candidateNumBallots > highestBallots) {
@@ -640,44 +1100,254 @@ public class InstantRunoffSystem extends VotingSystem {
      * Eliminates a candidate and redistributes their ballots
      *
      * @param lowest The candidate who is eliminated and needs their ballots redistributed
+     * @return The number of ballots transferred to other candidates
      */
-    protected void eliminateLowest(final Candidate lowest) {
+    protected int eliminateLowest(final Candidate lowest) {
+        //The flight recorder event for this elimination
+        final ElectionEvents.EliminationRound event = new ElectionEvents.EliminationRound();
+        event.begin();
+        
         //Eliminates candidate from map
         final Deque<Ballot> ballotsToRedistribute = candidateBallotsMap.remove(lowest);
+        eliminatedCandidates.add(lowest);
         
         //Candidate has 0 ballots to distribute
         if(ballotsToRedistribute.isEmpty()) {
             auditWriter.printf("%s has no ballots to have distributed.\n\n", lowest);
-            return;
+            commitEliminationEvent(event, lowest, 0, 0);
+            return 0;
         }
         
+        int numTransferred = 0;
+        int numExhausted = 0;
+        
+        //The number of ballots transferred to each candidate, which is only counted if the transfers are summarized
+        final Map<Candidate, Integer> numTransferredByCandidate = summarizeTransfers ? new HashMap<>() : null;
+        
         for(final Ballot ballot : ballotsToRedistribute) {
+            //The offset at which the entry of this ballot's transfer starts if the audit is indexed
+            final long entryStart = auditIndex != null ? auditIndex.getPosition() : 0;
+            
             //Gets next ranked candidate on the ballot
             Candidate nextCandidate = ballot.getNextCandidate();
             
             //While the current candidate for the ballot has been eliminated, get the next candidate
             while(nextCandidate != null && !candidateBallotsMap.containsKey(nextCandidate)) {
-                auditWriter.printf(
-                    "Ballot %d associated with %s has their next choice as candidate %s. but %s was already eliminated. Trying the next choice.\n\n",
-                    ballot.getBallotNumber(), lowest, nextCandidate, nextCandidate
-                );
+                //If the transfers are summarized, then the skipped choices are only given by printBallotTransfers
+                if(!summarizeTransfers) {
+                    if(auditLog != null) {
+                        auditLog.ballotsSkipped(ballot.ballotNumber, ballot.count, lowest, nextCandidate);
+                    }
+                    else if(auditEnabled) {
+                        printBallotSkipped(auditWriter, ballot, lowest, nextCandidate);
+                    }
+                }
                 nextCandidate = ballot.getNextCandidate();
             }
             
             //If there are no more candidates ranked for the ballot
             if(nextCandidate == null) {
-                auditWriter.printf(
-                    "Ballot %d associated with %s did not have any other candidates ranked. As such, their ballot will not be distributed.\n\n",
-                    ballot.ballotNumber, lowest
-                );
+                numExhausted += ballot.count;
+                //If the transfers are summarized, then the exhausted ballots are only counted
+                if(!summarizeTransfers) {
+                    if(auditLog != null) {
+                        auditLog.ballotsExhausted(ballot.ballotNumber, ballot.count, lowest);
+                    }
+                    else if(auditEnabled) {
+                        printBallotExhausted(auditWriter, ballot, lowest);
+                    }
+                }
             }
             //If there is a next ranked candidate that is not eliminated, transfer the ballot
             else {
                 candidateBallotsMap.get(nextCandidate).add(ballot);
-                auditWriter.printf("Ballot %d has their next choice as candidate %s. The ballot will be distributed to %s.\n\n", ballot.ballotNumber,
-                    nextCandidate, nextCandidate
-                );
+                numTransferred += ballot.count;
+                if(summarizeTransfers) {
+                    numTransferredByCandidate.merge(nextCandidate, ballot.count, Integer::sum);
+                }
+                else if(auditLog != null) {
+                    auditLog.ballotsTransferred(ballot.ballotNumber, ballot.count, nextCandidate);
+                }
+                else if(auditEnabled) {
+                    printBallotTransferred(auditWriter, ballot, nextCandidate);
+                }
+            }
+            
+            //If the transfers are summarized, then nothing was written for the ballot, which adds no entry
+            if(auditIndex != null) {
+                auditIndex.addBallotEntry(ballot.ballotNumber, ballot.count, entryStart);
+            }
+        }
+        
+        //Write the number of ballots transferred to each remaining candidate, in the order of the remaining candidates, and exhausted
+        if(summarizeTransfers) {
+            auditWriter.printf("The %d ballots of %s were transferred as follows:\n", numTransferred + numExhausted, lowest);
+            for(final Candidate candidate : candidateBallotsMap.keySet()) {
+                final Integer candidateNumTransferred = numTransferredByCandidate.get(candidate);
+                if(candidateNumTransferred != null) {
+                    auditWriter.printf("    %s: %d ballots\n", candidate, candidateNumTransferred);
+                }
             }
+            auditWriter.printf("    Exhausted (no other remaining candidates ranked): %d ballots\n\n", numExhausted);
+        }
+        commitEliminationEvent(event, lowest, numTransferred, numExhausted);
+        return numTransferred;
+    }
+    
+    /**
+     * Writes that the given ballots skipped their next choice because it was already eliminated
+     *
+     * @param writer     The {@link PrintWriter} to which to write
+     * @param ballot     The ballots being transferred
+     * @param eliminated The eliminated candidate whose ballots are being transferred
+     * @param nextChoice The next choice of the ballots, which was already eliminated
+     */
+    private static void printBallotSkipped(final PrintWriter writer, final Ballot ballot, final Candidate eliminated, final Candidate nextChoice) {
+        writer.printf(
+            "%s associated with %s %s their next choice as candidate %s. but %s was already eliminated. Trying the next choice.\n\n",
+            ballot.getBallotNumbersString(), eliminated, ballot.count == 1 ? "has" : "have", nextChoice, nextChoice
+        );
+    }
+    
+    /**
+     * Writes that the given ballots have no other candidates ranked, so they will not be distributed
+     *
+     * @param writer     The {@link PrintWriter} to which to write
+     * @param ballot     The ballots being transferred
+     * @param eliminated The eliminated candidate whose ballots are being transferred
+     */
+    private static void printBallotExhausted(final PrintWriter writer, final Ballot ballot, final Candidate eliminated) {
+        writer.printf(
+            "%s associated with %s did not have any other candidates ranked. As such, their %s will not be distributed.\n\n",
+            ballot.getBallotNumbersString(), eliminated, ballot.count == 1 ? "ballot" : "ballots"
+        );
+    }
+    
+    /**
+     * Writes that the given ballots are transferred to their next choice
+     *
+     * @param writer     The {@link PrintWriter} to which to write
+     * @param ballot     The ballots being transferred
+     * @param nextChoice The next choice to which the ballots are transferred
+     */
+    private static void printBallotTransferred(final PrintWriter writer, final Ballot ballot, final Candidate nextChoice) {
+        writer.printf("%s %s their next choice as candidate %s. The %s will be distributed to %s.\n\n",
+            ballot.getBallotNumbersString(), ballot.count == 1 ? "has" : "have", nextChoice, ballot.count == 1 ? "ballot" : "ballots", nextChoice
+        );
+    }
+    
+    /**
+     * Precondition: transfers were summarized by {@link #setSummarizeTransfers(boolean)} before the ballots were added, and {@link #runElection()}
+     * has been executed
+     * <p></p>
+     * Writes the transfers of the ballots numbered from firstBallotNumber through lastBallotNumber in the same sentences that the audit gives when
+     * transfers are not summarized, under a heading for each elimination that moved any of them
+     * <p></p>
+     * The transfers are replayed from the rankings of the ballots and the order of the eliminations, so only the requested ballots are visited,
+     * each once per elimination. Pre-aggregated ballots that are only partly in the range are given in full, and invalidated ballots are never
+     * transferred
+     *
+     * @param firstBallotNumber The number of the first ballot of the range
+     * @param lastBallotNumber  The number of the last ballot of the range
+     * @param writer            The {@link PrintWriter} to which to write the transfers
+     * @throws IllegalStateException Thrown if transfers were not summarized, in which case the audit already gives every transfer
+     */
+    public void printBallotTransfers(final int firstBallotNumber, final int lastBallotNumber, final PrintWriter writer)
+        throws IllegalStateException {
+        if(!summarizeTransfers) {
+            throw new IllegalStateException("The transfers of each ballot are already given in the audit because transfers are not summarized");
+        }
+        printBallotTransfers(acceptedBallots, firstRoundCandidates, eliminatedCandidates, firstBallotNumber, lastBallotNumber, writer);
+    }
+    
+    /**
+     * Writes the transfers of the ballots numbered from firstBallotNumber through lastBallotNumber as described by
+     * {@link #printBallotTransfers(int, int, PrintWriter)}, replaying them from the given ballots and eliminations, which is how the transfers are
+     * also given from a {@link TransferReplay} file
+     *
+     * @param acceptedBallots      The {@link Ballot}s given to candidates in order of ballot number, which may be only those near the range
+     * @param firstRoundCandidates The candidates remaining when the first round of the election began
+     * @param eliminatedCandidates The candidates eliminated in each round of the election, in order
+     * @param firstBallotNumber    The number of the first ballot of the range
+     * @param lastBallotNumber     The number of the last ballot of the range
+     * @param writer               The {@link PrintWriter} to which to write the transfers
+     */
+    static void printBallotTransfers(final List<Ballot> acceptedBallots, final List<Candidate> firstRoundCandidates,
+        final List<Candidate> eliminatedCandidates, final int firstBallotNumber, final int lastBallotNumber, final PrintWriter writer) {
+        //Find the first ballot whose ballot numbers reach the start of the range, which works because the ballots are in order of ballot number
+        int low = 0;
+        int high = acceptedBallots.size();
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            final Ballot ballot = acceptedBallots.get(mid);
+            if((long) ballot.ballotNumber + ballot.count - 1 < firstBallotNumber) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while(end < acceptedBallots.size() && acceptedBallots.get(end).ballotNumber <= lastBallotNumber) {
+            end++;
+        }
+        final List<Ballot> ballots = acceptedBallots.subList(low, end);
+        
+        //The position in the rankings of the candidate that each ballot is with, which starts with the first choice
+        final int[] positions = new int[ballots.size()];
+        final Set<Candidate> remainingCandidates = new HashSet<>(firstRoundCandidates);
+        
+        for(final Candidate eliminated : eliminatedCandidates) {
+            remainingCandidates.remove(eliminated);
+            boolean headingWritten = false;
+            
+            for(int i = 0; i < ballots.size(); i++) {
+                final Ballot ballot = ballots.get(i);
+                final Candidate[] rankedCandidates = ballot.getRankedCandidates();
+                
+                //Only the ballots with the eliminated candidate are transferred, and an exhausted ballot is past the end of its rankings
+                if(positions[i] >= rankedCandidates.length || rankedCandidates[positions[i]] != eliminated) {
+                    continue;
+                }
+                if(!headingWritten) {
+                    writer.printf("Transfers after %s was eliminated:\n\n", eliminated);
+                    headingWritten = true;
+                }
+                
+                //Skip the next choices that were already eliminated in the same way as eliminateLowest
+                positions[i]++;
+                while(positions[i] < rankedCandidates.length && !remainingCandidates.contains(rankedCandidates[positions[i]])) {
+                    printBallotSkipped(writer, ballot, eliminated, rankedCandidates[positions[i]]);
+                    positions[i]++;
+                }
+                
+                if(positions[i] == rankedCandidates.length) {
+                    printBallotExhausted(writer, ballot, eliminated);
+                }
+                else {
+                    printBallotTransferred(writer, ballot, rankedCandidates[positions[i]]);
+                }
+            }
+        }
+        writer.flush();
+    }
+    
+    /**
+     * Fills in and commits a {@link ElectionEvents.EliminationRound} event if it is enabled in a flight recording
+     *
+     * @param event            The event for the elimination, which has already begun
+     * @param lowest           The eliminated candidate
+     * @param ballotsMoved     The number of ballots moved to the remaining candidates
+     * @param ballotsExhausted The number of ballots that ranked no remaining candidate
+     */
+    private void commitEliminationEvent(final ElectionEvents.EliminationRound event, final Candidate lowest, final int ballotsMoved,
+        final int ballotsExhausted) {
+        if(event.shouldCommit()) {
+            event.eliminatedCandidate = lowest.toString();
+            event.ballotsMoved = ballotsMoved;
+            event.ballotsExhausted = ballotsExhausted;
+            event.remainingCandidates = candidateBallotsMap.size();
+            event.commit();
         }
     }
     
@@ -689,11 +1359,37 @@ public class InstantRunoffSystem extends VotingSystem {
     private String getCurrentChoiceBallots() {
         final StringBuilder candidateBallotsBuilder = new StringBuilder();
         for(final Candidate candidate : candidateBallotsMap.keySet()) {
-            candidateBallotsBuilder.append(String.format("%s: %d ballots\n", candidate, candidateBallotsMap.get(candidate).size()));
+            candidateBallotsBuilder.append(String.format("%s: %d ballots\n", candidate, getNumBallots(candidateBallotsMap.get(candidate))));
         }
         return candidateBallotsBuilder.toString();
     }
     
+    /**
+     * Returns the winner of the election as the only element of the list, which is empty if {@link #runElection()} has not been run
+     *
+     * @return The winner of the election as the only element of the list
+     */
+    @Override
+    public List<Candidate> getWinners() {
+        return electionWinner == null ? List.of() : List.of(electionWinner);
+    }
+    
+    /**
+     * Publishes the given round, the number of remaining candidates, and each remaining candidate's current ballot count to the
+     * {@link ElectionProgress} if it is enabled
+     *
+     * @param round The current round of the election
+     */
+    private void publishProgress(final int round) {
+        if(progress.isEnabled()) {
+            final Map<String, Long> tallies = new LinkedHashMap<>();
+            for(final Map.Entry<Candidate, Deque<Ballot>> candidateBallots : candidateBallotsMap.entrySet()) {
+                tallies.put(candidateBallots.getKey().toString(), (long) getNumBallots(candidateBallots.getValue()));
+            }
+            progress.setRound(round, candidateBallotsMap.size(), tallies);
+        }
+    }
+    
     /**
      * Runs the IR election algorithm
      */
@@ -713,6 +1409,7 @@ public class InstantRunoffSystem extends VotingSystem {
                 candidateBallotsMap.put(candidate, new ArrayDeque<>());
             }
         }
+        firstRoundCandidates = new ArrayList<>(candidateBallotsMap.keySet());
         
         //Write the first choice ballot counts for each candidate
         String strToWriteToAll = "First-choice ballots (excluding candidates with 0 ballots):";
@@ -728,23 +1425,33 @@ public class InstantRunoffSystem extends VotingSystem {
         //If there is only 1 candidate, they are automatically declared the winner
         if(candidateBallotsMap.size() == 1) {
             final Candidate winner = candidateBallotsMap.keySet().iterator().next();
-            final Deque<Ballot> winnerBallots = candidateBallotsMap.get(winner);
+            electionWinner = winner;
+            final int winnerBallotCount = getNumBallots(candidateBallotsMap.get(winner));
             strToWriteToAll = String.format(
                 "%s has received %d/%d votes giving them a majority of %s%% of the ballots. They have therefore won.",
                 winner,
-                winnerBallots.size(),
+                winnerBallotCount,
                 numBallots,
-                String.format("%.2f", 100.0 * winnerBallots.size() / numBallots)
+                String.format("%.2f", 100.0 * winnerBallotCount / numBallots)
             );
             auditWriter.println(strToWriteToAll);
             reportWriter.println(strToWriteToAll);
             System.out.println(strToWriteToAll);
+            publishProgress(1);
             auditWriter.close();
             reportWriter.close();
             return;
         }
         
+        //The current round of the election, which is published to the progress
+        int round = 0;
+        
         while(true) {
+            final long roundStartNanos = metrics.startTimer();
+            publishProgress(++round);
+            if(auditIndex != null) {
+                auditIndex.startRound();
+            }
             final int candidateBallotsMapLen = candidateBallotsMap.size();
             
             //If there are 2 candidates remaining, the winner is decided by whose votes are greater
@@ -760,8 +1467,8 @@ public class InstantRunoffSystem extends VotingSystem {
                 
                 //Compare the candidates' ballot counts
                 final int firstSecondCandidateComparison = Integer.compare(
-                    candidateBallotsMap.get(topTwo[0]).size(),
-                    candidateBallotsMap.get(topTwo[1]).size()
+                    getNumBallots(candidateBallotsMap.get(topTwo[0])),
+                    getNumBallots(candidateBallotsMap.get(topTwo[1]))
                 );
                 
                 if(firstSecondCandidateComparison > 0) {
@@ -783,7 +1490,7 @@ public class InstantRunoffSystem extends VotingSystem {
                     auditWriter.println(winner + " won the random tie break. They have therefore won the election.");
                 }
                 else {
-                    final int winnerBallotCount = candidateBallotsMap.get(winner).size();
+                    final int winnerBallotCount = getNumBallots(candidateBallotsMap.get(winner));
                     
                     if(winnerBallotCount > halfNumBallots) {
                         strToWriteToAll = String.format(
@@ -807,6 +1514,8 @@ public class InstantRunoffSystem extends VotingSystem {
                     reportWriter.println(strToWriteToAll);
                     System.out.println(strToWriteToAll);
                 }
+                electionWinner = winner;
+                metrics.recordRound(roundStartNanos, 0);
                 break;
             }
             //More than 2 candidates
@@ -827,6 +1536,8 @@ public class InstantRunoffSystem extends VotingSystem {
                     auditWriter.println(strToWriteToAll);
                     reportWriter.println(strToWriteToAll);
                     System.out.println(strToWriteToAll);
+                    electionWinner = highestCandidateBallots.getSecond();
+                    metrics.recordRound(roundStartNanos, 0);
                     break;
                 }
                 //If no candidate has the majority, then eliminate a candidate
@@ -855,7 +1566,7 @@ public class InstantRunoffSystem extends VotingSystem {
                         auditWriter.println();
                     }
                     //Eliminated the lowest candidate chosen
-                    eliminateLowest(lowest);
+                    final int numTransferred = eliminateLowest(lowest);
                     
                     //Prints table of ballot counts after elimination
                     strToWriteToAll = "Ballots after " + lowest + " was eliminated:";
@@ -867,6 +1578,8 @@ public class InstantRunoffSystem extends VotingSystem {
                     auditWriter.println(strToWriteToAll);
                     reportWriter.println(strToWriteToAll);
                     System.out.println(strToWriteToAll);
+                    
+                    metrics.recordRound(roundStartNanos, numTransferred);
                 }
             }
         }
@@ -26,6 +26,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -38,7 +39,7 @@ public class OpenPartyListSystem extends VotingSystem {
     /**
      * Used for randomization in breaking ties
      */
-    protected static Random rand = new SecureRandom();
+    protected Random rand = new SecureRandom();
     
     /**
      * The number of candidates in this election
@@ -61,19 +62,30 @@ public class OpenPartyListSystem extends VotingSystem {
     protected Candidate[] candidates;
     
     /**
-     * A mapping of parties to a mapping of their candidates to their ballot counts
+     * The {@link PartyTable} containing the information for each party
      */
-    protected Map<String, Map<Candidate, Integer>> partyToCandidateCounts = new LinkedHashMap<>();
+    protected PartyTable partyTable = new PartyTable();
     
     /**
-     * A mapping of parties to their respective {@link PartyInformation} instance
+     * The writer to an output stream for the audit file to write detailed information about the running of the election
      */
-    protected Map<String, PartyInformation> partyToPartyInformation = new HashMap<>();
+    protected PrintWriter auditWriter;
     
     /**
-     * The writer to an output stream for the audit file to write detailed information about the running of the election
+     * The binary log to which the per-ballot steps of the audit are recorded as events, or null if the audit is written as text
      */
-    protected PrintWriter auditWriter;
+    protected AuditEventLog auditLog = null;
+    
+    /**
+     * The indexed audit whose index records where the entries of each ballot are written, or null if the audit is not indexed
+     */
+    protected IndexedAuditOutput auditIndex = null;
+    
+    /**
+     * Whether the audit is written at all, which is false if the audit output is {@link VotingSystem#NO_AUDIT}, in which case the steps repeated for
+     * every ballot are not formatted
+     */
+    protected boolean auditEnabled = true;
     
     /**
      * The writer to an output stream for the report file to write a summary about the running of the election.
@@ -86,50 +98,350 @@ public class OpenPartyListSystem extends VotingSystem {
     protected TableFormatter tableFormatter;
     
     /**
-     * Represents party information for a party in an {@link OpenPartyListSystem} election
+     * The method used to apportion the seats among the parties
+     */
+    protected ApportionmentMethod apportionmentMethod = ApportionmentMethod.LARGEST_REMAINDER;
+    
+    /**
+     * True if the ballots are given pre-aggregated as one line per candidate of the form "[candidateIndex],[count]" rather than as one line per
+     * ballot
+     */
+    protected boolean aggregatedBallots = false;
+    
+    /**
+     * The candidates who received seats, which is set once the seats are distributed to the candidates
+     */
+    protected List<Candidate> winners = List.of();
+    
+    /**
+     * Represents the method by which the seats of an {@link OpenPartyListSystem} election are apportioned among the parties
+     */
+    public enum ApportionmentMethod {
+        /**
+         * Represents the Hare quota followed by the allocation of any remaining seats by largest remainder
+         */
+        LARGEST_REMAINDER("Largest remainder (Hare quota)"),
+        
+        /**
+         * Represents the D'Hondt highest averages method, which divides a party's ballots by one more than its current number of seats
+         */
+        D_HONDT("D'Hondt highest averages"),
+        
+        /**
+         * Represents the Sainte-Laguë highest averages method, which divides a party's ballots by one more than twice its current number of seats
+         */
+        SAINTE_LAGUE("Sainte-Laguë highest averages");
+        
+        /**
+         * The name of this {@link ApportionmentMethod} as written to the audit and report
+         */
+        private final String displayName;
+        
+        /**
+         * Initializes an {@link ApportionmentMethod}
+         *
+         * @param displayName The name of this {@link ApportionmentMethod} as written to the audit and report
+         */
+        ApportionmentMethod(final String displayName) {
+            this.displayName = displayName;
+        }
+        
+        /**
+         * Returns the divisor of a party's ballots that gives its average for its next seat under a highest averages method
+         *
+         * @param numSeats The number of seats the party currently has
+         * @return The divisor of a party's ballots that gives its average for its next seat
+         */
+        protected long getDivisor(final int numSeats) {
+            return this == SAINTE_LAGUE ? 2L * numSeats + 1 : numSeats + 1L;
+        }
+        
+        /**
+         * Returns the name of this {@link ApportionmentMethod} as written to the audit and report
+         *
+         * @return The name of this {@link ApportionmentMethod} as written to the audit and report
+         */
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+    
+    /**
+     * Represents the information for the parties in an {@link OpenPartyListSystem} election in column-oriented form, where each party is given an
+     * id in the order that it is added and each field is stored as an array indexed by party id
      */
-    protected static class PartyInformation {
+    protected static class PartyTable {
+        
+        /**
+         * The initial number of parties for which the columns have room
+         */
+        private static final int INITIAL_CAPACITY = 8;
+        
+        /**
+         * The number of parties in this table
+         */
+        protected int size = 0;
+        
+        /**
+         * The mapping of parties to their ids, which is only used to find parties by name, as ballots are counted by candidate id
+         */
+        protected Map<String, Integer> partyToId = new HashMap<>();
+        
+        /**
+         * The names of the parties
+         */
+        protected String[] parties = new String[INITIAL_CAPACITY];
+        
+        /**
+         * The number of candidates that each party has
+         */
+        protected int[] numCandidates = new int[INITIAL_CAPACITY];
+        
+        /**
+         * The number of seats that each party currently has obtained
+         */
+        protected int[] numSeats = new int[INITIAL_CAPACITY];
+        
+        /**
+         * The number of ballots that each party received
+         */
+        protected int[] numBallots = new int[INITIAL_CAPACITY];
+        
+        /**
+         * The numerators of the simplified remaining votes that each party has after the initial allocation of seats
+         */
+        protected long[] remainderNumerators = new long[INITIAL_CAPACITY];
+        
+        /**
+         * The denominators of the simplified remaining votes that each party has after the initial allocation of seats
+         */
+        protected long[] remainderDenominators = new long[INITIAL_CAPACITY];
+        
+        /**
+         * The index of the first of each party's candidates in {@link #partyCandidates}
+         */
+        protected int[] partyCandidatesStart = new int[INITIAL_CAPACITY];
+        
+        /**
+         * The number of candidates in this table, whose ids are their positions in the candidates line starting at 0
+         */
+        protected int candidatesSize = 0;
+        
+        /**
+         * The candidates, indexed by candidate id
+         */
+        protected Candidate[] candidates = new Candidate[INITIAL_CAPACITY];
+        
+        /**
+         * The id of the party of each candidate, indexed by candidate id
+         */
+        protected int[] candidatePartyIds = new int[INITIAL_CAPACITY];
+        
+        /**
+         * The number of ballots that each candidate received, indexed by candidate id
+         */
+        protected int[] candidateBallots = new int[INITIAL_CAPACITY];
+        
+        /**
+         * The ids of the candidates grouped by party in order of party id, which are in the order they were listed within each party after
+         * {@link #groupCandidates()} and in order of ballots after {@link #orderCandidatesByBallots()}
+         */
+        protected int[] partyCandidates = new int[0];
+        
+        /**
+         * Initializes a {@link PartyTable}
+         */
+        protected PartyTable() {}
         
         /**
-         * The number of candidates that this party has
+         * Adds the given party to this table if it is not already present and returns its id
+         *
+         * @param party The party to add
+         * @return The id of the party
          */
-        protected int numCandidates = 0;
+        protected int addParty(final String party) {
+            final Integer existingId = partyToId.get(party);
+            if(existingId != null) {
+                return existingId;
+            }
+            
+            //If the columns are full, then double their capacity
+            if(size == parties.length) {
+                final int newCapacity = 2 * size;
+                parties = Arrays.copyOf(parties, newCapacity);
+                numCandidates = Arrays.copyOf(numCandidates, newCapacity);
+                numSeats = Arrays.copyOf(numSeats, newCapacity);
+                numBallots = Arrays.copyOf(numBallots, newCapacity);
+                remainderNumerators = Arrays.copyOf(remainderNumerators, newCapacity);
+                remainderDenominators = Arrays.copyOf(remainderDenominators, newCapacity);
+                partyCandidatesStart = Arrays.copyOf(partyCandidatesStart, newCapacity);
+            }
+            
+            parties[size] = party;
+            remainderDenominators[size] = 1;
+            partyToId.put(party, size);
+            return size++;
+        }
         
         /**
-         * The number of seats that this party currently has obtained
+         * Adds the given candidate to this table, adding its party if it is not already present, and returns the id of the candidate
+         *
+         * @param candidate The candidate to add
+         * @return The id of the candidate
          */
-        protected int numSeats;
+        protected int addCandidate(final Candidate candidate) {
+            final int partyId = addParty(candidate.getParty());
+            
+            //If the candidate columns are full, then double their capacity
+            if(candidatesSize == candidates.length) {
+                final int newCapacity = 2 * candidatesSize;
+                candidates = Arrays.copyOf(candidates, newCapacity);
+                candidatePartyIds = Arrays.copyOf(candidatePartyIds, newCapacity);
+                candidateBallots = Arrays.copyOf(candidateBallots, newCapacity);
+            }
+            
+            candidates[candidatesSize] = candidate;
+            candidatePartyIds[candidatesSize] = partyId;
+            numCandidates[partyId]++;
+            return candidatesSize++;
+        }
         
         /**
-         * The number of ballots that this party received
+         * Adds the given number of ballots to the candidate with the given id and to its party
+         *
+         * @param candidateId The id of the candidate
+         * @param count       The number of ballots to add
          */
-        protected int numBallots = 0;
+        protected void addBallots(final int candidateId, final int count) {
+            candidateBallots[candidateId] += count;
+            numBallots[candidatePartyIds[candidateId]] += count;
+        }
         
         /**
-         * The remaining votes that this party has after the initial allocation of seats
+         * Groups the ids of the candidates by party in {@link #partyCandidates}, keeping the order in which they were listed within each party
          */
-        protected Fraction remainder;
+        protected void groupCandidates() {
+            //Count the candidates of each party, then turn the counts into the start of each party's group
+            final int[] nextIndices = new int[size];
+            for(int candidateId = 0; candidateId < candidatesSize; candidateId++) {
+                nextIndices[candidatePartyIds[candidateId]]++;
+            }
+            int start = 0;
+            for(int partyId = 0; partyId < size; partyId++) {
+                partyCandidatesStart[partyId] = start;
+                start += nextIndices[partyId];
+                nextIndices[partyId] = partyCandidatesStart[partyId];
+            }
+            
+            partyCandidates = new int[candidatesSize];
+            for(int candidateId = 0; candidateId < candidatesSize; candidateId++) {
+                partyCandidates[nextIndices[candidatePartyIds[candidateId]]++] = candidateId;
+            }
+        }
         
         /**
-         * The pairs of candidates for this party and their corresponding number of ballots they were given, sorted by number of ballots given
+         * Groups the ids of the candidates by party in {@link #partyCandidates} and sorts each party's candidates from the most ballots to the
+         * least, keeping the order in which they were listed for candidates with the same number of ballots
          */
-        protected List<Map.Entry<Candidate, Integer>> orderedCandidateBallots = new ArrayList<>();
+        protected void orderCandidatesByBallots() {
+            groupCandidates();
+            
+            /*
+             * Each candidate is sorted by a key whose high half is the ballots subtracted from the largest int, so that more ballots come first, and
+             * whose low half is the candidate id, which keeps the listed order for equal ballots and is read back after sorting
+             */
+            final long[] keys = new long[candidatesSize];
+            for(int i = 0; i < candidatesSize; i++) {
+                final int candidateId = partyCandidates[i];
+                keys[i] = (long) (Integer.MAX_VALUE - candidateBallots[candidateId]) << 32 | candidateId;
+            }
+            for(int partyId = 0; partyId < size; partyId++) {
+                Arrays.sort(keys, partyCandidatesStart[partyId], getPartyCandidatesEnd(partyId));
+            }
+            for(int i = 0; i < candidatesSize; i++) {
+                partyCandidates[i] = (int) keys[i];
+            }
+        }
+        
+        /**
+         * Returns the index after the last of the given party's candidates in {@link #partyCandidates}
+         *
+         * @param partyId The id of the party
+         * @return The index after the last of the party's candidates in {@link #partyCandidates}
+         */
+        protected int getPartyCandidatesEnd(final int partyId) {
+            return partyId + 1 < size ? partyCandidatesStart[partyId + 1] : partyCandidates.length;
+        }
+        
+        /**
+         * Returns the id of the given party
+         *
+         * @param party The party of which to get the id
+         * @return The id of the given party
+         */
+        protected int getId(final String party) {
+            return partyToId.get(party);
+        }
+        
+        /**
+         * Returns the remaining votes that the party with the given id has after the initial allocation of seats
+         *
+         * @param partyId The id of the party
+         * @return The remaining votes that the party has after the initial allocation of seats
+         */
+        protected Fraction getRemainder(final int partyId) {
+            return new Fraction(remainderNumerators[partyId], remainderDenominators[partyId]);
+        }
+        
+        /**
+         * Sets the remaining votes that the party with the given id has after the initial allocation of seats
+         *
+         * @param partyId   The id of the party
+         * @param remainder The remaining votes that the party has after the initial allocation of seats
+         */
+        protected void setRemainder(final int partyId, final Fraction remainder) {
+            remainderNumerators[partyId] = remainder.getNumerator();
+            remainderDenominators[partyId] = remainder.getDenominator();
+        }
+        
+        /**
+         * Sets the remaining votes that the party with the given id has after the initial allocation of seats from a {@link FractionAccumulator}
+         *
+         * @param partyId   The id of the party
+         * @param remainder The remaining votes that the party has after the initial allocation of seats
+         */
+        protected void setRemainder(final int partyId, final FractionAccumulator remainder) {
+            remainderNumerators[partyId] = remainder.getNumerator();
+            remainderDenominators[partyId] = remainder.getDenominator();
+        }
         
         /**
-         * Initializes a {@link PartyInformation}
+         * Compares the remaining votes that two parties have after the initial allocation of seats without creating any {@link Fraction}s
+         *
+         * @param partyId1 The id of the first party to compare
+         * @param partyId2 The id of the second party to compare
+         * @return 0 if the remainders are equal, -1 if the first party's remainder is less than the second's, and 1 otherwise
          */
-        protected PartyInformation() {}
+        protected int compareRemainders(final int partyId1, final int partyId2) {
+            return Fraction.compare(
+                remainderNumerators[partyId1], remainderDenominators[partyId1], remainderNumerators[partyId2], remainderDenominators[partyId2]
+            );
+        }
         
         /**
-         * Returns the {@link String} representation of this {@link PartyInformation}
+         * Returns the {@link String} representation of this {@link PartyTable}
          *
-         * @return The {@link String} representation of this {@link PartyInformation}
+         * @return The {@link String} representation of this {@link PartyTable}
          */
         @Override
         public String toString() {
             return String.format(
-                "PartyInformation{numCandidates=%d, numSeats=%d, numBallots=%d, remainder=%s, orderedCandidateBallots=%s}",
-                numCandidates, numSeats, numBallots, remainder, orderedCandidateBallots
+                "PartyTable{parties=%s, numCandidates=%s, numSeats=%s, numBallots=%s}",
+                Arrays.toString(Arrays.copyOf(parties, size)),
+                Arrays.toString(Arrays.copyOf(numCandidates, size)),
+                Arrays.toString(Arrays.copyOf(numSeats, size)),
+                Arrays.toString(Arrays.copyOf(numBallots, size))
             );
         }
         
@@ -147,12 +459,59 @@ public class OpenPartyListSystem extends VotingSystem {
         Objects.requireNonNull(auditOutput);
         Objects.requireNonNull(reportOutput);
         
-        auditWriter = new PrintWriter(auditOutput);
+        //If the audit output is a binary event log, then write the text of the audit through it so that the text stays in order with the events
+        if(auditOutput instanceof AuditEventLog) {
+            auditLog = (AuditEventLog) auditOutput;
+            auditWriter = auditLog.getTextWriter();
+        }
+        //If the audit output is indexed, then write the text of the audit through it so that it knows the offset of each ballot's entries
+        else if(auditOutput instanceof IndexedAuditOutput) {
+            auditIndex = (IndexedAuditOutput) auditOutput;
+            auditWriter = auditIndex.getTextWriter();
+        }
+        else {
+            //If the audit is discarded, then the rest of the audit is still written to it, but the steps of each ballot are skipped
+            auditEnabled = auditOutput != NO_AUDIT;
+            auditWriter = new PrintWriter(auditOutput);
+        }
         reportWriter = new PrintWriter(reportOutput);
         
         tableFormatter = new TableFormatter('+', '-', '|');
     }
     
+    /**
+     * Parses the options that follow the election type, which select the {@link ApportionmentMethod} through one of "LARGEST_REMAINDER",
+     * "DHONDT", or "SAINTE_LAGUE" and select pre-aggregated ballot counts through "COUNTS"
+     *
+     * @param options         The stripped options that follow the election type, which is empty if there are none
+     * @param inputIdentifier The identifier associated with the current input source
+     * @param line            The line number associated with the election type line
+     * @throws ParseException Thrown if any of the options are not supported by {@link OpenPartyListSystem}
+     */
+    @Override
+    public void importElectionTypeOptions(final String[] options, final String inputIdentifier, final int line) throws ParseException {
+        for(final String option : options) {
+            switch(option.toUpperCase()) {
+                case "LARGEST_REMAINDER":
+                    apportionmentMethod = ApportionmentMethod.LARGEST_REMAINDER;
+                    break;
+                case "DHONDT":
+                    apportionmentMethod = ApportionmentMethod.D_HONDT;
+                    break;
+                case "SAINTE_LAGUE":
+                    apportionmentMethod = ApportionmentMethod.SAINTE_LAGUE;
+                    break;
+                case "COUNTS":
+                    aggregatedBallots = true;
+                    break;
+                default:
+                    VotingStreamParser.throwParseException(String.format(
+                        "The election type option \"%s\" is not supported for OPL", option
+                    ), inputIdentifier, line);
+            }
+        }
+    }
+    
     /**
      * Returns the number of lines that makes up the header for the candidates
      *
@@ -289,14 +648,9 @@ public class OpenPartyListSystem extends VotingSystem {
         reportWriter.println();
         System.out.println();
         
-        //Add PartyInformation instances for each unique party
+        //Add each candidate and each unique party to the party table
         for(final Candidate candidate : candidates) {
-            final String party = candidate.getParty();
-            if(!partyToPartyInformation.containsKey(party)) {
-                partyToPartyInformation.put(party, new PartyInformation());
-                partyToCandidateCounts.put(party, new LinkedHashMap<>());
-            }
-            partyToCandidateCounts.get(party).put(candidate, 0);
+            partyTable.addCandidate(candidate);
         }
     }
     
@@ -347,17 +701,17 @@ public class OpenPartyListSystem extends VotingSystem {
     }
     
     /**
-     * Parses the ballot line from the election file and returns the resultant {@link Candidate}
+     * Parses the ballot line from the election file and returns the id of the chosen {@link Candidate}
      *
      * @param ballotLine      The {@link String} corresponding to a ballot
      * @param inputIdentifier The identifier associated with the current input source
      * @param line            The line number associated with the current ballot line being read
-     * @return The {@link Candidate} from parsing the ballot line
+     * @return The id of the {@link Candidate} from parsing the ballot line, which is its position in the candidates line starting at 0
      * @throws ParseException Thrown if the format or contents of the ballot line are invalid
      */
-    private Candidate parseBallot(final String ballotLine, final String inputIdentifier, final int line) throws ParseException {
-        //The location of the 1 in the ballot line (a.k.a. the candidate position at which 1 is stored)
-        Integer oneLocationZeroBased = null;
+    private int parseBallot(final String ballotLine, final String inputIdentifier, final int line) throws ParseException {
+        //The location of the 1 in the ballot line (a.k.a. the candidate position at which 1 is stored), or -1 if there is no 1
+        int oneLocationZeroBased = -1;
         
         //The number of commas in the ballot line
         int numCommas = 0;
@@ -371,7 +725,7 @@ public class OpenPartyListSystem extends VotingSystem {
                     break;
                 case '1':
                     //If the position of 1 has already been set, then there is more than one 1 in the ballot line, so throw an exception
-                    if(oneLocationZeroBased != null) {
+                    if(oneLocationZeroBased != -1) {
                         VotingStreamParser.throwParseException("There can only be one choice for the OPL ballots", inputIdentifier, line);
                     }
                     //Otherwise, assigned the position of 1
@@ -399,11 +753,11 @@ public class OpenPartyListSystem extends VotingSystem {
         }
         
         //If there are no 1s for the ballot, then throw an exception
-        if(oneLocationZeroBased == null) {
+        if(oneLocationZeroBased == -1) {
             VotingStreamParser.throwParseException("There must be a choice selected for the OPL ballots", inputIdentifier, line);
         }
         
-        return candidates[oneLocationZeroBased];
+        return oneLocationZeroBased;
     }
     
     /**
@@ -417,21 +771,134 @@ public class OpenPartyListSystem extends VotingSystem {
      */
     @Override
     public void addBallot(final int ballotNumber, final String ballotLine, final String inputIdentifier, final int line) throws ParseException {
-        //Get the candidate and party associated with the ballot
-        final Candidate candidate = parseBallot(ballotLine, inputIdentifier, line);
-        final String party = candidate.getParty();
+        //Get the candidate associated with the ballot
+        final int candidateId = parseBallot(ballotLine, inputIdentifier, line);
+        final Candidate candidate = candidates[candidateId];
         
-        //Increment the ballot count for the party-candidate pair
-        partyToCandidateCounts.get(party).merge(candidate, 1, Integer::sum);
+        //Increment the number of ballots for the candidate and its party in the party table
+        partyTable.addBallots(candidateId, 1);
         
-        //Increment the number of votes for the party in party information
-        partyToPartyInformation.get(party).numBallots++;
+        //The offset at which the entry of this ballot starts if the audit is indexed
+        final long entryStart = auditIndex != null ? auditIndex.getPosition() : 0;
         
         //Writes the output for this ballot to the audit output
-        auditWriter.printf("Ballot %d chose %s\n",
-            ballotNumber,
-            candidate
-        );
+        if(auditLog != null) {
+            auditLog.ballotChose(ballotNumber, candidate);
+        }
+        else if(auditEnabled) {
+            auditWriter.printf("Ballot %d chose %s\n",
+                ballotNumber,
+                candidate
+            );
+        }
+        
+        if(auditIndex != null) {
+            auditIndex.addBallotEntry(ballotNumber, 1, entryStart);
+        }
+    }
+    
+    /**
+     * Parses a nonnegative integer field of a pre-aggregated ballot line
+     *
+     * @param field           The field to parse
+     * @param fieldName       The name of the field used in the error message
+     * @param inputIdentifier The identifier associated with the current input source
+     * @param line            The line number associated with the current ballot line being read
+     * @return The parsed nonnegative integer
+     * @throws ParseException Thrown if the field is not a valid nonnegative integer
+     */
+    private static int parseAggregatedBallotField(final String field, final String fieldName, final String inputIdentifier, final int line)
+        throws ParseException {
+        int value = -1;
+        try {
+            value = Integer.parseInt(field.strip());
+        }
+        catch(NumberFormatException ignored) {}
+        
+        if(value < 0) {
+            VotingStreamParser.throwParseException(String.format(
+                "The %s \"%s\" for this ballot count line is not a valid nonnegative integer", fieldName, field.strip()
+            ), inputIdentifier, line);
+        }
+        return value;
+    }
+    
+    /**
+     * Parses a line corresponding to one or more ballots, adds them internally, and returns the number of ballots the line represents
+     * <p></p>
+     * If ballots are pre-aggregated, then the line must be of the form "[candidateIndex],[count]" where [candidateIndex] is the position of the
+     * candidate in the candidates line starting at 1 and [count] is the number of ballots that chose the candidate, so the cost of ingestion
+     * depends on the number of candidates rather than the number of ballots
+     *
+     * @param ballotNumber    The number corresponding to the first ballot the line represents
+     * @param ballotLine      The {@link String} corresponding to the ballots
+     * @param inputIdentifier The identifier associated with the current input source
+     * @param line            The line number associated with the current ballot line being read
+     * @return The number of ballots the line represents
+     * @throws ParseException Thrown if there is an issue in parsing the current ballot line
+     */
+    @Override
+    public int addBallots(final int ballotNumber, final String ballotLine, final String inputIdentifier, final int line) throws ParseException {
+        //If each line is a single ballot, then add it as such
+        if(!aggregatedBallots) {
+            return super.addBallots(ballotNumber, ballotLine, inputIdentifier, line);
+        }
+        
+        final String[] fields = ballotLine.split(",", -1);
+        if(fields.length != 2) {
+            VotingStreamParser.throwParseException(String.format(
+                "The ballot count line \"%s\" does not match the format \"[candidateIndex],[count]\"", ballotLine
+            ), inputIdentifier, line);
+        }
+        
+        final int candidateIndex = parseAggregatedBallotField(fields[0], "candidate index", inputIdentifier, line);
+        final int count = parseAggregatedBallotField(fields[1], "count", inputIdentifier, line);
+        
+        //If the candidate index does not correspond to a candidate, then throw an exception
+        if(candidateIndex < 1 || candidateIndex > numCandidates) {
+            VotingStreamParser.throwParseException(String.format(
+                "The provided candidate index %d is out of the range %d to %d for %d candidates",
+                candidateIndex, 1, numCandidates, numCandidates
+            ), inputIdentifier, line);
+        }
+        
+        //If the count would go beyond the total provided in the ballots headers, then throw an exception rather than overflow
+        if((long) ballotNumber - 1 + count > numBallots) {
+            VotingStreamParser.throwParseException(String.format(
+                "The ballot counts exceed the sum of ballot counts provided in the ballots headers %d", numBallots
+            ), inputIdentifier, line);
+        }
+        
+        final Candidate candidate = candidates[candidateIndex - 1];
+        
+        //Add the count to the candidate and its party in the party table
+        partyTable.addBallots(candidateIndex - 1, count);
+        
+        //The offset at which the entry of these ballots starts if the audit is indexed
+        final long entryStart = auditIndex != null ? auditIndex.getPosition() : 0;
+        
+        //Writes the output for these ballots to the audit output unless the audit is discarded
+        if(auditLog != null) {
+            auditLog.ballotsChose(ballotNumber, count, candidate);
+        }
+        else if(auditEnabled) {
+            if(count == 0) {
+                auditWriter.printf("No ballots chose %s\n", candidate);
+            }
+            else if(count == 1) {
+                auditWriter.printf("Ballot %d chose %s\n", ballotNumber, candidate);
+            }
+            else {
+                auditWriter.printf("Ballots %d through %d (%d ballots) chose %s\n", ballotNumber, ballotNumber + count - 1, count, candidate);
+            }
+        }
+        
+        //Ballots with no count have no ballot numbers, so they are not indexed
+        if(auditIndex != null && count != 0) {
+            auditIndex.addBallotEntry(ballotNumber, count, entryStart);
+        }
+        
+        return count;
     }
     
     /**
@@ -514,26 +981,24 @@ public class OpenPartyListSystem extends VotingSystem {
     /**
      * Prints the calculation of the initial allocation of seats using the quota
      *
-     * @param party       The party for which to print the initial allocation of seats
+     * @param partyId     The id of the party for which to print the initial allocation of seats
      * @param stringQuota The string form of the quota
      */
-    private void printInitialAllocation(final String party, final String stringQuota) {
-        final PartyInformation partyInformation = partyToPartyInformation.get(party);
-        
+    private void printInitialAllocation(final int partyId, final String stringQuota) {
         //Prints initial allocation of seats for a party
         auditWriter.printf(
             "%s initial allocation of seats: min(floor(%d / %s), %d) = %d\n",
-            party,
-            partyInformation.numBallots,
+            partyTable.parties[partyId],
+            partyTable.numBallots[partyId],
             stringQuota,
-            partyInformation.numCandidates,
-            partyInformation.numSeats
+            partyTable.numCandidates[partyId],
+            partyTable.numSeats[partyId]
         );
         auditWriter.println("");
         
         auditWriter.printf(
             "Remaining ballots: %s\n",
-            getRemainingBallots(partyInformation)
+            getRemainingBallots(partyId)
         );
         auditWriter.println();
     }
@@ -541,26 +1006,28 @@ public class OpenPartyListSystem extends VotingSystem {
     /**
      * Returns a string representing the number of ballots a party has
      *
-     * @param partyInformation a {@link PartyInformation} object containing data related to a party
+     * @param partyId The id of the party in the {@link PartyTable}
      * @return a string representing the number of ballots a party has
      */
-    protected String getRemainingBallots(final PartyInformation partyInformation) {
+    protected String getRemainingBallots(final int partyId) {
         final String remainingBallots;
         
         //If a candidate has been allocated seats
-        if(partyInformation.numSeats > 0) {
+        if(partyTable.numSeats[partyId] > 0) {
             //If the remaining value is a whole number
-            if(partyInformation.remainder.denominator == 1) {
-                remainingBallots = String.valueOf(partyInformation.remainder.numerator);
+            if(partyTable.remainderDenominators[partyId] == 1) {
+                remainingBallots = String.valueOf(partyTable.remainderNumerators[partyId]);
             }
             else {
-                remainingBallots = String.format("%.4f", partyInformation.remainder.getDoubleValue());
+                remainingBallots = String.format(
+                    "%.4f", (double) partyTable.remainderNumerators[partyId] / partyTable.remainderDenominators[partyId]
+                );
             }
         }
         
         //If a candidate has not been allocated any seats, then remaining ballots is the same as the total number of ballots for the party
         else {
-            remainingBallots = String.valueOf(partyInformation.numBallots);
+            remainingBallots = String.valueOf(partyTable.numBallots[partyId]);
         }
         return remainingBallots;
     }
@@ -580,23 +1047,19 @@ public class OpenPartyListSystem extends VotingSystem {
         
         auditWriter.println("Initial Seat Allocation Results:");
         
-        //The list of the number of seats received by each party
-        final List<Integer> seats = new ArrayList<>();
-        
-        //The list of remaining ballots for each party after initial allocation
-        final List<String> remainingBallots = new ArrayList<>();
-        
-        for(final PartyInformation partyInformation : partyToPartyInformation.values()) {
-            seats.add(partyInformation.numSeats);
-            remainingBallots.add(getRemainingBallots(partyInformation));
+        //The remaining ballots for each party after initial allocation
+        final String[] remainingBallots = new String[partyTable.size];
+        for(int partyId = 0; partyId < partyTable.size; partyId++) {
+            remainingBallots[partyId] = getRemainingBallots(partyId);
         }
+        
         //Prints as table with Parties, Seats, and Remaining Ballots
-        final String table = tableFormatter.formatAsTable(
+        final String table = tableFormatter.formatColumnsAsTable(
             Arrays.asList("Party", "Initial Seats", "Remaining Ballots"),
             Arrays.asList(
-                partyToPartyInformation.keySet(),
-                seats,
-                remainingBallots
+                TableFormatter.Column.of(partyTable.parties, partyTable.size),
+                TableFormatter.Column.of(partyTable.numSeats, partyTable.size),
+                TableFormatter.Column.of(remainingBallots, partyTable.size)
             ),
             Arrays.asList(TableFormatter.Alignment.LEFT, TableFormatter.Alignment.RIGHT, TableFormatter.Alignment.RIGHT));
         auditWriter.println(table + "\n");
@@ -621,29 +1084,31 @@ public class OpenPartyListSystem extends VotingSystem {
         //Gets the string format of the quota (parenthesized if it is a fraction)
         final String stringQuota = quota.denominator == 1 ? Long.toString(quota.numerator) : String.format("(%s)", quota);
         
+        //The accumulator used for the quota arithmetic of every party so that no intermediate fractions are created
+        final FractionAccumulator accumulator = new FractionAccumulator();
+        
         //Allocate initial votes for each party
-        for(final String party : partyToPartyInformation.keySet()) {
-            final PartyInformation partyInformation = partyToPartyInformation.get(party);
-            
+        for(int partyId = 0; partyId < partyTable.size; partyId++) {
             //Divides the party's ballot count by the quota
-            final Fraction ballotQuotaMultiples = new Fraction(partyInformation.numBallots, 1).divide(quota);
+            accumulator.set(partyTable.numBallots[partyId], 1).divide(quota);
             
             //Sets a party's numSeats to the ballot quota multiple with a maximum possible seats of the number of candidates for the party
-            partyInformation.numSeats = Math.min((int) ballotQuotaMultiples.getWholePart(), partyInformation.numCandidates);
+            partyTable.numSeats[partyId] = Math.min((int) accumulator.getWholePart(), partyTable.numCandidates[partyId]);
             
             //If the party has seats left, then it can be added to the remaining parties who can get more seats
-            if(partyInformation.numSeats != partyInformation.numCandidates) {
-                remainingParties.add(party);
+            if(partyTable.numSeats[partyId] != partyTable.numCandidates[partyId]) {
+                remainingParties.add(partyTable.parties[partyId]);
             }
             
             //Calculates remaining ballots after initial allocation
-            partyInformation.remainder = new Fraction(partyInformation.numBallots, 1)
-                .subtract(new Fraction(partyInformation.numSeats, 1).multiply(quota));
+            partyTable.setRemainder(
+                partyId, accumulator.set(quota).multiply(-partyTable.numSeats[partyId], 1).add(partyTable.numBallots[partyId], 1)
+            );
             
             //Decrements number of seats remaining by number of seats obtained by each party
-            numSeatsRemaining -= partyInformation.numSeats;
+            numSeatsRemaining -= partyTable.numSeats[partyId];
             
-            printInitialAllocation(party, stringQuota);
+            printInitialAllocation(partyId, stringQuota);
         }
         
         printInitialAllocationResult(numSeatsRemaining);
@@ -678,7 +1143,7 @@ public class OpenPartyListSystem extends VotingSystem {
         //The seat number that is currently being allocated
         final int seatNumber = numSeats - numSeatsRemaining + 1;
         
-        final String remainingBallots = getRemainingBallots(partyToPartyInformation.get(chosenParty));
+        final String remainingBallots = getRemainingBallots(partyTable.getId(chosenParty));
         
         auditWriter.printf("Allocating seat %d:\n",
             seatNumber);
@@ -734,14 +1199,13 @@ public class OpenPartyListSystem extends VotingSystem {
      * @param remainingParties  Parties that still have enough candidates for additional seats
      */
     protected void allocateRemainingSeats(int numSeatsRemaining, final Set<String> remainingParties) {
-        //Compares using Pair::getSecond but in reverse order (highest to lowest)
-        Comparator<Pair<String, Fraction>> pairSecondComparatorReversed = Comparator.comparing(Pair::getSecond);
-        pairSecondComparatorReversed = pairSecondComparatorReversed.reversed();
-        
-        //Get a list of the remaining ballots for each party, sort it, and collect it
-        List<Pair<String, Fraction>> partyRemainingBallots = remainingParties.stream()
-            .map(party -> new Pair<>(party, partyToPartyInformation.get(party).remainder))
-            .sorted(pairSecondComparatorReversed)
+        //Compares the ids of parties by their remainders, which compares the remainder columns directly
+        final Comparator<Integer> remainderComparator = partyTable::compareRemainders;
+        
+        //Get a list of the ids of the remaining parties sorted by their remaining ballots in reverse order (highest to lowest)
+        List<Integer> partyRemainingBallots = remainingParties.stream()
+            .map(partyTable::getId)
+            .sorted(remainderComparator.reversed())
             .collect(Collectors.toList());
         
         //The index after the current group of parties with the highest equivalent remaining ballots
@@ -762,10 +1226,10 @@ public class OpenPartyListSystem extends VotingSystem {
                  * Creates a list, copies all parties that still have candidates without seats and their remainders to it in the same order as
                  * partyRemainingBallots, and replaces partyRemainingBallots with it
                  */
-                final List<Pair<String, Fraction>> partyRemainingBallotsTmp = new ArrayList<>();
-                for(final Pair<String, Fraction> partyRemainderPair : partyRemainingBallots) {
-                    if(remainingParties.contains(partyRemainderPair.getFirst())) {
-                        partyRemainingBallotsTmp.add(partyRemainderPair);
+                final List<Integer> partyRemainingBallotsTmp = new ArrayList<>();
+                for(final int partyId : partyRemainingBallots) {
+                    if(remainingParties.contains(partyTable.parties[partyId])) {
+                        partyRemainingBallotsTmp.add(partyId);
                     }
                 }
                 partyRemainingBallots = partyRemainingBallotsTmp;
@@ -781,23 +1245,24 @@ public class OpenPartyListSystem extends VotingSystem {
             
             //If the current group of parties with the highest remaining ballots is finished, get the index after the next group
             if(curIdx >= indexAfterCurrentGroup) {
-                indexAfterCurrentGroup = indexAfterEquivalentGroup(partyRemainingBallots, curIdx, Comparator.comparing(Pair::getSecond));
+                indexAfterCurrentGroup = indexAfterEquivalentGroup(partyRemainingBallots, curIdx, remainderComparator);
                 
                 //The view of the group of parties with the highest remaining ballot counts
-                final List<Pair<String, Fraction>> currentPartiesGroupView = partyRemainingBallots.subList(curIdx, indexAfterCurrentGroup);
+                final List<Integer> currentPartiesGroupView = partyRemainingBallots.subList(curIdx, indexAfterCurrentGroup);
                 
                 //Shuffle the group of next highest remaining parties for tie breaking
                 Collections.shuffle(currentPartiesGroupView, rand);
                 
                 //Store the group of next highest remaining parties' names in a comma-space-separated string
                 curGroupStr = currentPartiesGroupView.stream()
-                    .map(Pair::getFirst)
+                    .map(partyId -> partyTable.parties[partyId])
                     .collect(Collectors.joining(", "));
                 curGroupStr = ", " + curGroupStr;
             }
             
             //Get the next highest party
-            final String chosenParty = partyRemainingBallots.get(curIdx).getFirst();
+            final int chosenPartyId = partyRemainingBallots.get(curIdx);
+            final String chosenParty = partyTable.parties[chosenPartyId];
             
             String tieBreakMessage = null;
             
@@ -812,7 +1277,7 @@ public class OpenPartyListSystem extends VotingSystem {
                 
                 tieBreakMessage = String.format(
                     "The next highest parties have equivalent ballot counts of %s and were randomized in the following order: %s.\n",
-                    getRemainingBallots(partyToPartyInformation.get(chosenParty)),
+                    getRemainingBallots(chosenPartyId),
                     curGroupStr
                 );
                 tieBreakMessage += String.format(
@@ -822,15 +1287,12 @@ public class OpenPartyListSystem extends VotingSystem {
                 );
             }
             
-            //Get the party information for the currently-chosen party
-            final PartyInformation partyInformation = partyToPartyInformation.get(chosenParty);
-            
             //Print information regarding the seat allocated to the party with the next largest remaining ballots
             printNextChosen(numSeatsRemaining, chosenParty, tieBreakMessage);
             
             //Increment the party's number of seats, and if they have no more candidates to assign seats to, then remove it from remainingParties
-            partyInformation.numSeats++;
-            if(partyInformation.numSeats == partyInformation.numCandidates) {
+            partyTable.numSeats[chosenPartyId]++;
+            if(partyTable.numSeats[chosenPartyId] == partyTable.numCandidates[chosenPartyId]) {
                 remainingParties.remove(chosenParty);
             }
             
@@ -847,6 +1309,149 @@ public class OpenPartyListSystem extends VotingSystem {
         }
     }
     
+    /**
+     * Compares the averages that two parties have for their next seat under the current {@link ApportionmentMethod}, which are compared exactly by
+     * cross-multiplying each party's ballots with the other's divisor
+     *
+     * @param partyId1 The id of the first party to compare
+     * @param partyId2 The id of the second party to compare
+     * @return A negative number, zero, or a positive number if the first party's average is less than, equal to, or greater than the second's
+     */
+    private int compareAverages(final int partyId1, final int partyId2) {
+        return Fraction.compare(
+            partyTable.numBallots[partyId1], apportionmentMethod.getDivisor(partyTable.numSeats[partyId1]),
+            partyTable.numBallots[partyId2], apportionmentMethod.getDivisor(partyTable.numSeats[partyId2])
+        );
+    }
+    
+    /**
+     * Sets the remainder of the given party to its average for its next seat under the current {@link ApportionmentMethod}
+     *
+     * @param partyId The id of the party whose average to set as its remainder
+     */
+    private void setAverageAsRemainder(final int partyId) {
+        partyTable.setRemainder(
+            partyId, new Fraction(partyTable.numBallots[partyId], apportionmentMethod.getDivisor(partyTable.numSeats[partyId]))
+        );
+    }
+    
+    /**
+     * Prints information regarding the seat allocated to the party with the next highest average
+     *
+     * @param numSeatsRemaining The number of seats remaining before this allocation
+     * @param chosenPartyId     The id of the party chosen to be allocated the seat
+     * @param tieBreakMessage   The string that will be written if a tie break was required
+     */
+    private void printNextHighestAverage(final int numSeatsRemaining, final int chosenPartyId, final String tieBreakMessage) {
+        auditWriter.printf("Allocating seat %d:\n", numSeats - numSeatsRemaining + 1);
+        if(tieBreakMessage != null) {
+            auditWriter.print(tieBreakMessage);
+        }
+        else {
+            auditWriter.printf("The party with the next highest average is %s with %d / %d = %s ballots per seat\n",
+                partyTable.parties[chosenPartyId],
+                partyTable.numBallots[chosenPartyId],
+                apportionmentMethod.getDivisor(partyTable.numSeats[chosenPartyId]),
+                getRemainingBallots(chosenPartyId)
+            );
+        }
+        auditWriter.println();
+    }
+    
+    /**
+     * Allocates all of the seats using the highest averages method given by the {@link ApportionmentMethod}, giving each seat in turn to the party
+     * with the greatest number of ballots divided by its divisor
+     * <p></p>
+     * The parties are kept in a priority queue ordered by their averages, which are compared exactly as integer ratios, so the allocation takes
+     * O(seats log parties) time outside of ties; afterwards, the remainder of each party is its average for its next seat
+     */
+    protected void allocateSeatsByHighestAverages() {
+        int numSeatsRemaining = numSeats;
+        
+        auditWriter.printf(
+            "Allocating seats by the %s method: each seat goes to the party with the highest number of ballots divided by %s\n\n",
+            apportionmentMethod,
+            apportionmentMethod == ApportionmentMethod.SAINTE_LAGUE
+                ? "one more than twice its current number of seats"
+                : "one more than its current number of seats"
+        );
+        
+        //The ids of the parties that still have candidates without seats ordered from the highest to the lowest average for their next seat
+        final PriorityQueue<Integer> partyAverages = new PriorityQueue<>(
+            Math.max(1, partyTable.size),
+            (partyId1, partyId2) -> compareAverages(partyId2, partyId1)
+        );
+        for(int partyId = 0; partyId < partyTable.size; partyId++) {
+            partyTable.numSeats[partyId] = 0;
+            setAverageAsRemainder(partyId);
+            if(partyTable.numCandidates[partyId] > 0) {
+                partyAverages.add(partyId);
+            }
+        }
+        
+        //The ids of the group of parties that are tied for the highest average
+        final List<Integer> highestGroup = new ArrayList<>();
+        
+        //While there are seats remaining to distribute
+        while(numSeatsRemaining > 0) {
+            //If there are no parties that have candidates without seats, then print such and break out of the loop
+            if(partyAverages.isEmpty()) {
+                printNotEnoughCandidates(numSeatsRemaining);
+                break;
+            }
+            
+            //Remove the party with the highest average along with any parties with an equivalent average
+            highestGroup.clear();
+            highestGroup.add(partyAverages.poll());
+            while(!partyAverages.isEmpty() && compareAverages(partyAverages.peek(), highestGroup.get(0)) == 0) {
+                highestGroup.add(partyAverages.poll());
+            }
+            
+            String tieBreakMessage = null;
+            
+            //If multiple parties have the equivalent highest averages, then shuffle them for tie breaking
+            if(highestGroup.size() > 1) {
+                Collections.shuffle(highestGroup, rand);
+                final String chosenPartyName = partyTable.parties[highestGroup.get(0)];
+                tieBreakMessage = String.format(
+                    "The next highest parties have equivalent averages of %s ballots per seat and were randomized in the following order: %s.\n",
+                    getRemainingBallots(highestGroup.get(0)),
+                    highestGroup.stream().map(partyId -> partyTable.parties[partyId]).collect(Collectors.joining(", "))
+                );
+                tieBreakMessage += String.format(
+                    "Therefore, the next party will be %s.\nAs such, %s will be allocated a seat.\n",
+                    chosenPartyName,
+                    chosenPartyName
+                );
+            }
+            
+            final int chosenPartyId = highestGroup.get(0);
+            
+            printNextHighestAverage(numSeatsRemaining, chosenPartyId, tieBreakMessage);
+            
+            //Give the party its seat and compute its average for its next seat
+            partyTable.numSeats[chosenPartyId]++;
+            setAverageAsRemainder(chosenPartyId);
+            
+            //Return the parties that were not chosen, and return the chosen party if it still has candidates without seats
+            for(int i = 1; i < highestGroup.size(); i++) {
+                partyAverages.add(highestGroup.get(i));
+            }
+            if(partyTable.numSeats[chosenPartyId] != partyTable.numCandidates[chosenPartyId]) {
+                partyAverages.add(chosenPartyId);
+            }
+            
+            numSeatsRemaining--;
+            
+            auditWriter.printf("%d / %d have been allocated. %d seats remaining\n",
+                numSeats - numSeatsRemaining,
+                numSeats,
+                numSeatsRemaining
+            );
+            auditWriter.println();
+        }
+    }
+    
     /**
      * Distributes each party’s seats to their candidates by popularity
      *
@@ -856,12 +1461,14 @@ public class OpenPartyListSystem extends VotingSystem {
         //The final list of candidates who received seats
         final List<Candidate> finalSeats = new ArrayList<>();
         
+        //Order each party's candidates by ballot count
+        partyTable.orderCandidatesByBallots();
+        
         //For each party, distribute the seats for the party
-        for(final String party : partyToPartyInformation.keySet()) {
-            //Get the party information associated with the current party
-            final PartyInformation partyInformation = partyToPartyInformation.get(party);
+        for(int partyId = 0; partyId < partyTable.size; partyId++) {
+            final String party = partyTable.parties[partyId];
             
-            int numSeatsRemaining = partyInformation.numSeats;
+            int numSeatsRemaining = partyTable.numSeats[partyId];
             
             if(numSeatsRemaining > 0) {
                 auditWriter.printf("Distributing %d seats for the party %s:\n\n",
@@ -870,14 +1477,15 @@ public class OpenPartyListSystem extends VotingSystem {
                 );
             }
             
-            //The list of candidates ordered by ballot count
-            final List<Map.Entry<Candidate, Integer>> orderedCandidateBallots = partyInformation.orderedCandidateBallots;
+            //The ids of the candidates ordered by ballot count are in partyCandidates between these indices
+            final int[] orderedCandidates = partyTable.partyCandidates;
+            final int partyCandidatesEnd = partyTable.getPartyCandidatesEnd(partyId);
             
             //The index after the current group of candidates with equivalent remaining ballots
-            int indexAfterCurrentGroup = 0;
+            int indexAfterCurrentGroup = partyTable.partyCandidatesStart[partyId];
             
-            //The current index we are at in orderedCandidateBallots
-            int curIdx = 0;
+            //The current index we are at in orderedCandidates
+            int curIdx = partyTable.partyCandidatesStart[partyId];
             
             //The string representing the comma-space-separated candidates that have the same number of ballots
             String curGroupStr = "";
@@ -886,30 +1494,36 @@ public class OpenPartyListSystem extends VotingSystem {
             while(numSeatsRemaining > 0) {
                 //If the current group of candidates with the highest remaining ballots is finished, get the index after the next group
                 if(curIdx >= indexAfterCurrentGroup) {
-                    indexAfterCurrentGroup = indexAfterEquivalentGroup(orderedCandidateBallots, curIdx, Map.Entry.comparingByValue());
-                    
-                    //The view of the group of candidates with the highest remaining ballot counts
-                    final List<Map.Entry<Candidate, Integer>> currentCandidatesGroupView =
-                        orderedCandidateBallots.subList(curIdx, indexAfterCurrentGroup);
+                    final int groupBallots = partyTable.candidateBallots[orderedCandidates[curIdx]];
+                    indexAfterCurrentGroup = curIdx + 1;
+                    while(indexAfterCurrentGroup < partyCandidatesEnd
+                        && partyTable.candidateBallots[orderedCandidates[indexAfterCurrentGroup]] == groupBallots) {
+                        indexAfterCurrentGroup++;
+                    }
                     
-                    //Shuffle the group of next highest remaining parties for tie breaking
-                    Collections.shuffle(currentCandidatesGroupView, rand);
+                    //Shuffle the group of next highest remaining candidates for tie breaking, in the same way as Collections.shuffle
+                    for(int i = indexAfterCurrentGroup - curIdx; i > 1; i--) {
+                        final int swapIdx = curIdx + rand.nextInt(i);
+                        final int swapped = orderedCandidates[curIdx + i - 1];
+                        orderedCandidates[curIdx + i - 1] = orderedCandidates[swapIdx];
+                        orderedCandidates[swapIdx] = swapped;
+                    }
                     
                     //Store the group of next highest remaining candidates' names in a comma-space-separated string
-                    curGroupStr = currentCandidatesGroupView.stream()
-                        .map(candidateBallotsPair -> candidateBallotsPair.getKey().toString())
+                    curGroupStr = Arrays.stream(orderedCandidates, curIdx, indexAfterCurrentGroup)
+                        .mapToObj(candidateId -> partyTable.candidates[candidateId].toString())
                         .collect(Collectors.joining(", "));
                     curGroupStr = ", " + curGroupStr;
                 }
                 
                 //Get the next highest candidate and add it to the final seats
-                final Candidate selected = orderedCandidateBallots.get(curIdx).getKey();
+                final Candidate selected = partyTable.candidates[orderedCandidates[curIdx]];
                 finalSeats.add(selected);
                 
                 numSeatsRemaining--;
                 
                 //The highest candidate(s) ballot count
-                final int currentHighestBallots = orderedCandidateBallots.get(curIdx).getValue();
+                final int currentHighestBallots = partyTable.candidateBallots[orderedCandidates[curIdx]];
                 
                 //Print the candidate(s) chosen
                 if(indexAfterCurrentGroup - curIdx > 1) {
@@ -981,48 +1595,45 @@ public class OpenPartyListSystem extends VotingSystem {
         );
     }
     
+    /**
+     * Prints the {@link ApportionmentMethod} used in place of the quota to audit and report {@link OutputStream}s
+     */
+    private void printApportionmentMethod() {
+        final String apportionmentMethodOutput = String.format("Apportionment method: %s\n", apportionmentMethod);
+        auditWriter.println(apportionmentMethodOutput);
+        reportWriter.println(apportionmentMethodOutput);
+        System.out.println(apportionmentMethodOutput);
+    }
+    
     /**
      * Prints the grouping of candidates to each party to audit file
      */
     private void printPartyGrouping() {
         auditWriter.println("Grouping by Party:");
-        for(final String party : partyToCandidateCounts.keySet()) {
-            auditWriter.printf("Party: %s\n", party);
-            for(final Candidate candidate : partyToCandidateCounts.get(party).keySet()) {
-                auditWriter.printf("    %s\n", candidate.getName());
+        partyTable.groupCandidates();
+        for(int partyId = 0; partyId < partyTable.size; partyId++) {
+            auditWriter.printf("Party: %s\n", partyTable.parties[partyId]);
+            for(int i = partyTable.partyCandidatesStart[partyId]; i < partyTable.getPartyCandidatesEnd(partyId); i++) {
+                auditWriter.printf("    %s\n", partyTable.candidates[partyTable.partyCandidates[i]].getName());
             }
         }
         auditWriter.println();
     }
     
     /**
-     * Prints a table containing all parties and the respective {@link PartyInformation} field
+     * Prints a table containing all parties and the respective column of the {@link PartyTable}
      *
      * @param message        The message to print before printing the table
-     * @param fieldExactName The exact field name to retrieve from the {@link PartyInformation}
-     * @param tableFieldName The name that will be used when displaying the field in table form
+     * @param column         The column of the {@link PartyTable} to print
+     * @param tableFieldName The name that will be used when displaying the column in table form
      */
-    private void printPartyInformationField(final String message, final String fieldExactName, final String tableFieldName) {
+    private void printPartyTableColumn(final String message, final int[] column, final String tableFieldName) {
         auditWriter.println(message);
         
-        //Gets the specific party information field for the parties
-        final List<?> partyInformationFieldValues = partyToPartyInformation.values().stream()
-            .map(partyInformation -> {
-                try {
-                    return PartyInformation.class.getDeclaredField(fieldExactName).get(partyInformation);
-                }
-                catch(IllegalAccessException | NoSuchFieldException e) {
-                    e.printStackTrace();
-                    System.exit(1);
-                }
-                return null;
-            })
-            .collect(Collectors.toList());
-        
-        //Creates the table of parties and their corresponding party information field
-        final String table = tableFormatter.formatAsTable(
+        //Creates the table of parties and their corresponding party table column
+        final String table = tableFormatter.formatColumnsAsTable(
             Arrays.asList("Party", tableFieldName),
-            Arrays.asList(partyToPartyInformation.keySet(), partyInformationFieldValues),
+            Arrays.asList(TableFormatter.Column.of(partyTable.parties, partyTable.size), TableFormatter.Column.of(column, partyTable.size)),
             Arrays.asList(TableFormatter.Alignment.LEFT, TableFormatter.Alignment.RIGHT)
         );
         
@@ -1033,14 +1644,14 @@ public class OpenPartyListSystem extends VotingSystem {
      * Print a table containing all parties and the total number of ballots each received to audit file
      */
     private void printPartyBallots() {
-        printPartyInformationField("The ballot counts for each party are as follows:", "numBallots", "Ballots");
+        printPartyTableColumn("The ballot counts for each party are as follows:", partyTable.numBallots, "Ballots");
     }
     
     /**
      * Prints a table contains all parties and the number of final seats allocated to each to audit file
      */
     protected void printFinalSeatAllocations() {
-        printPartyInformationField("Final Seat Allocations:", "numSeats", "Final Seats");
+        printPartyTableColumn("Final Seat Allocations:", partyTable.numSeats, "Final Seats");
     }
     
     /**
@@ -1048,38 +1659,37 @@ public class OpenPartyListSystem extends VotingSystem {
      * seats received from second allocation, total seats allocation, and percent of ballots to percent of seats to audit file, report file, and to
      * screen.
      *
-     * @param initialSeats a Map of parties to the number of seats each received during the initial allocation
+     * @param initialSeats The number of seats each party received during the initial allocation, indexed by party id
      */
-    protected void printSummaryTable(final Map<String, Integer> initialSeats) {
-        final List<Integer> ballots = new ArrayList<>();
-        final List<Integer> initialAllocation = new ArrayList<>();
-        final List<String> remainingBallots = new ArrayList<>();
-        final List<Integer> secondAllocation = new ArrayList<>();
-        final List<Integer> finalSeats = new ArrayList<>();
-        final List<String> percentOfBallotsToPercentOfSeats = new ArrayList<>();
-        
-        //Retrieves all parties and the corresponding party information for the party
-        for(final String party : partyToPartyInformation.keySet()) {
-            final PartyInformation partyInformation = partyToPartyInformation.get(party);
-            ballots.add(partyInformation.numBallots);
-            initialAllocation.add(initialSeats.get(party));
-            remainingBallots.add(getRemainingBallots(partyInformation));
-            secondAllocation.add(partyInformation.numSeats - initialSeats.get(party));
-            finalSeats.add(partyInformation.numSeats);
+    protected void printSummaryTable(final int[] initialSeats) {
+        final int numParties = partyTable.size;
+        final String[] remainingBallots = new String[numParties];
+        final int[] secondAllocation = new int[numParties];
+        final String[] percentOfBallotsToPercentOfSeats = new String[numParties];
+        
+        //Computes the derived columns for each party
+        for(int partyId = 0; partyId < numParties; partyId++) {
+            remainingBallots[partyId] = getRemainingBallots(partyId);
+            secondAllocation[partyId] = partyTable.numSeats[partyId] - initialSeats[partyId];
             
-            final int percentOfBallots = (int) Math.round(100.0 * partyInformation.numBallots / numBallots);
-            final int percentOfSeats = (int) Math.round(100.0 * partyInformation.numSeats / numSeats);
+            final int percentOfBallots = (int) Math.round(100.0 * partyTable.numBallots[partyId] / numBallots);
+            final int percentOfSeats = (int) Math.round(100.0 * partyTable.numSeats[partyId] / numSeats);
             
-            percentOfBallotsToPercentOfSeats.add(String.format("%d%%/%d%%", percentOfBallots, percentOfSeats));
+            percentOfBallotsToPercentOfSeats[partyId] = String.format("%d%%/%d%%", percentOfBallots, percentOfSeats);
         }
         
-        final String table = tableFormatter.formatAsTable(
+        final String table = tableFormatter.formatColumnsAsTable(
             Arrays.asList(
                 "Parties", "Ballots", "First Allocation", "Remaining Ballots", "Second Allocation", "Final Seats", "% of Ballots to % of Seats"
             ),
             Arrays.asList(
-                partyToPartyInformation.keySet(), ballots, initialAllocation, remainingBallots, secondAllocation, finalSeats,
-                percentOfBallotsToPercentOfSeats
+                TableFormatter.Column.of(partyTable.parties, numParties),
+                TableFormatter.Column.of(partyTable.numBallots, numParties),
+                TableFormatter.Column.of(initialSeats, numParties),
+                TableFormatter.Column.of(remainingBallots, numParties),
+                TableFormatter.Column.of(secondAllocation, numParties),
+                TableFormatter.Column.of(partyTable.numSeats, numParties),
+                TableFormatter.Column.of(percentOfBallotsToPercentOfSeats, numParties)
             ),
             Arrays.asList(
                 TableFormatter.Alignment.LEFT, TableFormatter.Alignment.RIGHT, TableFormatter.Alignment.RIGHT, TableFormatter.Alignment.RIGHT,
@@ -1092,6 +1702,171 @@ public class OpenPartyListSystem extends VotingSystem {
         System.out.println(table + "\n");
     }
     
+    /**
+     * Publishes the single round of the election, the number of candidates, and each party's ballot count to the {@link ElectionProgress} if it is
+     * enabled
+     */
+    private void publishProgress() {
+        if(progress.isEnabled()) {
+            final Map<String, Long> tallies = new LinkedHashMap<>();
+            for(int partyId = 0; partyId < partyTable.size; partyId++) {
+                tallies.put(partyTable.parties[partyId], (long) partyTable.numBallots[partyId]);
+            }
+            progress.setRound(1, numCandidates, tallies);
+        }
+    }
+    
+    /**
+     * Fills in and commits a {@link ElectionEvents.AllocationPhase} event if it is enabled in a flight recording
+     *
+     * @param event The event for the phase, which has already begun
+     * @param phase The name of the phase
+     * @param seats The number of seats allocated or distributed during the phase
+     */
+    private void commitAllocationEvent(final ElectionEvents.AllocationPhase event, final String phase, final int seats) {
+        if(event.shouldCommit()) {
+            event.phase = phase;
+            event.apportionmentMethod = apportionmentMethod.toString();
+            event.seats = seats;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Returns the candidates who received seats, in the order the seats were distributed, which is empty if {@link #runElection()} has not been run
+     *
+     * @return The candidates who received seats
+     */
+    @Override
+    public List<Candidate> getWinners() {
+        return Collections.unmodifiableList(winners);
+    }
+    
+    /**
+     * Returns the number of seats each party would receive if the election were run on the ballots added so far, without writing to the audit or
+     * report and without modifying any of the state used by {@link #runElection()}
+     * <p></p>
+     * The projection applies the configured {@link ApportionmentMethod} to the parties' live ballot counts, using the number of ballots added so far
+     * in place of the total from the ballots headers for the quota, and limits each party to its number of candidates. Quotas and remainders are
+     * compared exactly as integer ratios, so a largest remainder projection takes O(parties log parties) time and a highest averages projection
+     * takes O(seats log parties) time
+     * <p></p>
+     * Ties are broken in favor of the party listed first rather than randomly so that a projection does not consume the tie-breaking randomness of
+     * the election, which means a projection can differ from the final result only when {@link #runElection()} would need to break a tie
+     * <p></p>
+     * The ballot counts are read without synchronization, so a projection should be made by the thread adding the ballots, such as from the
+     * listener of {@link ElectionRun#setBallotListener(int, java.util.function.Consumer)}, where it does not pause the ingestion of any other
+     * election
+     *
+     * @return The parties in the order they were listed mapped to their projected number of seats, which are all 0 if no ballots have been added
+     */
+    public Map<String, Integer> projectSeats() {
+        final int numParties = partyTable.size;
+        final int[] projectedSeats = new int[numParties];
+        final int[] partyNumBallots = Arrays.copyOf(partyTable.numBallots, numParties);
+        final int[] partyNumCandidates = Arrays.copyOf(partyTable.numCandidates, numParties);
+        
+        //The ballots added so far stand in for the total from the ballots headers
+        long numBallotsAdded = 0;
+        for(int partyId = 0; partyId < numParties; partyId++) {
+            numBallotsAdded += partyNumBallots[partyId];
+        }
+        
+        if(numBallotsAdded > 0) {
+            if(apportionmentMethod == ApportionmentMethod.LARGEST_REMAINDER) {
+                projectLargestRemainderSeats(projectedSeats, partyNumBallots, partyNumCandidates, numBallotsAdded);
+            }
+            else {
+                projectHighestAveragesSeats(projectedSeats, partyNumBallots, partyNumCandidates);
+            }
+        }
+        
+        final Map<String, Integer> projection = new LinkedHashMap<>();
+        for(int partyId = 0; partyId < numParties; partyId++) {
+            projection.put(partyTable.parties[partyId], projectedSeats[partyId]);
+        }
+        return projection;
+    }
+    
+    /**
+     * Projects the seats of each party by the Hare quota followed by largest remainders in the same way as
+     * {@link #allocateInitialSeats(Fraction)} and {@link #allocateRemainingSeats(int, Set)}, breaking ties by party id
+     * <p></p>
+     * Multiplying through by the number of seats keeps the quota arithmetic in integers: a party's initial seats are its ballots times the number of
+     * seats divided by the ballots added, and its remainder scaled by the number of seats is its ballots times the number of seats less its initial
+     * seats times the ballots added
+     *
+     * @param projectedSeats     The array in which to store the number of seats of each party, indexed by party id
+     * @param partyNumBallots    The number of ballots of each party, indexed by party id
+     * @param partyNumCandidates The number of candidates of each party, indexed by party id
+     * @param numBallotsAdded    The total number of ballots added so far, which must be positive
+     */
+    private void projectLargestRemainderSeats(final int[] projectedSeats, final int[] partyNumBallots, final int[] partyNumCandidates,
+        final long numBallotsAdded) {
+        final long[] scaledRemainders = new long[projectedSeats.length];
+        int numSeatsRemaining = numSeats;
+        List<Integer> remainingParties = new ArrayList<>();
+        
+        for(int partyId = 0; partyId < projectedSeats.length; partyId++) {
+            final long scaledBallots = (long) partyNumBallots[partyId] * numSeats;
+            projectedSeats[partyId] = (int) Math.min(scaledBallots / numBallotsAdded, partyNumCandidates[partyId]);
+            scaledRemainders[partyId] = scaledBallots - projectedSeats[partyId] * numBallotsAdded;
+            numSeatsRemaining -= projectedSeats[partyId];
+            if(projectedSeats[partyId] != partyNumCandidates[partyId]) {
+                remainingParties.add(partyId);
+            }
+        }
+        
+        //Sort the parties that can take more seats from the largest to the smallest remainder, keeping the order of the parties within a tie
+        remainingParties.sort((partyId1, partyId2) -> Long.compare(scaledRemainders[partyId2], scaledRemainders[partyId1]));
+        
+        //Give the remaining seats in order of remainder, starting over with the parties that still have candidates if every party gets one
+        while(numSeatsRemaining > 0 && !remainingParties.isEmpty()) {
+            final List<Integer> nextRemainingParties = new ArrayList<>();
+            for(int i = 0; i < remainingParties.size() && numSeatsRemaining > 0; i++) {
+                final int partyId = remainingParties.get(i);
+                projectedSeats[partyId]++;
+                numSeatsRemaining--;
+                if(projectedSeats[partyId] != partyNumCandidates[partyId]) {
+                    nextRemainingParties.add(partyId);
+                }
+            }
+            remainingParties = nextRemainingParties;
+        }
+    }
+    
+    /**
+     * Projects the seats of each party by the highest averages method given by the {@link ApportionmentMethod} in the same way as
+     * {@link #allocateSeatsByHighestAverages()}, breaking ties by party id
+     *
+     * @param projectedSeats     The array in which to store the number of seats of each party, indexed by party id
+     * @param partyNumBallots    The number of ballots of each party, indexed by party id
+     * @param partyNumCandidates The number of candidates of each party, indexed by party id
+     */
+    private void projectHighestAveragesSeats(final int[] projectedSeats, final int[] partyNumBallots, final int[] partyNumCandidates) {
+        //The ids of the parties that still have candidates without seats ordered from the highest average for their next seat, then by id
+        final PriorityQueue<Integer> partyAverages = new PriorityQueue<>(Math.max(1, projectedSeats.length), (partyId1, partyId2) -> {
+            final int comparison = Fraction.compare(
+                partyNumBallots[partyId2], apportionmentMethod.getDivisor(projectedSeats[partyId2]),
+                partyNumBallots[partyId1], apportionmentMethod.getDivisor(projectedSeats[partyId1])
+            );
+            return comparison != 0 ? comparison : Integer.compare(partyId1, partyId2);
+        });
+        for(int partyId = 0; partyId < projectedSeats.length; partyId++) {
+            if(partyNumCandidates[partyId] > 0) {
+                partyAverages.add(partyId);
+            }
+        }
+        
+        for(int numSeatsRemaining = numSeats; numSeatsRemaining > 0 && !partyAverages.isEmpty(); numSeatsRemaining--) {
+            final int partyId = partyAverages.poll();
+            projectedSeats[partyId]++;
+            if(projectedSeats[partyId] != partyNumCandidates[partyId]) {
+                partyAverages.add(partyId);
+            }
+        }
+    }
+    
     /**
      * Runs the election for the {@link VotingSystem} and determines the winner
      */
@@ -1109,53 +1884,68 @@ public class OpenPartyListSystem extends VotingSystem {
         reportWriter.println(numSeatsOutput);
         System.out.println(numSeatsOutput);
         
-        //For each party, add to its respective party information the candidates and their respective ballot counts sorted by ballot count
-        for(final String party : partyToCandidateCounts.keySet()) {
-            final PartyInformation partyInformation = partyToPartyInformation.get(party);
+        publishProgress();
+        
+        //The number of seats each party received during initial allocation, indexed by party id
+        final int[] partiesToInitialSeats = new int[partyTable.size];
+        
+        //If the seats are apportioned by the quota and largest remainders
+        if(apportionmentMethod == ApportionmentMethod.LARGEST_REMAINDER) {
+            //Create the quota from the total number of ballots and seats
+            final Fraction quota = new Fraction(numBallots, numSeats);
             
-            //Compares using Map.Entry::getValue but in reverse order (highest to lowest)
-            Comparator<Map.Entry<Candidate, Integer>> mapValueComparatorReversed = Map.Entry.comparingByValue();
-            mapValueComparatorReversed = mapValueComparatorReversed.reversed();
+            printQuotaInformation(quota);
+            printPartyGrouping();
+            printPartyBallots();
             
-            final List<Map.Entry<Candidate, Integer>> orderedCandidateBallots = new ArrayList<>(
-                partyToCandidateCounts.get(party).entrySet()
-            );
-            orderedCandidateBallots.sort(mapValueComparatorReversed);
+            //Initial allocation
+            final long initialStartNanos = metrics.startTimer();
+            final ElectionEvents.AllocationPhase initialEvent = new ElectionEvents.AllocationPhase();
+            initialEvent.begin();
+            final Pair<Integer, Set<String>> initialAllocationResults = allocateInitialSeats(quota);
+            commitAllocationEvent(initialEvent, "Initial allocation", numSeats - initialAllocationResults.getFirst());
+            metrics.endPhase("election.initialAllocation", initialStartNanos);
             
-            partyInformation.numCandidates = orderedCandidateBallots.size();
-            partyInformation.orderedCandidateBallots = orderedCandidateBallots;
-        }
-        
-        //Create the quota from the total number of ballots and seats
-        final Fraction quota = new Fraction(numBallots, numSeats);
-        
-        printQuotaInformation(quota);
-        printPartyGrouping();
-        printPartyBallots();
-        
-        //Initial allocation
-        final Pair<Integer, Set<String>> initialAllocationResults = allocateInitialSeats(quota);
-        
-        //Get the number of seats remaining and set of parties with candidates that don't have seats from initialAllocationResults
-        final int numSeatsRemaining = initialAllocationResults.getFirst();
-        final Set<String> remainingParties = initialAllocationResults.getSecond();
-        
-        //Creates a map of parties to the number of seats each received during initial allocation
-        final Map<String, Integer> partiesToInitialSeats = new HashMap<>();
-        for(final Map.Entry<String, PartyInformation> party : partyToPartyInformation.entrySet()) {
-            partiesToInitialSeats.put(party.getKey(), party.getValue().numSeats);
+            //Get the number of seats remaining and set of parties with candidates that don't have seats from initialAllocationResults
+            final int numSeatsRemaining = initialAllocationResults.getFirst();
+            final Set<String> remainingParties = initialAllocationResults.getSecond();
+            
+            System.arraycopy(partyTable.numSeats, 0, partiesToInitialSeats, 0, partyTable.size);
+            
+            //If there are still more seats available after initial allocation
+            if(numSeatsRemaining != 0) {
+                final long remainingStartNanos = metrics.startTimer();
+                final ElectionEvents.AllocationPhase remainingEvent = new ElectionEvents.AllocationPhase();
+                remainingEvent.begin();
+                allocateRemainingSeats(numSeatsRemaining, remainingParties);
+                commitAllocationEvent(remainingEvent, "Remaining allocation", numSeatsRemaining);
+                metrics.endPhase("election.remainingAllocation", remainingStartNanos);
+            }
         }
-        
-        //If there are still more seats available after initial allocation
-        if(numSeatsRemaining != 0) {
-            allocateRemainingSeats(numSeatsRemaining, remainingParties);
+        //If the seats are apportioned by highest averages, then there is no initial allocation, so every seat is part of the second allocation
+        else {
+            printApportionmentMethod();
+            printPartyGrouping();
+            printPartyBallots();
+            
+            final long highestAveragesStartNanos = metrics.startTimer();
+            final ElectionEvents.AllocationPhase highestAveragesEvent = new ElectionEvents.AllocationPhase();
+            highestAveragesEvent.begin();
+            allocateSeatsByHighestAverages();
+            commitAllocationEvent(highestAveragesEvent, "Highest averages allocation", numSeats);
+            metrics.endPhase("election.highestAveragesAllocation", highestAveragesStartNanos);
         }
         
         printFinalSeatAllocations();
         printSummaryTable(partiesToInitialSeats);
         
         //Distributes each party's seats to their candidates by popularity
-        distributeSeatsToCandidates();
+        final long distributionStartNanos = metrics.startTimer();
+        final ElectionEvents.AllocationPhase distributionEvent = new ElectionEvents.AllocationPhase();
+        distributionEvent.begin();
+        winners = distributeSeatsToCandidates();
+        commitAllocationEvent(distributionEvent, "Candidate distribution", numSeats);
+        metrics.endPhase("election.candidateDistribution", distributionStartNanos);
         
         auditWriter.close();
         reportWriter.close();
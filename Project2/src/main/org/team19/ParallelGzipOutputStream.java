@@ -0,0 +1,312 @@
+/*
+ * File name:
+ * ParallelGzipOutputStream.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Compresses an output stream in independent blocks on multiple cores, writing each block as its own gzip member so that the output is a series
+ * of concatenated gzip members that standard tools such as gzip and zcat read as one stream
+ */
+
+package org.team19;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses an {@link OutputStream} in independent blocks on multiple cores, in the style of pigz
+ * <p></p>
+ * The bytes written are collected into blocks, and each full block is compressed on an {@link Executor} into a complete gzip member with its own
+ * header, CRC-32, and length. The members are written to the underlying {@link OutputStream} in the order of their blocks, so the output is a
+ * series of concatenated gzip members, which gzip, zcat, and {@link java.util.zip.GZIPInputStream} all read as the original bytes
+ * <p></p>
+ * At most twice the parallelism of the {@link Executor} of blocks are compressed at once, after which writing waits for the oldest block to be
+ * compressed and written, so that compression keeps up with the writer without holding an unbounded number of blocks
+ * <p></p>
+ * Flushing compresses the partial block so that everything written so far reaches the underlying {@link OutputStream}, so a writer that flushes
+ * often gets many small members and a worse compression ratio
+ */
+public final class ParallelGzipOutputStream extends OutputStream {
+    
+    /**
+     * The number of bytes compressed into each gzip member if no block size is given
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    
+    /**
+     * The header of each gzip member, which has the deflate method, no flags, no modification time, and an unknown operating system
+     */
+    private static final byte[] HEADER = {0x1F, (byte) 0x8B, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xFF};
+    
+    /**
+     * The size of the trailer of each gzip member, which is the CRC-32 and the length of the uncompressed bytes
+     */
+    private static final int TRAILER_SIZE = 8;
+    
+    /**
+     * The {@link OutputStream} to which the gzip members are written
+     */
+    private final OutputStream output;
+    
+    /**
+     * The {@link Executor} on which the blocks are compressed
+     */
+    private final Executor executor;
+    
+    /**
+     * The number of bytes compressed into each gzip member
+     */
+    private final int blockSize;
+    
+    /**
+     * The most blocks that are compressed at once
+     */
+    private final int maxPendingBlocks;
+    
+    /**
+     * The compression of each block that has not yet been written, in the order of the blocks
+     */
+    private final Deque<CompletableFuture<byte[]>> pendingMembers = new ArrayDeque<>();
+    
+    /**
+     * The block being filled
+     */
+    private byte[] block;
+    
+    /**
+     * The number of bytes in the block being filled
+     */
+    private int blockLength = 0;
+    
+    /**
+     * Whether any gzip member has been compressed, since an empty output still needs one to be read as gzip
+     */
+    private boolean memberCompressed = false;
+    
+    /**
+     * Whether this {@link ParallelGzipOutputStream} has been closed
+     */
+    private boolean closed = false;
+    
+    /**
+     * Creates a {@link ParallelGzipOutputStream} that compresses blocks of {@link #DEFAULT_BLOCK_SIZE} bytes on the common
+     * {@link ForkJoinPool}
+     *
+     * @param output The {@link OutputStream} to which the gzip members are written
+     * @throws NullPointerException Thrown if the output is null
+     */
+    public ParallelGzipOutputStream(final OutputStream output) throws NullPointerException {
+        this(output, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), DEFAULT_BLOCK_SIZE);
+    }
+    
+    /**
+     * Creates a {@link ParallelGzipOutputStream} that compresses blocks of the given size on the given {@link Executor}
+     *
+     * @param output      The {@link OutputStream} to which the gzip members are written
+     * @param executor    The {@link Executor} on which the blocks are compressed
+     * @param parallelism The number of blocks the {@link Executor} compresses at once
+     * @param blockSize   The number of bytes compressed into each gzip member
+     * @throws NullPointerException     Thrown if the output or the executor is null
+     * @throws IllegalArgumentException Thrown if the parallelism or the block size is not at least 1
+     */
+    public ParallelGzipOutputStream(final OutputStream output, final Executor executor, final int parallelism, final int blockSize)
+        throws NullPointerException, IllegalArgumentException {
+        if(parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        }
+        if(blockSize < 1) {
+            throw new IllegalArgumentException("The block size must be at least 1");
+        }
+        this.output = Objects.requireNonNull(output);
+        this.executor = Objects.requireNonNull(executor);
+        this.blockSize = blockSize;
+        maxPendingBlocks = 2 * parallelism;
+        block = new byte[blockSize];
+    }
+    
+    /**
+     * Compresses the given bytes into a complete gzip member
+     *
+     * @param bytes  The bytes to compress
+     * @param length The number of bytes to compress from the start of the array
+     * @return The gzip member
+     */
+    private static byte[] compressMember(final byte[] bytes, final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        
+        //The member is built in one array, which starts with room for bytes that do not compress at all
+        byte[] member = Arrays.copyOf(HEADER, HEADER.length + length + length / 1000 + 64);
+        int memberLength = HEADER.length;
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes, 0, length);
+            deflater.finish();
+            while(!deflater.finished()) {
+                if(memberLength == member.length) {
+                    member = Arrays.copyOf(member, 2 * member.length);
+                }
+                memberLength += deflater.deflate(member, memberLength, member.length - memberLength);
+            }
+        }
+        finally {
+            deflater.end();
+        }
+        
+        //The trailer is the CRC-32 and the length modulo 2^32, both in little-endian order
+        member = Arrays.copyOf(member, memberLength + TRAILER_SIZE);
+        final long checksum = crc.getValue();
+        for(int i = 0; i < 4; i++) {
+            member[memberLength + i] = (byte) (checksum >>> (8 * i));
+            member[memberLength + 4 + i] = (byte) (length >>> (8 * i));
+        }
+        return member;
+    }
+    
+    /**
+     * Waits for the oldest block being compressed and writes its gzip member
+     *
+     * @throws IOException Thrown if the block could not be compressed or the member could not be written
+     */
+    private void writeOldestMember() throws IOException {
+        final byte[] member;
+        try {
+            member = pendingMembers.removeFirst().get();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a block to be compressed");
+        }
+        catch(ExecutionException e) {
+            throw new IOException("A block could not be compressed", e.getCause());
+        }
+        output.write(member);
+    }
+    
+    /**
+     * Starts compressing the block being filled, if it has any bytes, and starts a new block
+     *
+     * @throws IOException Thrown if a gzip member could not be written while waiting for room for the block
+     */
+    private void compressBlock() throws IOException {
+        if(blockLength == 0) {
+            return;
+        }
+        while(pendingMembers.size() >= maxPendingBlocks) {
+            writeOldestMember();
+        }
+        
+        final byte[] fullBlock = block;
+        final int fullBlockLength = blockLength;
+        pendingMembers.addLast(CompletableFuture.supplyAsync(() -> compressMember(fullBlock, fullBlockLength), executor));
+        memberCompressed = true;
+        block = new byte[blockSize];
+        blockLength = 0;
+    }
+    
+    /**
+     * Throws an {@link IOException} if this {@link ParallelGzipOutputStream} has been closed
+     *
+     * @throws IOException Thrown if this {@link ParallelGzipOutputStream} has been closed
+     */
+    private void ensureOpen() throws IOException {
+        if(closed) {
+            throw new IOException("The compressed output has been closed");
+        }
+    }
+    
+    /**
+     * Writes the given byte
+     *
+     * @param value The byte to write
+     * @throws IOException Thrown if this {@link ParallelGzipOutputStream} has been closed or a gzip member could not be written
+     */
+    @Override
+    public void write(final int value) throws IOException {
+        ensureOpen();
+        if(blockLength == blockSize) {
+            compressBlock();
+        }
+        block[blockLength++] = (byte) value;
+    }
+    
+    /**
+     * Writes the given bytes, starting to compress each block as it fills
+     *
+     * @param bytes  The bytes to write
+     * @param offset The position of the first byte to write
+     * @param length The number of bytes to write
+     * @throws IOException Thrown if this {@link ParallelGzipOutputStream} has been closed or a gzip member could not be written
+     */
+    @Override
+    public void write(final byte[] bytes, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        ensureOpen();
+        while(length > 0) {
+            if(blockLength == blockSize) {
+                compressBlock();
+            }
+            final int numBytes = Math.min(length, blockSize - blockLength);
+            System.arraycopy(bytes, offset, block, blockLength, numBytes);
+            blockLength += numBytes;
+            offset += numBytes;
+            length -= numBytes;
+        }
+    }
+    
+    /**
+     * Compresses the partial block and writes every gzip member to the underlying {@link OutputStream}, then flushes it
+     *
+     * @throws IOException Thrown if this {@link ParallelGzipOutputStream} has been closed or a gzip member could not be written
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        compressBlock();
+        while(!pendingMembers.isEmpty()) {
+            writeOldestMember();
+        }
+        output.flush();
+    }
+    
+    /**
+     * Compresses the partial block and writes every gzip member, writing an empty member if nothing was written, then closes the underlying
+     * {@link OutputStream}
+     *
+     * @throws IOException Thrown if a gzip member could not be written or the underlying {@link OutputStream} could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        try(output) {
+            compressBlock();
+            while(!pendingMembers.isEmpty()) {
+                writeOldestMember();
+            }
+            if(!memberCompressed) {
+                output.write(compressMember(block, 0));
+            }
+        }
+        finally {
+            //Let any blocks still being compressed after a failure finish without being written
+            pendingMembers.clear();
+        }
+    }
+    
+}
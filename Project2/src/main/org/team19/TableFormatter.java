@@ -54,6 +54,69 @@ public final class TableFormatter {
         RIGHT
     }
     
+    /**
+     * Represents a column of a table whose cells are converted to their {@link String} forms only when the table is formatted, which allows columns
+     * of primitives to be formatted without boxing
+     */
+    public interface Column {
+        /**
+         * Returns the number of cells in this {@link Column}, excluding the header
+         *
+         * @return The number of cells in this {@link Column}, excluding the header
+         */
+        int size();
+        
+        /**
+         * Returns the {@link String} form of the cell at the given row, excluding the header
+         *
+         * @param row The row of the cell, starting at 0
+         * @return The {@link String} form of the cell at the given row
+         */
+        String get(int row);
+        
+        /**
+         * Returns a {@link Column} consisting of the first size values of the given int array
+         *
+         * @param values The array of values that make up the column
+         * @param size   The number of values from the start of the array that make up the column
+         * @return A {@link Column} consisting of the first size values of the given int array
+         */
+        static Column of(final int[] values, final int size) {
+            return new Column() {
+                @Override
+                public int size() {
+                    return size;
+                }
+                
+                @Override
+                public String get(final int row) {
+                    return Integer.toString(values[row]);
+                }
+            };
+        }
+        
+        /**
+         * Returns a {@link Column} consisting of the first size values of the given array of {@link Object}s
+         *
+         * @param values The array of values that make up the column
+         * @param size   The number of values from the start of the array that make up the column
+         * @return A {@link Column} consisting of the first size values of the given array of {@link Object}s
+         */
+        static Column of(final Object[] values, final int size) {
+            return new Column() {
+                @Override
+                public int size() {
+                    return size;
+                }
+                
+                @Override
+                public String get(final int row) {
+                    return values[row].toString();
+                }
+            };
+        }
+    }
+    
     /**
      * Initializes a {@link TableFormatter}
      *
@@ -214,6 +277,72 @@ public final class TableFormatter {
          */
         final List<List<String>> strRowTable = objColTableToStrRowTable(headers, colTableData, numRows, numCols);
         
+        return formatStrRowTable(strRowTable, alignments, numRows, numCols);
+    }
+    
+    /**
+     * Returns a string representation of a table from a list of string column headers, a list of {@link Column}s, and a list of {@link Alignment}
+     * corresponding to whether a column should be left-aligned or right-aligned
+     * <p></p>
+     * Unlike {@link #formatAsTable(List, Collection, List)}, the cells are retrieved directly from the {@link Column}s, so columns backed by arrays
+     * of primitives are formatted without boxing
+     *
+     * @param headers    The list of column headers for the table
+     * @param columns    The headerless columns of the table
+     * @param alignments The alignments corresponding to each column
+     * @return A string representation of a table from a list of string column headers, a list of {@link Column}s, and a list of {@link Alignment}
+     * corresponding to whether a column should be left-aligned or right-aligned
+     * @throws NullPointerException     Thrown if any of the given lists are null
+     * @throws IllegalArgumentException Thrown if the number of columns in provided either does not match the length of the column headers or the
+     *                                  length of the alignments
+     */
+    public String formatColumnsAsTable(final List<String> headers, final List<Column> columns, final List<Alignment> alignments)
+        throws NullPointerException, IllegalArgumentException {
+        //Throw a NullPointerException if any of the lists provided are null
+        Objects.requireNonNull(headers);
+        Objects.requireNonNull(columns);
+        Objects.requireNonNull(alignments);
+        
+        final int numCols = columns.size();
+        
+        //If the number of columns does not match the size of the column headers or alignment lists, then throw an IllegalArgumentException
+        if(numCols != headers.size()) {
+            throw new IllegalArgumentException("The given headers list must have the same size as the number of columns in the table");
+        }
+        else if(numCols != alignments.size()) {
+            throw new IllegalArgumentException("The given alignments must equal the number of columns in the table");
+        }
+        
+        //Get the number of rows, including the header
+        final int numRows = numCols == 0 ? 0 : columns.get(0).size() + 1;
+        
+        //Retrieves the table in the form of string row lists, starting with the headers
+        final List<List<String>> strRowTable = new ArrayList<>(numRows);
+        if(numRows != 0) {
+            strRowTable.add(headers);
+        }
+        for(int rowIndex = 1; rowIndex < numRows; rowIndex++) {
+            final List<String> row = new ArrayList<>(numCols);
+            for(final Column column : columns) {
+                row.add(column.get(rowIndex - 1));
+            }
+            strRowTable.add(row);
+        }
+        
+        return formatStrRowTable(strRowTable, alignments, numRows, numCols);
+    }
+    
+    /**
+     * Returns a string representation of a table from the string form of the table as a list of rows, including the headers
+     *
+     * @param strRowTable The string row list representation of the table, including the headers
+     * @param alignments  The alignments corresponding to each column
+     * @param numRows     The number of rows in the table, including the headers as a row
+     * @param numCols     The number of columns in the table
+     * @return A string representation of the table
+     */
+    private String formatStrRowTable(final List<List<String>> strRowTable, final List<Alignment> alignments, final int numRows,
+        final int numCols) {
         //Retrieves the lengths of the largest strings in each column of the string form of the table
         final int[] columnLengths = getColumnLengths(strRowTable, numCols);
         
@@ -0,0 +1,351 @@
+/*
+ * File name:
+ * TransferReplay.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Writes what is needed to replay the transfers of an IR election whose audit summarizes them, which is the candidates, the order of the
+ * eliminations, and the ballots given to candidates, to a file that the per-ballot transfers of any range of ballots can be given from later
+ */
+
+package org.team19;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes what is needed to replay the transfers of an {@link InstantRunoffSystem} whose audit summarizes them to a file, and gives the per-ballot
+ * transfers of any range of ballots from that file with {@link InstantRunoffSystem#printBallotTransfers(int, int, PrintWriter)} after the election
+ * has ended
+ * <p></p>
+ * The file starts with {@link #MAGIC} and {@link #VERSION}, followed by the candidates as the lengths and bytes of their names and parties in
+ * UTF-8, the indices of the candidates remaining in the first round, the indices of the eliminated candidates in order of elimination, and each
+ * ballot given to a candidate in order of ballot number as its ballot number, its number of ballots, and the indices of its ranked candidates.
+ * Every count and index is a 4-byte big-endian integer
+ * <p></p>
+ * Giving the transfers of a range reads the ballots up to the end of the range but only keeps those in it, so the memory used depends on the size
+ * of the range rather than of the election
+ */
+public final class TransferReplay {
+    
+    /**
+     * The bytes at the start of every transfer replay file
+     */
+    static final byte[] MAGIC = {'T', '1', '9', 'T'};
+    
+    /**
+     * The version of the transfer replay file format
+     */
+    static final int VERSION = 1;
+    
+    /**
+     * The number of bytes buffered while the file is written or read
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    /**
+     * The {@link InputStream} from which the file is read
+     */
+    private final InputStream input;
+    
+    /**
+     * The candidates read from the file, in order of their indices
+     */
+    private Candidate[] candidates;
+    
+    /**
+     * The number of bytes of the file read so far, which locates any malformed part of it
+     */
+    private long position = 0;
+    
+    /**
+     * Creates a {@link TransferReplay} that reads a file from the given {@link InputStream}
+     *
+     * @param input The {@link InputStream} from which the file is read
+     */
+    private TransferReplay(final InputStream input) {
+        this.input = new BufferedInputStream(input, BUFFER_SIZE);
+    }
+    
+    /**
+     * Writes the candidates, the order of the eliminations, and the ballots given to candidates of the given election to the given
+     * {@link OutputStream} and closes it
+     *
+     * @param instantRunoffSystem The {@link InstantRunoffSystem} whose election has been run with its transfers summarized
+     * @param output              The {@link OutputStream} to which the file is written
+     * @throws IOException           Thrown if the file could not be written
+     * @throws IllegalStateException Thrown if the transfers of the election were not summarized, in which case the audit already gives every
+     *                               transfer
+     */
+    public static void write(final InstantRunoffSystem instantRunoffSystem, final OutputStream output) throws IOException, IllegalStateException {
+        if(!instantRunoffSystem.summarizeTransfers) {
+            throw new IllegalStateException("The transfers of each ballot are already given in the audit because transfers are not summarized");
+        }
+        
+        try(final DataOutputStream replay = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE))) {
+            replay.write(MAGIC);
+            replay.writeByte(VERSION);
+            
+            //Write each candidate once, after which the candidates are referred to by their indices
+            final Map<Candidate, Integer> candidateIndices = new IdentityHashMap<>();
+            replay.writeInt(instantRunoffSystem.candidates.length);
+            for(final Candidate candidate : instantRunoffSystem.candidates) {
+                candidateIndices.put(candidate, candidateIndices.size());
+                writeString(replay, candidate.getName());
+                writeString(replay, candidate.getParty());
+            }
+            
+            replay.writeInt(instantRunoffSystem.firstRoundCandidates.size());
+            for(final Candidate candidate : instantRunoffSystem.firstRoundCandidates) {
+                replay.writeInt(candidateIndices.get(candidate));
+            }
+            replay.writeInt(instantRunoffSystem.eliminatedCandidates.size());
+            for(final Candidate candidate : instantRunoffSystem.eliminatedCandidates) {
+                replay.writeInt(candidateIndices.get(candidate));
+            }
+            
+            replay.writeInt(instantRunoffSystem.acceptedBallots.size());
+            for(final InstantRunoffSystem.Ballot ballot : instantRunoffSystem.acceptedBallots) {
+                replay.writeInt(ballot.ballotNumber);
+                replay.writeInt(ballot.count);
+                replay.writeInt(ballot.rankedCandidates.length);
+                for(final Candidate candidate : ballot.rankedCandidates) {
+                    replay.writeInt(candidateIndices.get(candidate));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Writes the length and bytes of the given {@link String} in UTF-8
+     *
+     * @param replay The {@link DataOutputStream} to which to write
+     * @param str    The {@link String} to write
+     * @throws IOException Thrown if the {@link String} could not be written
+     */
+    private static void writeString(final DataOutputStream replay, final String str) throws IOException {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        replay.writeInt(bytes.length);
+        replay.write(bytes);
+    }
+    
+    /**
+     * Reads the file from the given {@link InputStream} and writes the transfers of the ballots numbered from firstBallotNumber through
+     * lastBallotNumber to the given {@link OutputStream} as {@link InstantRunoffSystem#printBallotTransfers(int, int, PrintWriter)} does, flushing
+     * but not closing it
+     *
+     * @param input             The {@link InputStream} from which the file is read
+     * @param firstBallotNumber The number of the first ballot of the range
+     * @param lastBallotNumber  The number of the last ballot of the range
+     * @param output            The {@link OutputStream} to which the transfers are written
+     * @throws IOException    Thrown if the file could not be read or the transfers could not be written
+     * @throws ParseException Thrown if the input is not a transfer replay file or is malformed, where the error offset is the position in the file
+     */
+    public static void printBallotTransfers(final InputStream input, final int firstBallotNumber, final int lastBallotNumber,
+        final OutputStream output) throws IOException, ParseException {
+        new TransferReplay(input).printBallotTransfers(firstBallotNumber, lastBallotNumber, output);
+    }
+    
+    /**
+     * Returns the given position as the error offset of a {@link ParseException}
+     *
+     * @param position The position in the file
+     * @return The position, or the largest int if it does not fit in one
+     */
+    private static int getErrorOffset(final long position) {
+        return (int) Math.min(position, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Reads a 4-byte big-endian integer of the file
+     *
+     * @return The integer read
+     * @throws IOException    Thrown if the file could not be read
+     * @throws ParseException Thrown if the file ends within the integer
+     */
+    private int readInt() throws IOException, ParseException {
+        final byte[] bytes = input.readNBytes(Integer.BYTES);
+        position += bytes.length;
+        if(bytes.length != Integer.BYTES) {
+            throw new ParseException("The transfer replay file ends early", getErrorOffset(position));
+        }
+        return (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | bytes[3] & 0xFF;
+    }
+    
+    /**
+     * Reads a nonnegative count of the file
+     *
+     * @return The count read
+     * @throws IOException    Thrown if the file could not be read
+     * @throws ParseException Thrown if the file ends within the count or the count is negative
+     */
+    private int readCount() throws IOException, ParseException {
+        final int count = readInt();
+        if(count < 0) {
+            throw new ParseException("The transfer replay file contains a negative count", getErrorOffset(position - Integer.BYTES));
+        }
+        return count;
+    }
+    
+    /**
+     * Reads the length and bytes of a {@link String} in UTF-8
+     *
+     * @return The {@link String} read
+     * @throws IOException    Thrown if the file could not be read
+     * @throws ParseException Thrown if the file ends within the {@link String}
+     */
+    private String readString() throws IOException, ParseException {
+        final int length = readCount();
+        final byte[] bytes = input.readNBytes(length);
+        position += bytes.length;
+        if(bytes.length != length) {
+            throw new ParseException("The transfer replay file ends early", getErrorOffset(position));
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Reads the index of a candidate and returns the candidate
+     *
+     * @return The candidate read
+     * @throws IOException    Thrown if the file could not be read
+     * @throws ParseException Thrown if the file ends within the index or there is no candidate with the index
+     */
+    private Candidate readCandidate() throws IOException, ParseException {
+        final int index = readInt();
+        if(index < 0 || index >= candidates.length) {
+            throw new ParseException(String.format(
+                "The transfer replay file refers to candidate %d of %d", index, candidates.length
+            ), getErrorOffset(position - Integer.BYTES));
+        }
+        return candidates[index];
+    }
+    
+    /**
+     * Reads the given number of candidate indices and returns the candidates
+     *
+     * @param numCandidates The number of candidate indices to read
+     * @return The candidates read, in order
+     * @throws IOException    Thrown if the file could not be read
+     * @throws ParseException Thrown if the file ends within the indices or refers to a candidate that does not exist
+     */
+    private List<Candidate> readCandidateList(final int numCandidates) throws IOException, ParseException {
+        final List<Candidate> candidateList = new ArrayList<>();
+        for(int i = 0; i < numCandidates; i++) {
+            candidateList.add(readCandidate());
+        }
+        return candidateList;
+    }
+    
+    /**
+     * Checks the start of the file, reads the candidates, the eliminations, and the ballots up to the end of the range, and writes the transfers of
+     * the ballots in the range
+     *
+     * @param firstBallotNumber The number of the first ballot of the range
+     * @param lastBallotNumber  The number of the last ballot of the range
+     * @param output            The {@link OutputStream} to which the transfers are written
+     * @throws IOException    Thrown if the file could not be read or the transfers could not be written
+     * @throws ParseException Thrown if the input is not a transfer replay file or is malformed
+     */
+    private void printBallotTransfers(final int firstBallotNumber, final int lastBallotNumber, final OutputStream output)
+        throws IOException, ParseException {
+        final byte[] start = input.readNBytes(MAGIC.length + 1);
+        position = start.length;
+        if(start.length != MAGIC.length + 1 || !Arrays.equals(start, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new ParseException("The input is not a transfer replay file", 0);
+        }
+        if(start[MAGIC.length] != VERSION) {
+            throw new ParseException(String.format(
+                "The transfer replay file has version %d, but only version %d is supported", start[MAGIC.length], VERSION
+            ), MAGIC.length);
+        }
+        
+        candidates = new Candidate[readCount()];
+        for(int i = 0; i < candidates.length; i++) {
+            final String name = readString();
+            candidates[i] = new Candidate(name, readString());
+        }
+        final List<Candidate> firstRoundCandidates = readCandidateList(readCount());
+        final List<Candidate> eliminatedCandidates = readCandidateList(readCount());
+        
+        //Keep only the ballots that overlap the range, and stop at the first ballot after it since the ballots are in order of ballot number
+        final List<InstantRunoffSystem.Ballot> ballots = new ArrayList<>();
+        final int numBallots = readCount();
+        for(int i = 0; i < numBallots; i++) {
+            final int ballotNumber = readInt();
+            if(ballotNumber > lastBallotNumber) {
+                break;
+            }
+            final int count = readCount();
+            final Candidate[] rankedCandidates = readCandidateList(readCount()).toArray(new Candidate[0]);
+            if((long) ballotNumber + count - 1 >= firstBallotNumber) {
+                ballots.add(new InstantRunoffSystem.Ballot(ballotNumber, count, rankedCandidates));
+            }
+        }
+        
+        final PrintWriter writer = new PrintWriter(output);
+        InstantRunoffSystem.printBallotTransfers(ballots, firstRoundCandidates, eliminatedCandidates, firstBallotNumber, lastBallotNumber, writer);
+        if(writer.checkError()) {
+            throw new IOException("The transfers could not be written");
+        }
+    }
+    
+    /**
+     * Writes the transfers of the ballots numbered from the second argument through the third argument, or of only the ballot numbered by the
+     * second argument if there is no third, from the transfer replay file at the path given by the first argument to standard output, and returns
+     * the exit code
+     *
+     * @param args The path of the transfer replay file and the first ballot number, optionally followed by the last ballot number
+     * @return 0 on success, 64 for invalid arguments, 2 if the file could not be read, or 65 if the file is malformed
+     */
+    static int runTransfers(final String... args) {
+        if(args.length < 2 || args.length > 3) {
+            System.err.println("Usage: VotingSystemRunner --transfers transfers firstBallotNumber [lastBallotNumber]");
+            return 64;
+        }
+        
+        final int firstBallotNumber;
+        final int lastBallotNumber;
+        try {
+            firstBallotNumber = Integer.parseInt(args[1]);
+            lastBallotNumber = args.length == 3 ? Integer.parseInt(args[2]) : firstBallotNumber;
+        }
+        catch(NumberFormatException e) {
+            System.err.println("The ballot numbers must be integers");
+            return 64;
+        }
+        if(firstBallotNumber < 1 || lastBallotNumber < firstBallotNumber) {
+            System.err.printf("The ballot numbers %d through %d are not a range of ballot numbers\n", firstBallotNumber, lastBallotNumber);
+            return 64;
+        }
+        
+        try(final InputStream input = new FileInputStream(args[0])) {
+            printBallotTransfers(input, firstBallotNumber, lastBallotNumber, System.out);
+        }
+        catch(IOException e) {
+            System.err.println("The transfers could not be given: " + e.getMessage());
+            return 2;
+        }
+        catch(ParseException e) {
+            System.err.printf("%s at byte %d of %s\n", e.getMessage(), e.getErrorOffset(), args[0]);
+            return 65;
+        }
+        return 0;
+    }
+    
+}
@@ -20,7 +20,6 @@ import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.text.ParseException;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * Parses an {@link InputStream} and returns a {@link VotingSystem}
@@ -128,8 +127,16 @@ public final class VotingStreamParser {
         //noinspection ConstantConditions
         firstLine = firstLine.strip();
         
+        //Split the line into the election type and the comma-separated options that may follow it
+        final String[] electionTypeFields = firstLine.split(",", -1);
+        final String electionType = electionTypeFields[0].strip();
+        final String[] electionTypeOptions = new String[electionTypeFields.length - 1];
+        for(int i = 0; i < electionTypeOptions.length; i++) {
+            electionTypeOptions[i] = electionTypeFields[i + 1].strip();
+        }
+        
         //If the election input's header does not match one of the headers from the headerSystemMap, then throw an exception
-        if(!headerSystemMap.containsKey(firstLine)) {
+        if(!headerSystemMap.containsKey(electionType)) {
             String headers = headerSystemMap.keySet().toString();
             headers = headers.substring(1, headers.length() - 1);
             throwParseException(String.format(
@@ -142,10 +149,13 @@ public final class VotingStreamParser {
         else {
             //Try to create the VotingSystem instance using the corresponding VotingSystem instance in headerSystemMap
             try {
-                votingSystem = headerSystemMap.get(firstLine)
+                votingSystem = headerSystemMap.get(electionType)
                     .getConstructor(OutputStream.class, OutputStream.class)
                     .newInstance(auditStream, reportStream);
                 
+                //Let the VotingSystem validate and apply any options given after the election type
+                votingSystem.importElectionTypeOptions(electionTypeOptions, inputSourceOne, lineNumber);
+                
                 //Output the election type to the audit, report, and summary
                 final String electionTypeOutput = String.format("Election type: %s\n", firstLine);
                 new PrintWriter(auditStream, true).println(electionTypeOutput);
@@ -156,7 +166,7 @@ public final class VotingStreamParser {
             catch(InstantiationException | InvocationTargetException | NoSuchMethodException | IllegalAccessException e) {
                 throwParseException(String.format(
                     "There was an issue in trying to construct the VotingSystem %s with the audit and report streams passed as arguments",
-                    headerSystemMap.get(firstLine).getSimpleName()
+                    headerSystemMap.get(electionType).getSimpleName()
                 ), inputSourceOne, lineNumber);
             }
         }
@@ -230,8 +240,9 @@ public final class VotingStreamParser {
     /**
      * Parses the ballots for an input source
      *
+     * @param run             The {@link ElectionRun} being parsed, whose ballot listener is notified as the ballots are parsed
      * @param votingSystem    The {@link VotingSystem} that will parse the candidates
-     * @param numBallots      The number of ballots in the current input source
+     * @param numBallots      The sum of the ballot counts provided in the ballots headers up to and including the current input source
      * @param ballotNumber    The current ballot number we are on for the election
      * @param inReader        The {@link BufferedReader} for the current {@link InputStream}
      * @param inputIdentifier The identifier associated with the current input source
@@ -239,15 +250,47 @@ public final class VotingStreamParser {
      * @return The ballot number after parsing all of the ballots in the current input source
      * @throws ParseException Thrown if any ballots could not be parsed or if there is a mismatch in the number of expected and provided ballots
      */
-    private static int parseBallots(final VotingSystem votingSystem, final int numBallots, int ballotNumber, final BufferedReader inReader,
-        final String inputIdentifier, int lineNumber) throws ParseException {
+    private static int parseBallots(final ElectionRun run, final VotingSystem votingSystem, final int numBallots, int ballotNumber,
+        final BufferedReader inReader, final String inputIdentifier, int lineNumber) throws ParseException {
         String nextBallot;
         
-        //Read in ballots until the end of the input is reached
+        //The flight recorder events for the whole input source and for the current chunk of ballot lines
+        final ElectionEvents.InputSourceParsed sourceEvent = new ElectionEvents.InputSourceParsed();
+        sourceEvent.begin();
+        final int sourceFirstLine = lineNumber;
+        final int sourceFirstBallot = ballotNumber;
+        ElectionEvents.BallotChunkParsed chunkEvent = new ElectionEvents.BallotChunkParsed();
+        chunkEvent.begin();
+        int chunkFirstLine = lineNumber;
+        int chunkFirstBallot = ballotNumber;
+        
+        //Read in ballots until the end of the input is reached, where a line may represent more than one ballot
         while((nextBallot = readLine(inReader, inputIdentifier, lineNumber)) != null) {
-            votingSystem.addBallot(ballotNumber, nextBallot, inputIdentifier, lineNumber);
+            ballotNumber += votingSystem.addBallots(ballotNumber, nextBallot, inputIdentifier, lineNumber);
             lineNumber++;
-            ballotNumber++;
+            run.notifyBallotsParsed(votingSystem, ballotNumber - 1);
+            
+            //Emit the event for the current chunk and publish the progress once the chunk is full, and start the next chunk
+            if(lineNumber - chunkFirstLine == ElectionEvents.BALLOT_CHUNK_LINES) {
+                commitBallotChunkEvent(chunkEvent, inputIdentifier, chunkFirstLine, lineNumber, chunkFirstBallot, ballotNumber);
+                votingSystem.getProgress().setBallotsParsed(inputIdentifier, ballotNumber - sourceFirstBallot);
+                chunkEvent = new ElectionEvents.BallotChunkParsed();
+                chunkEvent.begin();
+                chunkFirstLine = lineNumber;
+                chunkFirstBallot = ballotNumber;
+            }
+        }
+        
+        //Emit the events for the last partial chunk, if any, and for the input source
+        if(lineNumber != chunkFirstLine) {
+            commitBallotChunkEvent(chunkEvent, inputIdentifier, chunkFirstLine, lineNumber, chunkFirstBallot, ballotNumber);
+        }
+        votingSystem.getProgress().setBallotsParsed(inputIdentifier, ballotNumber - sourceFirstBallot);
+        if(sourceEvent.shouldCommit()) {
+            sourceEvent.inputSource = inputIdentifier;
+            sourceEvent.ballotLines = lineNumber - sourceFirstLine;
+            sourceEvent.ballots = ballotNumber - sourceFirstBallot;
+            sourceEvent.commit();
         }
         
         //Throw an exception if the number of ballots parsed does not match the number of ballots provided in the ballots header
@@ -261,6 +304,27 @@ public final class VotingStreamParser {
         return ballotNumber;
     }
     
+    /**
+     * Fills in and commits a {@link ElectionEvents.BallotChunkParsed} event if it is enabled in a flight recording
+     *
+     * @param chunkEvent      The event for the chunk, which has already begun
+     * @param inputIdentifier The identifier associated with the current input source
+     * @param firstLine       The line number of the first ballot line in the chunk
+     * @param endLine         The line number after the last ballot line in the chunk
+     * @param firstBallot     The ballot number of the first ballot in the chunk
+     * @param endBallot       The ballot number after the last ballot in the chunk
+     */
+    private static void commitBallotChunkEvent(final ElectionEvents.BallotChunkParsed chunkEvent, final String inputIdentifier,
+        final int firstLine, final int endLine, final int firstBallot, final int endBallot) {
+        if(chunkEvent.shouldCommit()) {
+            chunkEvent.inputSource = inputIdentifier;
+            chunkEvent.firstLine = firstLine;
+            chunkEvent.ballotLines = endLine - firstLine;
+            chunkEvent.ballots = endBallot - firstBallot;
+            chunkEvent.commit();
+        }
+    }
+    
     /**
      * Throws a {@link ParseException} with the message in the form "Error on line [lineNumber]: [message]", replacing [lineNumber] and [message]
      * with the corresponding parameters
@@ -284,24 +348,78 @@ public final class VotingStreamParser {
      * @param headerSystemMap The mapping between header strings and their corresponding {@link VotingSystem} classes
      * @return The parsed {@link VotingSystem}
      * @throws NullPointerException     Thrown if any of the given streams or if the headerSystemMap is null
-     * @throws IllegalArgumentException Thrown if the number of {@link InputStream}s is not at least 1
+     * @throws IllegalArgumentException Thrown if the number of {@link InputStream}s is not at least 1 or does not match the number of names
      * @throws ParseException           Thrown if there is an issue in parsing the provided {@link InputStream}
      */
     public static VotingSystem parse(final InputStream[] inputs, final String[] inputNames, final OutputStream auditStream,
         final OutputStream reportStream, final Map<String, Class<? extends VotingSystem>> headerSystemMap) throws ParseException,
         NullPointerException, IllegalArgumentException {
-        //Require that the input stream and output streams are nonnull
-        Objects.requireNonNull(inputs);
-        for(final InputStream input : inputs) {
-            Objects.requireNonNull(input);
-        }
-        Objects.requireNonNull(auditStream);
-        Objects.requireNonNull(reportStream);
-        
-        //Throw an exception if not at least 1 InputStream instance is provided
-        if(inputs.length < 1) {
-            throw new IllegalArgumentException("The number of InputStream instances provided must be at least 1");
-        }
+        return parse(inputs, inputNames, auditStream, reportStream, headerSystemMap, ElectionMetrics.DISABLED);
+    }
+    
+    /**
+     * Parses {@link InputStream}s corresponding to one election and returns a {@link VotingSystem} constructed from the given stream
+     *
+     * @param inputs          The {@link InputStream}s to parse as a single election
+     * @param inputNames      The names corresponding to each of the {@link InputStream}s
+     * @param auditStream     The {@link OutputStream} to write detailed information about the running of the election
+     * @param reportStream    The {@link OutputStream} to write a summary about the running of the election
+     * @param headerSystemMap The mapping between header strings and their corresponding {@link VotingSystem} classes
+     * @param metrics         The {@link ElectionMetrics} in which the parsing phases and ballot counts are recorded, which is also given to the
+     *                        parsed {@link VotingSystem}
+     * @return The parsed {@link VotingSystem}
+     * @throws NullPointerException     Thrown if any of the given streams, the headerSystemMap, or the metrics is null
+     * @throws IllegalArgumentException Thrown if the number of {@link InputStream}s is not at least 1 or does not match the number of names
+     * @throws ParseException           Thrown if there is an issue in parsing the provided {@link InputStream}
+     */
+    public static VotingSystem parse(final InputStream[] inputs, final String[] inputNames, final OutputStream auditStream,
+        final OutputStream reportStream, final Map<String, Class<? extends VotingSystem>> headerSystemMap, final ElectionMetrics metrics)
+        throws ParseException, NullPointerException, IllegalArgumentException {
+        return parse(inputs, inputNames, auditStream, reportStream, headerSystemMap, metrics, ElectionProgress.DISABLED);
+    }
+    
+    /**
+     * Parses {@link InputStream}s corresponding to one election and returns a {@link VotingSystem} constructed from the given stream
+     *
+     * @param inputs          The {@link InputStream}s to parse as a single election
+     * @param inputNames      The names corresponding to each of the {@link InputStream}s
+     * @param auditStream     The {@link OutputStream} to write detailed information about the running of the election
+     * @param reportStream    The {@link OutputStream} to write a summary about the running of the election
+     * @param headerSystemMap The mapping between header strings and their corresponding {@link VotingSystem} classes
+     * @param metrics         The {@link ElectionMetrics} in which the parsing phases and ballot counts are recorded, which is also given to the
+     *                        parsed {@link VotingSystem}
+     * @param progress        The {@link ElectionProgress} to which the ballots parsed from each input source are published, which is also given to
+     *                        the parsed {@link VotingSystem}
+     * @return The parsed {@link VotingSystem}
+     * @throws NullPointerException     Thrown if any of the given streams, the headerSystemMap, the metrics, or the progress is null
+     * @throws IllegalArgumentException Thrown if the number of {@link InputStream}s is not at least 1 or does not match the number of names
+     * @throws ParseException           Thrown if there is an issue in parsing the provided {@link InputStream}
+     */
+    public static VotingSystem parse(final InputStream[] inputs, final String[] inputNames, final OutputStream auditStream,
+        final OutputStream reportStream, final Map<String, Class<? extends VotingSystem>> headerSystemMap, final ElectionMetrics metrics,
+        final ElectionProgress progress) throws ParseException, NullPointerException, IllegalArgumentException {
+        return parse(new ElectionRun(inputs, inputNames, auditStream, reportStream)
+            .setHeaderSystemMap(headerSystemMap)
+            .setMetrics(metrics)
+            .setProgress(progress));
+    }
+    
+    /**
+     * Parses the {@link InputStream}s of an {@link ElectionRun} corresponding to one election and returns a {@link VotingSystem} constructed from
+     * them
+     * <p></p>
+     * Everything the parse depends on, including the hook applied after the election type is parsed, is read from the {@link ElectionRun}, so
+     * separate runs can be parsed in parallel threads
+     *
+     * @param run The {@link ElectionRun} whose inputs to parse
+     * @return The parsed {@link VotingSystem}
+     * @throws ParseException Thrown if there is an issue in parsing the provided {@link InputStream}
+     */
+    static VotingSystem parse(final ElectionRun run) throws ParseException {
+        final InputStream[] inputs = run.getInputs();
+        final String[] inputNames = run.getInputNames();
+        final ElectionMetrics metrics = run.getMetrics();
+        final ElectionProgress progress = run.getProgress();
         
         final String inputSourceOne = inputNames[0];
         
@@ -310,15 +428,18 @@ public final class VotingStreamParser {
         
         int lineNumber = 1;
         
+        final long headerStartNanos = metrics.startTimer();
+        progress.startParsing();
+        
         final VotingSystem votingSystem =
-            parseElectionType(inReader, inputSourceOne, auditStream, reportStream, headerSystemMap, lineNumber);
+            parseElectionType(inReader, inputSourceOne, run.getAuditOutput(), run.getReportOutput(), run.getHeaderSystemMap(), lineNumber);
+        votingSystem.setMetrics(metrics);
+        votingSystem.setProgress(progress);
         
         lineNumber++;
         
-        //For testing purposes, modify the voting system before parsing
-        if(VotingSystemRunner.votingSystemModifierBeforeParsing != null) {
-            VotingSystemRunner.votingSystemModifierBeforeParsing.accept(votingSystem);
-        }
+        //Modify the voting system before parsing the rest of the input if the run requests it
+        run.applyBeforeParsing(votingSystem);
         
         //Import the candidates header
         final int candidateHeaderSize = parseCandidateHeader(votingSystem, inReader, inputSourceOne, lineNumber);
@@ -330,16 +451,22 @@ public final class VotingStreamParser {
         
         lineNumber++;
         
+        metrics.endPhase("parse.header", headerStartNanos);
+        
         //The line number at which the ballot header line starts
         final int ballotHeaderLineNumber = lineNumber;
         
         //The current ballot number
         int ballotNumber = 1;
         
+        //The sum of the ballot counts provided in the ballots headers so far
+        int expectedNumBallots = 0;
+        
         //For each of the input sources
         for(int i = 0; i < inputs.length; i++) {
             //Get the identifier for the input source
             final String inputIdentifier = inputNames[i];
+            final long ballotsStartNanos = metrics.startTimer();
             
             /*
              * If not the first input source, then advance to the line at which the ballots header is located, throwing an exception if there is
@@ -356,16 +483,29 @@ public final class VotingStreamParser {
             //Start the line number at the ballot header line number
             lineNumber = ballotHeaderLineNumber;
             
-            //Import the ballots header
+            //Import the ballots header, adding its ballot count to the expected number of ballots
+            final int numBallotsBeforeHeader = votingSystem.getNumBallots();
             final int ballotsHeaderSize = parseBallotsHeader(votingSystem, inReader, inputIdentifier, lineNumber);
             
+            /*
+             * The expected number of ballots is kept separately from the VotingSystem's count because the VotingSystem may have discarded
+             * invalidated ballots from the previous input sources
+             */
+            expectedNumBallots += votingSystem.getNumBallots() - numBallotsBeforeHeader;
+            
             lineNumber += ballotsHeaderSize;
             
             //Parse the ballots for the current input source
-            final int numBallots = votingSystem.getNumBallots();
-            ballotNumber = parseBallots(votingSystem, numBallots, ballotNumber, inReader, inputIdentifier, lineNumber);
+            ballotNumber = parseBallots(run, votingSystem, expectedNumBallots, ballotNumber, inReader, inputIdentifier, lineNumber);
+            
+            metrics.endPhase("parse.ballots", ballotsStartNanos);
         }
         
+        //Record the number of ballots parsed, including any that were invalidated
+        metrics.addCount("ballots", ballotNumber - 1);
+        metrics.addCount("inputSources", inputs.length);
+        progress.endParsing();
+        
         return votingSystem;
     }
     
@@ -14,12 +14,40 @@ package org.team19;
 import java.io.OutputStream;
 import java.text.ParseException;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Represents a voting system
  */
 public abstract class VotingSystem {
     
+    /**
+     * The audit output that discards the audit, which {@link InstantRunoffSystem} and {@link OpenPartyListSystem} detect so that they skip
+     * formatting the steps repeated for every ballot and transfer instead of formatting them only to throw them away
+     * <p></p>
+     * Unlike {@link OutputStream#nullOutputStream()}, closing it does nothing, so it can be given to any number of elections
+     */
+    public static final OutputStream NO_AUDIT = new OutputStream() {
+        @Override
+        public void write(final int value) {}
+        
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            Objects.checkFromIndexSize(offset, length, bytes.length);
+        }
+    };
+    
+    /**
+     * The {@link ElectionMetrics} in which the phases and rounds of the election are recorded, which records nothing by default
+     */
+    protected ElectionMetrics metrics = ElectionMetrics.DISABLED;
+    
+    /**
+     * The {@link ElectionProgress} to which the rounds and tallies of the election are published, which tracks nothing by default
+     */
+    protected ElectionProgress progress = ElectionProgress.DISABLED;
+    
     /**
      * Initializes a {@link VotingSystem}
      *
@@ -30,6 +58,62 @@ public abstract class VotingSystem {
     @SuppressWarnings("unused")
     public VotingSystem(final OutputStream auditOutput, final OutputStream reportOutput) throws NullPointerException {}
     
+    /**
+     * Sets the {@link ElectionMetrics} in which the phases and rounds of the election are recorded
+     *
+     * @param metrics The {@link ElectionMetrics} in which the phases and rounds of the election are recorded
+     * @throws NullPointerException Thrown if the metrics are null
+     */
+    public void setMetrics(final ElectionMetrics metrics) throws NullPointerException {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+    
+    /**
+     * Returns the {@link ElectionMetrics} in which the phases and rounds of the election are recorded
+     *
+     * @return The {@link ElectionMetrics} in which the phases and rounds of the election are recorded
+     */
+    public ElectionMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Sets the {@link ElectionProgress} to which the rounds and tallies of the election are published
+     *
+     * @param progress The {@link ElectionProgress} to which the rounds and tallies of the election are published
+     * @throws NullPointerException Thrown if the progress is null
+     */
+    public void setProgress(final ElectionProgress progress) throws NullPointerException {
+        this.progress = Objects.requireNonNull(progress);
+    }
+    
+    /**
+     * Returns the {@link ElectionProgress} to which the rounds and tallies of the election are published
+     *
+     * @return The {@link ElectionProgress} to which the rounds and tallies of the election are published
+     */
+    public ElectionProgress getProgress() {
+        return progress;
+    }
+    
+    /**
+     * Parses the options that follow the election type on the first line of the input, separated from it and each other by commas
+     * <p></p>
+     * By default, a {@link VotingSystem} supports no options
+     *
+     * @param options         The stripped options that follow the election type, which is empty if there are none
+     * @param inputIdentifier The identifier associated with the current input source
+     * @param line            The line number associated with the election type line
+     * @throws ParseException Thrown if any of the options are not supported by this {@link VotingSystem}
+     */
+    public void importElectionTypeOptions(final String[] options, final String inputIdentifier, final int line) throws ParseException {
+        if(options.length != 0) {
+            VotingStreamParser.throwParseException(String.format(
+                "The election type %s does not support any options, but %d were provided", getShortName(), options.length
+            ), inputIdentifier, line);
+        }
+    }
+    
     /**
      * Returns the number of lines that makes up the header for the candidates
      *
@@ -85,6 +169,24 @@ public abstract class VotingSystem {
      */
     public abstract void addBallot(int ballotNumber, final String ballotLine, final String inputIdentifier, final int line) throws ParseException;
     
+    /**
+     * Parses a line corresponding to one or more ballots, adds them internally for an input source, and returns the number of ballots the line
+     * represents
+     * <p></p>
+     * By default, each line represents exactly one ballot and is added using {@link #addBallot(int, String, String, int)}
+     *
+     * @param ballotNumber    The number corresponding to the first ballot the line represents
+     * @param ballotLine      The {@link String} corresponding to the ballots
+     * @param inputIdentifier The identifier associated with the current input source
+     * @param line            The line number associated with the current ballot line being read
+     * @return The number of ballots the line represents
+     * @throws ParseException Thrown if there is an issue in parsing the current ballot line
+     */
+    public int addBallots(final int ballotNumber, final String ballotLine, final String inputIdentifier, final int line) throws ParseException {
+        addBallot(ballotNumber, ballotLine, inputIdentifier, line);
+        return 1;
+    }
+    
     /**
      * Returns the name of this voting system
      *
@@ -131,6 +233,13 @@ public abstract class VotingSystem {
      */
     public abstract void runElection();
     
+    /**
+     * Returns the winners of the election in the order they were decided, which is empty if {@link #runElection()} has not been run
+     *
+     * @return The winners of the election in the order they were decided
+     */
+    public abstract List<Candidate> getWinners();
+    
     /**
      * Returns the string form of this {@link VotingSystem}
      *
@@ -13,10 +13,32 @@
  * Creates an audit files that shows the steps, process, computations, etc., along with various statistics pertaining to the election
  *
  * Creates a report file that shows a summary of various statistics pertaining to the election
+ *
+ * If the leading arguments include --metrics, then also creates a metrics file with the time spent in each phase and throughput counters
+ *
+ * If the leading arguments include --progress, then also exposes the live progress of the election over JMX
+ *
+ * If the leading arguments include --binary-audit, then the audit is recorded as a binary event log that AuditRenderer renders as text
+ *
+ * If the leading arguments include --summarize-transfers, then the audit of an IR election gives the transfers of each elimination as counts, and
+ * a transfers file is created to give the transfers of any range of ballots from
+ *
+ * If the first argument is --transfers, then instead writes the transfers of a range of ballots from a transfers file
+ *
+ * If the leading arguments include --audit-index, then also creates an index of where each ballot's entries are in the audit
+ *
+ * If the leading arguments include --compress, then the audit and report files are compressed as gzip on multiple cores
+ *
+ * If the leading arguments include --no-audit, then no audit file is created, and the steps of each ballot are not even formatted
+ *
+ * If the first argument is --lookup, then instead writes the history of a ballot from an indexed audit
+ *
+ * If the first argument is --serve, then instead serves elections over HTTP on localhost until stopped
  */
 
 package org.team19;
 
+import javax.management.JMException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -26,7 +48,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.text.ParseException;
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 /**
@@ -38,33 +60,90 @@ import java.util.function.Consumer;
  * Creates an audit files that shows the steps, process, computations, etc., along with various statistics pertaining to the election
  * <p></p>
  * Creates a report file that shows a summary of various statistics pertaining to the election
+ * <p></p>
+ * If the leading command-line arguments include "--metrics", then also creates a JSON metrics file with the time spent in each phase of the run, the
+ * rounds of the election, and throughput counters such as ballots per second, bytes read, and audit bytes written
+ * <p></p>
+ * If the leading command-line arguments include "--progress", then also registers an {@link ElectionProgress} MBean exposing the live progress of
+ * the election, which can be watched with jconsole
+ * <p></p>
+ * If the leading command-line arguments include "--binary-audit", then the audit file is an {@link AuditEventLog} with the extension "bin" instead
+ * of a text file, which {@link AuditRenderer} renders into the text audit when it is needed
+ * <p></p>
+ * If the leading command-line arguments include "--summarize-transfers", then the audit of an IR election gives the number of ballots transferred to
+ * each candidate and exhausted for each elimination instead of a sentence for each ballot, and a {@link TransferReplay} file is also created in the
+ * audits directory with the prefix "transfers" and the extension "dat"
+ * <p></p>
+ * If the first command-line argument is "--transfers", then instead writes the transfers of a range of ballots from a {@link TransferReplay} file to
+ * standard output, given the path of the file and the ballot numbers as described by {@link TransferReplay#runTransfers(String...)}
+ * <p></p>
+ * If the leading command-line arguments include "--audit-index", then the audit is an {@link IndexedAuditOutput}, which also writes an index with
+ * the same name as the audit file and the extension "idx"
+ * <p></p>
+ * If the leading command-line arguments include "--compress", then the audit and report files are compressed by a
+ * {@link ParallelGzipOutputStream} and have ".gz" added to their extensions
+ * <p></p>
+ * If the leading command-line arguments include "--no-audit", then the audit output is {@link VotingSystem#NO_AUDIT}, so no audit file is created
+ * and the steps repeated for every ballot and transfer are skipped, which is much faster for runs that only need the report
+ * <p></p>
+ * If the first command-line argument is "--lookup", then instead writes the history of a ballot from an indexed audit to standard output, given
+ * the path of the audit and the ballot number as described by {@link IndexedAuditOutput#runLookup(String...)}
+ * <p></p>
+ * If the first command-line argument is "--serve", then instead runs an {@link ElectionService} with the options that follow it, which serves
+ * elections over HTTP on localhost from this JVM until it is stopped
+ * <p></p>
+ * Each {@link VotingSystemRunner} keeps its own outputs and hooks and runs its election through an {@link ElectionRun}, so separate runners do not
+ * share any state other than standard input, standard output, and the JMX registration of the progress
  */
 public final class VotingSystemRunner {
     
     /**
      * The potential source for the audit output set by test classes in this package to specify an alternative output location for the audit contents
      */
-    static OutputStream auditOutputPotentialSource = null;
+    OutputStream auditOutputPotentialSource = null;
     
     /**
      * The potential source for the audit output set by test classes in this package to specify an alternative output location for the report contents
      */
-    static OutputStream reportOutputPotentialSource = null;
+    OutputStream reportOutputPotentialSource = null;
+    
+    /**
+     * The potential source for the metrics output set by test classes in this package to specify an alternative output location for the metrics
+     */
+    OutputStream metricsOutputPotentialSource = null;
+    
+    /**
+     * The potential source for the audit index output set by test classes in this package to specify an alternative output location for the index
+     */
+    OutputStream auditIndexOutputPotentialSource = null;
+    
+    /**
+     * The potential source for the transfers output set by test classes in this package to specify an alternative output location for the
+     * transfer replay file
+     */
+    OutputStream transfersOutputPotentialSource = null;
     
     /**
      * The potential consumer set by test classes in this package used to modify the {@link VotingSystem} before parsing
      */
-    static Consumer<VotingSystem> votingSystemModifierBeforeParsing = null;
+    Consumer<VotingSystem> votingSystemModifierBeforeParsing = null;
     
     /**
      * The potential consumer set by test classes in this package used to modify the {@link VotingSystem} before the election
      */
-    static Consumer<VotingSystem> votingSystemModifierBeforeElection = null;
+    Consumer<VotingSystem> votingSystemModifierBeforeElection = null;
+    
+    /**
+     * The timestamp of the run followed by any suffix that made the name of its first file unique, which names the other files of the run, or
+     * null if no file of the run has been created
+     */
+    private String runStamp = null;
     
     /**
-     * A private constructor for the utility class {@link VotingSystemRunner} to prevent instantiation
+     * Creates a {@link VotingSystemRunner} that writes to timestamped files under the Project2 directory and does not modify the
+     * {@link VotingSystem}
      */
-    private VotingSystemRunner() {}
+    VotingSystemRunner() {}
     
     /**
      * Returns the full, unique canonical form of the provided file path
@@ -104,15 +183,29 @@ public final class VotingSystemRunner {
      * variable and the other items are replaced with the temporal information from currentTimeStamp
      */
     private static String generateTimestampedFileName(final String prefix, final LocalDateTime currentTimestamp) {
+        return generateTimestampedFileName(prefix, "txt", currentTimestamp);
+    }
+    
+    /**
+     * Generates a file name from the prefix, extension, and timestamp
+     *
+     * @param prefix           The prefix for the timestamped file name
+     * @param extension        The extension of the file name without the leading period
+     * @param currentTimestamp The timestamp to use for the file name
+     * @return A file name in the form "[prefix]_[year]-[month]-[day]_[hours]-[minutes]-[seconds].[extension]" where [prefix] and [extension] are
+     * replaced with the provided variables and the other items are replaced with the temporal information from currentTimeStamp
+     */
+    private static String generateTimestampedFileName(final String prefix, final String extension, final LocalDateTime currentTimestamp) {
         return String.format(
-            "%s_%d-%02d-%02d_%02d-%02d-%02d.txt",
+            "%s_%d-%02d-%02d_%02d-%02d-%02d.%s",
             prefix,
             currentTimestamp.getYear(),
             currentTimestamp.getMonth().getValue(),
             currentTimestamp.getDayOfMonth(),
             currentTimestamp.getHour(),
             currentTimestamp.getMinute(),
-            currentTimestamp.getSecond()
+            currentTimestamp.getSecond(),
+            extension
         );
     }
     
@@ -131,6 +224,112 @@ public final class VotingSystemRunner {
         return new FileOutputStream(outputFile);
     }
     
+    /**
+     * Creates a new, empty file in the provided directory named by {@link #generateTimestampedFileName(String, String, LocalDateTime)} and returns
+     * it, creating the directory as needed
+     * <p></p>
+     * If a file with that name already exists, then "_2", "_3", etc. is added before the extension until an unused name is found, so runs that
+     * start in the same second, whether in this JVM or another, never write to the same file
+     *
+     * @param directory        The directory in which to create the file
+     * @param prefix           The prefix for the timestamped file name
+     * @param extension        The extension of the file name without the leading period
+     * @param currentTimestamp The timestamp to use for the file name
+     * @return The newly created file
+     * @throws IOException Thrown if the file cannot be created in the provided directory
+     */
+    static File createTimestampedFile(final String directory, final String prefix, final String extension, final LocalDateTime currentTimestamp)
+        throws IOException {
+        final File outputDirectory = new File(directory);
+        
+        //noinspection ResultOfMethodCallIgnored
+        outputDirectory.mkdirs();
+        
+        final String fileName = generateTimestampedFileName(prefix, extension, currentTimestamp);
+        final String baseName = fileName.substring(0, fileName.length() - extension.length() - 1);
+        
+        //File.createNewFile atomically creates the file only if it does not already exist, so no two runs can claim the same name
+        File outputFile = new File(outputDirectory, fileName);
+        for(int copy = 2; !outputFile.createNewFile(); copy++) {
+            outputFile = new File(outputDirectory, String.format("%s_%d.%s", baseName, copy, extension));
+        }
+        return outputFile;
+    }
+    
+    /**
+     * Creates a new file in the provided directory with {@link #createTimestampedFile(String, String, String, LocalDateTime)} and returns its
+     * {@link FileOutputStream}
+     *
+     * @param directory        The directory in which to create the file
+     * @param prefix           The prefix for the timestamped file name
+     * @param extension        The extension of the file name without the leading period
+     * @param currentTimestamp The timestamp to use for the file name
+     * @return The {@link FileOutputStream} for the newly created file
+     * @throws IOException Thrown if the file cannot be created or written to in the provided directory
+     */
+    static FileOutputStream createTimestampedFileOutputStream(final String directory, final String prefix, final String extension,
+        final LocalDateTime currentTimestamp) throws IOException {
+        return getFileOutputStream(createTimestampedFile(directory, prefix, extension, currentTimestamp).getPath());
+    }
+    
+    /**
+     * Returns the part of the name of a file created by {@link #createTimestampedFile(String, String, String, LocalDateTime)} between its prefix
+     * and its extension, which is the timestamp followed by any "_2", "_3", etc. that was added to make the name unique
+     * <p></p>
+     * The other files of the same run are named with this run stamp by {@link #getRunFile(String, String, String, String)}, so every file of a run
+     * has the same suffix
+     *
+     * @param timestampedFile The file that claimed the name of the run
+     * @param prefix          The prefix of the name of the file
+     * @param extension       The extension of the name of the file without the leading period
+     * @return The run stamp of the file
+     */
+    static String getRunStamp(final File timestampedFile, final String prefix, final String extension) {
+        final String fileName = timestampedFile.getName();
+        return fileName.substring(prefix.length() + 1, fileName.length() - extension.length() - 1);
+    }
+    
+    /**
+     * Returns the file in the provided directory named with the prefix, the run stamp from {@link #getRunStamp(File, String, String)}, and the
+     * extension, creating the directory as needed
+     *
+     * @param directory The directory of the file
+     * @param prefix    The prefix for the file name
+     * @param runStamp  The run stamp of the file that claimed the name of the run
+     * @param extension The extension of the file name without the leading period
+     * @return The file of the run with the given prefix and extension
+     */
+    static File getRunFile(final String directory, final String prefix, final String runStamp, final String extension) {
+        final File outputDirectory = new File(directory);
+        
+        //noinspection ResultOfMethodCallIgnored
+        outputDirectory.mkdirs();
+        return new File(outputDirectory, String.format("%s_%s.%s", prefix, runStamp, extension));
+    }
+    
+    /**
+     * Returns the file of this run in the provided directory with the given prefix and extension
+     * <p></p>
+     * The first file of the run claims a unique name with {@link #createTimestampedFile(String, String, String, LocalDateTime)}, and the files
+     * after it are named with its run stamp, so the suffix is only claimed once per run and the files of a run can be matched by name
+     *
+     * @param directory        The directory of the file
+     * @param prefix           The prefix for the file name
+     * @param extension        The extension of the file name without the leading period
+     * @param currentTimestamp The current timestamp upon running the program
+     * @return The file of this run with the given prefix and extension
+     * @throws IOException Thrown if the first file of the run cannot be created in the provided directory
+     */
+    private File createRunFile(final String directory, final String prefix, final String extension, final LocalDateTime currentTimestamp)
+        throws IOException {
+        if(runStamp == null) {
+            final File runFile = createTimestampedFile(directory, prefix, extension, currentTimestamp);
+            runStamp = getRunStamp(runFile, prefix, extension);
+            return runFile;
+        }
+        return getRunFile(directory, prefix, runStamp, extension);
+    }
+    
     /**
      * Given the command-line arguments, which are presumed to be file paths, create {@link InputStream}s from them, and return the array of
      * {@link InputStream}s
@@ -160,22 +359,34 @@ public final class VotingSystemRunner {
     }
     
     /**
-     * Returns the audit {@link OutputStream}
+     * Returns the audit {@link OutputStream}, counted by the metrics and recorded as binary events, indexed, or compressed if requested
      *
-     * @param currentTimestamp The current timestamp upon running the program
+     * @param currentTimestamp     The current timestamp upon running the program
+     * @param metrics              The {@link ElectionMetrics} that count the bytes written to the audit file
+     * @param binaryAuditRequested Whether the audit should be recorded as an {@link AuditEventLog}
+     * @param auditIndexRequested  Whether the audit should be an {@link IndexedAuditOutput}
+     * @param compressRequested    Whether the audit file should be compressed by a {@link ParallelGzipOutputStream}
      * @return The audit {@link OutputStream}
      */
-    private static OutputStream getAuditOutput(final LocalDateTime currentTimestamp) {
+    private OutputStream getAuditOutput(final LocalDateTime currentTimestamp, final ElectionMetrics metrics, final boolean binaryAuditRequested,
+        final boolean auditIndexRequested, final boolean compressRequested) {
         OutputStream auditOutput = null;
+        OutputStream auditIndexOutput = null;
         //If the audit location is not set by tests
         if(auditOutputPotentialSource == null) {
             try {
-                auditOutput = getFileOutputStream(
-                    "Project2/audits/".replace('/', File.separatorChar)
-                        + generateTimestampedFileName("audit", currentTimestamp)
+                final String extension = (binaryAuditRequested ? "bin" : "txt") + (compressRequested ? ".gz" : "");
+                final File auditFile = createRunFile(
+                    "Project2/audits".replace('/', File.separatorChar), "audit", extension, currentTimestamp
                 );
+                auditOutput = getFileOutputStream(auditFile.getPath());
+                
+                //The index is named after the audit file, so the audit is all that is needed to look up a ballot
+                if(auditIndexRequested) {
+                    auditIndexOutput = getFileOutputStream(IndexedAuditOutput.getIndexPath(auditFile.getPath()));
+                }
             }
-            catch(FileNotFoundException e) {
+            catch(IOException e) {
                 System.err.println("The audit file could not be created");
                 System.exit(2);
             }
@@ -183,27 +394,43 @@ public final class VotingSystemRunner {
         //If the audit location is set by tests
         else {
             auditOutput = auditOutputPotentialSource;
+            auditIndexOutput = auditIndexOutputPotentialSource == null ? OutputStream.nullOutputStream() : auditIndexOutputPotentialSource;
+        }
+        
+        //Compress the audit file if requested
+        if(compressRequested) {
+            auditOutput = new ParallelGzipOutputStream(auditOutput);
+        }
+        
+        //Count the bytes of the audit, which are the bytes of the log rather than of the text it renders to for a binary audit and the bytes
+        //before compression for a compressed audit
+        final OutputStream countedAuditOutput = metrics.countAuditOutput(auditOutput);
+        if(binaryAuditRequested) {
+            return new AuditEventLog(countedAuditOutput);
         }
-        return auditOutput;
+        if(auditIndexRequested) {
+            return new IndexedAuditOutput(countedAuditOutput, auditIndexOutput);
+        }
+        return countedAuditOutput;
     }
     
     /**
-     * Returns the report {@link OutputStream}
+     * Returns the report {@link OutputStream}, compressed if requested
      *
-     * @param currentTimestamp The current timestamp upon running the program
+     * @param currentTimestamp  The current timestamp upon running the program
+     * @param compressRequested Whether the report file should be compressed by a {@link ParallelGzipOutputStream}
      * @return The report {@link OutputStream}
      */
-    private static OutputStream getReportOutput(final LocalDateTime currentTimestamp) {
+    private OutputStream getReportOutput(final LocalDateTime currentTimestamp, final boolean compressRequested) {
         OutputStream reportOutput = null;
         //If the report location is not set by tests
         if(reportOutputPotentialSource == null) {
             try {
-                reportOutput = getFileOutputStream(
-                    "Project2/reports/".replace('/', File.separatorChar)
-                        + generateTimestampedFileName("report", currentTimestamp)
-                );
+                reportOutput = getFileOutputStream(createRunFile(
+                    "Project2/reports".replace('/', File.separatorChar), "report", compressRequested ? "txt.gz" : "txt", currentTimestamp
+                ).getPath());
             }
-            catch(FileNotFoundException e) {
+            catch(IOException e) {
                 System.err.println("The report file could not be created");
                 System.exit(2);
             }
@@ -212,7 +439,61 @@ public final class VotingSystemRunner {
         else {
             reportOutput = reportOutputPotentialSource;
         }
-        return reportOutput;
+        return compressRequested ? new ParallelGzipOutputStream(reportOutput) : reportOutput;
+    }
+    
+    /**
+     * Returns the metrics {@link OutputStream}
+     *
+     * @param currentTimestamp The current timestamp upon running the program
+     * @return The metrics {@link OutputStream}
+     */
+    private OutputStream getMetricsOutput(final LocalDateTime currentTimestamp) {
+        OutputStream metricsOutput = null;
+        //If the metrics location is not set by tests
+        if(metricsOutputPotentialSource == null) {
+            try {
+                metricsOutput = getFileOutputStream(createRunFile(
+                    "Project2/metrics".replace('/', File.separatorChar), "metrics", "json", currentTimestamp
+                ).getPath());
+            }
+            catch(IOException e) {
+                System.err.println("The metrics file could not be created");
+                System.exit(2);
+            }
+        }
+        //If the metrics location is set by tests
+        else {
+            metricsOutput = metricsOutputPotentialSource;
+        }
+        return metricsOutput;
+    }
+    
+    /**
+     * Returns the transfers {@link OutputStream}
+     *
+     * @param currentTimestamp The current timestamp upon running the program
+     * @return The transfers {@link OutputStream}
+     */
+    private OutputStream getTransfersOutput(final LocalDateTime currentTimestamp) {
+        OutputStream transfersOutput = null;
+        //If the transfers location is not set by tests
+        if(transfersOutputPotentialSource == null) {
+            try {
+                transfersOutput = getFileOutputStream(createRunFile(
+                    "Project2/audits".replace('/', File.separatorChar), "transfers", "dat", currentTimestamp
+                ).getPath());
+            }
+            catch(IOException e) {
+                System.err.println("The transfers file could not be created");
+                System.exit(2);
+            }
+        }
+        //If the transfers location is set by tests
+        else {
+            transfersOutput = transfersOutputPotentialSource;
+        }
+        return transfersOutput;
     }
     
     /**
@@ -236,12 +517,132 @@ public final class VotingSystemRunner {
      * Runs the election for a {@link VotingSystem} given paths to election files that can be absolute or relative to the current working directory
      * and compose a single election, using standard input if none are given
      *
-     * @param args The command-line arguments to the program, which should only consist of paths to election files that can be absolute or relative
-     *             to the current working directory and compose a single election
+     * @param args The command-line arguments to the program, which should consist of the optional "--metrics", "--progress", "--binary-audit",
+     *             "--summarize-transfers", "--audit-index", "--compress", and "--no-audit" flags in any order
+     *             followed by paths to election files that can be absolute or relative to the current working directory and compose a single
+     *             election, of "--serve" followed by the options of {@link ElectionService}, of "--lookup" followed by the arguments of
+     *             {@link IndexedAuditOutput#runLookup(String...)}, or of "--transfers" followed by the arguments of
+     *             {@link TransferReplay#runTransfers(String...)}
      */
     public static void main(final String... args) {
-        //Get the current date/time
+        new VotingSystemRunner().run(args);
+    }
+    
+    /**
+     * Runs the election for a {@link VotingSystem} given paths to election files that can be absolute or relative to the current working directory
+     * and compose a single election, using standard input if none are given, with the outputs and hooks of this {@link VotingSystemRunner}
+     *
+     * @param args The command-line arguments to the program, which should consist of the optional "--metrics", "--progress", "--binary-audit",
+     *             "--summarize-transfers", "--audit-index", "--compress", and "--no-audit" flags in any order
+     *             followed by paths to election files that can be absolute or relative to the current working directory and compose a single
+     *             election, of "--serve" followed by the options of {@link ElectionService}, of "--lookup" followed by the arguments of
+     *             {@link IndexedAuditOutput#runLookup(String...)}, or of "--transfers" followed by the arguments of
+     *             {@link TransferReplay#runTransfers(String...)}
+     */
+    void run(final String... args) {
+        //Serve elections from this JVM instead of running one if requested
+        if(args.length > 0 && args[0].equals("--serve")) {
+            final int exitCode = ElectionService.run(Arrays.copyOfRange(args, 1, args.length));
+            if(exitCode != 0) {
+                System.exit(exitCode);
+            }
+            return;
+        }
+        
+        //Look up a ballot in an indexed audit instead of running an election if requested
+        if(args.length > 0 && args[0].equals("--lookup")) {
+            final int exitCode = IndexedAuditOutput.runLookup(Arrays.copyOfRange(args, 1, args.length));
+            if(exitCode != 0) {
+                System.exit(exitCode);
+            }
+            return;
+        }
+        
+        //Give the transfers of a range of ballots from a transfers file instead of running an election if requested
+        if(args.length > 0 && args[0].equals("--transfers")) {
+            final int exitCode = TransferReplay.runTransfers(Arrays.copyOfRange(args, 1, args.length));
+            if(exitCode != 0) {
+                System.exit(exitCode);
+            }
+            return;
+        }
+        
+        //Get the current date/time, which names the files of this run once the first of them claims a unique name
         final LocalDateTime currentTimestamp = LocalDateTime.now();
+        runStamp = null;
+        
+        //Read the leading flags, which may be given in any order
+        boolean metricsRequested = false;
+        boolean progressRequested = false;
+        boolean binaryAuditRequested = false;
+        boolean summarizeTransfersRequested = false;
+        boolean auditIndexRequested = false;
+        boolean compressRequested = false;
+        boolean noAuditRequested = false;
+        int numFlags = 0;
+        for(; numFlags < args.length; numFlags++) {
+            if(args[numFlags].equals("--metrics")) {
+                metricsRequested = true;
+            }
+            else if(args[numFlags].equals("--progress")) {
+                progressRequested = true;
+            }
+            else if(args[numFlags].equals("--binary-audit")) {
+                binaryAuditRequested = true;
+            }
+            else if(args[numFlags].equals("--summarize-transfers")) {
+                summarizeTransfersRequested = true;
+            }
+            else if(args[numFlags].equals("--audit-index")) {
+                auditIndexRequested = true;
+            }
+            else if(args[numFlags].equals("--compress")) {
+                compressRequested = true;
+            }
+            else if(args[numFlags].equals("--no-audit")) {
+                noAuditRequested = true;
+            }
+            else {
+                break;
+            }
+        }
+        
+        //The index locates text in the audit, which a binary audit does not contain
+        if(binaryAuditRequested && auditIndexRequested) {
+            System.err.println("The --audit-index flag cannot be used with --binary-audit");
+            System.exit(64);
+        }
+        
+        //The index locates bytes in the text audit by seeking, which a compressed audit does not allow
+        if(compressRequested && auditIndexRequested) {
+            System.err.println("The --audit-index flag cannot be used with --compress");
+            System.exit(64);
+        }
+        
+        //There is no audit to record as binary events or to index without an audit
+        if(noAuditRequested && (binaryAuditRequested || auditIndexRequested)) {
+            System.err.println("The --no-audit flag cannot be used with --binary-audit or --audit-index");
+            System.exit(64);
+        }
+        
+        //If metrics are requested, then record them, and otherwise use the metrics that record nothing
+        final ElectionMetrics metrics = metricsRequested ? new ElectionMetrics() : ElectionMetrics.DISABLED;
+        
+        //If progress is requested, then expose it over JMX, and otherwise use the progress that tracks nothing
+        final ElectionProgress progress = progressRequested ? new ElectionProgress() : ElectionProgress.DISABLED;
+        if(progressRequested) {
+            try {
+                progress.register();
+            }
+            //The election can still run without its progress being visible
+            catch(JMException e) {
+                System.err.println("The election progress could not be registered over JMX: " + e.getMessage());
+            }
+        }
+        
+        //The paths to the election files, which follow the flags if given
+        final String[] inputPaths = Arrays.copyOfRange(args, numFlags, args.length);
+        final long totalStartNanos = metrics.startTimer();
         
         //The input stream from which to read input
         final InputStream[] inputs;
@@ -250,37 +651,52 @@ public final class VotingSystemRunner {
         final String[] inputNames;
         
         //If there are no arguments provided, then assume standard input is being used
-        if(args.length == 0) {
+        if(inputPaths.length == 0) {
             System.out.println("Reading from standard input");
             inputs = new InputStream[] {System.in};
             inputNames = new String[] {"Standard Input"};
         }
         //If there is one argument provided, then assume it is a file, and try to retrieve its input stream
         else {
-            inputs = getInputStreams(args);
-            inputNames = args;
+            inputs = getInputStreams(inputPaths);
+            inputNames = inputPaths;
         }
         
-        //Retrieves the output streams for the audit and report files, using the potential source variables if set
-        final OutputStream auditOutput = getAuditOutput(currentTimestamp);
-        final OutputStream reportOutput = getReportOutput(currentTimestamp);
+        //Count the bytes read from each input if metrics are enabled
+        for(int i = 0; i < inputs.length; i++) {
+            inputs[i] = metrics.countInput(inputs[i]);
+        }
         
-        //Mapping of nonnull header strings to corresponding nonnull VotingSystem classes
-        final Map<String, Class<? extends VotingSystem>> headerSystemMap = Map.of(
-            "IR", InstantRunoffSystem.class,
-            "OPL", OpenPartyListSystem.class
-        );
+        //Retrieves the output streams for the report and audit files, using the potential source variables if set, where the report comes first
+        //because every run writes one, so it claims the name of the run for the other files
+        final OutputStream reportOutput = getReportOutput(currentTimestamp, compressRequested);
+        final OutputStream auditOutput = noAuditRequested
+            ? VotingSystem.NO_AUDIT
+            : getAuditOutput(currentTimestamp, metrics, binaryAuditRequested, auditIndexRequested, compressRequested);
+        
+        //Summarize the transfers of an IR election if requested before applying the hook set by tests, if any
+        final boolean summarizeTransfers = summarizeTransfersRequested;
+        final Consumer<VotingSystem> beforeParsing = votingSystem -> {
+            if(summarizeTransfers && votingSystem instanceof InstantRunoffSystem) {
+                ((InstantRunoffSystem) votingSystem).setSummarizeTransfers(true);
+            }
+            if(votingSystemModifierBeforeParsing != null) {
+                votingSystemModifierBeforeParsing.accept(votingSystem);
+            }
+        };
+        
+        //The voting system whose election was run
+        VotingSystem votingSystem = null;
         
         //Attempt to retrieve a voting system from parsing and run its election
         try {
-            final VotingSystem votingSystem = VotingStreamParser.parse(inputs, inputNames, auditOutput, reportOutput, headerSystemMap);
-            
-            //For testing purposes, modify the voting system before running the election
-            if(votingSystemModifierBeforeElection != null) {
-                votingSystemModifierBeforeElection.accept(votingSystem);
-            }
-            
-            votingSystem.runElection();
+            //The hooks other than summarizing transfers are only set by tests in this package
+            votingSystem = new ElectionRun(inputs, inputNames, auditOutput, reportOutput)
+                .setMetrics(metrics)
+                .setProgress(progress)
+                .setBeforeParsing(beforeParsing)
+                .setBeforeElection(votingSystemModifierBeforeElection)
+                .run();
         }
         //If there is an issue in parsing the election file
         catch(ParseException e) {
@@ -291,6 +707,27 @@ public final class VotingSystemRunner {
         
         closeOutput(auditOutput, "audit");
         closeOutput(reportOutput, "report");
+        
+        //Write what is needed to give the per-ballot transfers of an IR election whose audit summarizes them
+        if(summarizeTransfers && votingSystem instanceof InstantRunoffSystem) {
+            try {
+                TransferReplay.write((InstantRunoffSystem) votingSystem, getTransfersOutput(currentTimestamp));
+            }
+            catch(IOException e) {
+                System.err.println("Error: Was unable to write transfers file successfully");
+                System.exit(2);
+            }
+        }
+        
+        progress.setPhase("Finished");
+        
+        //Write the metrics if they were requested
+        if(metrics.isEnabled()) {
+            metrics.endPhase("total", totalStartNanos);
+            final OutputStream metricsOutput = getMetricsOutput(currentTimestamp);
+            metrics.write(metricsOutput, votingSystem.getShortName());
+            closeOutput(metricsOutput, "metrics");
+        }
     }
     
 }
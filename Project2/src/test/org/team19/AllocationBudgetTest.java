@@ -0,0 +1,135 @@
+/*
+ * File name:
+ * AllocationBudgetTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests that parsing and running elections stays within the committed budgets for bytes allocated per ballot
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.text.ParseException;
+import java.util.Map;
+
+final class AllocationBudgetTest {
+    
+    private static final OutputStream NULL_OUTPUT = OutputStream.nullOutputStream();
+    
+    private static final Map<String, Class<? extends VotingSystem>> HEADER_SYSTEM_MAP = Map.of(
+        "IR", InstantRunoffSystem.class,
+        "OPL", OpenPartyListSystem.class
+    );
+    
+    /*
+     * The committed budgets for the bytes allocated per ballot while parsing and running each election, which leave about half again the measured
+     * allocation as headroom so that noise does not fail them but a doubling does; lower them when an optimization lands, and only raise them
+     * deliberately
+     */
+    private static final long IR_DENSE_BUDGET = 16000;
+    
+    private static final long IR_SPARSE_BUDGET = 11000;
+    
+    private static final long OPL_BUDGET = 1000;
+    
+    private AllocationBudgetTest() {}
+    
+    private static byte[][] generate(final ElectionGenerator generator, final int numSources) throws IOException {
+        final ByteArrayOutputStream[] outputs = new ByteArrayOutputStream[numSources];
+        for(int i = 0; i < numSources; i++) {
+            outputs[i] = new ByteArrayOutputStream();
+        }
+        generator.generate(outputs);
+        
+        final byte[][] sources = new byte[numSources][];
+        for(int i = 0; i < numSources; i++) {
+            sources[i] = outputs[i].toByteArray();
+        }
+        return sources;
+    }
+    
+    private static void runElection(final byte[][] sources) throws ParseException {
+        final InputStream[] inputs = new InputStream[sources.length];
+        final String[] inputNames = new String[sources.length];
+        for(int i = 0; i < sources.length; i++) {
+            inputs[i] = new ByteArrayInputStream(sources[i]);
+            inputNames[i] = "source" + i;
+        }
+        
+        //The voting systems close their outputs after the election, so each run needs its own
+        VotingStreamParser.parse(
+            inputs, inputNames, OutputStream.nullOutputStream(), OutputStream.nullOutputStream(), HEADER_SYSTEM_MAP
+        ).runElection();
+    }
+    
+    private static long measureBytesPerBallot(final ElectionGenerator generator, final int numSources, final int numBallots) throws IOException,
+        ParseException {
+        //The allocation counter is only available on HotSpot-based JVMs that support it
+        final java.lang.management.ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threadMxBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean allocationMxBean = (com.sun.management.ThreadMXBean) threadMxBean;
+        Assumptions.assumeTrue(allocationMxBean.isThreadAllocatedMemorySupported());
+        allocationMxBean.setThreadAllocatedMemoryEnabled(true);
+        
+        //Generate the election before measuring so that only parsing and running the election are counted
+        final byte[][] sources = generate(generator, numSources);
+        
+        //Redirect STDOUT to a null device print stream while running the elections
+        final PrintStream originalSystemOut = System.out;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            
+            //Run the election once beforehand so that class loading and other one-time allocations are not counted
+            runElection(sources);
+            
+            final long threadId = Thread.currentThread().getId();
+            final long allocatedBefore = allocationMxBean.getThreadAllocatedBytes(threadId);
+            runElection(sources);
+            final long allocatedAfter = allocationMxBean.getThreadAllocatedBytes(threadId);
+            return (allocatedAfter - allocatedBefore) / numBallots;
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    private static void assertWithinBudget(final long bytesPerBallot, final long budget) {
+        Assertions.assertTrue(
+            bytesPerBallot <= budget,
+            String.format("%d bytes were allocated per ballot, which is over the budget of %d bytes", bytesPerBallot, budget)
+        );
+    }
+    
+    @Test
+    void testIrDenseAllocation() throws IOException, ParseException {
+        assertWithinBudget(measureBytesPerBallot(ElectionGenerator.forInstantRunoff(10, 4, 100000).setSeed(1), 2, 100000), IR_DENSE_BUDGET);
+    }
+    
+    @Test
+    void testIrSparseAllocation() throws IOException, ParseException {
+        assertWithinBudget(
+            measureBytesPerBallot(ElectionGenerator.forInstantRunoff(10, 4, 100000).setSparse(true).setTruncation(0.1).setSeed(2), 2, 100000),
+            IR_SPARSE_BUDGET
+        );
+    }
+    
+    @Test
+    void testOplAllocation() throws IOException, ParseException {
+        assertWithinBudget(measureBytesPerBallot(ElectionGenerator.forOpenPartyList(10, 4, 5, 200000).setSeed(3), 2, 200000), OPL_BUDGET);
+    }
+    
+}
@@ -0,0 +1,227 @@
+/*
+ * File name:
+ * AuditRendererTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the AuditEventLog and AuditRenderer classes
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+final class AuditRendererTest {
+    
+    private static final OutputStream NULL_OUTPUT = OutputStream.nullOutputStream();
+    
+    private static final String RESOURCES = "Project2/testing/test-resources/votingSystemRunnerTest/".replace('/', File.separatorChar);
+    
+    private AuditRendererTest() {}
+    
+    private static byte[][] readResources(final String... names) throws IOException {
+        final byte[][] sources = new byte[names.length][];
+        for(int i = 0; i < names.length; i++) {
+            sources[i] = Files.readAllBytes(Path.of(RESOURCES + names[i]));
+        }
+        return sources;
+    }
+    
+    private static byte[][] generate(final ElectionGenerator generator) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        generator.generate(output);
+        return new byte[][] {output.toByteArray()};
+    }
+    
+    private static void runSeeded(final byte[][] sources, final OutputStream auditOutput) throws ParseException {
+        final InputStream[] inputs = new InputStream[sources.length];
+        final String[] inputNames = new String[sources.length];
+        for(int i = 0; i < sources.length; i++) {
+            inputs[i] = new ByteArrayInputStream(sources[i]);
+            inputNames[i] = "source" + i;
+        }
+        
+        //Seed the tie breaks so that both runs of an election write the same audit
+        new ElectionRun(inputs, inputNames, auditOutput, NULL_OUTPUT)
+            .setBeforeParsing(votingSystem -> {
+                if(votingSystem instanceof InstantRunoffSystem) {
+                    ((InstantRunoffSystem) votingSystem).rand = new Random(5);
+                }
+                else {
+                    ((OpenPartyListSystem) votingSystem).rand = new Random(5);
+                }
+            })
+            .run();
+    }
+    
+    private static byte[] render(final byte[] log) throws IOException, ParseException {
+        final ByteArrayOutputStream textAudit = new ByteArrayOutputStream();
+        AuditRenderer.render(new ByteArrayInputStream(log), textAudit);
+        return textAudit.toByteArray();
+    }
+    
+    /**
+     * Runs the election from the given sources with a text audit and with an audit event log, asserts that rendering the log gives the text audit
+     * exactly, and returns the sizes of the text audit and the log
+     */
+    private static int[] assertRendersTextAudit(final byte[][] sources) throws IOException, ParseException {
+        final ByteArrayOutputStream textAudit = new ByteArrayOutputStream();
+        final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        runSeeded(sources, textAudit);
+        runSeeded(sources, new AuditEventLog(log));
+        
+        Assertions.assertEquals(textAudit.toString(), new String(render(log.toByteArray())));
+        return new int[] {textAudit.size(), log.size()};
+    }
+    
+    @Test
+    void testRenderMatchesTextAudit() throws IOException, ParseException {
+        final PrintStream originalSystemOut = System.out;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            
+            //Testing invalidated ballots, eliminations with transfers, and multiple input sources
+            assertRendersTextAudit(readResources("ir_test_ballot_invalidation.csv"));
+            assertRendersTextAudit(readResources("ir_test_popularity.csv"));
+            assertRendersTextAudit(readResources("ir_test_zero_ballots.csv"));
+            assertRendersTextAudit(readResources("ir_multi_part_1.csv", "ir_multi_part_2.csv", "ir_multi_part_3.csv"));
+            assertRendersTextAudit(readResources("opl_test_typical.csv"));
+            assertRendersTextAudit(readResources("opl_multi_part_1.csv", "opl_multi_part_2.csv", "opl_multi_part_3.csv"));
+            
+            //Testing large elections, where the log is much smaller than the text audit
+            final int[] irSizes = assertRendersTextAudit(generate(ElectionGenerator.forInstantRunoff(9, 3, 5000).setSeed(2)));
+            final int[] sparseSizes = assertRendersTextAudit(generate(ElectionGenerator.forInstantRunoff(9, 3, 5000).setSeed(3).setSparse(true)));
+            final int[] oplSizes = assertRendersTextAudit(generate(ElectionGenerator.forOpenPartyList(9, 3, 4, 5000).setSeed(4)));
+            Assertions.assertAll(
+                () -> Assertions.assertTrue(irSizes[1] * 4 < irSizes[0], Arrays.toString(irSizes)),
+                () -> Assertions.assertTrue(sparseSizes[1] * 4 < sparseSizes[0], Arrays.toString(sparseSizes)),
+                () -> Assertions.assertTrue(oplSizes[1] * 4 < oplSizes[0], Arrays.toString(oplSizes))
+            );
+        }
+        finally {
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    @Test
+    void testRenderMatchesCountsTextAudit() throws IOException, ParseException {
+        final PrintStream originalSystemOut = System.out;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            
+            //Testing ballot count lines with no ballots, one ballot, many ballots, and invalidated ballots
+            assertRendersTextAudit(readResources("ir_counts_audit.csv"));
+            assertRendersTextAudit(readResources("opl_counts_audit.csv"));
+            
+            //Testing that the ballot count lines are recorded as events rather than as text
+            final ByteArrayOutputStream irLog = new ByteArrayOutputStream();
+            runSeeded(readResources("ir_counts_audit.csv"), new AuditEventLog(irLog));
+            final ByteArrayOutputStream oplLog = new ByteArrayOutputStream();
+            runSeeded(readResources("opl_counts_audit.csv"), new AuditEventLog(oplLog));
+            Assertions.assertAll(
+                () -> Assertions.assertFalse(irLog.toString().contains("following rankings")),
+                () -> Assertions.assertFalse(irLog.toString().contains("invalidated")),
+                () -> Assertions.assertFalse(irLog.toString().contains("Therefore")),
+                () -> Assertions.assertFalse(oplLog.toString().contains("chose"))
+            );
+        }
+        finally {
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    @Test
+    void testDirectBytes() throws IOException, ParseException {
+        final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        final AuditEventLog auditEventLog = new AuditEventLog(log);
+        auditEventLog.getTextWriter().print("Ballot 1 chose ");
+        auditEventLog.write(new byte[] {'A', '\n'});
+        auditEventLog.ballotChose(2, new Candidate("B", "C"));
+        auditEventLog.close();
+        
+        Assertions.assertAll(
+            //Testing that bytes written directly to the log stay in order with the text and events
+            () -> Assertions.assertEquals("Ballot 1 chose A\nBallot 2 chose B (C)\n", new String(render(log.toByteArray()))),
+            () -> Assertions.assertFalse(auditEventLog.checkError()),
+            () -> Assertions.assertThrows(IOException.class, () -> auditEventLog.write(1))
+        );
+    }
+    
+    @Test
+    void testMalformedLogs() throws IOException {
+        final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        final AuditEventLog auditEventLog = new AuditEventLog(log);
+        auditEventLog.ballotsTransferred(300, 2, new Candidate("B", "C"));
+        auditEventLog.close();
+        final byte[] valid = log.toByteArray();
+        
+        //The log without the candidate definition refers to a candidate that is not defined
+        final byte[] undefinedCandidate = new byte[] {'T', '1', '9', 'A', AuditEventLog.VERSION, AuditEventLog.BALLOT_CHOSE, 1, 0};
+        
+        Assertions.assertAll(
+            () -> Assertions.assertThrows(ParseException.class, () -> render("Election type: IR".getBytes())),
+            () -> Assertions.assertThrows(ParseException.class, () -> render(new byte[] {'T', '1', '9', 'A', 2})),
+            () -> Assertions.assertThrows(ParseException.class, () -> render(Arrays.copyOf(valid, valid.length - 1))),
+            () -> Assertions.assertThrows(ParseException.class, () -> render(undefinedCandidate)),
+            () -> Assertions.assertThrows(ParseException.class, () -> render(new byte[] {'T', '1', '9', 'A', AuditEventLog.VERSION, 99})),
+            () -> Assertions.assertEquals(
+                "Ballots 300 through 301 have their next choice as candidate B (C). The ballots will be distributed to B (C).\n\n",
+                new String(render(valid))
+            )
+        );
+    }
+    
+    @Test
+    void testRun() throws IOException {
+        final Path tempDirectory = Files.createTempDirectory("audit-renderer");
+        final PrintStream originalSystemErr = System.err;
+        try {
+            System.setErr(new PrintStream(NULL_OUTPUT));
+            
+            final Path logPath = tempDirectory.resolve("audit.bin");
+            final Path textPath = tempDirectory.resolve("audit.txt");
+            try(final AuditEventLog auditEventLog = new AuditEventLog(Files.newOutputStream(logPath))) {
+                auditEventLog.ballotChose(1, new Candidate("B", "C"));
+            }
+            final Path malformedPath = tempDirectory.resolve("malformed.bin");
+            Files.write(malformedPath, new byte[] {'T', '1', '9', 'A'});
+            
+            final int exitCode = AuditRenderer.run(logPath.toString(), textPath.toString());
+            
+            Assertions.assertAll(
+                () -> Assertions.assertEquals(0, exitCode),
+                () -> Assertions.assertEquals("Ballot 1 chose B (C)\n", Files.readString(textPath)),
+                () -> Assertions.assertEquals(64, AuditRenderer.run()),
+                () -> Assertions.assertEquals(2, AuditRenderer.run(tempDirectory.resolve("missing.bin").toString())),
+                () -> Assertions.assertEquals(65, AuditRenderer.run(malformedPath.toString()))
+            );
+        }
+        finally {
+            System.setErr(originalSystemErr);
+            try(final Stream<Path> paths = Files.list(tempDirectory)) {
+                for(final Path path : (Iterable<Path>) paths::iterator) {
+                    Files.delete(path);
+                }
+            }
+            Files.delete(tempDirectory);
+        }
+    }
+    
+}
@@ -0,0 +1,202 @@
+/*
+ * File name:
+ * BallotSubscriberTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the BallotSubscriber class
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+final class BallotSubscriberTest {
+    
+    private static final OutputStream NULL_OUTPUT = OutputStream.nullOutputStream();
+    
+    private BallotSubscriberTest() {}
+    
+    /**
+     * A {@link Flow.Subscription} that records the demand and cancellation of its subscriber
+     */
+    private static final class RecordingSubscription implements Flow.Subscription {
+        
+        private long numRequested = 0;
+        
+        private boolean cancelled = false;
+        
+        @Override
+        public void request(final long n) {
+            numRequested += n;
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+        
+    }
+    
+    private static byte[][] generate(final ElectionGenerator generator, final int numSources) throws IOException {
+        final ByteArrayOutputStream[] outputs = new ByteArrayOutputStream[numSources];
+        for(int i = 0; i < numSources; i++) {
+            outputs[i] = new ByteArrayOutputStream();
+        }
+        generator.generate(outputs);
+        
+        final byte[][] sources = new byte[numSources][];
+        for(int i = 0; i < numSources; i++) {
+            sources[i] = outputs[i].toByteArray();
+        }
+        return sources;
+    }
+    
+    private static String runSeeded(final InputStream[] inputs) throws ParseException {
+        final ByteArrayOutputStream auditOutput = new ByteArrayOutputStream();
+        final String[] inputNames = new String[inputs.length];
+        for(int i = 0; i < inputs.length; i++) {
+            inputNames[i] = "scanner" + i;
+        }
+        
+        //Seed the tie breaks so that the audit only depends on the election
+        new ElectionRun(inputs, inputNames, auditOutput, NULL_OUTPUT)
+            .setBeforeParsing(votingSystem -> ((OpenPartyListSystem) votingSystem).rand = new Random(1))
+            .run();
+        return auditOutput.toString();
+    }
+    
+    private static String readLine(final InputStream input) throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int next;
+        while((next = input.read()) != '\n' && next != -1) {
+            line.write(next);
+        }
+        return line.toString(Charset.defaultCharset());
+    }
+    
+    @Test
+    void testElectionFromPublishers() throws IOException, ParseException, InterruptedException {
+        final byte[][] sources = generate(ElectionGenerator.forOpenPartyList(8, 3, 4, 20000).setSeed(6), 3);
+        
+        final PrintStream originalSystemOut = System.out;
+        final List<Thread> scanners = new ArrayList<>();
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            final String expectedAudit = runSeeded(new InputStream[] {
+                new ByteArrayInputStream(sources[0]), new ByteArrayInputStream(sources[1]), new ByteArrayInputStream(sources[2])
+            });
+            
+            //Each input source is published line by line by its own scanner, whose publisher holds only a few lines itself
+            final InputStream[] inputs = new InputStream[sources.length];
+            for(int i = 0; i < sources.length; i++) {
+                final BallotSubscriber subscriber = new BallotSubscriber(64);
+                final SubmissionPublisher<String> publisher = new SubmissionPublisher<>(Runnable::run, 16);
+                publisher.subscribe(subscriber);
+                inputs[i] = subscriber.getInput();
+                
+                final String[] lines = new String(sources[i], Charset.defaultCharset()).split("\n");
+                final Thread scanner = new Thread(() -> {
+                    for(final String line : lines) {
+                        publisher.submit(line);
+                    }
+                    publisher.close();
+                });
+                scanner.start();
+                scanners.add(scanner);
+            }
+            
+            //Testing that the election parsed from the publishers is the same as the one parsed from the staged input
+            Assertions.assertEquals(expectedAudit, runSeeded(inputs));
+        }
+        finally {
+            for(final Thread scanner : scanners) {
+                scanner.join(10000);
+            }
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    @Test
+    void testBatchedDemand() throws IOException {
+        final BallotSubscriber subscriber = new BallotSubscriber(4);
+        final RecordingSubscription subscription = new RecordingSubscription();
+        final InputStream input = subscriber.getInput();
+        subscriber.onSubscribe(subscription);
+        final long requestedUpfront = subscription.numRequested;
+        
+        for(int i = 0; i < 8; i++) {
+            subscriber.onNext("line " + i);
+        }
+        
+        //Reading fewer lines than a batch requests nothing more, while reading a whole batch requests another
+        final List<String> lines = new ArrayList<>();
+        for(int i = 0; i < 3; i++) {
+            lines.add(readLine(input));
+        }
+        final long requestedBeforeBatchRead = subscription.numRequested;
+        lines.add(readLine(input));
+        final long requestedAfterBatchRead = subscription.numRequested;
+        
+        subscriber.onNext("line 8");
+        subscriber.onComplete();
+        for(int i = 0; i < 5; i++) {
+            lines.add(readLine(input));
+        }
+        final int afterEnd = input.read();
+        input.close();
+        
+        Assertions.assertAll(
+            () -> Assertions.assertEquals(8, requestedUpfront),
+            () -> Assertions.assertEquals(8, requestedBeforeBatchRead),
+            () -> Assertions.assertEquals(12, requestedAfterBatchRead),
+            () -> Assertions.assertEquals(
+                List.of("line 0", "line 1", "line 2", "line 3", "line 4", "line 5", "line 6", "line 7", "line 8"), lines
+            ),
+            () -> Assertions.assertEquals(-1, afterEnd),
+            //Testing that closing the input cancels the subscription
+            () -> Assertions.assertTrue(subscription.cancelled)
+        );
+    }
+    
+    @Test
+    void testPublisherFailure() throws IOException {
+        final BallotSubscriber subscriber = new BallotSubscriber(4);
+        final RecordingSubscription subscription = new RecordingSubscription();
+        final RecordingSubscription secondSubscription = new RecordingSubscription();
+        subscriber.onSubscribe(subscription);
+        subscriber.onSubscribe(secondSubscription);
+        
+        subscriber.onNext("IR");
+        subscriber.onError(new IllegalStateException("Scanner jammed"));
+        final String firstLine = readLine(subscriber.getInput());
+        
+        final IOException failure = Assertions.assertThrows(IOException.class, () -> subscriber.getInput().read());
+        Assertions.assertAll(
+            () -> Assertions.assertEquals("IR", firstLine),
+            () -> Assertions.assertEquals("Scanner jammed", failure.getCause().getMessage()),
+            //Testing that a subscriber only ever reads from one publisher
+            () -> Assertions.assertTrue(secondSubscription.cancelled),
+            () -> Assertions.assertEquals(0, secondSubscription.numRequested),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> new BallotSubscriber(0))
+        );
+    }
+    
+}
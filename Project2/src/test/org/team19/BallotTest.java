@@ -36,6 +36,26 @@ final class BallotTest {
         Assertions.assertArrayEquals(new Candidate[] {new Candidate("C0", "P0"), new Candidate("C1", "P1")}, ballot.getRankedCandidates());
     }
     
+    @Test
+    void testGetCount() {
+        Assertions.assertAll(
+            //Test that getCount returns 1 for a ballot created without a count
+            () -> Assertions.assertEquals(1, new Ballot(23, new Candidate[0]).getCount()),
+            //Test that getCount returns the count passed into the constructor
+            () -> Assertions.assertEquals(500, new Ballot(23, 500, new Candidate[0]).getCount())
+        );
+    }
+    
+    @Test
+    void testGetBallotNumbersString() {
+        Assertions.assertAll(
+            //Test that a ballot representing a single ballot only has its ballot number
+            () -> Assertions.assertEquals("Ballot 23", new Ballot(23, new Candidate[0]).getBallotNumbersString()),
+            //Test that a ballot representing multiple ballots has the range of its ballot numbers
+            () -> Assertions.assertEquals("Ballots 23 through 522", new Ballot(23, 500, new Candidate[0]).getBallotNumbersString())
+        );
+    }
+    
     @Test
     void testGetNextCandidate() {
         final Ballot ballot = new Ballot(
@@ -0,0 +1,218 @@
+/*
+ * File name:
+ * ElectionBatchRunnerTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the ElectionBatchRunner class
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+final class ElectionBatchRunnerTest {
+    
+    private static final OutputStream NULL_OUTPUT = OutputStream.nullOutputStream();
+    
+    private ElectionBatchRunnerTest() {}
+    
+    private static void generate(final ElectionGenerator generator, final Path path) throws IOException {
+        try(final OutputStream output = new FileOutputStream(path.toFile())) {
+            generator.generate(output);
+        }
+    }
+    
+    private static void deleteRecursively(final Path directory) throws IOException {
+        try(final Stream<Path> paths = Files.walk(directory)) {
+            for(final Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+    
+    private static String[] listFileNames(final Path directory) {
+        final String[] names = directory.toFile().list();
+        Assertions.assertNotNull(names);
+        Arrays.sort(names);
+        return names;
+    }
+    
+    private static int runQuietly(final String... args) {
+        //Redirect STDOUT to a null device print stream while running the batch
+        final PrintStream originalSystemOut = System.out;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            return ElectionBatchRunner.run(args);
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    @Test
+    void testDirectory() throws IOException {
+        final Path tempDirectory = Files.createTempDirectory("election-batch");
+        try {
+            final Path inputDirectory = Files.createDirectory(tempDirectory.resolve("elections"));
+            generate(ElectionGenerator.forInstantRunoff(5, 2, 2000).setSeed(1), inputDirectory.resolve("county_a.csv"));
+            generate(ElectionGenerator.forInstantRunoff(4, 4, 500).setSeed(2), inputDirectory.resolve("county_b.csv"));
+            generate(ElectionGenerator.forOpenPartyList(6, 3, 3, 3000).setSeed(3), inputDirectory.resolve("state_house.csv"));
+            Files.writeString(inputDirectory.resolve("broken.csv"), "STV\n3\n");
+            
+            final int exitCode = runQuietly("-t", "2", "-o", tempDirectory.toString(), inputDirectory.toString());
+            final String[] audits = listFileNames(tempDirectory.resolve("audits"));
+            final String[] reports = listFileNames(tempDirectory.resolve("reports"));
+            final String summary = Files.readString(tempDirectory.resolve("reports").resolve(reports[0]), StandardCharsets.UTF_8);
+            
+            Assertions.assertAll(
+                //Testing that a failed election is reported without stopping the rest of the batch
+                () -> Assertions.assertEquals(65, exitCode),
+                () -> Assertions.assertEquals(4, audits.length),
+                () -> Assertions.assertTrue(audits[0].startsWith("audit_broken_")),
+                () -> Assertions.assertTrue(audits[3].startsWith("audit_state_house_")),
+                //Testing that the summary is written next to a report for each election
+                () -> Assertions.assertEquals(5, reports.length),
+                () -> Assertions.assertTrue(reports[0].startsWith("batch_summary_")),
+                () -> Assertions.assertTrue(summary.contains("| county_a    | IR     |    2000 |")),
+                () -> Assertions.assertTrue(summary.contains("| state_house | OPL    |    3000 |")),
+                () -> Assertions.assertTrue(summary.contains("| broken      | -      |       0 | FAILED: ")),
+                () -> Assertions.assertTrue(summary.endsWith("3 of 4 elections succeeded and 1 failed\n")),
+                //Testing that the OPL election lists a winner for each of its seats
+                () -> Assertions.assertEquals(3, ElectionBatchRunner.runContest(
+                    new ElectionBatchRunner.Contest(List.of(inputDirectory.resolve("state_house.csv").toFile())), tempDirectory.toString(),
+                    LocalDateTime.now()
+                ).winners.size())
+            );
+        }
+        finally {
+            deleteRecursively(tempDirectory);
+        }
+    }
+    
+    @Test
+    void testManifest() throws IOException {
+        final Path tempDirectory = Files.createTempDirectory("election-batch");
+        try {
+            //Split one election across two input sources and list it twice, so both runs want the same file names in the same second
+            final Path firstHalf = tempDirectory.resolve("district.csv");
+            final Path secondHalf = tempDirectory.resolve("district_late.csv");
+            final ElectionGenerator generator = ElectionGenerator.forInstantRunoff(3, 3, 1000).setSeed(4);
+            try(final OutputStream first = new FileOutputStream(firstHalf.toFile());
+                final OutputStream second = new FileOutputStream(secondHalf.toFile())) {
+                generator.generate(first, second);
+            }
+            final Path manifest = tempDirectory.resolve("manifest.txt");
+            Files.writeString(manifest, "# Nightly contests\n\ndistrict.csv, district_late.csv\n" + firstHalf.toAbsolutePath() + ","
+                + secondHalf.toAbsolutePath() + "\n");
+            
+            final int exitCode = runQuietly("-o", tempDirectory.toString(), manifest.toString());
+            final String[] audits = listFileNames(tempDirectory.resolve("audits"));
+            
+            Assertions.assertAll(
+                () -> Assertions.assertEquals(0, exitCode),
+                () -> Assertions.assertEquals(2, audits.length),
+                () -> Assertions.assertTrue(audits[0].matches("audit_district_[0-9_-]+_2\\.txt") != audits[1].matches(
+                    "audit_district_[0-9_-]+_2\\.txt"
+                ))
+            );
+        }
+        finally {
+            deleteRecursively(tempDirectory);
+        }
+    }
+    
+    @Test
+    void testUniqueTimestampedFiles() throws IOException {
+        final Path tempDirectory = Files.createTempDirectory("election-batch");
+        final LocalDateTime timestamp = LocalDateTime.of(2021, 11, 2, 8, 30, 5);
+        try {
+            //Testing that files created for the same timestamp are numbered instead of overwriting each other
+            for(int i = 0; i < 3; i++) {
+                VotingSystemRunner.createTimestampedFileOutputStream(tempDirectory.toString(), "audit", "txt", timestamp).close();
+            }
+            Assertions.assertArrayEquals(
+                new String[] {"audit_2021-11-02_08-30-05.txt", "audit_2021-11-02_08-30-05_2.txt", "audit_2021-11-02_08-30-05_3.txt"},
+                listFileNames(tempDirectory)
+            );
+        }
+        finally {
+            deleteRecursively(tempDirectory);
+        }
+    }
+    
+    @Test
+    void testRunFilesShareSuffix() throws IOException {
+        final Path tempDirectory = Files.createTempDirectory("election-batch");
+        final LocalDateTime timestamp = LocalDateTime.of(2021, 11, 2, 8, 30, 5);
+        try {
+            final Path inputDirectory = Files.createDirectory(tempDirectory.resolve("elections"));
+            generate(ElectionGenerator.forInstantRunoff(3, 2, 100).setSeed(1), inputDirectory.resolve("county.csv"));
+            final ElectionBatchRunner.Contest contest = new ElectionBatchRunner.Contest(List.of(inputDirectory.resolve("county.csv").toFile()));
+            
+            //A report left by an earlier run with the same timestamp, which would not have an audit with the same suffix
+            Files.createDirectory(tempDirectory.resolve("reports"));
+            Files.createFile(tempDirectory.resolve("reports").resolve("report_county_2021-11-02_08-30-05.txt"));
+            for(int i = 0; i < 2; i++) {
+                ElectionBatchRunner.runContest(contest, tempDirectory.toString(), timestamp);
+            }
+            
+            //Testing that the audit of each election has the suffix its report claimed
+            Assertions.assertAll(
+                () -> Assertions.assertArrayEquals(
+                    new String[] {"audit_county_2021-11-02_08-30-05_2.txt", "audit_county_2021-11-02_08-30-05_3.txt"},
+                    listFileNames(tempDirectory.resolve("audits"))
+                ),
+                () -> Assertions.assertArrayEquals(
+                    new String[] {
+                        "report_county_2021-11-02_08-30-05.txt", "report_county_2021-11-02_08-30-05_2.txt", "report_county_2021-11-02_08-30-05_3.txt"
+                    },
+                    listFileNames(tempDirectory.resolve("reports"))
+                ),
+                () -> Assertions.assertEquals(
+                    "2021-11-02_08-30-05_2", VotingSystemRunner.getRunStamp(new File("report_2021-11-02_08-30-05_2.txt.gz"), "report", "txt.gz")
+                )
+            );
+        }
+        finally {
+            deleteRecursively(tempDirectory);
+        }
+    }
+    
+    @Test
+    void testInvalidArguments() {
+        final PrintStream originalSystemErr = System.err;
+        try {
+            System.setErr(new PrintStream(NULL_OUTPUT));
+            Assertions.assertAll(
+                () -> Assertions.assertEquals(64, ElectionBatchRunner.run()),
+                () -> Assertions.assertEquals(64, ElectionBatchRunner.run("-t", "0", "elections")),
+                () -> Assertions.assertEquals(64, ElectionBatchRunner.run("-t")),
+                () -> Assertions.assertEquals(64, ElectionBatchRunner.run("first", "second")),
+                () -> Assertions.assertEquals(2, ElectionBatchRunner.run(new File("Project2/testing/nonexistent_manifest.txt").getPath()))
+            );
+        }
+        finally {
+            System.setErr(originalSystemErr);
+        }
+    }
+    
+}
@@ -0,0 +1,147 @@
+/*
+ * File name:
+ * ElectionEventsTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the flight recorder events in the ElectionEvents class
+ */
+
+package org.team19;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+final class ElectionEventsTest {
+    
+    private static final OutputStream NULL_OUTPUT = OutputStream.nullOutputStream();
+    
+    private static final Map<String, Class<? extends VotingSystem>> HEADER_SYSTEM_MAP = Map.of(
+        "IR", InstantRunoffSystem.class,
+        "OPL", OpenPartyListSystem.class
+    );
+    
+    private ElectionEventsTest() {}
+    
+    private static List<RecordedEvent> recordElection(final ElectionGenerator generator, final int numSources) throws IOException,
+        ParseException {
+        final ByteArrayOutputStream[] outputs = new ByteArrayOutputStream[numSources];
+        final InputStream[] inputs = new InputStream[numSources];
+        final String[] inputNames = new String[numSources];
+        for(int i = 0; i < numSources; i++) {
+            outputs[i] = new ByteArrayOutputStream();
+        }
+        generator.generate(outputs);
+        for(int i = 0; i < numSources; i++) {
+            inputs[i] = new ByteArrayInputStream(outputs[i].toByteArray());
+            inputNames[i] = "source" + i;
+        }
+        
+        final Path recordingPath = Files.createTempFile("election-events", ".jfr");
+        final PrintStream originalSystemOut = System.out;
+        try(final Recording recording = new Recording()) {
+            recording.enable("org.team19.InputSourceParsed");
+            recording.enable("org.team19.BallotChunkParsed");
+            recording.enable("org.team19.EliminationRound");
+            recording.enable("org.team19.AllocationPhase");
+            recording.start();
+            
+            //Redirect STDOUT to a null device print stream while running the election
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            //The voting systems close their outputs after the election, so each run needs its own
+            VotingStreamParser.parse(
+                inputs, inputNames, OutputStream.nullOutputStream(), OutputStream.nullOutputStream(), HEADER_SYSTEM_MAP
+            ).runElection();
+            
+            recording.stop();
+            recording.dump(recordingPath);
+            return RecordingFile.readAllEvents(recordingPath);
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+            Files.deleteIfExists(recordingPath);
+        }
+    }
+    
+    private static List<RecordedEvent> getEvents(final List<RecordedEvent> events, final String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).collect(Collectors.toList());
+    }
+    
+    @Test
+    void testParsingEvents() throws IOException, ParseException {
+        final List<RecordedEvent> events = recordElection(ElectionGenerator.forOpenPartyList(4, 2, 2, 25000).setSeed(1), 2);
+        final List<RecordedEvent> sourceEvents = getEvents(events, "org.team19.InputSourceParsed");
+        final List<RecordedEvent> chunkEvents = getEvents(events, "org.team19.BallotChunkParsed");
+        
+        Assertions.assertAll(
+            //Testing that each input source has one event covering all of its ballots
+            () -> Assertions.assertEquals(2, sourceEvents.size()),
+            () -> Assertions.assertEquals("source0", sourceEvents.get(0).getString("inputSource")),
+            () -> Assertions.assertEquals(12500, sourceEvents.get(0).getInt("ballots")),
+            () -> Assertions.assertEquals(12500, sourceEvents.get(1).getInt("ballotLines")),
+            //Testing that each input source is split into a full chunk and a partial chunk
+            () -> Assertions.assertEquals(4, chunkEvents.size()),
+            () -> Assertions.assertEquals(
+                List.of(10000, 2500, 10000, 2500),
+                chunkEvents.stream().map(event -> event.getInt("ballotLines")).collect(Collectors.toList())
+            ),
+            () -> Assertions.assertEquals(chunkEvents.get(0).getInt("firstLine") + 10000, chunkEvents.get(1).getInt("firstLine")),
+            () -> Assertions.assertEquals("source1", chunkEvents.get(3).getString("inputSource")),
+            () -> Assertions.assertEquals(25000, chunkEvents.stream().mapToInt(event -> event.getInt("ballots")).sum())
+        );
+    }
+    
+    @Test
+    void testEliminationRoundEvents() throws IOException, ParseException {
+        final List<RecordedEvent> events = recordElection(
+            ElectionGenerator.forInstantRunoff(5, 5, 1000).setDistribution(ElectionGenerator.Distribution.NEAR_TIE).setSeed(2), 1
+        );
+        final List<RecordedEvent> roundEvents = getEvents(events, "org.team19.EliminationRound");
+        
+        Assertions.assertAll(
+            //Testing that a near tie among 5 candidates needs at least one elimination and that each one leaves one fewer candidate
+            () -> Assertions.assertFalse(roundEvents.isEmpty()),
+            () -> Assertions.assertEquals(4, roundEvents.get(0).getInt("remainingCandidates")),
+            () -> Assertions.assertTrue(roundEvents.stream().allMatch(event -> event.getString("eliminatedCandidate").matches("C\\d \\(P\\d\\)"))),
+            //Testing that every ballot ranks every candidate, so no ballot is exhausted
+            () -> Assertions.assertTrue(roundEvents.stream().allMatch(event -> event.getInt("ballotsExhausted") == 0)),
+            () -> Assertions.assertTrue(roundEvents.get(0).getInt("ballotsMoved") > 0)
+        );
+    }
+    
+    @Test
+    void testAllocationPhaseEvents() throws IOException, ParseException {
+        final List<RecordedEvent> events = recordElection(ElectionGenerator.forOpenPartyList(6, 3, 4, 1000).setSeed(3), 1);
+        final List<RecordedEvent> phaseEvents = getEvents(events, "org.team19.AllocationPhase");
+        
+        Assertions.assertAll(
+            () -> Assertions.assertTrue(phaseEvents.size() >= 2),
+            () -> Assertions.assertEquals("Initial allocation", phaseEvents.get(0).getString("phase")),
+            () -> Assertions.assertEquals("Candidate distribution", phaseEvents.get(phaseEvents.size() - 1).getString("phase")),
+            () -> Assertions.assertEquals(4, phaseEvents.get(phaseEvents.size() - 1).getInt("seats")),
+            () -> Assertions.assertTrue(phaseEvents.stream().allMatch(
+                event -> event.getString("apportionmentMethod").equals("Largest remainder (Hare quota)")
+            ))
+        );
+    }
+    
+}
@@ -0,0 +1,200 @@
+/*
+ * File name:
+ * ElectionGeneratorTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the ElectionGenerator class
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+final class ElectionGeneratorTest {
+    
+    private static final OutputStream NULL_OUTPUT = OutputStream.nullOutputStream();
+    
+    private static final Map<String, Class<? extends VotingSystem>> HEADER_SYSTEM_MAP = Map.of(
+        "IR", InstantRunoffSystem.class,
+        "OPL", OpenPartyListSystem.class
+    );
+    
+    private ElectionGeneratorTest() {}
+    
+    private static byte[][] generate(final ElectionGenerator generator, final int numSources) throws IOException {
+        final ByteArrayOutputStream[] outputs = new ByteArrayOutputStream[numSources];
+        for(int i = 0; i < numSources; i++) {
+            outputs[i] = new ByteArrayOutputStream();
+        }
+        generator.generate(outputs);
+        
+        final byte[][] sources = new byte[numSources][];
+        for(int i = 0; i < numSources; i++) {
+            sources[i] = outputs[i].toByteArray();
+        }
+        return sources;
+    }
+    
+    private static VotingSystem parse(final byte[]... sources) throws ParseException {
+        final InputStream[] inputs = new InputStream[sources.length];
+        final String[] inputNames = new String[sources.length];
+        for(int i = 0; i < sources.length; i++) {
+            inputs[i] = new ByteArrayInputStream(sources[i]);
+            inputNames[i] = "source" + i;
+        }
+        
+        //Redirect STDOUT to a null device print stream while parsing
+        final PrintStream originalSystemOut = System.out;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            return VotingStreamParser.parse(inputs, inputNames, NULL_OUTPUT, NULL_OUTPUT, HEADER_SYSTEM_MAP);
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    private static List<Integer> getFirstPreferenceCounts(final InstantRunoffSystem instantRunoffSystem) {
+        final List<Integer> counts = new ArrayList<>();
+        for(final Candidate candidate : instantRunoffSystem.getCandidates()) {
+            counts.add(instantRunoffSystem.getNumBallots(instantRunoffSystem.candidateBallotsMap.getOrDefault(candidate, new ArrayDeque<>())));
+        }
+        return counts;
+    }
+    
+    private static List<Integer> getCandidateCounts(final OpenPartyListSystem openPartyListSystem) {
+        final List<Integer> counts = new ArrayList<>();
+        for(int candidateId = 0; candidateId < openPartyListSystem.partyTable.candidatesSize; candidateId++) {
+            counts.add(openPartyListSystem.partyTable.candidateBallots[candidateId]);
+        }
+        return counts;
+    }
+    
+    @Test
+    void testGenerateIr() throws IOException, ParseException {
+        final byte[][] dense = generate(ElectionGenerator.forInstantRunoff(6, 3, 1001).setTruncation(0.3).setSeed(5), 3);
+        final byte[][] sparse = generate(ElectionGenerator.forInstantRunoff(6, 3, 1001).setTruncation(0.3).setSeed(5).setSparse(true), 3);
+        final InstantRunoffSystem denseSystem = (InstantRunoffSystem) parse(dense);
+        final InstantRunoffSystem sparseSystem = (InstantRunoffSystem) parse(sparse);
+        
+        Assertions.assertAll(
+            //Testing that the election spans every source with the ballots split evenly
+            () -> Assertions.assertEquals(6, denseSystem.getNumCandidates()),
+            () -> Assertions.assertTrue(new String(dense[2], StandardCharsets.UTF_8).startsWith("IR\n6\nC1 (P1),C2 (P2),C3 (P3),C4 (P1),")),
+            () -> Assertions.assertTrue(new String(dense[2], StandardCharsets.UTF_8).contains("(P3)\n333\n")),
+            () -> Assertions.assertTrue(new String(sparse[0], StandardCharsets.UTF_8).startsWith("IR, SPARSE\n6\n")),
+            //Testing that the truncated ballots ranking fewer than half of the candidates are invalidated across every source
+            () -> Assertions.assertTrue(denseSystem.getNumBallots() < 1001),
+            () -> Assertions.assertEquals(
+                denseSystem.getNumBallots(), getFirstPreferenceCounts(denseSystem).stream().mapToInt(Integer::intValue).sum()
+            ),
+            //Testing that the sparse format encodes the same ballots as the dense format
+            () -> Assertions.assertEquals(denseSystem.getNumBallots(), sparseSystem.getNumBallots()),
+            () -> Assertions.assertEquals(getFirstPreferenceCounts(denseSystem), getFirstPreferenceCounts(sparseSystem))
+        );
+    }
+    
+    @Test
+    void testGenerateOpl() throws IOException, ParseException {
+        final byte[][] election = generate(ElectionGenerator.forOpenPartyList(8, 3, 5, 2000).setSeed(7), 2);
+        final OpenPartyListSystem openPartyListSystem = (OpenPartyListSystem) parse(election);
+        
+        Assertions.assertAll(
+            () -> Assertions.assertEquals(8, openPartyListSystem.getNumCandidates()),
+            () -> Assertions.assertEquals(2000, openPartyListSystem.getNumBallots()),
+            () -> Assertions.assertEquals(5, openPartyListSystem.numSeats),
+            () -> Assertions.assertEquals(3, openPartyListSystem.partyTable.size),
+            () -> Assertions.assertTrue(new String(election[1], StandardCharsets.UTF_8).startsWith("OPL\n8\n[C1,P1],[C2,P2],[C3,P3],[C4,P1],")),
+            () -> Assertions.assertEquals(2000, getCandidateCounts(openPartyListSystem).stream().mapToInt(Integer::intValue).sum())
+        );
+    }
+    
+    @Test
+    void testDistributions() throws IOException, ParseException {
+        final List<Integer> nearTieCounts = getFirstPreferenceCounts((InstantRunoffSystem) parse(generate(
+            ElectionGenerator.forInstantRunoff(7, 7, 1003).setDistribution(ElectionGenerator.Distribution.NEAR_TIE), 2
+        )));
+        final List<Integer> zipfCounts = getCandidateCounts((OpenPartyListSystem) parse(generate(
+            ElectionGenerator.forOpenPartyList(5, 2, 2, 10000).setDistribution(ElectionGenerator.Distribution.ZIPF).setZipfExponent(2), 1
+        )));
+        
+        Assertions.assertAll(
+            //Testing that near-tie first preferences differ by at most one
+            () -> Assertions.assertEquals(List.of(144, 144, 143, 143, 143, 143, 143), nearTieCounts),
+            //Testing that Zipf first preferences with an exponent of 2 decrease by candidate, with the first receiving about 68% of them
+            () -> Assertions.assertTrue(zipfCounts.get(0) > 6500 && zipfCounts.get(0) < 7100),
+            () -> Assertions.assertTrue(zipfCounts.get(0) > zipfCounts.get(1) && zipfCounts.get(1) > zipfCounts.get(2)),
+            () -> Assertions.assertTrue(zipfCounts.get(2) > zipfCounts.get(4))
+        );
+    }
+    
+    @Test
+    void testTruncation() throws IOException {
+        final String[] fullLines = new String(generate(ElectionGenerator.forInstantRunoff(5, 1, 100), 1)[0], StandardCharsets.UTF_8).split("\n");
+        final String[] truncatedLines = new String(
+            generate(ElectionGenerator.forInstantRunoff(5, 1, 100).setTruncation(1).setSparse(true), 1)[0], StandardCharsets.UTF_8
+        ).split("\n");
+        final List<String> fullBallots = Arrays.asList(fullLines).subList(4, fullLines.length);
+        final List<String> truncatedBallots = Arrays.asList(truncatedLines).subList(4, truncatedLines.length);
+        
+        Assertions.assertAll(
+            //Testing that every candidate is ranked without truncation
+            () -> Assertions.assertEquals(100, fullBallots.size()),
+            () -> Assertions.assertTrue(fullBallots.stream().allMatch(
+                ballot -> Arrays.stream(ballot.split(",")).sorted().reduce("", String::concat).equals("12345")
+            )),
+            //Testing that only the first preference is ranked with a truncation probability of 1
+            () -> Assertions.assertEquals(100, truncatedBallots.size()),
+            () -> Assertions.assertTrue(truncatedBallots.stream().allMatch(ballot -> ballot.matches("[1-5]")))
+        );
+    }
+    
+    @Test
+    void testDeterminism() throws IOException {
+        Assertions.assertAll(
+            () -> Assertions.assertArrayEquals(
+                generate(ElectionGenerator.forInstantRunoff(10, 2, 500).setSeed(3).setTruncation(0.2), 1)[0],
+                generate(ElectionGenerator.forInstantRunoff(10, 2, 500).setSeed(3).setTruncation(0.2), 1)[0]
+            ),
+            () -> Assertions.assertFalse(Arrays.equals(
+                generate(ElectionGenerator.forInstantRunoff(10, 2, 500).setSeed(3).setTruncation(0.2), 1)[0],
+                generate(ElectionGenerator.forInstantRunoff(10, 2, 500).setSeed(4).setTruncation(0.2), 1)[0]
+            ))
+        );
+    }
+    
+    @Test
+    void testInvalidArguments() {
+        Assertions.assertAll(
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> ElectionGenerator.forInstantRunoff(0, 1, 10)),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> ElectionGenerator.forInstantRunoff(3, 4, 10)),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> ElectionGenerator.forOpenPartyList(3, 1, -1, 10)),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> ElectionGenerator.forOpenPartyList(3, 1, 1, -10)),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> ElectionGenerator.forOpenPartyList(3, 1, 1, 10).setSparse(true)),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> ElectionGenerator.forInstantRunoff(3, 1, 10).setTruncation(1.5)),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> ElectionGenerator.forInstantRunoff(3, 1, 10).setZipfExponent(0)),
+            () -> Assertions.assertThrows(NullPointerException.class, () -> ElectionGenerator.forInstantRunoff(3, 1, 10).setDistribution(null)),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> ElectionGenerator.forInstantRunoff(3, 1, 10).generate())
+        );
+    }
+    
+}
@@ -0,0 +1,114 @@
+/*
+ * File name:
+ * ElectionMetricsTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the ElectionMetrics class
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+final class ElectionMetricsTest {
+    
+    private ElectionMetricsTest() {}
+    
+    @Test
+    void testDisabled() throws IOException {
+        final InputStream input = new ByteArrayInputStream(new byte[10]);
+        final OutputStream output = new ByteArrayOutputStream();
+        final ElectionMetrics metrics = ElectionMetrics.DISABLED;
+        
+        metrics.endPhase("parse", metrics.startTimer());
+        metrics.addCount("ballots", 5);
+        metrics.recordRound(metrics.startTimer(), 3);
+        metrics.countInput(input).readAllBytes();
+        
+        Assertions.assertAll(
+            () -> Assertions.assertFalse(metrics.isEnabled()),
+            //Testing that nothing is recorded and the clock is not read
+            () -> Assertions.assertEquals(0, metrics.startTimer()),
+            () -> Assertions.assertEquals(0, metrics.getPhaseNanos("parse")),
+            () -> Assertions.assertEquals(0, metrics.getCount("ballots")),
+            () -> Assertions.assertEquals(0, metrics.getNumRounds()),
+            () -> Assertions.assertEquals(0, metrics.getBytesRead()),
+            //Testing that the streams are not wrapped
+            () -> Assertions.assertSame(input, metrics.countInput(input)),
+            () -> Assertions.assertSame(output, metrics.countAuditOutput(output))
+        );
+    }
+    
+    @Test
+    void testEnabled() throws IOException {
+        final ElectionMetrics metrics = new ElectionMetrics();
+        
+        final long startNanos = metrics.startTimer();
+        metrics.endPhase("parse", startNanos);
+        metrics.endPhase("parse", startNanos);
+        metrics.addCount("ballots", 5);
+        metrics.addCount("ballots", 2);
+        metrics.recordRound(metrics.startTimer(), 3);
+        
+        final InputStream input = metrics.countInput(new ByteArrayInputStream(new byte[10]));
+        input.read();
+        input.readAllBytes();
+        
+        final OutputStream auditOutput = metrics.countAuditOutput(new ByteArrayOutputStream());
+        auditOutput.write('a');
+        auditOutput.write(new byte[20], 5, 10);
+        
+        Assertions.assertAll(
+            () -> Assertions.assertTrue(metrics.isEnabled()),
+            () -> Assertions.assertTrue(metrics.getPhaseNanos("parse") >= 0),
+            () -> Assertions.assertEquals(7, metrics.getCount("ballots")),
+            () -> Assertions.assertEquals(1, metrics.getNumRounds()),
+            () -> Assertions.assertEquals(10, metrics.getBytesRead()),
+            () -> Assertions.assertEquals(11, metrics.getAuditBytesWritten())
+        );
+    }
+    
+    @Test
+    void testWrite() {
+        final ElectionMetrics metrics = new ElectionMetrics();
+        metrics.phases.put("parse.ballots", new long[] {2_000_000_000L, 1});
+        metrics.addCount("ballots", 1000);
+        metrics.rounds.add(new long[] {1_500_000L, 42});
+        metrics.bytesRead = 12345;
+        
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        metrics.write(output, "IR");
+        
+        Assertions.assertEquals(String.join("\n",
+            "{",
+            "    \"system\" : \"IR\",",
+            "    \"phases\" : {",
+            "        \"parse.ballots\" : {\"seconds\" : 2.000000000, \"count\" : 1}",
+            "    },",
+            "    \"counters\" : {",
+            "        \"ballots\" : 1000",
+            "    },",
+            "    \"ballotsPerSecond\" : 500.0,",
+            "    \"bytesRead\" : 12345,",
+            "    \"auditBytesWritten\" : 0,",
+            "    \"auditWriteSeconds\" : 0.000000000,",
+            "    \"rounds\" : [",
+            "        {\"round\" : 1, \"seconds\" : 0.001500000, \"transfers\" : 42}",
+            "    ]",
+            "}",
+            ""
+        ), output.toString(StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n"));
+    }
+    
+}
@@ -0,0 +1,172 @@
+/*
+ * File name:
+ * ElectionRunTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the ElectionRun class
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class ElectionRunTest {
+    
+    private static final OutputStream NULL_OUTPUT = OutputStream.nullOutputStream();
+    
+    private ElectionRunTest() {}
+    
+    private static byte[] generate(final ElectionGenerator generator) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        generator.generate(output);
+        return output.toByteArray();
+    }
+    
+    private static void seedTieBreaks(final VotingSystem votingSystem, final long seed) {
+        if(votingSystem instanceof InstantRunoffSystem) {
+            ((InstantRunoffSystem) votingSystem).rand = new Random(seed);
+        }
+        else {
+            ((OpenPartyListSystem) votingSystem).rand = new Random(seed);
+        }
+    }
+    
+    private static String runSeeded(final byte[] source, final long seed) throws ParseException {
+        //Seed the tie breaks so that the audit only depends on the election, and check that the hook saw the voting system that was run
+        final ByteArrayOutputStream auditOutput = new ByteArrayOutputStream();
+        final AtomicReference<VotingSystem> hookedSystem = new AtomicReference<>();
+        
+        final VotingSystem votingSystem = new ElectionRun(
+            new InputStream[] {new ByteArrayInputStream(source)}, new String[] {"source" + seed}, auditOutput, OutputStream.nullOutputStream()
+        )
+            .setBeforeParsing(parsedSystem -> {
+                hookedSystem.set(parsedSystem);
+                seedTieBreaks(parsedSystem, seed);
+            })
+            .run();
+        
+        Assertions.assertSame(votingSystem, hookedSystem.get());
+        return auditOutput.toString();
+    }
+    
+    @Test
+    void testParallelRuns() throws IOException, ParseException, InterruptedException, ExecutionException {
+        //Tied counts make the audits depend on each run using only its own tie breaking
+        final List<byte[]> sources = List.of(
+            generate(ElectionGenerator.forInstantRunoff(6, 3, 3000).setSeed(1)),
+            generate(ElectionGenerator.forInstantRunoff(4, 4, 40).setSeed(2)),
+            generate(ElectionGenerator.forOpenPartyList(8, 3, 4, 4000).setSeed(3)),
+            generate(ElectionGenerator.forOpenPartyList(5, 5, 2, 30).setSeed(4))
+        );
+        
+        //Redirect STDOUT to a null device print stream while running the elections
+        final PrintStream originalSystemOut = System.out;
+        final ExecutorService executor = Executors.newFixedThreadPool(sources.size());
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            
+            //Run each election alone to find the audit it should have
+            final List<String> expectedAudits = new ArrayList<>();
+            for(int i = 0; i < sources.size(); i++) {
+                expectedAudits.add(runSeeded(sources.get(i), i));
+            }
+            
+            //Run every election several times at once, each with its own hooks and outputs
+            final List<Callable<String>> tasks = new ArrayList<>();
+            for(int copy = 0; copy < 5; copy++) {
+                for(int i = 0; i < sources.size(); i++) {
+                    final int index = i;
+                    tasks.add(() -> runSeeded(sources.get(index), index));
+                }
+            }
+            final List<Future<String>> futures = executor.invokeAll(tasks);
+            
+            for(int i = 0; i < futures.size(); i++) {
+                Assertions.assertEquals(expectedAudits.get(i % sources.size()), futures.get(i).get());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+            
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    @Test
+    void testRun() throws IOException, ParseException {
+        final byte[] source = generate(ElectionGenerator.forInstantRunoff(5, 2, 500).setSeed(5));
+        final ElectionMetrics metrics = new ElectionMetrics();
+        final List<Integer> numBallotsSeen = new ArrayList<>();
+        
+        //Redirect STDOUT to a null device print stream while running the election
+        final PrintStream originalSystemOut = System.out;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            
+            final VotingSystem votingSystem = new ElectionRun(
+                new InputStream[] {new ByteArrayInputStream(source)}, new String[] {"source"}, OutputStream.nullOutputStream(),
+                OutputStream.nullOutputStream()
+            )
+                .setMetrics(metrics)
+                .setBeforeParsing(parsedSystem -> numBallotsSeen.add(parsedSystem.getNumBallots()))
+                .setBeforeElection(parsedSystem -> numBallotsSeen.add(parsedSystem.getNumBallots()))
+                .run();
+            
+            Assertions.assertAll(
+                //Testing that the hooks are applied before the ballots are parsed and after they are
+                () -> Assertions.assertEquals(List.of(0, 500), numBallotsSeen),
+                () -> Assertions.assertEquals(1, votingSystem.getWinners().size()),
+                //Testing that the parse and the election were both timed
+                () -> Assertions.assertTrue(metrics.getPhaseNanos("parse") > 0),
+                () -> Assertions.assertTrue(metrics.getPhaseNanos("election") > 0)
+            );
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    @Test
+    void testInvalidArguments() {
+        final InputStream[] inputs = {new ByteArrayInputStream(new byte[0])};
+        final String[] inputNames = {"source"};
+        
+        Assertions.assertAll(
+            () -> Assertions.assertThrows(NullPointerException.class, () -> new ElectionRun(null, inputNames, NULL_OUTPUT, NULL_OUTPUT)),
+            () -> Assertions.assertThrows(NullPointerException.class, () -> new ElectionRun(inputs, new String[] {null}, NULL_OUTPUT, NULL_OUTPUT)),
+            () -> Assertions.assertThrows(NullPointerException.class, () -> new ElectionRun(inputs, inputNames, null, NULL_OUTPUT)),
+            () -> Assertions.assertThrows(NullPointerException.class, () -> new ElectionRun(inputs, inputNames, NULL_OUTPUT, NULL_OUTPUT)
+                .setHeaderSystemMap(null)),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> new ElectionRun(
+                new InputStream[0], new String[0], NULL_OUTPUT, NULL_OUTPUT
+            )),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> new ElectionRun(
+                inputs, new String[] {"source", "other"}, NULL_OUTPUT, NULL_OUTPUT
+            ))
+        );
+    }
+    
+}
@@ -0,0 +1,219 @@
+/*
+ * File name:
+ * ElectionServiceTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the ElectionService class
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+final class ElectionServiceTest {
+    
+    private static final OutputStream NULL_OUTPUT = OutputStream.nullOutputStream();
+    
+    private static final Path IR_INPUT = Path.of("Project2/testing/test-resources/votingSystemRunnerTest/ir_test_majority.csv".replace(
+        '/', File.separatorChar
+    ));
+    
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    
+    private ElectionServiceTest() {}
+    
+    private static void deleteRecursively(final Path directory) throws IOException {
+        try(final Stream<Path> paths = Files.walk(directory)) {
+            for(final Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+    
+    private static HttpResponse<String> post(final ElectionService service, final String body) throws IOException, InterruptedException {
+        return CLIENT.send(
+            HttpRequest.newBuilder(URI.create("http://localhost:" + service.getPort() + "/elections"))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(),
+            HttpResponse.BodyHandlers.ofString()
+        );
+    }
+    
+    private static HttpResponse<String> get(final ElectionService service, final String path) throws IOException, InterruptedException {
+        return CLIENT.send(
+            HttpRequest.newBuilder(URI.create("http://localhost:" + service.getPort() + path)).GET().build(),
+            HttpResponse.BodyHandlers.ofString()
+        );
+    }
+    
+    @Test
+    void testElection() throws IOException, InterruptedException {
+        final Path tempDirectory = Files.createTempDirectory("election-service");
+        final PrintStream originalSystemOut = System.out;
+        final ElectionService service = new ElectionService(
+            0, Objects.requireNonNullElseGet(ElectionService.newVirtualThreadExecutor(), () -> Executors.newFixedThreadPool(2)), 6,
+            tempDirectory.toString()
+        );
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            service.start();
+            
+            final String input = Files.readString(IR_INPUT);
+            final HttpResponse<String> first = post(service, input);
+            final HttpResponse<String> second = post(service, input);
+            final String auditId = first.headers().firstValue("X-Audit-Id").orElse("");
+            final HttpResponse<String> audit = get(service, "/audits/" + auditId);
+            
+            Assertions.assertAll(
+                () -> Assertions.assertEquals(200, first.statusCode()),
+                () -> Assertions.assertTrue(first.body().startsWith("Election type: IR")),
+                //Testing that each election posted gets its own voting system and audit file
+                () -> Assertions.assertEquals(first.body(), second.body()),
+                () -> Assertions.assertNotEquals(auditId, second.headers().firstValue("X-Audit-Id").orElse("")),
+                () -> Assertions.assertEquals("/audits/" + auditId, first.headers().firstValue("Location").orElse("")),
+                //Testing that the audit handle retrieves the audit file
+                () -> Assertions.assertEquals(200, audit.statusCode()),
+                () -> Assertions.assertEquals(
+                    Files.readString(tempDirectory.resolve("audits").resolve(auditId), StandardCharsets.UTF_8), audit.body()
+                ),
+                () -> Assertions.assertTrue(audit.body().startsWith("Election type: IR"))
+            );
+        }
+        finally {
+            service.stop();
+            System.setOut(originalSystemOut);
+            deleteRecursively(tempDirectory);
+        }
+    }
+    
+    @Test
+    void testInvalidRequests() throws IOException, InterruptedException {
+        final Path tempDirectory = Files.createTempDirectory("election-service");
+        final PrintStream originalSystemOut = System.out;
+        final ElectionService service = new ElectionService(0, Executors.newFixedThreadPool(1), 2, tempDirectory.toString());
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            service.start();
+            
+            final HttpResponse<String> invalidElection = post(service, "STV\n3\n");
+            
+            Assertions.assertAll(
+                //Testing that a parse error is returned along with the audit of what was parsed
+                () -> Assertions.assertEquals(400, invalidElection.statusCode()),
+                () -> Assertions.assertTrue(invalidElection.body().contains("STV")),
+                () -> Assertions.assertTrue(invalidElection.headers().firstValue("X-Audit-Id").isPresent()),
+                () -> Assertions.assertEquals(405, get(service, "/elections").statusCode()),
+                () -> Assertions.assertEquals(404, get(service, "/audits/audit_999_2021-11-02_08-30-05.txt").statusCode()),
+                //Testing that files other than audits cannot be retrieved
+                () -> Assertions.assertEquals(404, get(service, "/audits/%2E%2E%2Fbuild.xml").statusCode())
+            );
+        }
+        finally {
+            service.stop();
+            System.setOut(originalSystemOut);
+            deleteRecursively(tempDirectory);
+        }
+    }
+    
+    @Test
+    void testQueueFull() throws IOException, InterruptedException, ExecutionException {
+        final Path tempDirectory = Files.createTempDirectory("election-service");
+        final PrintStream originalSystemOut = System.out;
+        final ElectionService service = new ElectionService(0, Executors.newFixedThreadPool(1), 2, tempDirectory.toString());
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            service.start();
+            
+            //Hold the only election thread and the one place left to wait for it so that there is no room for another election
+            final Future<ElectionService.PostedElection> running = service.submitElection(() -> {
+                release.await();
+                return null;
+            });
+            final Future<ElectionService.PostedElection> waiting = service.submitElection(() -> null);
+            
+            final String input = Files.readString(IR_INPUT);
+            final HttpResponse<String> refused = post(service, input);
+            
+            //The permits are returned once the held elections finish
+            release.countDown();
+            running.get();
+            waiting.get();
+            final HttpResponse<String> accepted = post(service, input);
+            
+            Assertions.assertAll(
+                () -> Assertions.assertEquals(503, refused.statusCode()),
+                () -> Assertions.assertEquals("1", refused.headers().firstValue("Retry-After").orElse("")),
+                () -> Assertions.assertEquals(200, accepted.statusCode())
+            );
+        }
+        finally {
+            release.countDown();
+            service.stop();
+            System.setOut(originalSystemOut);
+            deleteRecursively(tempDirectory);
+        }
+    }
+    
+    @Test
+    void testVirtualThreads() throws InterruptedException, ExecutionException {
+        final ExecutorService executor = ElectionService.newVirtualThreadExecutor();
+        
+        //Testing that virtual threads are used exactly when the JVM running the tests supports them
+        Assertions.assertEquals(Runtime.version().feature() >= 21, executor != null);
+        if(executor != null) {
+            try {
+                Assertions.assertNotEquals(
+                    Thread.currentThread().getClass(), executor.submit(() -> Thread.currentThread().getClass()).get()
+                );
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+    
+    @Test
+    void testInvalidArguments() {
+        final PrintStream originalSystemErr = System.err;
+        try {
+            System.setErr(new PrintStream(NULL_OUTPUT));
+            Assertions.assertAll(
+                () -> Assertions.assertEquals(64, ElectionService.run("-t", "0")),
+                () -> Assertions.assertEquals(64, ElectionService.run("-q", "-1")),
+                () -> Assertions.assertEquals(64, ElectionService.run("-m", "0")),
+                () -> Assertions.assertEquals(64, ElectionService.run("-p", "70000")),
+                () -> Assertions.assertEquals(64, ElectionService.run("-p")),
+                () -> Assertions.assertEquals(64, ElectionService.run("elections.csv"))
+            );
+        }
+        finally {
+            System.setErr(originalSystemErr);
+        }
+    }
+    
+}
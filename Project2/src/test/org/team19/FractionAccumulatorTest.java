@@ -0,0 +1,86 @@
+/*
+ * File name:
+ * FractionAccumulatorTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the FractionAccumulator class
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class FractionAccumulatorTest {
+    
+    private FractionAccumulatorTest() {}
+    
+    @Test
+    void testConstructor() {
+        Assertions.assertAll(
+            //Testing division by 0 error
+            () -> Assertions.assertThrows(ArithmeticException.class, () -> new FractionAccumulator(3, 0)),
+            //Testing that the default value is zero
+            () -> Assertions.assertEquals(new Fraction(0, 1), new FractionAccumulator().toFraction()),
+            //Testing that the value is simplified when read and the sign is moved to the numerator
+            () -> Assertions.assertEquals(-2, new FractionAccumulator(4, -6).getNumerator()),
+            () -> Assertions.assertEquals(3, new FractionAccumulator(4, -6).getDenominator()),
+            //Testing that a Fraction's value is copied
+            () -> Assertions.assertEquals(new Fraction(5, 7), new FractionAccumulator(new Fraction(5, 7)).toFraction())
+        );
+    }
+    
+    @Test
+    void testArithmetic() {
+        Assertions.assertAll(
+            //Testing addition with equal and unequal denominators
+            () -> Assertions.assertEquals(new Fraction(1, 1), new FractionAccumulator(1, 4).add(3, 4).toFraction()),
+            () -> Assertions.assertEquals(new Fraction(7, 12), new FractionAccumulator(1, 4).add(new Fraction(1, 3)).toFraction()),
+            //Testing subtraction resulting in a negative value
+            () -> Assertions.assertEquals(new Fraction(-1, 12), new FractionAccumulator(1, 4).subtract(new Fraction(1, 3)).toFraction()),
+            //Testing multiplication by a negative value
+            () -> Assertions.assertEquals(new Fraction(-3, 10), new FractionAccumulator(3, 4).multiply(-2, 5).toFraction()),
+            //Testing division by a negative value, which keeps the denominator positive
+            () -> Assertions.assertEquals(new Fraction(-15, 8), new FractionAccumulator(3, 4).divide(new Fraction(-2, 5)).toFraction()),
+            //Testing division by zero
+            () -> Assertions.assertThrows(ArithmeticException.class, () -> new FractionAccumulator(3, 4).divide(0, 5)),
+            //Testing a chain of operations matches the equivalent Fraction operations
+            () -> Assertions.assertEquals(
+                new Fraction(17, 1).subtract(new Fraction(3, 1).multiply(new Fraction(23, 5))),
+                new FractionAccumulator(new Fraction(23, 5)).multiply(-3, 1).add(17, 1).toFraction()
+            )
+        );
+    }
+    
+    @Test
+    void testRepeatedAddition() {
+        //Adding 1/3 a million times grows the unsimplified value well past the simplification threshold without overflowing
+        final FractionAccumulator accumulator = new FractionAccumulator();
+        for(int i = 0; i < 1000000; i++) {
+            accumulator.add(1, 3);
+        }
+        
+        Assertions.assertAll(
+            () -> Assertions.assertEquals(new Fraction(1000000, 3), accumulator.toFraction()),
+            () -> Assertions.assertEquals(333333, accumulator.getWholePart())
+        );
+    }
+    
+    @Test
+    void testGetWholePart() {
+        Assertions.assertAll(
+            //Testing truncation of an unsimplified positive value
+            () -> Assertions.assertEquals(2, new FractionAccumulator(10, 4).getWholePart()),
+            //Testing truncation of a negative value toward zero
+            () -> Assertions.assertEquals(-2, new FractionAccumulator(10, -4).getWholePart())
+        );
+    }
+    
+    @Test
+    void testToString() {
+        Assertions.assertEquals("-2 / 3", new FractionAccumulator(4, -6).toString());
+    }
+}
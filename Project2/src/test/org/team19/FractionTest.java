@@ -14,6 +14,8 @@ package org.team19;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
+
 final class FractionTest {
     
     private FractionTest() {}
@@ -538,6 +540,82 @@ final class FractionTest {
         );
     }
     
+    @Test
+    void testStaticCompare() {
+        final long[] values = {Long.MIN_VALUE, Long.MIN_VALUE + 1, -(1L << 32) - 1, -3, -1, 0, 1, 2, 3, (1L << 32) + 1, Long.MAX_VALUE - 1,
+            Long.MAX_VALUE};
+        
+        Assertions.assertAll(
+            //Testing unsimplified fractions
+            () -> Assertions.assertEquals(0, Fraction.compare(2, 4, 3, 6)),
+            () -> Assertions.assertEquals(-1, Fraction.compare(-2, 4, 1, 6)),
+            () -> Assertions.assertEquals(1, Fraction.compare(5, 4, 7, 6)),
+            //Testing every combination of extreme numerators and positive denominators against the exact BigInteger cross-products
+            () -> {
+                for(final long n1 : values) {
+                    for(final long d1 : values) {
+                        for(final long n2 : values) {
+                            for(final long d2 : values) {
+                                if(d1 <= 0 || d2 <= 0) {
+                                    continue;
+                                }
+                                final int expected = BigInteger.valueOf(n1).multiply(BigInteger.valueOf(d2))
+                                    .compareTo(BigInteger.valueOf(n2).multiply(BigInteger.valueOf(d1)));
+                                Assertions.assertEquals(
+                                    expected, Fraction.compare(n1, d1, n2, d2), String.format("%d / %d compared to %d / %d", n1, d1, n2, d2)
+                                );
+                            }
+                        }
+                    }
+                }
+            }
+        );
+    }
+    
+    @Test
+    void testOverflow() {
+        final Fraction large = new Fraction(Long.MAX_VALUE, 3);
+        final Fraction small = new Fraction(1, Long.MAX_VALUE - 1);
+        final BigInteger bigMax = BigInteger.valueOf(Long.MAX_VALUE);
+        
+        Assertions.assertAll(
+            //Testing that results that do not fit in longs are computed exactly
+            () -> Assertions.assertEquals(
+                Fraction.valueOf(bigMax.multiply(bigMax), BigInteger.valueOf(9)),
+                large.multiply(large)
+            ),
+            () -> Assertions.assertTrue(large.multiply(large).isPromoted()),
+            () -> Assertions.assertEquals(
+                Fraction.valueOf(bigMax.multiply(BigInteger.TWO), BigInteger.valueOf(3)),
+                large.add(large)
+            ),
+            () -> Assertions.assertEquals(
+                Fraction.valueOf(BigInteger.ONE, bigMax.subtract(BigInteger.ONE).pow(2)),
+                small.multiply(small)
+            ),
+            //Testing that promoted results are demoted back to longs once they fit
+            () -> Assertions.assertEquals(new Fraction(1, 1), large.multiply(large).divide(large.multiply(large))),
+            () -> Assertions.assertFalse(large.multiply(large).divide(large).isPromoted()),
+            () -> Assertions.assertEquals(large, large.multiply(large).divide(large)),
+            () -> Assertions.assertEquals(new Fraction(0, 1), large.add(large).subtract(large.add(large))),
+            //Testing that Long.MIN_VALUE is handled in the constructor
+            () -> Assertions.assertEquals(new Fraction(Long.MIN_VALUE / 2, 1), new Fraction(Long.MIN_VALUE, 2)),
+            () -> Assertions.assertEquals(Fraction.valueOf(bigMax.add(BigInteger.ONE), BigInteger.ONE), new Fraction(Long.MIN_VALUE, -1)),
+            //Testing comparisons whose cross-products overflow
+            () -> Assertions.assertEquals(1, large.compareTo(new Fraction(Long.MAX_VALUE - 1, 3))),
+            () -> Assertions.assertEquals(-1, small.compareTo(new Fraction(1, Long.MAX_VALUE - 2))),
+            () -> Assertions.assertEquals(1, large.multiply(large).compareTo(large)),
+            //Testing accessors on promoted fractions
+            () -> Assertions.assertThrows(ArithmeticException.class, () -> large.multiply(large).getNumerator()),
+            () -> Assertions.assertEquals(bigMax.multiply(bigMax), large.multiply(large).getBigNumerator()),
+            () -> Assertions.assertEquals(Math.pow(Long.MAX_VALUE, 2) / 9, large.multiply(large).getDoubleValue(), 1e22),
+            () -> Assertions.assertEquals(
+                Fraction.valueOf(BigInteger.valueOf(9), bigMax.multiply(bigMax)),
+                large.multiply(large).reciprocal()
+            )
+        );
+    }
+    
     @Test
     void testEquals() {
         Assertions.assertAll(
@@ -0,0 +1,259 @@
+/*
+ * File name:
+ * IndexedAuditOutputTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the IndexedAuditOutput class
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class IndexedAuditOutputTest {
+    
+    private static final OutputStream NULL_OUTPUT = OutputStream.nullOutputStream();
+    
+    private IndexedAuditOutputTest() {}
+    
+    private static byte[] generate(final ElectionGenerator generator) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        generator.generate(output);
+        return output.toByteArray();
+    }
+    
+    private static void runSeeded(final byte[] election, final OutputStream auditOutput) throws ParseException {
+        //Seed the tie breaks so that both runs of an election write the same audit
+        new ElectionRun(new InputStream[] {new ByteArrayInputStream(election)}, new String[] {"election"}, auditOutput, NULL_OUTPUT)
+            .setBeforeParsing(votingSystem -> {
+                if(votingSystem instanceof InstantRunoffSystem) {
+                    ((InstantRunoffSystem) votingSystem).rand = new Random(3);
+                }
+                else {
+                    ((OpenPartyListSystem) votingSystem).rand = new Random(3);
+                }
+            })
+            .run();
+    }
+    
+    /**
+     * Runs the election with a plain text audit and with an indexed audit written to the given directory, asserts that both audits are the same,
+     * and returns the text audit
+     */
+    private static String runIndexed(final byte[] election, final Path directory) throws IOException, ParseException {
+        final ByteArrayOutputStream textAudit = new ByteArrayOutputStream();
+        runSeeded(election, textAudit);
+        runSeeded(election, new IndexedAuditOutput(
+            Files.newOutputStream(directory.resolve("audit.txt")), Files.newOutputStream(directory.resolve("audit.idx"))
+        ));
+        
+        Assertions.assertArrayEquals(textAudit.toByteArray(), Files.readAllBytes(directory.resolve("audit.txt")));
+        return textAudit.toString();
+    }
+    
+    private static String lookup(final Path directory, final int ballotNumber) throws IOException, ParseException {
+        final ByteArrayOutputStream history = new ByteArrayOutputStream();
+        IndexedAuditOutput.lookupBallot(
+            directory.resolve("audit.txt").toString(), directory.resolve("audit.idx").toString(), ballotNumber, history
+        );
+        return history.toString();
+    }
+    
+    /**
+     * Returns the paragraphs of an IR audit that belong to the ballot with the given number, in order
+     */
+    private static String getBallotParagraphs(final String audit, final int ballotNumber) {
+        return Arrays.stream(audit.split("\n\n"))
+            .filter(paragraph -> paragraph.startsWith("Ballot " + ballotNumber + " ") || paragraph.startsWith("Ballot " + ballotNumber + "'s"))
+            .map(paragraph -> paragraph + "\n\n")
+            .collect(Collectors.joining());
+    }
+    
+    private static String removeRoundHeadings(final String history) {
+        return Arrays.stream(history.split("\n", -1))
+            .filter(line -> !line.equals("While counting the ballots:") && !line.matches("In round \\d+:"))
+            .collect(Collectors.joining("\n"));
+    }
+    
+    private static void deleteDirectory(final Path directory) throws IOException {
+        try(final Stream<Path> paths = Files.list(directory)) {
+            for(final Path path : (Iterable<Path>) paths::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+    
+    @Test
+    void testInstantRunoffLookup() throws IOException, ParseException {
+        final Path tempDirectory = Files.createTempDirectory("indexed-audit");
+        final PrintStream originalSystemOut = System.out;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            final String audit = runIndexed(
+                generate(ElectionGenerator.forInstantRunoff(8, 3, 4000).setSeed(9).setTruncation(0.5)), tempDirectory
+            );
+            System.setOut(originalSystemOut);
+            
+            //Testing that the history of each ballot is exactly its paragraphs of the audit, with its transfers under the rounds they happened in
+            for(final int ballotNumber : new int[] {1, 2, 17, 1999, 4000}) {
+                final String history = lookup(tempDirectory, ballotNumber);
+                Assertions.assertAll(
+                    () -> Assertions.assertTrue(history.startsWith("While counting the ballots:\nBallot " + ballotNumber + "'s rankings"), history),
+                    () -> Assertions.assertEquals(getBallotParagraphs(audit, ballotNumber), removeRoundHeadings(history))
+                );
+            }
+            
+            //At least one of the first ballots is transferred in a round
+            String transferredHistory = "";
+            for(int ballotNumber = 1; ballotNumber <= 50 && !transferredHistory.contains("In round "); ballotNumber++) {
+                transferredHistory = lookup(tempDirectory, ballotNumber);
+            }
+            final String roundHistory = transferredHistory;
+            
+            Assertions.assertAll(
+                () -> Assertions.assertTrue(roundHistory.contains("their next choice") || roundHistory.contains("did not have any"), roundHistory),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> lookup(tempDirectory, 0)),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> lookup(tempDirectory, 4001))
+            );
+        }
+        finally {
+            System.setOut(originalSystemOut);
+            deleteDirectory(tempDirectory);
+        }
+    }
+    
+    @Test
+    void testSparseAndOpenPartyListLookup() throws IOException, ParseException {
+        final Path sparseDirectory = Files.createTempDirectory("indexed-audit");
+        final Path oplDirectory = Files.createTempDirectory("indexed-audit");
+        final PrintStream originalSystemOut = System.out;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            runIndexed(generate(ElectionGenerator.forInstantRunoff(6, 3, 3000).setSeed(10).setSparse(true)), sparseDirectory);
+            final String oplAudit = runIndexed(generate(ElectionGenerator.forOpenPartyList(6, 3, 3, 3000).setSeed(11)), oplDirectory);
+            System.setOut(originalSystemOut);
+            
+            final String sparseHistory = lookup(sparseDirectory, 1500);
+            final String oplHistory = lookup(oplDirectory, 1500);
+            final String oplChoice = Arrays.stream(oplAudit.split("\n")).filter(line -> line.startsWith("Ballot 1500 chose ")).findFirst().orElse("");
+            
+            Assertions.assertAll(
+                //Testing that a ballot counted with others on a sparse line has the entries of its group
+                () -> Assertions.assertTrue(sparseHistory.startsWith("While counting the ballots:\nBallot"), sparseHistory),
+                () -> Assertions.assertTrue(
+                    sparseHistory.contains("Ballot 1500's rankings") || sparseHistory.matches("(?s).*Ballots \\d+ through \\d+ \\(\\d+ ballots\\).*"),
+                    sparseHistory
+                ),
+                () -> Assertions.assertFalse(oplChoice.isEmpty()),
+                () -> Assertions.assertEquals("While counting the ballots:\n" + oplChoice + "\n", oplHistory)
+            );
+        }
+        finally {
+            System.setOut(originalSystemOut);
+            deleteDirectory(sparseDirectory);
+            deleteDirectory(oplDirectory);
+        }
+    }
+    
+    private static long countSpillFiles() throws IOException {
+        try(final Stream<Path> paths = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return paths.filter(path -> path.getFileName().toString().startsWith("audit_entries")).count();
+        }
+    }
+    
+    @Test
+    void testSpilledEntries() throws IOException, ParseException {
+        final PrintStream originalSystemOut = System.out;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            final byte[] irElection = generate(ElectionGenerator.forInstantRunoff(8, 3, 2000).setSeed(13).setTruncation(0.5));
+            final byte[] sparseElection = generate(ElectionGenerator.forInstantRunoff(6, 3, 2000).setSeed(14).setSparse(true));
+            final long numSpillFiles = countSpillFiles();
+            
+            //Testing that spilling the entries in runs of several sizes, including runs of a single entry, gives the same index as holding them all
+            for(final byte[] election : new byte[][] {irElection, sparseElection}) {
+                final ByteArrayOutputStream expectedIndex = new ByteArrayOutputStream();
+                runSeeded(election, new IndexedAuditOutput(OutputStream.nullOutputStream(), expectedIndex));
+                for(final int runSize : new int[] {1, 7, 1000}) {
+                    final ByteArrayOutputStream index = new ByteArrayOutputStream();
+                    runSeeded(election, new IndexedAuditOutput(OutputStream.nullOutputStream(), index, runSize));
+                    Assertions.assertArrayEquals(expectedIndex.toByteArray(), index.toByteArray(), "Run size " + runSize);
+                }
+            }
+            
+            //Testing that the temporary files of the spilled entries are deleted once the indexes are written
+            Assertions.assertAll(
+                () -> Assertions.assertEquals(numSpillFiles, countSpillFiles()),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> new IndexedAuditOutput(NULL_OUTPUT, NULL_OUTPUT, 0))
+            );
+        }
+        finally {
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    @Test
+    void testMalformedIndexes() throws IOException, ParseException {
+        final Path tempDirectory = Files.createTempDirectory("indexed-audit");
+        final PrintStream originalSystemOut = System.out;
+        final PrintStream originalSystemErr = System.err;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            System.setErr(new PrintStream(NULL_OUTPUT));
+            runIndexed(generate(ElectionGenerator.forOpenPartyList(4, 2, 2, 50).setSeed(12)), tempDirectory);
+            final String auditPath = tempDirectory.resolve("audit.txt").toString();
+            final byte[] index = Files.readAllBytes(tempDirectory.resolve("audit.idx"));
+            
+            //The report output closes the null output stream, so the history is written to a stream of its own
+            final ByteArrayOutputStream history = new ByteArrayOutputStream();
+            System.setOut(new PrintStream(history));
+            final int exitCode = IndexedAuditOutput.runLookup(auditPath, "7");
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            
+            //An audit that has changed since it was indexed, a truncated index, and a file that is not an index are all rejected
+            Files.write(tempDirectory.resolve("truncated.idx"), Arrays.copyOf(index, index.length - 1));
+            Files.write(tempDirectory.resolve("other.idx"), "Election type: OPL".getBytes());
+            Files.write(tempDirectory.resolve("audit.txt"), "Changed\n".getBytes(), StandardOpenOption.APPEND);
+            
+            Assertions.assertAll(
+                () -> Assertions.assertEquals(0, exitCode),
+                () -> Assertions.assertTrue(history.toString().startsWith("While counting the ballots:\nBallot 7 chose "), history.toString()),
+                () -> Assertions.assertEquals(65, IndexedAuditOutput.runLookup(auditPath, "7")),
+                () -> Assertions.assertEquals(65, IndexedAuditOutput.runLookup(auditPath, "7", tempDirectory.resolve("truncated.idx").toString())),
+                () -> Assertions.assertEquals(65, IndexedAuditOutput.runLookup(auditPath, "7", tempDirectory.resolve("other.idx").toString())),
+                () -> Assertions.assertEquals(64, IndexedAuditOutput.runLookup(auditPath)),
+                () -> Assertions.assertEquals(64, IndexedAuditOutput.runLookup(auditPath, "seven")),
+                () -> Assertions.assertEquals(2, IndexedAuditOutput.runLookup(tempDirectory.resolve("missing.txt").toString(), "7")),
+                () -> Assertions.assertEquals(
+                    tempDirectory.resolve("audit_2.idx").toString(), IndexedAuditOutput.getIndexPath(tempDirectory.resolve("audit_2.txt").toString())
+                )
+            );
+        }
+        finally {
+            System.setOut(originalSystemOut);
+            System.setErr(originalSystemErr);
+            deleteDirectory(tempDirectory);
+        }
+    }
+    
+}
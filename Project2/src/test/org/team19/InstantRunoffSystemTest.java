@@ -19,19 +19,28 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.team19.InstantRunoffSystem.Ballot;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.lang.reflect.Method;
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 final class InstantRunoffSystemTest {
     
@@ -260,6 +269,189 @@ final class InstantRunoffSystemTest {
         }
     }
     
+    @Test
+    void testAddBallotSparse() {
+        final InstantRunoffSystem instantRunoffSystem = createIrNullStreams();
+        
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        try {
+            //Retrieve the ballot parsing method for the voting system
+            Method parseBallotTmp = null;
+            try {
+                parseBallotTmp = InstantRunoffSystem.class.getDeclaredMethod("parseBallot", int.class, String.class, String.class, int.class);
+                parseBallotTmp.setAccessible(true);
+            }
+            catch(NoSuchMethodException e) {
+                Assertions.fail("Unable to retrieve parseBallot from InstantRunoffSystem");
+            }
+            final Method parseBallot = parseBallotTmp;
+            
+            //Set up the voting system with sparse ballots and the following candidate header information and candidates
+            try {
+                instantRunoffSystem.importElectionTypeOptions(new String[] {"SPARSE"}, "1", 1);
+                instantRunoffSystem.importCandidatesHeader(new String[] {"5"}, "1", 2);
+                instantRunoffSystem.addCandidates("C0 (P0), C1 (P1), C2 (P2), C3 (P3), C4 (P4)", "1", 3);
+                instantRunoffSystem.importBallotsHeader(new String[] {"2"}, "1", 4);
+            }
+            catch(ParseException e) {
+                Assertions.fail("Unable to properly set up the candidates for the test");
+            }
+            
+            Assertions.assertAll(
+                //Test the case where no candidate is ranked
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallot(1, "", "1", 5)),
+                //Test the case where there is a non-integer candidate index
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallot(1, "1,a", "1", 5)),
+                //Test the case where there is a candidate index below or above the possible range
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallot(1, "1,0,2", "1", 5)),
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallot(1, "1,6,2", "1", 5)),
+                //Test the case where a rank is skipped
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallot(1, "1,,2", "1", 5)),
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallot(1, ",1,2", "1", 5)),
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallot(1, "1,2,", "1", 5)),
+                //Test the case where there are multiple candidates for a single rank
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallot(1, "1 2,3", "1", 5)),
+                //Test the case where a candidate is ranked more than once
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallot(1, "1,2,1", "1", 5)),
+                //Test that a candidate ranked more than once is still found after the stamps of the ballot lines run out and are cleared
+                () -> {
+                    instantRunoffSystem.sparseRankStamp = Integer.MAX_VALUE - 1;
+                    Assertions.assertEquals(2, ((Ballot) parseBallot.invoke(instantRunoffSystem, 1, "1,2", "1", 5)).getRankedCandidates().length);
+                    Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallot(1, "2,2", "1", 5));
+                    Assertions.assertEquals(2, ((Ballot) parseBallot.invoke(instantRunoffSystem, 1, "2,1", "1", 5)).getRankedCandidates().length);
+                },
+                //Test the case where only some candidates are ranked
+                () -> Assertions.assertEquals(
+                    new Ballot(1, new Candidate[] {
+                        new Candidate("C4", "P4"),
+                        new Candidate("C3", "P3"),
+                        new Candidate("C1", "P1")
+                    }),
+                    parseBallot.invoke(instantRunoffSystem, 1, " 5 , 4,2 ", "1", 5)
+                ),
+                //Test that a ballot that does not rank at least half of the candidates is invalidated
+                () -> Assertions.assertDoesNotThrow(() -> instantRunoffSystem.addBallot(1, "3,1", "1", 5)),
+                () -> Assertions.assertDoesNotThrow(() -> instantRunoffSystem.addBallot(2, "3,1,2", "1", 6)),
+                () -> Assertions.assertEquals(Set.of(new Candidate("C2", "P2")), instantRunoffSystem.candidateBallotsMap.keySet()),
+                () -> Assertions.assertEquals(1, instantRunoffSystem.getNumBallots())
+            );
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    @Test
+    void testAddBallotsAggregated() {
+        final InstantRunoffSystem instantRunoffSystem = createIrNullStreams();
+        
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        try {
+            //Set up the voting system with pre-aggregated ballots and the following candidate and ballot header information and candidates
+            try {
+                instantRunoffSystem.importElectionTypeOptions(new String[] {"COUNTS"}, "1", 1);
+                instantRunoffSystem.importCandidatesHeader(new String[] {"4"}, "1", 2);
+                instantRunoffSystem.addCandidates("C0 (P0), C1 (P1), C2 (P2), C3 (P3)", "1", 3);
+                instantRunoffSystem.importBallotsHeader(new String[] {"12"}, "1", 4);
+            }
+            catch(ParseException e) {
+                Assertions.fail("Unable to properly set up the candidates for the test");
+            }
+            
+            final Candidate c0 = new Candidate("C0", "P0");
+            final Candidate c1 = new Candidate("C1", "P1");
+            final Candidate c2 = new Candidate("C2", "P2");
+            
+            //The expected ballots for C0 and C2, which are on their first ranked candidates
+            final Ballot c0ExpectedBallot = new Ballot(1, 5, new Candidate[] {c0, c1});
+            c0ExpectedBallot.getNextCandidate();
+            final Ballot c2ExpectedBallot = new Ballot(6, 4, new Candidate[] {c2, c0});
+            c2ExpectedBallot.getNextCandidate();
+            
+            Assertions.assertAll(
+                //Test the case where there is no count
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallots(1, "1", "1", 5)),
+                //Test the case where the count is negative or not an integer
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallots(1, "-1,1,2,,", "1", 5)),
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallots(1, "a,1,2,,", "1", 5)),
+                //Test the case where the count would overflow the ballot numbers
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallots(2, Integer.MAX_VALUE + ",1,2,,", "1", 5)),
+                //Test the case where the ranking itself is invalid
+                () -> Assertions.assertThrows(ParseException.class, () -> instantRunoffSystem.addBallots(1, "3,1,3,,", "1", 5)),
+                //Test valid ballot count lines, which return the number of ballots they represent
+                () -> Assertions.assertEquals(5, instantRunoffSystem.addBallots(1, "5,1,2,,", "1", 5)),
+                () -> Assertions.assertEquals(0, instantRunoffSystem.addBallots(6, "0,,1,2,", "1", 6)),
+                () -> Assertions.assertEquals(4, instantRunoffSystem.addBallots(6, " 4 ,2,,1,", "1", 7)),
+                //Test that ballots that do not rank at least half of the candidates are invalidated as a group
+                () -> Assertions.assertEquals(3, instantRunoffSystem.addBallots(10, "3,1,,,", "1", 8)),
+                //Test that the ballots were added as weighted groups to their first ranked candidates
+                () -> Assertions.assertEquals(
+                    List.of(c0ExpectedBallot),
+                    List.copyOf(instantRunoffSystem.candidateBallotsMap.get(c0))
+                ),
+                () -> Assertions.assertEquals(
+                    List.of(c2ExpectedBallot),
+                    List.copyOf(instantRunoffSystem.candidateBallotsMap.get(c2))
+                ),
+                () -> Assertions.assertEquals(Set.of(c0, c2), instantRunoffSystem.candidateBallotsMap.keySet()),
+                //Test that the weighted groups are counted as multiple ballots and that the invalidated ballots were removed
+                () -> Assertions.assertEquals(5, instantRunoffSystem.getNumBallots(instantRunoffSystem.candidateBallotsMap.get(c0))),
+                () -> Assertions.assertEquals(9, instantRunoffSystem.getNumBallots())
+            );
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    @Test
+    void testRunElectionAggregated() {
+        final InstantRunoffSystem ir = createIrNullStreams();
+        
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        try {
+            try {
+                ir.importElectionTypeOptions(new String[] {"COUNTS"}, "1", 1);
+                ir.importCandidatesHeader(new String[] {"3"}, "1", 2);
+                ir.addCandidates("C0 (P0), C1 (P1), C2 (P2)", "1", 3);
+                ir.importBallotsHeader(new String[] {"100"}, "1", 4);
+                
+                //C0 has the most first-choice ballots, but C2's eliminated ballots go to C1 to give them the majority
+                ir.addBallots(1, "40,1,2,", "1", 5);
+                ir.addBallots(41, "35,,1,2", "1", 6);
+                ir.addBallots(76, "25,,2,1", "1", 7);
+            }
+            catch(ParseException e) {
+                Assertions.fail("Unable to properly set up the election for the test");
+            }
+            
+            ir.runElection();
+            
+            final Candidate c1 = new Candidate("C1", "P1");
+            Assertions.assertAll(
+                //Test that C2 was eliminated and that the ballots were transferred as a group
+                () -> Assertions.assertEquals(Set.of(new Candidate("C0", "P0"), c1), ir.candidateBallotsMap.keySet()),
+                () -> Assertions.assertEquals(60, ir.getNumBallots(ir.candidateBallotsMap.get(c1))),
+                () -> Assertions.assertEquals(2, ir.candidateBallotsMap.get(c1).size())
+            );
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+    }
+    
     @Test
     void testAddBallotInvalidationOdd() {
         final InstantRunoffSystem instantRunoffSystem = createIrNullStreams();
@@ -642,8 +834,8 @@ final class InstantRunoffSystemTest {
         ir.candidateBallotsMap.put(ir.candidates[2], new ArrayDeque<>(List.of(ballots[3], ballots[4])));              //2
         ir.candidateBallotsMap.put(ir.candidates[3], new ArrayDeque<>(List.of(ballots[5])));                          //1
         
-        //Eliminates Kleinberg - 0 ballots
-        ir.eliminateLowest(ir.candidates[1]);
+        //Eliminates Kleinberg - 0 ballots, so none are transferred
+        assertEquals(0, ir.eliminateLowest(ir.candidates[1]));
         
         //Test to check that at eliminated candidate is removed from the map
         assertFalse(ir.candidateBallotsMap.containsKey(ir.candidates[1]));
@@ -654,8 +846,8 @@ final class InstantRunoffSystemTest {
         assertEquals(2, ir.candidateBallotsMap.get(ir.candidates[2]).size());
         assertEquals(1, ir.candidateBallotsMap.get(ir.candidates[3]).size());
         
-        //Eliminates Royce - 1 ballot
-        ir.eliminateLowest(ir.candidates[3]);
+        //Eliminates Royce - 1 ballot, which has no next choice and is not transferred
+        assertEquals(0, ir.eliminateLowest(ir.candidates[3]));
         
         //Test to check that at eliminated candidate is removed from the map
         assertFalse(ir.candidateBallotsMap.containsKey(ir.candidates[3]));
@@ -665,8 +857,8 @@ final class InstantRunoffSystemTest {
         assertEquals(3, ir.candidateBallotsMap.get(ir.candidates[0]).size());
         assertEquals(2, ir.candidateBallotsMap.get(ir.candidates[2]).size());
         
-        //Eliminates Chou - 2 ballots
-        ir.eliminateLowest(ir.candidates[2]);
+        //Eliminates Chou - 2 ballots, of which only ballot 4 has a remaining next choice to be transferred to
+        assertEquals(1, ir.eliminateLowest(ir.candidates[2]));
         
         //Test to check that at eliminated candidate is removed from the map
         assertFalse(ir.candidateBallotsMap.containsKey(ir.candidates[2]));
@@ -1171,4 +1363,121 @@ final class InstantRunoffSystemTest {
             System.setOut(originalSystemOut);
         }
     }
+    
+    /**
+     * Runs the given IR election with tie breaks seeded, summarizing the transfers if requested, and returns the {@link InstantRunoffSystem}
+     */
+    private static InstantRunoffSystem runSeeded(final byte[] election, final OutputStream auditOutput, final boolean summarizeTransfers)
+        throws ParseException {
+        return (InstantRunoffSystem) new ElectionRun(
+            new InputStream[] {new ByteArrayInputStream(election)}, new String[] {"election"}, auditOutput, NULL_OUTPUT
+        )
+            .setBeforeParsing(votingSystem -> {
+                ((InstantRunoffSystem) votingSystem).rand = new Random(8);
+                ((InstantRunoffSystem) votingSystem).setSummarizeTransfers(summarizeTransfers);
+            })
+            .run();
+    }
+    
+    /**
+     * Returns the sentences of the given audit that describe the transfer of a ballot, in sorted order
+     */
+    private static List<String> getBallotTransferSentences(final String audit) {
+        return Arrays.stream(audit.split("\n"))
+            .filter(line -> line.contains("their next choice as candidate") || line.contains("did not have any other candidates ranked"))
+            .sorted()
+            .collect(Collectors.toList());
+    }
+    
+    @Test
+    void testSummarizeTransfers() throws IOException, ParseException {
+        final ByteArrayOutputStream election = new ByteArrayOutputStream();
+        ElectionGenerator.forInstantRunoff(8, 3, 3000).setSeed(12).setTruncation(0.5).generate(election);
+        
+        final ByteArrayOutputStream detailedAudit = new ByteArrayOutputStream();
+        final ByteArrayOutputStream summarizedAudit = new ByteArrayOutputStream();
+        final PrintStream originalSystemOut = System.out;
+        final InstantRunoffSystem detailed;
+        final InstantRunoffSystem summarized;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            detailed = runSeeded(election.toByteArray(), detailedAudit, false);
+            summarized = runSeeded(election.toByteArray(), summarizedAudit, true);
+        }
+        finally {
+            System.setOut(originalSystemOut);
+        }
+        
+        //Query the transfers of every ballot and of a range of ballots
+        final StringWriter allTransfers = new StringWriter();
+        summarized.printBallotTransfers(1, 3000, new PrintWriter(allTransfers));
+        final StringWriter rangeTransfers = new StringWriter();
+        summarized.printBallotTransfers(100, 199, new PrintWriter(rangeTransfers));
+        
+        final List<String> detailedSentences = getBallotTransferSentences(detailedAudit.toString());
+        final List<String> rangeSentences = getBallotTransferSentences(rangeTransfers.toString());
+        
+        Assertions.assertAll(
+            //Testing that summarizing the transfers does not change the result of the election
+            () -> Assertions.assertEquals(detailed.getWinners(), summarized.getWinners()),
+            () -> Assertions.assertTrue(summarizedAudit.toString().contains("were transferred as follows:")),
+            () -> Assertions.assertTrue(getBallotTransferSentences(summarizedAudit.toString()).isEmpty()),
+            () -> Assertions.assertTrue(summarizedAudit.size() < detailedAudit.size()),
+            //Testing that querying every ballot gives the same transfers as the detailed audit, including skipped and exhausted choices
+            () -> Assertions.assertTrue(detailedSentences.stream().anyMatch(sentence -> sentence.contains("was already eliminated"))),
+            () -> Assertions.assertTrue(detailedSentences.stream().anyMatch(sentence -> sentence.contains("will not be distributed"))),
+            () -> Assertions.assertEquals(detailedSentences, getBallotTransferSentences(allTransfers.toString())),
+            //Testing that querying a range gives exactly the transfers of the ballots in the range
+            () -> Assertions.assertFalse(rangeSentences.isEmpty()),
+            () -> Assertions.assertEquals(
+                detailedSentences.stream()
+                    .filter(sentence -> {
+                        final int ballotNumber = Integer.parseInt(sentence.split(" ")[1]);
+                        return ballotNumber >= 100 && ballotNumber <= 199;
+                    })
+                    .collect(Collectors.toList()),
+                rangeSentences
+            ),
+            () -> Assertions.assertThrows(
+                IllegalStateException.class, () -> detailed.printBallotTransfers(1, 3000, new PrintWriter(new StringWriter()))
+            )
+        );
+    }
+    
+    @Test
+    void testNoAudit() throws IOException, ParseException {
+        final ByteArrayOutputStream election = new ByteArrayOutputStream();
+        ElectionGenerator.forInstantRunoff(8, 3, 3000).setSeed(15).setTruncation(0.5).generate(election);
+        
+        //Run the election once with a text audit and once without an audit, with the same tie breaks
+        final PrintStream originalSystemOut = System.out;
+        final List<ByteArrayOutputStream> reports = List.of(new ByteArrayOutputStream(), new ByteArrayOutputStream());
+        final List<InstantRunoffSystem> systems = new ArrayList<>();
+        final ByteArrayOutputStream textAudit = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            for(int i = 0; i < 2; i++) {
+                systems.add((InstantRunoffSystem) new ElectionRun(
+                    new InputStream[] {new ByteArrayInputStream(election.toByteArray())}, new String[] {"election"},
+                    i == 0 ? textAudit : VotingSystem.NO_AUDIT, reports.get(i)
+                )
+                    .setBeforeParsing(votingSystem -> ((InstantRunoffSystem) votingSystem).rand = new Random(9))
+                    .run());
+            }
+        }
+        finally {
+            System.setOut(originalSystemOut);
+        }
+        
+        Assertions.assertAll(
+            //Testing that skipping the audit does not change the election or its report
+            () -> Assertions.assertEquals(systems.get(0).getWinners(), systems.get(1).getWinners()),
+            () -> Assertions.assertEquals(reports.get(0).toString(), reports.get(1).toString()),
+            () -> Assertions.assertTrue(textAudit.toString().contains("their next choice as candidate")),
+            () -> Assertions.assertTrue(systems.get(0).auditEnabled),
+            () -> Assertions.assertFalse(systems.get(1).auditEnabled),
+            //Testing that the discarded audit can still be written to after the elections closed it
+            () -> Assertions.assertDoesNotThrow(() -> VotingSystem.NO_AUDIT.write(new byte[] {1, 2}))
+        );
+    }
 }
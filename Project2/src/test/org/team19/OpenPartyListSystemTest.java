@@ -17,19 +17,21 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.lang.reflect.Method;
 import java.text.ParseException;
-import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -251,11 +253,56 @@ final class OpenPartyListSystemTest {
                 () -> Assertions.assertThrows(ParseException.class, () -> openPartyListSystem.addBallot(1, ",2,1,,", "1", 5)),
                 //Test the case where there are multiple 1s
                 () -> Assertions.assertThrows(ParseException.class, () -> openPartyListSystem.addBallot(1, "1,,1,,", "1", 5)),
-                //Testing a valid ballot
-                () -> Assertions.assertEquals(
-                    new Candidate("C3", "P3"),
-                    parseBallot.invoke(openPartyListSystem, ",,,1,", "1", 5)
-                )
+                //Testing a valid ballot, which gives the position of the chosen candidate
+                () -> Assertions.assertEquals(3, parseBallot.invoke(openPartyListSystem, ",,,1,", "1", 5))
+            );
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    @Test
+    void testAddBallotsAggregated() {
+        final OpenPartyListSystem openPartyListSystem = createOplNullStreams();
+        
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        try {
+            //Set up the voting system with pre-aggregated ballots and the following candidate and ballot header information and candidates
+            try {
+                openPartyListSystem.importElectionTypeOptions(new String[] {"COUNTS"}, "1", 1);
+                openPartyListSystem.importCandidatesHeader(new String[] {"3"}, "1", 2);
+                openPartyListSystem.addCandidates("[C0, P0], [C1, P0], [C2, P1]", "1", 3);
+                openPartyListSystem.importBallotsHeader(new String[] {"2", "10"}, "1", 4);
+            }
+            catch(ParseException e) {
+                Assertions.fail("Unable to properly set up the candidates for the test");
+            }
+            
+            Assertions.assertAll(
+                //Test the case where the line does not have exactly two values
+                () -> Assertions.assertThrows(ParseException.class, () -> openPartyListSystem.addBallots(1, "1,2,3", "1", 6)),
+                //Test the case where the candidate index is out of range
+                () -> Assertions.assertThrows(ParseException.class, () -> openPartyListSystem.addBallots(1, "4,2", "1", 6)),
+                () -> Assertions.assertThrows(ParseException.class, () -> openPartyListSystem.addBallots(1, "0,2", "1", 6)),
+                //Test the case where the count is negative or not an integer
+                () -> Assertions.assertThrows(ParseException.class, () -> openPartyListSystem.addBallots(1, "1,-2", "1", 6)),
+                () -> Assertions.assertThrows(ParseException.class, () -> openPartyListSystem.addBallots(1, "1,a", "1", 6)),
+                //Test the case where the count goes beyond the number of ballots provided in the ballots header
+                () -> Assertions.assertThrows(ParseException.class, () -> openPartyListSystem.addBallots(1, "1,11", "1", 6)),
+                //Test valid ballot count lines, which return the number of ballots they represent
+                () -> Assertions.assertEquals(4, openPartyListSystem.addBallots(1, " 1 , 4 ", "1", 6)),
+                () -> Assertions.assertEquals(0, openPartyListSystem.addBallots(5, "2,0", "1", 7)),
+                () -> Assertions.assertEquals(6, openPartyListSystem.addBallots(5, "3,6", "1", 8)),
+                //Test that the counts were added to the candidates and their parties
+                () -> Assertions.assertEquals(4, openPartyListSystem.partyTable.candidateBallots[0]),
+                () -> Assertions.assertEquals(0, openPartyListSystem.partyTable.candidateBallots[1]),
+                () -> Assertions.assertEquals(4, openPartyListSystem.partyTable.numBallots[openPartyListSystem.partyTable.getId("P0")]),
+                () -> Assertions.assertEquals(6, openPartyListSystem.partyTable.numBallots[openPartyListSystem.partyTable.getId("P1")])
             );
         }
         finally {
@@ -276,6 +323,25 @@ final class OpenPartyListSystemTest {
         Assertions.assertEquals("OPL", createOplNullStreams().getShortName());
     }
     
+    @Test
+    void testImportElectionTypeOptions() {
+        final OpenPartyListSystem openPartyListSystem = createOplNullStreams();
+        
+        Assertions.assertAll(
+            //Test that the largest remainder method is used when no options are given
+            () -> Assertions.assertDoesNotThrow(() -> openPartyListSystem.importElectionTypeOptions(new String[0], "1", 1)),
+            () -> Assertions.assertEquals(OpenPartyListSystem.ApportionmentMethod.LARGEST_REMAINDER, openPartyListSystem.apportionmentMethod),
+            //Test that the D'Hondt method can be selected regardless of case
+            () -> Assertions.assertDoesNotThrow(() -> openPartyListSystem.importElectionTypeOptions(new String[] {"dhondt"}, "1", 1)),
+            () -> Assertions.assertEquals(OpenPartyListSystem.ApportionmentMethod.D_HONDT, openPartyListSystem.apportionmentMethod),
+            //Test that the Sainte-Laguë method can be selected
+            () -> Assertions.assertDoesNotThrow(() -> openPartyListSystem.importElectionTypeOptions(new String[] {"SAINTE_LAGUE"}, "1", 1)),
+            () -> Assertions.assertEquals(OpenPartyListSystem.ApportionmentMethod.SAINTE_LAGUE, openPartyListSystem.apportionmentMethod),
+            //Test that an unknown option results in an exception being thrown
+            () -> Assertions.assertThrows(ParseException.class, () -> openPartyListSystem.importElectionTypeOptions(new String[] {"HARE"}, "1", 1))
+        );
+    }
+    
     @Test
     void testToString() {
         final OpenPartyListSystem openPartyListSystem = createOplNullStreams();
@@ -309,39 +375,247 @@ final class OpenPartyListSystemTest {
         }
     }
     
+    @Test
+    void testPartyTableCandidates() {
+        final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+        
+        //Adds more candidates than the initial capacity of the columns, alternating between two parties
+        final List<Candidate> candidates = new ArrayList<>();
+        for(int i = 0; i < 10; i++) {
+            candidates.add(new Candidate("C" + i, i % 2 == 0 ? "A" : "B"));
+            Assertions.assertEquals(i, partyTable.addCandidate(candidates.get(i)));
+        }
+        
+        //Gives the candidates of party A 1, 3, 1, 0, and 3 ballots, and every candidate of party B 2 ballots
+        final int[] ballots = {1, 3, 1, 0, 3};
+        for(int i = 0; i < 10; i++) {
+            partyTable.addBallots(i, i % 2 == 0 ? ballots[i / 2] : 2);
+        }
+        
+        partyTable.groupCandidates();
+        final int[] grouped = Arrays.copyOf(partyTable.partyCandidates, partyTable.candidatesSize);
+        partyTable.orderCandidatesByBallots();
+        
+        Assertions.assertAll(
+            () -> Assertions.assertEquals(2, partyTable.size),
+            () -> Assertions.assertArrayEquals(new int[] {5, 5}, Arrays.copyOf(partyTable.numCandidates, 2)),
+            () -> Assertions.assertArrayEquals(new int[] {8, 10}, Arrays.copyOf(partyTable.numBallots, 2)),
+            //Test that grouping keeps the order in which the candidates were listed
+            () -> Assertions.assertArrayEquals(new int[] {0, 2, 4, 6, 8, 1, 3, 5, 7, 9}, grouped),
+            //Test that ordering sorts each party's candidates by ballots, keeping the listed order for equal ballots
+            () -> Assertions.assertArrayEquals(new int[] {2, 8, 0, 4, 6, 1, 3, 5, 7, 9}, partyTable.partyCandidates),
+            () -> Assertions.assertEquals(5, partyTable.getPartyCandidatesEnd(partyTable.getId("A"))),
+            () -> Assertions.assertEquals(10, partyTable.getPartyCandidatesEnd(partyTable.getId("B")))
+        );
+    }
+    
     @Test
     void testGetRemainingBallots() {
         final OpenPartyListSystem opl = createOplNullStreams();
         
-        final OpenPartyListSystem.PartyInformation testPartyInformation = new OpenPartyListSystem.PartyInformation();
+        final int testParty = opl.partyTable.addParty("A");
         
-        testPartyInformation.numSeats = 0;
-        testPartyInformation.numBallots = 10;
+        opl.partyTable.numSeats[testParty] = 0;
+        opl.partyTable.numBallots[testParty] = 10;
         
         /*
          * Tests the case where a party has been allocated 0 seats.
          * No ballots taken out from initial allocation
          */
-        assertEquals("10", opl.getRemainingBallots(testPartyInformation));
+        assertEquals("10", opl.getRemainingBallots(testParty));
         
-        testPartyInformation.numSeats = 2;
-        testPartyInformation.remainder = new Fraction(5, 1);
+        opl.partyTable.numSeats[testParty] = 2;
+        opl.partyTable.setRemainder(testParty, new Fraction(5, 1));
         
         //Tests the case where a party has > 0 seats and remaining ballots is a whole number (numerator of 1)
-        assertEquals("5", opl.getRemainingBallots(testPartyInformation));
+        assertEquals("5", opl.getRemainingBallots(testParty));
         
-        testPartyInformation.remainder = new Fraction(4, 3);
+        opl.partyTable.setRemainder(testParty, new Fraction(4, 3));
         
         //Tests the case where a party has > 0 seats and remaining ballots is not a whole number
-        assertEquals("1.3333", opl.getRemainingBallots(testPartyInformation));
+        assertEquals("1.3333", opl.getRemainingBallots(testParty));
+    }
+    
+    /**
+     * Runs {@link OpenPartyListSystem#allocateSeatsByHighestAverages()} with the given apportionment method on parties A, B, C, and D with 100000,
+     * 80000, 30000, and 20000 ballots, respectively, and returns the resultant seats of each party
+     *
+     * @param apportionmentMethod The highest averages method to use
+     * @param numSeats            The number of seats to allocate
+     * @param numCandidatesA      The number of candidates that party A has, with the other parties having 5 candidates each
+     * @return The number of seats allocated to parties A, B, C, and D, in that order
+     */
+    private static List<Integer> allocateSeatsByHighestAverages(final OpenPartyListSystem.ApportionmentMethod apportionmentMethod,
+        final int numSeats, final int numCandidatesA) {
+        final OpenPartyListSystem opl = createOplNullStreams();
+        opl.apportionmentMethod = apportionmentMethod;
+        opl.numSeats = numSeats;
+        
+        final int[] partyBallots = {100000, 80000, 30000, 20000};
+        final String[] parties = {"A", "B", "C", "D"};
+        for(int i = 0; i < parties.length; i++) {
+            final int party = opl.partyTable.addParty(parties[i]);
+            opl.partyTable.numBallots[party] = partyBallots[i];
+            opl.partyTable.numCandidates[party] = i == 0 ? numCandidatesA : 5;
+            opl.numBallots += partyBallots[i];
+        }
+        
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        try {
+            opl.allocateSeatsByHighestAverages();
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+        
+        final List<Integer> seats = new ArrayList<>();
+        for(final String party : parties) {
+            seats.add(opl.partyTable.numSeats[opl.partyTable.getId(party)]);
+        }
+        return seats;
+    }
+    
+    @Test
+    void testAllocateSeatsByHighestAverages() {
+        Assertions.assertAll(
+            //Test the D'Hondt method on a typical election
+            () -> Assertions.assertEquals(
+                List.of(4, 3, 1, 0), allocateSeatsByHighestAverages(OpenPartyListSystem.ApportionmentMethod.D_HONDT, 8, 5)
+            ),
+            //Test the Sainte-Laguë method on the same election, which favors smaller parties
+            () -> Assertions.assertEquals(
+                List.of(3, 3, 1, 1), allocateSeatsByHighestAverages(OpenPartyListSystem.ApportionmentMethod.SAINTE_LAGUE, 8, 5)
+            ),
+            //Test that a party does not receive more seats than it has candidates
+            () -> Assertions.assertEquals(
+                List.of(2, 4, 1, 1), allocateSeatsByHighestAverages(OpenPartyListSystem.ApportionmentMethod.D_HONDT, 8, 2)
+            ),
+            //Test that seats are left unallocated when there are more seats than candidates
+            () -> Assertions.assertEquals(
+                List.of(1, 5, 5, 5), allocateSeatsByHighestAverages(OpenPartyListSystem.ApportionmentMethod.D_HONDT, 20, 1)
+            ),
+            //Test that the remainder of each party is its average for its next seat
+            () -> {
+                final OpenPartyListSystem opl = createOplNullStreams();
+                opl.apportionmentMethod = OpenPartyListSystem.ApportionmentMethod.SAINTE_LAGUE;
+                opl.numSeats = 1;
+                final int party = opl.partyTable.addParty("A");
+                opl.partyTable.numBallots[party] = 10;
+                opl.partyTable.numCandidates[party] = 2;
+                opl.allocateSeatsByHighestAverages();
+                Assertions.assertEquals(new Fraction(10, 3), opl.partyTable.getRemainder(party));
+            }
+        );
+    }
+    
+    /**
+     * Creates an {@link OpenPartyListSystem} with parties A, B, C, and D with 100000, 80000, 30000, and 20000 ballots, respectively, and 5
+     * candidates each, without running its election
+     *
+     * @param apportionmentMethod The apportionment method to use
+     * @param numSeats            The number of seats in the election
+     * @return The {@link OpenPartyListSystem} ready to project its seats
+     */
+    private static OpenPartyListSystem createProjectionElection(final OpenPartyListSystem.ApportionmentMethod apportionmentMethod,
+        final int numSeats) {
+        final OpenPartyListSystem opl = createOplNullStreams();
+        opl.apportionmentMethod = apportionmentMethod;
+        opl.numSeats = numSeats;
+        
+        final int[] partyBallots = {100000, 80000, 30000, 20000};
+        final String[] parties = {"A", "B", "C", "D"};
+        for(int i = 0; i < parties.length; i++) {
+            final int party = opl.partyTable.addParty(parties[i]);
+            opl.partyTable.numBallots[party] = partyBallots[i];
+            for(int j = 0; j < 5; j++) {
+                opl.partyTable.addCandidate(new Candidate(parties[i] + j, parties[i]));
+            }
+        }
+        return opl;
+    }
+    
+    @Test
+    void testProjectSeats() {
+        final OpenPartyListSystem largestRemainder = createProjectionElection(OpenPartyListSystem.ApportionmentMethod.LARGEST_REMAINDER, 8);
+        largestRemainder.rand = new Random(4);
+        final Map<String, Integer> largestRemainderProjection = largestRemainder.projectSeats();
+        final OpenPartyListSystem empty = createProjectionElection(OpenPartyListSystem.ApportionmentMethod.D_HONDT, 8);
+        Arrays.fill(empty.partyTable.numBallots, 0);
+        
+        Assertions.assertAll(
+            //Test the Hare quota and largest remainders, where B and D take the seats left after the initial allocation
+            () -> Assertions.assertEquals(Map.of("A", 3, "B", 3, "C", 1, "D", 1), largestRemainderProjection),
+            //Test that the projection lists the parties in order and leaves the seats and tie-breaking randomness of the election untouched
+            () -> Assertions.assertEquals(List.of("A", "B", "C", "D"), new ArrayList<>(largestRemainderProjection.keySet())),
+            () -> Assertions.assertArrayEquals(new int[4], Arrays.copyOf(largestRemainder.partyTable.numSeats, 4)),
+            () -> Assertions.assertEquals(new Random(4).nextInt(), largestRemainder.rand.nextInt()),
+            //Test the highest averages methods, which match allocateSeatsByHighestAverages
+            () -> Assertions.assertEquals(
+                Map.of("A", 4, "B", 3, "C", 1, "D", 0),
+                createProjectionElection(OpenPartyListSystem.ApportionmentMethod.D_HONDT, 8).projectSeats()
+            ),
+            () -> Assertions.assertEquals(
+                Map.of("A", 3, "B", 3, "C", 1, "D", 1),
+                createProjectionElection(OpenPartyListSystem.ApportionmentMethod.SAINTE_LAGUE, 8).projectSeats()
+            ),
+            //Test that seats are limited by the number of candidates and left unallocated once every candidate would have a seat
+            () -> Assertions.assertEquals(
+                Map.of("A", 5, "B", 5, "C", 5, "D", 5),
+                createProjectionElection(OpenPartyListSystem.ApportionmentMethod.LARGEST_REMAINDER, 24).projectSeats()
+            ),
+            //Test that nothing is projected before any ballots are added
+            () -> Assertions.assertEquals(Map.of("A", 0, "B", 0, "C", 0, "D", 0), empty.projectSeats())
+        );
+    }
+    
+    @Test
+    void testProjectSeatsDuringParsing() throws IOException, ParseException {
+        final ByteArrayOutputStream election = new ByteArrayOutputStream();
+        ElectionGenerator.forOpenPartyList(12, 4, 7, 20000).setSeed(3).generate(election);
+        
+        //Project the seats every 5000 ballots while the ballots are parsed
+        final List<Map<String, Integer>> projections = new ArrayList<>();
+        final PrintStream originalSystemOut = System.out;
+        final OpenPartyListSystem opl;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            opl = (OpenPartyListSystem) new ElectionRun(
+                new InputStream[] {new ByteArrayInputStream(election.toByteArray())}, new String[] {"election"}, NULL_OUTPUT, NULL_OUTPUT
+            )
+                .setBallotListener(5000, votingSystem -> projections.add(((OpenPartyListSystem) votingSystem).projectSeats()))
+                .run();
+        }
+        finally {
+            System.setOut(originalSystemOut);
+        }
+        
+        final Map<String, Integer> seats = new LinkedHashMap<>();
+        for(int party = 0; party < opl.partyTable.size; party++) {
+            seats.put(opl.partyTable.parties[party], opl.partyTable.numSeats[party]);
+        }
+        
+        Assertions.assertAll(
+            () -> Assertions.assertEquals(4, projections.size()),
+            () -> Assertions.assertTrue(projections.stream().allMatch(projection -> projection.values().stream().mapToInt(i -> i).sum() == 7)),
+            //Testing that the projection once every ballot has been parsed is the result of the election
+            () -> Assertions.assertEquals(seats, projections.get(3)),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> new ElectionRun(
+                new InputStream[] {InputStream.nullInputStream()}, new String[] {"election"}, NULL_OUTPUT, NULL_OUTPUT
+            ).setBallotListener(0, null))
+        );
     }
     
     @Test
     void testAllocateInitialSeatsTypical() {
         //Creates parties
-        final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+        final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+        final int partyD = partyTable.addParty("D");
+        final int partyR = partyTable.addParty("R");
+        final int partyI = partyTable.addParty("I");
         
         //Creates candidates
         final Candidate fosterD = new Candidate("Foster", "D");
@@ -352,26 +626,20 @@ final class OpenPartyListSystemTest {
         final Candidate smithI = new Candidate("Smith", "I");
         
         //Creates data for each party
-        partyD.numCandidates = 2;
-        partyD.numBallots = 5;
+        partyTable.numBallots[partyD] = 5;
         
-        partyD.orderedCandidateBallots = new ArrayList<>();
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 3));
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 2));
+        partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 3;
+        partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 2;
         
-        partyR.numCandidates = 3;
-        partyR.numBallots = 3;
+        partyTable.numBallots[partyR] = 3;
         
-        partyR.orderedCandidateBallots = new ArrayList<>();
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 1));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 2));
+        partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 1;
+        partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 2;
         
-        partyI.numCandidates = 1;
-        partyI.numBallots = 1;
+        partyTable.numBallots[partyI] = 1;
         
-        partyI.orderedCandidateBallots = new ArrayList<>();
-        partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 1));
+        partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 1;
         
         //Creates OPL system
         final OpenPartyListSystem opl = new OpenPartyListSystem(NULL_OUTPUT, NULL_OUTPUT);
@@ -380,24 +648,7 @@ final class OpenPartyListSystemTest {
         opl.numSeats = 3;
         opl.numBallots = 9;
         
-        opl.partyToPartyInformation = new LinkedHashMap<>();
-        opl.partyToPartyInformation.put("D", partyD);
-        opl.partyToPartyInformation.put("R", partyR);
-        opl.partyToPartyInformation.put("I", partyI);
-        
-        opl.partyToCandidateCounts = new LinkedHashMap<>();
-        
-        opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("D").put(fosterD, 3);
-        opl.partyToCandidateCounts.get("D").put(pikeD, 2);
-        
-        opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-        opl.partyToCandidateCounts.get("R").put(jonesR, 1);
-        opl.partyToCandidateCounts.get("R").put(borgR, 2);
-        
-        opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("I").put(smithI, 1);
+        opl.partyTable = partyTable;
         
         //Performs the initial allocation of seats
         final Pair<Integer, Set<String>> returnValue = opl.allocateInitialSeats(new Fraction(opl.numBallots, opl.numSeats));
@@ -415,9 +666,10 @@ final class OpenPartyListSystemTest {
     @Test
     void testAllocateInitialSeatsTypicalOutput() {
         //Creates parties
-        final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+        final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+        final int partyD = partyTable.addParty("D");
+        final int partyR = partyTable.addParty("R");
+        final int partyI = partyTable.addParty("I");
         
         //Creates candidates
         final Candidate fosterD = new Candidate("Foster", "D");
@@ -428,26 +680,20 @@ final class OpenPartyListSystemTest {
         final Candidate smithI = new Candidate("Smith", "I");
         
         //Creates data for each party
-        partyD.numCandidates = 2;
-        partyD.numBallots = 5;
+        partyTable.numBallots[partyD] = 5;
         
-        partyD.orderedCandidateBallots = new ArrayList<>();
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 3));
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 2));
+        partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 3;
+        partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 2;
         
-        partyR.numCandidates = 3;
-        partyR.numBallots = 3;
+        partyTable.numBallots[partyR] = 3;
         
-        partyR.orderedCandidateBallots = new ArrayList<>();
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 1));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 2));
+        partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 1;
+        partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 2;
         
-        partyI.numCandidates = 1;
-        partyI.numBallots = 1;
+        partyTable.numBallots[partyI] = 1;
         
-        partyI.orderedCandidateBallots = new ArrayList<>();
-        partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 1));
+        partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 1;
         
         final String auditOutput = "Project2/testing/test-resources/openPartyListSystemTest/allocate_initial_seats_typical_audit_actual.txt"
             .replace('/', FILE_SEP);
@@ -458,24 +704,7 @@ final class OpenPartyListSystemTest {
         opl.numSeats = 3;
         opl.numBallots = 9;
         
-        opl.partyToPartyInformation = new LinkedHashMap<>();
-        opl.partyToPartyInformation.put("D", partyD);
-        opl.partyToPartyInformation.put("R", partyR);
-        opl.partyToPartyInformation.put("I", partyI);
-        
-        opl.partyToCandidateCounts = new LinkedHashMap<>();
-        
-        opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("D").put(fosterD, 3);
-        opl.partyToCandidateCounts.get("D").put(pikeD, 2);
-        
-        opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-        opl.partyToCandidateCounts.get("R").put(jonesR, 1);
-        opl.partyToCandidateCounts.get("R").put(borgR, 2);
-        
-        opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("I").put(smithI, 1);
+        opl.partyTable = partyTable;
         
         try {
             opl.auditWriter = new PrintWriter(new FileOutputStream(auditOutput));
@@ -514,9 +743,10 @@ final class OpenPartyListSystemTest {
     @Test
     void testAllocateInitialSeatsSingleCandidateHasAllVotes() {
         //Creates parties
-        final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+        final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+        final int partyD = partyTable.addParty("D");
+        final int partyR = partyTable.addParty("R");
+        final int partyI = partyTable.addParty("I");
         
         //Creates candidates
         final Candidate fosterD = new Candidate("Foster", "D");
@@ -527,26 +757,20 @@ final class OpenPartyListSystemTest {
         final Candidate smithI = new Candidate("Smith", "I");
         
         //Creates data for each party
-        partyD.numCandidates = 2;
-        partyD.numBallots = 0;
+        partyTable.numBallots[partyD] = 0;
         
-        partyD.orderedCandidateBallots = new ArrayList<>();
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 0));
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 0));
+        partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 0;
         
-        partyR.numCandidates = 3;
-        partyR.numBallots = 0;
+        partyTable.numBallots[partyR] = 0;
         
-        partyR.orderedCandidateBallots = new ArrayList<>();
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 0));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 0));
+        partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 0;
         
-        partyI.numCandidates = 1;
-        partyI.numBallots = 100;
+        partyTable.numBallots[partyI] = 100;
         
-        partyI.orderedCandidateBallots = new ArrayList<>();
-        partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 100));
+        partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 100;
         
         //Creates OPL system
         final OpenPartyListSystem opl = new OpenPartyListSystem(NULL_OUTPUT, NULL_OUTPUT);
@@ -554,24 +778,7 @@ final class OpenPartyListSystemTest {
         opl.numSeats = 4;
         opl.numBallots = 100;
         
-        opl.partyToPartyInformation = new LinkedHashMap<>();
-        opl.partyToPartyInformation.put("D", partyD);
-        opl.partyToPartyInformation.put("R", partyR);
-        opl.partyToPartyInformation.put("I", partyI);
-        
-        opl.partyToCandidateCounts = new LinkedHashMap<>();
-        
-        opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("D").put(fosterD, 0);
-        opl.partyToCandidateCounts.get("D").put(pikeD, 0);
-        
-        opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-        opl.partyToCandidateCounts.get("R").put(jonesR, 0);
-        opl.partyToCandidateCounts.get("R").put(borgR, 0);
-        
-        opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("I").put(smithI, 100);
+        opl.partyTable = partyTable;
         
         //Performs the initial allocation of seats where one candidate has all the vote
         final Pair<Integer, Set<String>> returnValue = opl.allocateInitialSeats(new Fraction(opl.numBallots, opl.numSeats));
@@ -580,8 +787,7 @@ final class OpenPartyListSystemTest {
          * Test to ensure partyI only receives 1 seat b/c it only has one candidate
          * despite receiving all the votes
          */
-        assertEquals(1, partyI.numSeats);
-        
+        assertEquals(1, partyTable.numSeats[partyI]);
         
         /*
          * General test case with standard conditions
@@ -596,9 +802,10 @@ final class OpenPartyListSystemTest {
     @Test
     void testAllocateInitialSeatsSingleCandidateHasAllVotesOutput() {
         //Creates parties
-        final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+        final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+        final int partyD = partyTable.addParty("D");
+        final int partyR = partyTable.addParty("R");
+        final int partyI = partyTable.addParty("I");
         
         //Creates candidates
         final Candidate fosterD = new Candidate("Foster", "D");
@@ -609,26 +816,20 @@ final class OpenPartyListSystemTest {
         final Candidate smithI = new Candidate("Smith", "I");
         
         //Creates data for each party
-        partyD.numCandidates = 2;
-        partyD.numBallots = 0;
+        partyTable.numBallots[partyD] = 0;
         
-        partyD.orderedCandidateBallots = new ArrayList<>();
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 0));
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 0));
+        partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 0;
         
-        partyR.numCandidates = 3;
-        partyR.numBallots = 0;
+        partyTable.numBallots[partyR] = 0;
         
-        partyR.orderedCandidateBallots = new ArrayList<>();
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 0));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 0));
+        partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 0;
         
-        partyI.numCandidates = 1;
-        partyI.numBallots = 100;
+        partyTable.numBallots[partyI] = 100;
         
-        partyI.orderedCandidateBallots = new ArrayList<>();
-        partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 100));
+        partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 100;
         
         final String auditOutput =
             "Project2/testing/test-resources/openPartyListSystemTest/allocate_initial_seats_single_candidate_has_all_votes_audit_actual.txt"
@@ -647,24 +848,7 @@ final class OpenPartyListSystemTest {
         opl.numSeats = 4;
         opl.numBallots = 100;
         
-        opl.partyToPartyInformation = new LinkedHashMap<>();
-        opl.partyToPartyInformation.put("D", partyD);
-        opl.partyToPartyInformation.put("R", partyR);
-        opl.partyToPartyInformation.put("I", partyI);
-        
-        opl.partyToCandidateCounts = new LinkedHashMap<>();
-        
-        opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("D").put(fosterD, 0);
-        opl.partyToCandidateCounts.get("D").put(pikeD, 0);
-        
-        opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-        opl.partyToCandidateCounts.get("R").put(jonesR, 0);
-        opl.partyToCandidateCounts.get("R").put(borgR, 0);
-        
-        opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("I").put(smithI, 100);
+        opl.partyTable = partyTable;
         
         //Performs the initial allocation of seats where one candidate has all the votes
         opl.allocateInitialSeats(new Fraction(opl.numBallots, opl.numSeats));
@@ -697,9 +881,10 @@ final class OpenPartyListSystemTest {
     @Test
     void testAllocateInitialSeatsBallotsNotEvenlyDivisibleByQuota() {
         //Creates parties
-        final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+        final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+        final int partyD = partyTable.addParty("D");
+        final int partyR = partyTable.addParty("R");
+        final int partyI = partyTable.addParty("I");
         
         //Creates candidates
         final Candidate fosterD = new Candidate("Foster", "D");
@@ -710,26 +895,20 @@ final class OpenPartyListSystemTest {
         final Candidate smithI = new Candidate("Smith", "I");
         
         //Creates data for each party
-        partyD.numCandidates = 2;
-        partyD.numBallots = 3;
+        partyTable.numBallots[partyD] = 3;
         
-        partyD.orderedCandidateBallots = new ArrayList<>();
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 1));
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 2));
+        partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 1;
+        partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 2;
         
-        partyR.numCandidates = 3;
-        partyR.numBallots = 5;
+        partyTable.numBallots[partyR] = 5;
         
-        partyR.orderedCandidateBallots = new ArrayList<>();
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 1));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 2));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 2));
+        partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 1;
+        partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 2;
+        partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 2;
         
-        partyI.numCandidates = 1;
-        partyI.numBallots = 5;
+        partyTable.numBallots[partyI] = 5;
         
-        partyI.orderedCandidateBallots = new ArrayList<>();
-        partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 5));
+        partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 5;
         
         final String auditOutput =
             "Project2/testing/test-resources/openPartyListSystemTest/allocate_initial_seats_ballots_not_evenly_divisible_by_quota_audit_actual.txt"
@@ -748,24 +927,7 @@ final class OpenPartyListSystemTest {
         opl.numSeats = 3;
         opl.numBallots = 13;
         
-        opl.partyToPartyInformation = new LinkedHashMap<>();
-        opl.partyToPartyInformation.put("D", partyD);
-        opl.partyToPartyInformation.put("R", partyR);
-        opl.partyToPartyInformation.put("I", partyI);
-        
-        opl.partyToCandidateCounts = new LinkedHashMap<>();
-        
-        opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("D").put(fosterD, 1);
-        opl.partyToCandidateCounts.get("D").put(pikeD, 2);
-        
-        opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("R").put(deutschR, 1);
-        opl.partyToCandidateCounts.get("R").put(jonesR, 2);
-        opl.partyToCandidateCounts.get("R").put(borgR, 2);
-        
-        opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("I").put(smithI, 5);
+        opl.partyTable = partyTable;
         
         //Performs the initial allocation of seats where ballots are not evenly divisible by the quota
         opl.allocateInitialSeats(new Fraction(opl.numBallots, opl.numSeats));
@@ -798,9 +960,10 @@ final class OpenPartyListSystemTest {
     @Test
     void testAllocateRemainingSeatsTypical() {
         //Creates parties
-        final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+        final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+        final int partyD = partyTable.addParty("D");
+        final int partyR = partyTable.addParty("R");
+        final int partyI = partyTable.addParty("I");
         
         //Creates candidates
         final Candidate fosterD = new Candidate("Foster", "D");
@@ -811,26 +974,20 @@ final class OpenPartyListSystemTest {
         final Candidate smithI = new Candidate("Smith", "I");
         
         //Creates data for each party
-        partyD.numCandidates = 2;
-        partyD.numBallots = 5;
+        partyTable.numBallots[partyD] = 5;
         
-        partyD.orderedCandidateBallots = new ArrayList<>();
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 3));
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 2));
+        partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 3;
+        partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 2;
         
-        partyR.numCandidates = 3;
-        partyR.numBallots = 3;
+        partyTable.numBallots[partyR] = 3;
         
-        partyR.orderedCandidateBallots = new ArrayList<>();
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 1));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 2));
+        partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 1;
+        partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 2;
         
-        partyI.numCandidates = 1;
-        partyI.numBallots = 1;
+        partyTable.numBallots[partyI] = 1;
         
-        partyI.orderedCandidateBallots = new ArrayList<>();
-        partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 1));
+        partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 1;
         
         final String auditOutput =
             "Project2/testing/test-resources/openPartyListSystemTest/allocate_remaining_seats_typical_audit_actual.txt".replace('/', FILE_SEP);
@@ -847,24 +1004,7 @@ final class OpenPartyListSystemTest {
         opl.numSeats = 3;
         opl.numBallots = 9;
         
-        opl.partyToPartyInformation = new LinkedHashMap<>();
-        opl.partyToPartyInformation.put("D", partyD);
-        opl.partyToPartyInformation.put("R", partyR);
-        opl.partyToPartyInformation.put("I", partyI);
-        
-        opl.partyToCandidateCounts = new LinkedHashMap<>();
-        
-        opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("D").put(fosterD, 3);
-        opl.partyToCandidateCounts.get("D").put(pikeD, 2);
-        
-        opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-        opl.partyToCandidateCounts.get("R").put(jonesR, 1);
-        opl.partyToCandidateCounts.get("R").put(borgR, 2);
-        
-        opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("I").put(smithI, 1);
+        opl.partyTable = partyTable;
         
         final Pair<Integer, Set<String>> initialAllocationResults = opl.allocateInitialSeats(new Fraction(opl.numBallots, opl.numSeats));
         
@@ -900,9 +1040,10 @@ final class OpenPartyListSystemTest {
     @Test
     void testAllocateRemainingSeatsSingleCandidateHasAllVotes() {
         //Creates parties
-        final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-        final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+        final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+        final int partyD = partyTable.addParty("D");
+        final int partyR = partyTable.addParty("R");
+        final int partyI = partyTable.addParty("I");
         
         //Creates candidates
         final Candidate fosterD = new Candidate("Foster", "D");
@@ -913,26 +1054,20 @@ final class OpenPartyListSystemTest {
         final Candidate smithI = new Candidate("Smith", "I");
         
         //Creates data for each party
-        partyD.numCandidates = 2;
-        partyD.numBallots = 0;
+        partyTable.numBallots[partyD] = 0;
         
-        partyD.orderedCandidateBallots = new ArrayList<>();
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 0));
-        partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 0));
+        partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 0;
         
-        partyR.numCandidates = 3;
-        partyR.numBallots = 0;
+        partyTable.numBallots[partyR] = 0;
         
-        partyR.orderedCandidateBallots = new ArrayList<>();
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 0));
-        partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 0));
+        partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 0;
+        partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 0;
         
-        partyI.numCandidates = 1;
-        partyI.numBallots = 100;
+        partyTable.numBallots[partyI] = 100;
         
-        partyI.orderedCandidateBallots = new ArrayList<>();
-        partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 100));
+        partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 100;
         
         //Creates OPL system
         final OpenPartyListSystem opl = new OpenPartyListSystem(NULL_OUTPUT, NULL_OUTPUT);
@@ -940,24 +1075,7 @@ final class OpenPartyListSystemTest {
         opl.numSeats = 5;
         opl.numBallots = 100;
         
-        opl.partyToPartyInformation = new LinkedHashMap<>();
-        opl.partyToPartyInformation.put("D", partyD);
-        opl.partyToPartyInformation.put("R", partyR);
-        opl.partyToPartyInformation.put("I", partyI);
-        
-        opl.partyToCandidateCounts = new LinkedHashMap<>();
-        
-        opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("D").put(fosterD, 0);
-        opl.partyToCandidateCounts.get("D").put(pikeD, 0);
-        
-        opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-        opl.partyToCandidateCounts.get("R").put(jonesR, 0);
-        opl.partyToCandidateCounts.get("R").put(borgR, 0);
-        
-        opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-        opl.partyToCandidateCounts.get("I").put(smithI, 100);
+        opl.partyTable = partyTable;
         
         final Pair<Integer, Set<String>> initialAllocationResults = opl.allocateInitialSeats(new Fraction(opl.numBallots, opl.numSeats));
         
@@ -968,12 +1086,12 @@ final class OpenPartyListSystemTest {
         opl.allocateRemainingSeats(numSeatsRemaining, remainingParties);
         
         //Test to ensure all remaining seats have been allocated
-        assertEquals(opl.numSeats, partyD.numSeats + partyR.numSeats + partyI.numSeats);
+        assertEquals(opl.numSeats, partyTable.numSeats[partyD] + partyTable.numSeats[partyR] + partyTable.numSeats[partyI]);
         
         //Test to check that the parties with equal votes, received the same number of seats since after
         //initial allocation there are 4 seats remaining
-        assertEquals(2, partyD.numSeats);
-        assertEquals(2, partyR.numSeats);
+        assertEquals(2, partyTable.numSeats[partyD]);
+        assertEquals(2, partyTable.numSeats[partyR]);
     }
     
     @Test
@@ -984,9 +1102,10 @@ final class OpenPartyListSystemTest {
         
         try {
             //Creates parties
-            final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+            final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+            final int partyD = partyTable.addParty("D");
+            final int partyR = partyTable.addParty("R");
+            final int partyI = partyTable.addParty("I");
             
             //Creates candidates
             final Candidate fosterD = new Candidate("Foster", "D");
@@ -997,50 +1116,27 @@ final class OpenPartyListSystemTest {
             final Candidate smithI = new Candidate("Smith", "I");
             
             //Creates data for each party
-            partyD.numCandidates = 2;
-            partyD.numBallots = 5;
+            partyTable.numBallots[partyD] = 5;
             
-            partyD.orderedCandidateBallots = new ArrayList<>();
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 3));
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 2));
+            partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 3;
+            partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 2;
             
-            partyR.numCandidates = 3;
-            partyR.numBallots = 3;
+            partyTable.numBallots[partyR] = 3;
             
-            partyR.orderedCandidateBallots = new ArrayList<>();
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 1));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 2));
+            partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
+            partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 1;
+            partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 2;
             
-            partyI.numCandidates = 1;
-            partyI.numBallots = 1;
+            partyTable.numBallots[partyI] = 1;
             
-            partyI.orderedCandidateBallots = new ArrayList<>();
-            partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 1));
+            partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 1;
             
             final OpenPartyListSystem opl = new OpenPartyListSystem(NULL_OUTPUT, NULL_OUTPUT);
             
             opl.numSeats = 10;
             opl.numBallots = 9;
             
-            opl.partyToPartyInformation = new LinkedHashMap<>();
-            opl.partyToPartyInformation.put("D", partyD);
-            opl.partyToPartyInformation.put("R", partyR);
-            opl.partyToPartyInformation.put("I", partyI);
-            
-            opl.partyToCandidateCounts = new LinkedHashMap<>();
-            
-            opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("D").put(fosterD, 3);
-            opl.partyToCandidateCounts.get("D").put(pikeD, 2);
-            
-            opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-            opl.partyToCandidateCounts.get("R").put(jonesR, 1);
-            opl.partyToCandidateCounts.get("R").put(borgR, 2);
-            
-            opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("I").put(smithI, 1);
+            opl.partyTable = partyTable;
             
             final Pair<Integer, Set<String>> initialAllocationResults = opl.allocateInitialSeats(new Fraction(opl.numBallots, opl.numSeats));
             
@@ -1051,9 +1147,9 @@ final class OpenPartyListSystemTest {
             opl.allocateRemainingSeats(numSeatsRemaining, remainingParties);
             
             //Tests to check that every candidate has a seat
-            assertEquals(partyR.numSeats, partyR.numCandidates);
-            assertEquals(partyD.numSeats, partyD.numCandidates);
-            assertEquals(partyI.numSeats, partyI.numCandidates);
+            assertEquals(partyTable.numSeats[partyR], partyTable.numCandidates[partyR]);
+            assertEquals(partyTable.numSeats[partyD], partyTable.numCandidates[partyD]);
+            assertEquals(partyTable.numSeats[partyI], partyTable.numCandidates[partyI]);
         }
         finally {
             //Sets System.out back to original state
@@ -1069,9 +1165,10 @@ final class OpenPartyListSystemTest {
         
         try {
             //Creates parties
-            final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+            final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+            final int partyD = partyTable.addParty("D");
+            final int partyR = partyTable.addParty("R");
+            final int partyI = partyTable.addParty("I");
             
             //Creates candidates
             final Candidate fosterD = new Candidate("Foster", "D");
@@ -1082,26 +1179,20 @@ final class OpenPartyListSystemTest {
             final Candidate smithI = new Candidate("Smith", "I");
             
             //Creates data for each party
-            partyD.numCandidates = 2;
-            partyD.numBallots = 5;
+            partyTable.numBallots[partyD] = 5;
             
-            partyD.orderedCandidateBallots = new ArrayList<>();
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 3));
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 2));
+            partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 3;
+            partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 2;
             
-            partyR.numCandidates = 3;
-            partyR.numBallots = 3;
+            partyTable.numBallots[partyR] = 3;
             
-            partyR.orderedCandidateBallots = new ArrayList<>();
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 1));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 2));
+            partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
+            partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 1;
+            partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 2;
             
-            partyI.numCandidates = 1;
-            partyI.numBallots = 1;
+            partyTable.numBallots[partyI] = 1;
             
-            partyI.orderedCandidateBallots = new ArrayList<>();
-            partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 1));
+            partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 1;
             
             final String auditOutput =
                 "Project2/testing/test-resources/openPartyListSystemTest/allocate_remaining_seats_more_seats_than_candidates_output_audit_actual.txt"
@@ -1112,24 +1203,7 @@ final class OpenPartyListSystemTest {
             opl.numSeats = 10;
             opl.numBallots = 9;
             
-            opl.partyToPartyInformation = new LinkedHashMap<>();
-            opl.partyToPartyInformation.put("D", partyD);
-            opl.partyToPartyInformation.put("R", partyR);
-            opl.partyToPartyInformation.put("I", partyI);
-            
-            opl.partyToCandidateCounts = new LinkedHashMap<>();
-            
-            opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("D").put(fosterD, 3);
-            opl.partyToCandidateCounts.get("D").put(pikeD, 2);
-            
-            opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-            opl.partyToCandidateCounts.get("R").put(jonesR, 1);
-            opl.partyToCandidateCounts.get("R").put(borgR, 2);
-            
-            opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("I").put(smithI, 1);
+            opl.partyTable = partyTable;
             
             final Pair<Integer, Set<String>> initialAllocationResults = opl.allocateInitialSeats(new Fraction(opl.numBallots, opl.numSeats));
             
@@ -1184,9 +1258,10 @@ final class OpenPartyListSystemTest {
         
         try {
             //Creates parties
-            final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+            final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+            final int partyD = partyTable.addParty("D");
+            final int partyR = partyTable.addParty("R");
+            final int partyI = partyTable.addParty("I");
             
             //Creates candidates
             final Candidate fosterD = new Candidate("Foster", "D");
@@ -1197,29 +1272,23 @@ final class OpenPartyListSystemTest {
             final Candidate smithI = new Candidate("Smith", "I");
             
             //Creates data for each party
-            partyD.numCandidates = 2;
-            partyD.numBallots = 5;
-            partyD.numSeats = 0;
+            partyTable.numBallots[partyD] = 5;
+            partyTable.numSeats[partyD] = 0;
             
-            partyD.orderedCandidateBallots = new ArrayList<>();
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 3));
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 2));
+            partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 2;
+            partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 3;
             
-            partyR.numCandidates = 3;
-            partyR.numBallots = 3;
-            partyR.numSeats = 0;
+            partyTable.numBallots[partyR] = 3;
+            partyTable.numSeats[partyR] = 0;
             
-            partyR.orderedCandidateBallots = new ArrayList<>();
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 2));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 1));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
+            partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
+            partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 1;
+            partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 2;
             
-            partyI.numCandidates = 1;
-            partyI.numBallots = 1;
-            partyI.numSeats = 0;
+            partyTable.numBallots[partyI] = 1;
+            partyTable.numSeats[partyI] = 0;
             
-            partyI.orderedCandidateBallots = new ArrayList<>();
-            partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 1));
+            partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 1;
             
             final String auditOutput =
                 "Project2/testing/test-resources/openPartyListSystemTest/distribute_seats_to_candidates_typical_audit_actual.txt"
@@ -1231,24 +1300,7 @@ final class OpenPartyListSystemTest {
             opl.numSeats = 3;
             opl.numBallots = 9;
             
-            opl.partyToPartyInformation = new LinkedHashMap<>();
-            opl.partyToPartyInformation.put("D", partyD);
-            opl.partyToPartyInformation.put("R", partyR);
-            opl.partyToPartyInformation.put("I", partyI);
-            
-            opl.partyToCandidateCounts = new LinkedHashMap<>();
-            
-            opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("D").put(fosterD, 2);
-            opl.partyToCandidateCounts.get("D").put(pikeD, 3);
-            
-            opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-            opl.partyToCandidateCounts.get("R").put(jonesR, 1);
-            opl.partyToCandidateCounts.get("R").put(borgR, 2);
-            
-            opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("I").put(smithI, 1);
+            opl.partyTable = partyTable;
             
             final Pair<Integer, Set<String>> initialAllocationResults = opl.allocateInitialSeats(new Fraction(opl.numBallots, opl.numSeats));
             final Integer numSeatsRemaining = initialAllocationResults.getFirst();
@@ -1302,9 +1354,10 @@ final class OpenPartyListSystemTest {
         
         try {
             //Creates parties
-            final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+            final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+            final int partyD = partyTable.addParty("D");
+            final int partyR = partyTable.addParty("R");
+            final int partyI = partyTable.addParty("I");
             
             //Creates candidates
             final Candidate fosterD = new Candidate("Foster", "D");
@@ -1315,29 +1368,23 @@ final class OpenPartyListSystemTest {
             final Candidate smithI = new Candidate("Smith", "I");
             
             //Creates data for each party
-            partyD.numCandidates = 2;
-            partyD.numBallots = 5;
-            partyD.numSeats = 0;
+            partyTable.numBallots[partyD] = 5;
+            partyTable.numSeats[partyD] = 0;
             
-            partyD.orderedCandidateBallots = new ArrayList<>();
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 3));
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 2));
+            partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 2;
+            partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 3;
             
-            partyR.numCandidates = 3;
-            partyR.numBallots = 2;
-            partyR.numSeats = 0;
+            partyTable.numBallots[partyR] = 2;
+            partyTable.numSeats[partyR] = 0;
             
-            partyR.orderedCandidateBallots = new ArrayList<>();
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 1));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 1));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
+            partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 1;
+            partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 1;
+            partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
             
-            partyI.numCandidates = 1;
-            partyI.numBallots = 1;
-            partyI.numSeats = 0;
+            partyTable.numBallots[partyI] = 1;
+            partyTable.numSeats[partyI] = 0;
             
-            partyI.orderedCandidateBallots = new ArrayList<>();
-            partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 1));
+            partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 1;
             
             //Creates OPL system
             final OpenPartyListSystem opl = new OpenPartyListSystem(NULL_OUTPUT, NULL_OUTPUT);
@@ -1345,24 +1392,7 @@ final class OpenPartyListSystemTest {
             opl.numSeats = 3;
             opl.numBallots = 8;
             
-            opl.partyToPartyInformation = new LinkedHashMap<>();
-            opl.partyToPartyInformation.put("D", partyD);
-            opl.partyToPartyInformation.put("R", partyR);
-            opl.partyToPartyInformation.put("I", partyI);
-            
-            opl.partyToCandidateCounts = new LinkedHashMap<>();
-            
-            opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("D").put(fosterD, 3);
-            opl.partyToCandidateCounts.get("D").put(pikeD, 2);
-            
-            opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("R").put(borgR, 1);
-            opl.partyToCandidateCounts.get("R").put(jonesR, 1);
-            opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-            
-            opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("I").put(smithI, 1);
+            opl.partyTable = partyTable;
             
             final Pair<Integer, Set<String>> initialAllocationResults = opl.allocateInitialSeats(new Fraction(opl.numBallots, opl.numSeats));
             final Integer numSeatsRemaining = initialAllocationResults.getFirst();
@@ -1392,9 +1422,10 @@ final class OpenPartyListSystemTest {
         
         try {
             //Creates parties
-            final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+            final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+            final int partyD = partyTable.addParty("D");
+            final int partyR = partyTable.addParty("R");
+            final int partyI = partyTable.addParty("I");
             
             //Creates candidates
             final Candidate fosterD = new Candidate("Foster", "D");
@@ -1405,29 +1436,23 @@ final class OpenPartyListSystemTest {
             final Candidate smithI = new Candidate("Smith", "I");
             
             //Creates data for each party
-            partyD.numCandidates = 2;
-            partyD.numBallots = 5;
-            partyD.numSeats = 0;
+            partyTable.numBallots[partyD] = 5;
+            partyTable.numSeats[partyD] = 0;
             
-            partyD.orderedCandidateBallots = new ArrayList<>();
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 3));
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 2));
+            partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 2;
+            partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 3;
             
-            partyR.numCandidates = 3;
-            partyR.numBallots = 3;
-            partyR.numSeats = 0;
+            partyTable.numBallots[partyR] = 3;
+            partyTable.numSeats[partyR] = 0;
             
-            partyR.orderedCandidateBallots = new ArrayList<>();
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 2));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 1));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
+            partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
+            partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 1;
+            partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 2;
             
-            partyI.numCandidates = 1;
-            partyI.numBallots = 1;
-            partyI.numSeats = 0;
+            partyTable.numBallots[partyI] = 1;
+            partyTable.numSeats[partyI] = 0;
             
-            partyI.orderedCandidateBallots = new ArrayList<>();
-            partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 1));
+            partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 1;
             
             final String auditOutput =
                 "Project2/testing/test-resources/openPartyListSystemTest/test_print_summary_table_actual.txt".replace('/', FILE_SEP);
@@ -1437,24 +1462,7 @@ final class OpenPartyListSystemTest {
             opl.numSeats = 3;
             opl.numBallots = 9;
             
-            opl.partyToPartyInformation = new LinkedHashMap<>();
-            opl.partyToPartyInformation.put("D", partyD);
-            opl.partyToPartyInformation.put("R", partyR);
-            opl.partyToPartyInformation.put("I", partyI);
-            
-            opl.partyToCandidateCounts = new LinkedHashMap<>();
-            
-            opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("D").put(fosterD, 3);
-            opl.partyToCandidateCounts.get("D").put(pikeD, 2);
-            
-            opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-            opl.partyToCandidateCounts.get("R").put(jonesR, 1);
-            opl.partyToCandidateCounts.get("R").put(borgR, 2);
-            
-            opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("I").put(smithI, 1);
+            opl.partyTable = partyTable;
             
             final Pair<Integer, Set<String>> initialAllocationResults = opl.allocateInitialSeats(new Fraction(opl.numBallots, opl.numSeats));
             
@@ -1463,11 +1471,7 @@ final class OpenPartyListSystemTest {
             
             opl.allocateRemainingSeats(numSeatsRemaining, remainingParties);
             
-            final Map<String, Integer> partiesToInitialSeats = new HashMap<>();
-            
-            for(final Map.Entry<String, OpenPartyListSystem.PartyInformation> party : opl.partyToPartyInformation.entrySet()) {
-                partiesToInitialSeats.put(party.getKey(), party.getValue().numSeats);
-            }
+            final int[] partiesToInitialSeats = Arrays.copyOf(opl.partyTable.numSeats, opl.partyTable.size);
             
             try {
                 opl.auditWriter = new PrintWriter(new FileOutputStream(auditOutput));
@@ -1530,9 +1534,10 @@ final class OpenPartyListSystemTest {
             }
             
             //Creates parties
-            final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+            final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+            final int partyD = partyTable.addParty("D");
+            final int partyR = partyTable.addParty("R");
+            final int partyI = partyTable.addParty("I");
             
             //Creates candidates
             final Candidate fosterD = new Candidate("Foster", "D");
@@ -1543,48 +1548,25 @@ final class OpenPartyListSystemTest {
             final Candidate smithI = new Candidate("Smith", "I");
             
             //Creates data for each party
-            partyD.numCandidates = 2;
-            partyD.numBallots = 5;
+            partyTable.numBallots[partyD] = 5;
             
-            partyD.orderedCandidateBallots = new ArrayList<>();
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 3));
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 2));
+            partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 3;
+            partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 2;
             
-            partyR.numCandidates = 3;
-            partyR.numBallots = 3;
+            partyTable.numBallots[partyR] = 3;
             
-            partyR.orderedCandidateBallots = new ArrayList<>();
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 2));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 1));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 0));
+            partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 2;
+            partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 1;
+            partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 0;
             
-            partyI.numCandidates = 1;
-            partyI.numBallots = 1;
+            partyTable.numBallots[partyI] = 1;
             
-            partyI.orderedCandidateBallots = new ArrayList<>();
-            partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 1));
+            partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 1;
             
             opl.numSeats = 3;
-            opl.numBallots = partyD.numBallots + partyR.numBallots + partyI.numBallots;
-            
-            opl.partyToPartyInformation = new LinkedHashMap<>();
-            opl.partyToPartyInformation.put("D", partyD);
-            opl.partyToPartyInformation.put("R", partyR);
-            opl.partyToPartyInformation.put("I", partyI);
+            opl.numBallots = partyTable.numBallots[partyD] + partyTable.numBallots[partyR] + partyTable.numBallots[partyI];
             
-            opl.partyToCandidateCounts = new LinkedHashMap<>();
-            
-            opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("D").put(fosterD, 3);
-            opl.partyToCandidateCounts.get("D").put(pikeD, 2);
-            
-            opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("R").put(borgR, 2);
-            opl.partyToCandidateCounts.get("R").put(jonesR, 1);
-            opl.partyToCandidateCounts.get("R").put(deutschR, 0);
-            
-            opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("I").put(smithI, 1);
+            opl.partyTable = partyTable;
             
             //Runs election
             opl.runElection();
@@ -1656,9 +1638,10 @@ final class OpenPartyListSystemTest {
             }
             
             //Creates parties
-            final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+            final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+            final int partyD = partyTable.addParty("D");
+            final int partyR = partyTable.addParty("R");
+            final int partyI = partyTable.addParty("I");
             
             //Creates candidates
             final Candidate fosterD = new Candidate("Foster", "D");
@@ -1669,48 +1652,25 @@ final class OpenPartyListSystemTest {
             final Candidate smithI = new Candidate("Smith", "I");
             
             //Creates data for each party
-            partyD.numCandidates = 2;
-            partyD.numBallots = 5;
+            partyTable.numBallots[partyD] = 5;
             
-            partyD.orderedCandidateBallots = new ArrayList<>();
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 3));
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 2));
+            partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 3;
+            partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 2;
             
-            partyR.numCandidates = 3;
-            partyR.numBallots = 10;
+            partyTable.numBallots[partyR] = 10;
             
-            partyR.orderedCandidateBallots = new ArrayList<>();
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 5));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 4));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 1));
+            partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 5;
+            partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 4;
+            partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 1;
             
-            partyI.numCandidates = 1;
-            partyI.numBallots = 6;
+            partyTable.numBallots[partyI] = 6;
             
-            partyI.orderedCandidateBallots = new ArrayList<>();
-            partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 6));
+            partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 6;
             
             opl.numSeats = 14;
-            opl.numBallots = partyD.numBallots + partyR.numBallots + partyI.numBallots;
-            
-            opl.partyToPartyInformation = new LinkedHashMap<>();
-            opl.partyToPartyInformation.put("D", partyD);
-            opl.partyToPartyInformation.put("R", partyR);
-            opl.partyToPartyInformation.put("I", partyI);
-            
-            opl.partyToCandidateCounts = new LinkedHashMap<>();
+            opl.numBallots = partyTable.numBallots[partyD] + partyTable.numBallots[partyR] + partyTable.numBallots[partyI];
             
-            opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("D").put(fosterD, 3);
-            opl.partyToCandidateCounts.get("D").put(pikeD, 2);
-            
-            opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("R").put(deutschR, 5);
-            opl.partyToCandidateCounts.get("R").put(jonesR, 4);
-            opl.partyToCandidateCounts.get("R").put(borgR, 1);
-            
-            opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("I").put(smithI, 6);
+            opl.partyTable = partyTable;
             
             //Runs an election where there are more seats than candidates
             opl.runElection();
@@ -1765,9 +1725,10 @@ final class OpenPartyListSystemTest {
                 .replace('/', FILE_SEP);
             
             //Creates parties
-            final OpenPartyListSystem.PartyInformation partyD = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyR = new OpenPartyListSystem.PartyInformation();
-            final OpenPartyListSystem.PartyInformation partyI = new OpenPartyListSystem.PartyInformation();
+            final OpenPartyListSystem.PartyTable partyTable = new OpenPartyListSystem.PartyTable();
+            final int partyD = partyTable.addParty("D");
+            final int partyR = partyTable.addParty("R");
+            final int partyI = partyTable.addParty("I");
             
             //Creates candidates
             final Candidate fosterD = new Candidate("Foster", "D");
@@ -1780,28 +1741,22 @@ final class OpenPartyListSystemTest {
             final Candidate janeI = new Candidate("Jane", "I");
             
             //Creates data for each party
-            partyD.numCandidates = 3;
-            partyD.numBallots = 3;
+            partyTable.numBallots[partyD] = 3;
             
-            partyD.orderedCandidateBallots = new ArrayList<>();
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(fosterD, 1));
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(pikeD, 1));
-            partyD.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(bidenD, 1));
+            partyTable.candidateBallots[partyTable.addCandidate(fosterD)] = 1;
+            partyTable.candidateBallots[partyTable.addCandidate(pikeD)] = 1;
+            partyTable.candidateBallots[partyTable.addCandidate(bidenD)] = 1;
             
-            partyR.numCandidates = 3;
-            partyR.numBallots = 3;
+            partyTable.numBallots[partyR] = 3;
             
-            partyR.orderedCandidateBallots = new ArrayList<>();
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(deutschR, 1));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(jonesR, 1));
-            partyR.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(borgR, 1));
+            partyTable.candidateBallots[partyTable.addCandidate(deutschR)] = 1;
+            partyTable.candidateBallots[partyTable.addCandidate(jonesR)] = 1;
+            partyTable.candidateBallots[partyTable.addCandidate(borgR)] = 1;
             
-            partyI.numCandidates = 1;
-            partyI.numBallots = 3;
+            partyTable.numBallots[partyI] = 3;
             
-            partyI.orderedCandidateBallots = new ArrayList<>();
-            partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(smithI, 3));
-            partyI.orderedCandidateBallots.add(new AbstractMap.SimpleEntry<>(janeI, 0));
+            partyTable.candidateBallots[partyTable.addCandidate(smithI)] = 3;
+            partyTable.candidateBallots[partyTable.addCandidate(janeI)] = 0;
             
             //Creates OPL system
             OpenPartyListSystem opl = null;
@@ -1813,31 +1768,12 @@ final class OpenPartyListSystemTest {
             }
             
             opl.numSeats = 4;
-            opl.numBallots = partyD.numBallots + partyI.numBallots + partyR.numBallots;
-            
-            opl.partyToPartyInformation = new LinkedHashMap<>();
-            opl.partyToPartyInformation.put("D", partyD);
-            opl.partyToPartyInformation.put("R", partyR);
-            opl.partyToPartyInformation.put("I", partyI);
-            
-            opl.partyToCandidateCounts = new LinkedHashMap<>();
-            
-            opl.partyToCandidateCounts.put("D", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("D").put(fosterD, 1);
-            opl.partyToCandidateCounts.get("D").put(pikeD, 1);
-            opl.partyToCandidateCounts.get("D").put(bidenD, 1);
-            
-            opl.partyToCandidateCounts.put("R", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("R").put(deutschR, 1);
-            opl.partyToCandidateCounts.get("R").put(jonesR, 1);
-            opl.partyToCandidateCounts.get("R").put(borgR, 1);
+            opl.numBallots = partyTable.numBallots[partyD] + partyTable.numBallots[partyI] + partyTable.numBallots[partyR];
             
-            opl.partyToCandidateCounts.put("I", new LinkedHashMap<>());
-            opl.partyToCandidateCounts.get("I").put(smithI, 3);
-            opl.partyToCandidateCounts.get("I").put(janeI, 0);
+            opl.partyTable = partyTable;
             
             //Sets a random seed to ensure the output is always the same
-            OpenPartyListSystem.rand = new Random(10);
+            opl.rand = new Random(10);
             
             opl.runElection();
             
@@ -1867,4 +1803,41 @@ final class OpenPartyListSystemTest {
             System.setOut(originalSystemOut);
         }
     }
+    
+    @Test
+    void testNoAudit() throws IOException, ParseException {
+        final ByteArrayOutputStream election = new ByteArrayOutputStream();
+        ElectionGenerator.forOpenPartyList(8, 3, 3, 3000).setSeed(16).generate(election);
+        
+        //Run the election once with a text audit and once without an audit, with the same tie breaks
+        final PrintStream originalSystemOut = System.out;
+        final List<ByteArrayOutputStream> reports = List.of(new ByteArrayOutputStream(), new ByteArrayOutputStream());
+        final List<OpenPartyListSystem> systems = new ArrayList<>();
+        final ByteArrayOutputStream textAudit = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            for(int i = 0; i < 2; i++) {
+                systems.add((OpenPartyListSystem) new ElectionRun(
+                    new InputStream[] {new ByteArrayInputStream(election.toByteArray())}, new String[] {"election"},
+                    i == 0 ? textAudit : VotingSystem.NO_AUDIT, reports.get(i)
+                )
+                    .setBeforeParsing(votingSystem -> ((OpenPartyListSystem) votingSystem).rand = new Random(9))
+                    .run());
+            }
+        }
+        finally {
+            System.setOut(originalSystemOut);
+        }
+        
+        Assertions.assertAll(
+            //Testing that skipping the audit does not change the election or its report
+            () -> Assertions.assertEquals(systems.get(0).getWinners(), systems.get(1).getWinners()),
+            () -> Assertions.assertEquals(reports.get(0).toString(), reports.get(1).toString()),
+            () -> Assertions.assertTrue(textAudit.toString().contains("Ballot 3000 chose ")),
+            () -> Assertions.assertTrue(systems.get(0).auditEnabled),
+            () -> Assertions.assertFalse(systems.get(1).auditEnabled),
+            //Testing that the discarded audit can still be written to after the elections closed it
+            () -> Assertions.assertDoesNotThrow(() -> VotingSystem.NO_AUDIT.write(new byte[] {1, 2}))
+        );
+    }
 }
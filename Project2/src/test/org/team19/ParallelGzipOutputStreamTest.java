@@ -0,0 +1,128 @@
+/*
+ * File name:
+ * ParallelGzipOutputStreamTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the ParallelGzipOutputStream class
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+final class ParallelGzipOutputStreamTest {
+    
+    private ParallelGzipOutputStreamTest() {}
+    
+    private static byte[] decompress(final byte[] compressed) throws IOException {
+        try(final InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return input.readAllBytes();
+        }
+    }
+    
+    /**
+     * Counts the gzip members in the given bytes by their headers, which is exact for the members of a {@link ParallelGzipOutputStream} as long as
+     * the compressed data never contains a header itself
+     */
+    private static int countMembers(final byte[] compressed) {
+        int numMembers = 0;
+        for(int i = 0; i + 3 < compressed.length; i++) {
+            if(compressed[i] == 0x1F && compressed[i + 1] == (byte) 0x8B && compressed[i + 2] == 8 && compressed[i + 3] == 0) {
+                numMembers++;
+            }
+        }
+        return numMembers;
+    }
+    
+    @Test
+    void testRoundTrip() throws IOException {
+        final ByteArrayOutputStream election = new ByteArrayOutputStream();
+        ElectionGenerator.forInstantRunoff(9, 3, 5000).setSeed(13).generate(election);
+        final byte[] original = election.toByteArray();
+        
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try(final OutputStream output = new ParallelGzipOutputStream(compressed, executor, 4, 4096)) {
+                //Write single bytes, chunks smaller than a block, and chunks spanning many blocks
+                output.write(original, 0, 100);
+                for(int i = 100; i < 200; i++) {
+                    output.write(original[i]);
+                }
+                output.write(original, 200, 3000);
+                output.write(original, 3200, original.length - 3200);
+            }
+            
+            Assertions.assertAll(
+                () -> Assertions.assertArrayEquals(original, decompress(compressed.toByteArray())),
+                () -> Assertions.assertTrue(compressed.size() < original.length),
+                //Testing that each block is its own member
+                () -> Assertions.assertEquals((original.length + 4095) / 4096, countMembers(compressed.toByteArray()))
+            );
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    void testFlushAndClose() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final OutputStream output = new ParallelGzipOutputStream(compressed);
+        output.write("Election type: OPL\n".getBytes());
+        output.flush();
+        final byte[] flushed = compressed.toByteArray();
+        output.write("Number of seats: 2\n".getBytes());
+        output.close();
+        output.close();
+        
+        final ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(empty).close();
+        
+        Assertions.assertAll(
+            //Testing that flushing writes everything written so far as complete members
+            () -> Assertions.assertEquals("Election type: OPL\n", new String(decompress(flushed))),
+            () -> Assertions.assertEquals("Election type: OPL\nNumber of seats: 2\n", new String(decompress(compressed.toByteArray()))),
+            //Testing that an empty output is still read as gzip
+            () -> Assertions.assertEquals(0, decompress(empty.toByteArray()).length),
+            () -> Assertions.assertThrows(IOException.class, () -> output.write(1)),
+            () -> Assertions.assertThrows(IOException.class, output::flush),
+            () -> Assertions.assertThrows(
+                IllegalArgumentException.class, () -> new ParallelGzipOutputStream(compressed, Runnable::run, 0, 4096)
+            ),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelGzipOutputStream(compressed, Runnable::run, 1, 0))
+        );
+    }
+    
+    @Test
+    void testIncompressibleBlocks() throws IOException {
+        final byte[] original = new byte[10000];
+        new Random(14).nextBytes(original);
+        
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try(final OutputStream output = new ParallelGzipOutputStream(compressed, Runnable::run, 1, 3000)) {
+            output.write(original);
+        }
+        
+        //Testing that blocks that grow when compressed are still written in full
+        Assertions.assertAll(
+            () -> Assertions.assertArrayEquals(original, decompress(compressed.toByteArray())),
+            () -> Assertions.assertEquals(4, countMembers(compressed.toByteArray()))
+        );
+    }
+    
+}
@@ -424,4 +424,45 @@ final class TableFormatterTest {
         );
     }
     
+    @Test
+    void testFormatColumnsAsTable() {
+        final TableFormatter tableFormatter = new TableFormatter('+', '-', '|');
+        
+        final List<String> headers = List.of("Numbers", "Fruit");
+        final List<Alignment> alignments = List.of(Alignment.RIGHT, Alignment.LEFT);
+        
+        //Columns whose backing arrays are larger than the number of rows, as in the arrays of OpenPartyListSystem.PartyTable
+        final int[] numbers = {-3, 0, 3, 0};
+        final String[] fruit = {"Apple", "Banana", "Cantaloupe", null};
+        
+        Assertions.assertAll(
+            //Testing NullPointerException thrown for null parameters
+            () -> Assertions.assertThrows(NullPointerException.class, () -> tableFormatter.formatColumnsAsTable(null, List.of(), List.of())),
+            () -> Assertions.assertThrows(NullPointerException.class, () -> tableFormatter.formatColumnsAsTable(List.of(), null, List.of())),
+            () -> Assertions.assertThrows(NullPointerException.class, () -> tableFormatter.formatColumnsAsTable(List.of(), List.of(), null)),
+            
+            //Testing for incorrect differences in sizes between headers, columns, and alignments
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> tableFormatter.formatColumnsAsTable(
+                Collections.singletonList("Numbers"), List.of(TableFormatter.Column.of(numbers, 3), TableFormatter.Column.of(fruit, 3)), alignments
+            )),
+            () -> Assertions.assertThrows(IllegalArgumentException.class, () -> tableFormatter.formatColumnsAsTable(
+                headers, List.of(TableFormatter.Column.of(numbers, 3), TableFormatter.Column.of(fruit, 3)), Collections.singletonList(Alignment.LEFT)
+            )),
+            
+            //Testing that only the given number of values from each array are used and that the result matches formatAsTable
+            () -> Assertions.assertEquals(
+                tableFormatter.formatAsTable(headers, List.of(List.of(-3, 0, 3), List.of("Apple", "Banana", "Cantaloupe")), alignments),
+                tableFormatter.formatColumnsAsTable(
+                    headers, List.of(TableFormatter.Column.of(numbers, 3), TableFormatter.Column.of(fruit, 3)), alignments
+                )
+            ),
+            
+            //Testing for empty table
+            () -> Assertions.assertEquals(
+                tableFormatter.formatAsTable(Collections.emptyList(), Collections.emptyList(), Collections.emptyList()),
+                tableFormatter.formatColumnsAsTable(Collections.emptyList(), Collections.emptyList(), Collections.emptyList())
+            )
+        );
+    }
+    
 }
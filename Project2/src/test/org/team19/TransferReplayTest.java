@@ -0,0 +1,158 @@
+/*
+ * File name:
+ * TransferReplayTest.java
+ *
+ * Author:
+ * Nikunj Chawla
+ *
+ * Purpose:
+ * Tests the TransferReplay class
+ */
+
+package org.team19;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+final class TransferReplayTest {
+    
+    private static final OutputStream NULL_OUTPUT = OutputStream.nullOutputStream();
+    
+    private TransferReplayTest() {}
+    
+    private static InstantRunoffSystem runSeeded(final ElectionGenerator generator, final boolean summarizeTransfers)
+        throws IOException, ParseException {
+        final ByteArrayOutputStream election = new ByteArrayOutputStream();
+        generator.generate(election);
+        return (InstantRunoffSystem) new ElectionRun(
+            new InputStream[] {new ByteArrayInputStream(election.toByteArray())}, new String[] {"election"}, NULL_OUTPUT, NULL_OUTPUT
+        )
+            .setBeforeParsing(votingSystem -> {
+                ((InstantRunoffSystem) votingSystem).rand = new Random(6);
+                ((InstantRunoffSystem) votingSystem).setSummarizeTransfers(summarizeTransfers);
+            })
+            .run();
+    }
+    
+    private static byte[] write(final InstantRunoffSystem instantRunoffSystem) throws IOException {
+        final ByteArrayOutputStream replay = new ByteArrayOutputStream();
+        TransferReplay.write(instantRunoffSystem, replay);
+        return replay.toByteArray();
+    }
+    
+    private static String printFromReplay(final byte[] replay, final int firstBallotNumber, final int lastBallotNumber)
+        throws IOException, ParseException {
+        final ByteArrayOutputStream transfers = new ByteArrayOutputStream();
+        TransferReplay.printBallotTransfers(new ByteArrayInputStream(replay), firstBallotNumber, lastBallotNumber, transfers);
+        return transfers.toString();
+    }
+    
+    private static String printFromElection(final InstantRunoffSystem instantRunoffSystem, final int firstBallotNumber,
+        final int lastBallotNumber) {
+        final StringWriter transfers = new StringWriter();
+        instantRunoffSystem.printBallotTransfers(firstBallotNumber, lastBallotNumber, new PrintWriter(transfers));
+        return transfers.toString();
+    }
+    
+    private static void deleteDirectory(final Path directory) throws IOException {
+        try(final Stream<Path> paths = Files.list(directory)) {
+            for(final Path path : (Iterable<Path>) paths::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+    
+    @Test
+    void testReplayMatchesElection() throws IOException, ParseException {
+        final PrintStream originalSystemOut = System.out;
+        final InstantRunoffSystem full;
+        final InstantRunoffSystem sparse;
+        final InstantRunoffSystem detailed;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            full = runSeeded(ElectionGenerator.forInstantRunoff(8, 3, 3000).setSeed(16).setTruncation(0.5), true);
+            sparse = runSeeded(ElectionGenerator.forInstantRunoff(6, 3, 3000).setSeed(17).setSparse(true), true);
+            detailed = runSeeded(ElectionGenerator.forInstantRunoff(6, 3, 300).setSeed(18), false);
+        }
+        finally {
+            System.setOut(originalSystemOut);
+        }
+        final byte[] fullReplay = write(full);
+        final byte[] sparseReplay = write(sparse);
+        
+        //Testing that the transfers given from the file are the same as those given from the election, for ranges at the start, middle, and end
+        for(final int[] range : new int[][] {{1, 3000}, {1, 1}, {100, 199}, {1500, 1500}, {2990, 3000}, {3001, 4000}}) {
+            Assertions.assertAll(
+                () -> Assertions.assertEquals(printFromElection(full, range[0], range[1]), printFromReplay(fullReplay, range[0], range[1])),
+                () -> Assertions.assertEquals(printFromElection(sparse, range[0], range[1]), printFromReplay(sparseReplay, range[0], range[1]))
+            );
+        }
+        
+        Assertions.assertAll(
+            () -> Assertions.assertTrue(printFromReplay(fullReplay, 1, 3000).contains("Transfers after ")),
+            () -> Assertions.assertArrayEquals(TransferReplay.MAGIC, Arrays.copyOf(fullReplay, TransferReplay.MAGIC.length)),
+            () -> Assertions.assertThrows(IllegalStateException.class, () -> write(detailed))
+        );
+    }
+    
+    @Test
+    void testRunTransfers() throws IOException, ParseException {
+        final Path tempDirectory = Files.createTempDirectory("transfer-replay");
+        final PrintStream originalSystemOut = System.out;
+        final PrintStream originalSystemErr = System.err;
+        try {
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            System.setErr(new PrintStream(NULL_OUTPUT));
+            final InstantRunoffSystem instantRunoffSystem = runSeeded(
+                ElectionGenerator.forInstantRunoff(6, 3, 500).setSeed(19).setTruncation(0.5), true
+            );
+            final byte[] replay = write(instantRunoffSystem);
+            final String replayPath = tempDirectory.resolve("transfers.dat").toString();
+            Files.write(tempDirectory.resolve("transfers.dat"), replay);
+            
+            //A truncated file and a file that is not a transfer replay file are both rejected
+            Files.write(tempDirectory.resolve("truncated.dat"), Arrays.copyOf(replay, replay.length - 1));
+            Files.write(tempDirectory.resolve("other.dat"), "Election type: IR".getBytes());
+            
+            final ByteArrayOutputStream transfers = new ByteArrayOutputStream();
+            System.setOut(new PrintStream(transfers));
+            final int exitCode = TransferReplay.runTransfers(replayPath, "1", "500");
+            System.setOut(new PrintStream(NULL_OUTPUT));
+            
+            Assertions.assertAll(
+                () -> Assertions.assertEquals(0, exitCode),
+                () -> Assertions.assertEquals(printFromElection(instantRunoffSystem, 1, 500), transfers.toString()),
+                () -> Assertions.assertEquals(0, TransferReplay.runTransfers(replayPath, "250")),
+                () -> Assertions.assertEquals(65, TransferReplay.runTransfers(tempDirectory.resolve("truncated.dat").toString(), "1", "500")),
+                () -> Assertions.assertEquals(65, TransferReplay.runTransfers(tempDirectory.resolve("other.dat").toString(), "1")),
+                () -> Assertions.assertEquals(64, TransferReplay.runTransfers(replayPath)),
+                () -> Assertions.assertEquals(64, TransferReplay.runTransfers(replayPath, "one")),
+                () -> Assertions.assertEquals(64, TransferReplay.runTransfers(replayPath, "20", "10")),
+                () -> Assertions.assertEquals(64, TransferReplay.runTransfers(replayPath, "0", "10")),
+                () -> Assertions.assertEquals(2, TransferReplay.runTransfers(tempDirectory.resolve("missing.dat").toString(), "1"))
+            );
+        }
+        finally {
+            System.setOut(originalSystemOut);
+            System.setErr(originalSystemErr);
+            deleteDirectory(tempDirectory);
+        }
+    }
+    
+}
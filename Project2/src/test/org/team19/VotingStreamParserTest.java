@@ -284,6 +284,170 @@ final class VotingStreamParserTest {
         System.setOut(originalSystemOut);
     }
     
+    //Tests a valid OPL file with an option following the election type
+    @Test
+    void testParseFileValidOplWithOption() {
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final String inputPath = "Project2/testing/test-resources/votingStreamParserTest/correct_opl_dhondt.csv";
+        
+        try {
+            final FileInputStream inputStream = new FileInputStream(inputPath);
+            
+            //Get the OpenPartyListSystem if the assertion holds that no exception is thrown in parsing the file
+            final OpenPartyListSystem openPartyListSystem = (OpenPartyListSystem) Assertions.assertDoesNotThrow(() ->
+                VotingStreamParser.parse(
+                    new InputStream[] {inputStream}, new String[] {inputPath},
+                    NULL_OUTPUT,
+                    NULL_OUTPUT,
+                    HEADER_SYSTEM_MAP
+                )
+            );
+            
+            Assertions.assertAll(
+                //Check that the option was passed to the voting system
+                () -> Assertions.assertEquals(OpenPartyListSystem.ApportionmentMethod.D_HONDT, openPartyListSystem.apportionmentMethod),
+                //Check that the number of ballots was correctly parsed
+                () -> Assertions.assertEquals(openPartyListSystem.getNumBallots(), 9)
+            );
+        }
+        catch(FileNotFoundException e) {
+            Assertions.fail("Unable to open correct_opl_dhondt.csv");
+        }
+        
+        //Redirect STDOUT back to STDOUT
+        System.setOut(originalSystemOut);
+    }
+    
+    //Tests a valid IR file with pre-aggregated ballot counts
+    @Test
+    void testParseFileValidIrCounts() {
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final String inputPath = "Project2/testing/test-resources/votingStreamParserTest/correct_ir_counts.csv";
+        
+        try {
+            final FileInputStream inputStream = new FileInputStream(inputPath);
+            
+            //Get the InstantRunoffSystem if the assertion holds that no exception is thrown in parsing the file
+            final InstantRunoffSystem instantRunoffSystem = (InstantRunoffSystem) Assertions.assertDoesNotThrow(() ->
+                VotingStreamParser.parse(
+                    new InputStream[] {inputStream}, new String[] {inputPath},
+                    NULL_OUTPUT,
+                    NULL_OUTPUT,
+                    HEADER_SYSTEM_MAP
+                )
+            );
+            
+            Assertions.assertAll(
+                //Check that the number of ballots was correctly parsed
+                () -> Assertions.assertEquals(10, instantRunoffSystem.getNumBallots()),
+                //Check that the first-choice ballot counts of the candidates were correctly parsed
+                () -> Assertions.assertEquals(4, instantRunoffSystem.getNumBallots(
+                    instantRunoffSystem.candidateBallotsMap.get(new Candidate("Rosen", "D"))
+                )),
+                () -> Assertions.assertEquals(6, instantRunoffSystem.getNumBallots(
+                    instantRunoffSystem.candidateBallotsMap.get(new Candidate("Chou", "I"))
+                ))
+            );
+        }
+        catch(FileNotFoundException e) {
+            Assertions.fail("Unable to open correct_ir_counts.csv");
+        }
+        
+        //Redirect STDOUT back to STDOUT
+        System.setOut(originalSystemOut);
+    }
+    
+    //Tests a valid OPL file with pre-aggregated ballot counts
+    @Test
+    void testParseFileValidOplCounts() {
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final String inputPath = "Project2/testing/test-resources/votingStreamParserTest/correct_opl_counts.csv";
+        
+        try {
+            final FileInputStream inputStream = new FileInputStream(inputPath);
+            
+            //Get the OpenPartyListSystem if the assertion holds that no exception is thrown in parsing the file
+            final OpenPartyListSystem openPartyListSystem = (OpenPartyListSystem) Assertions.assertDoesNotThrow(() ->
+                VotingStreamParser.parse(
+                    new InputStream[] {inputStream}, new String[] {inputPath},
+                    NULL_OUTPUT,
+                    NULL_OUTPUT,
+                    HEADER_SYSTEM_MAP
+                )
+            );
+            
+            Assertions.assertAll(
+                //Check that the number of ballots was correctly parsed
+                () -> Assertions.assertEquals(9, openPartyListSystem.getNumBallots()),
+                //Check that the ballot counts of the parties were correctly parsed
+                () -> Assertions.assertEquals(5, openPartyListSystem.partyTable.numBallots[openPartyListSystem.partyTable.getId("D")]),
+                () -> Assertions.assertEquals(3, openPartyListSystem.partyTable.numBallots[openPartyListSystem.partyTable.getId("R")]),
+                () -> Assertions.assertEquals(1, openPartyListSystem.partyTable.numBallots[openPartyListSystem.partyTable.getId("I")])
+            );
+        }
+        catch(FileNotFoundException e) {
+            Assertions.fail("Unable to open correct_opl_counts.csv");
+        }
+        
+        //Redirect STDOUT back to STDOUT
+        System.setOut(originalSystemOut);
+    }
+    
+    //Testing an OPL file with pre-aggregated ballot counts that do not sum to the number of ballots in the ballots header
+    @Test
+    void testParseFileInvalidOplCountsTotal() {
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final String inputPath = "Project2/testing/test-resources/votingStreamParserTest/invalid_opl_counts_total.csv";
+        
+        try {
+            final FileInputStream inputStream = new FileInputStream(inputPath);
+            Assertions.assertThrows(ParseException.class, () -> VotingStreamParser.parse(
+                new InputStream[] {inputStream}, new String[] {inputPath}, NULL_OUTPUT, NULL_OUTPUT, HEADER_SYSTEM_MAP)
+            );
+        }
+        catch(FileNotFoundException e) {
+            Assertions.fail("Unable to open invalid_opl_counts_total.csv");
+        }
+        
+        //Redirect STDOUT back to STDOUT
+        System.setOut(originalSystemOut);
+    }
+    
+    //Testing the election file having an option that its voting system does not support
+    @Test
+    void testParseFileInvalidHeaderOption() {
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final String inputPath = "Project2/testing/test-resources/votingStreamParserTest/invalid_header_option.csv";
+        
+        try {
+            final FileInputStream inputStream = new FileInputStream(inputPath);
+            Assertions.assertThrows(ParseException.class, () -> VotingStreamParser.parse(
+                new InputStream[] {inputStream}, new String[] {inputPath}, NULL_OUTPUT, NULL_OUTPUT, HEADER_SYSTEM_MAP)
+            );
+        }
+        catch(FileNotFoundException e) {
+            Assertions.fail("Unable to open invalid_header_option.csv");
+        }
+        
+        //Redirect STDOUT back to STDOUT
+        System.setOut(originalSystemOut);
+    }
+    
     @Test
     void testParseMultipleIrFiles() {
         //Store the original STDOUT and redirect it to go to a null device print stream
@@ -337,6 +501,46 @@ final class VotingStreamParserTest {
         System.setOut(originalSystemOut);
     }
     
+    //Testing that a ballot invalidated in an earlier input source does not break the ballot count check for the later input sources
+    @Test
+    void testParseMultipleIrFilesWithInvalidatedBallot() {
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final String inputPath1 = "Project2/testing/test-resources/votingStreamParserTest/ir_multi_invalidated_part_1.csv";
+        final String inputPath2 = "Project2/testing/test-resources/votingStreamParserTest/ir_multi_invalidated_part_2.csv";
+        
+        try {
+            final FileInputStream inputStream1 = new FileInputStream(inputPath1);
+            final FileInputStream inputStream2 = new FileInputStream(inputPath2);
+            
+            final InstantRunoffSystem instantRunoffSystem = (InstantRunoffSystem) Assertions.assertDoesNotThrow(() ->
+                VotingStreamParser.parse(
+                    new InputStream[] {inputStream1, inputStream2},
+                    new String[] {inputPath1, inputPath2},
+                    NULL_OUTPUT,
+                    NULL_OUTPUT,
+                    HEADER_SYSTEM_MAP
+                )
+            );
+            
+            Assertions.assertAll(
+                //Check that the invalidated ballot from the first file is not counted
+                () -> Assertions.assertEquals(4, instantRunoffSystem.getNumBallots()),
+                //Check that the ballots after the first file are still parsed and distributed properly
+                () -> Assertions.assertEquals(1, instantRunoffSystem.candidateBallotsMap.get(new Candidate("Rosen", "D")).size()),
+                () -> Assertions.assertEquals(2, instantRunoffSystem.candidateBallotsMap.get(new Candidate("Kleinberg", "R")).size()),
+                () -> Assertions.assertEquals(1, instantRunoffSystem.candidateBallotsMap.get(new Candidate("Chou", "I")).size())
+            );
+        }
+        catch(FileNotFoundException e) {
+            Assertions.fail("Unable to open multiple csv files");
+        }
+        //Redirect STDOUT back to STDOUT
+        System.setOut(originalSystemOut);
+    }
+    
     @Test
     void testParseMultipleOplFiles() {
         //Store the original STDOUT and redirect it to go to a null device print stream
@@ -379,9 +583,9 @@ final class VotingStreamParserTest {
                 //Check that the number of seats was correctly parsed
                 () -> Assertions.assertEquals(3, openPartyListSystem.getNumSeats()),
                 //Check that all parties' ballots are parsed and assigned properly
-                () -> Assertions.assertEquals(3, openPartyListSystem.partyToPartyInformation.get("R").numBallots),
-                () -> Assertions.assertEquals(5, openPartyListSystem.partyToPartyInformation.get("D").numBallots),
-                () -> Assertions.assertEquals(1, openPartyListSystem.partyToPartyInformation.get("I").numBallots)
+                () -> Assertions.assertEquals(3, openPartyListSystem.partyTable.numBallots[openPartyListSystem.partyTable.getId("R")]),
+                () -> Assertions.assertEquals(5, openPartyListSystem.partyTable.numBallots[openPartyListSystem.partyTable.getId("D")]),
+                () -> Assertions.assertEquals(1, openPartyListSystem.partyTable.numBallots[openPartyListSystem.partyTable.getId("I")])
             );
         }
         catch(FileNotFoundException e) {
@@ -17,6 +17,11 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import javax.management.JMException;
+import javax.management.JMX;
+import javax.management.ObjectName;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -25,18 +30,25 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
 import java.time.LocalDateTime;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 final class VotingSystemRunnerTest {
     
@@ -272,13 +284,14 @@ final class VotingSystemRunnerTest {
         }
         
         //Sets audit and report outputs
-        VotingSystemRunner.auditOutputPotentialSource = auditOutput;
-        VotingSystemRunner.reportOutputPotentialSource = reportOutput;
-        VotingSystemRunner.votingSystemModifierBeforeParsing = beforeParsingModifier;
+        final VotingSystemRunner runner = new VotingSystemRunner();
+        runner.auditOutputPotentialSource = auditOutput;
+        runner.reportOutputPotentialSource = reportOutput;
+        runner.votingSystemModifierBeforeParsing = beforeParsingModifier;
         
         //Runs main algorithm
         try {
-            VotingSystemRunner.main(inputPaths);
+            runner.run(inputPaths);
             
             //Comparing expected output vs actual output of audit
             Assertions.assertDoesNotThrow(() -> CompareInputStreams.compareFiles(
@@ -302,10 +315,6 @@ final class VotingSystemRunnerTest {
             new File(reportOutputPath).delete();
         }
         finally {
-            VotingSystemRunner.auditOutputPotentialSource = null;
-            VotingSystemRunner.reportOutputPotentialSource = null;
-            VotingSystemRunner.votingSystemModifierBeforeParsing = null;
-            
             //Redirect STDOUT back to STDOUT
             System.setOut(originalSystemOut);
         }
@@ -396,6 +405,246 @@ final class VotingSystemRunnerTest {
         );
     }
     
+    @Test
+    void testMetrics() {
+        final String inputPath = "Project2/testing/test-resources/votingSystemRunnerTest/ir_test_majority.csv".replace('/', FILE_SEP);
+        
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final ByteArrayOutputStream metricsOutput = new ByteArrayOutputStream();
+        final ByteArrayOutputStream auditOutput = new ByteArrayOutputStream();
+        final VotingSystemRunner runner = new VotingSystemRunner();
+        runner.auditOutputPotentialSource = auditOutput;
+        runner.reportOutputPotentialSource = NULL_OUTPUT;
+        runner.metricsOutputPotentialSource = metricsOutput;
+        runner.votingSystemModifierBeforeParsing = VotingSystemRunnerTest::disableInvalidateBallots;
+        
+        try {
+            //Without the flag, no metrics are written
+            runner.run(inputPath);
+            final int withoutFlagSize = metricsOutput.size();
+            
+            auditOutput.reset();
+            runner.run("--metrics", inputPath);
+            final String metrics = metricsOutput.toString(StandardCharsets.UTF_8);
+            
+            Assertions.assertAll(
+                () -> Assertions.assertEquals(0, withoutFlagSize),
+                () -> Assertions.assertTrue(metrics.contains("\"system\" : \"IR\"")),
+                //Testing that every phase was timed
+                () -> Assertions.assertTrue(metrics.contains("\"parse\" : {\"seconds\" : ")),
+                () -> Assertions.assertTrue(metrics.contains("\"parse.header\" : {\"seconds\" : ")),
+                () -> Assertions.assertTrue(metrics.contains("\"parse.ballots\" : {\"seconds\" : ")),
+                () -> Assertions.assertTrue(metrics.contains("\"election\" : {\"seconds\" : ")),
+                () -> Assertions.assertTrue(metrics.contains("\"total\" : {\"seconds\" : ")),
+                //Testing the counters against the input file and the audit output
+                () -> Assertions.assertTrue(metrics.contains("\"ballots\" : 9,")),
+                () -> Assertions.assertTrue(metrics.contains(String.format("\"bytesRead\" : %d,", new File(inputPath).length()))),
+                () -> Assertions.assertTrue(metrics.contains(String.format("\"auditBytesWritten\" : %d,", auditOutput.size()))),
+                () -> Assertions.assertTrue(metrics.contains("{\"round\" : 1, \"seconds\" : "))
+            );
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+    }
+    
+    @Test
+    void testBinaryAudit() throws IOException, ParseException {
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final ByteArrayOutputStream auditOutput = new ByteArrayOutputStream();
+        final VotingSystemRunner runner = new VotingSystemRunner();
+        runner.auditOutputPotentialSource = auditOutput;
+        runner.reportOutputPotentialSource = NULL_OUTPUT;
+        runner.votingSystemModifierBeforeParsing = VotingSystemRunnerTest::disableInvalidateBallots;
+        
+        try {
+            runner.run("--binary-audit", "Project2/testing/test-resources/votingSystemRunnerTest/ir_test_majority.csv".replace('/', FILE_SEP));
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+        
+        //Testing that the rendered audit event log is the same as the text audit
+        final ByteArrayOutputStream renderedAudit = new ByteArrayOutputStream();
+        AuditRenderer.render(new ByteArrayInputStream(auditOutput.toByteArray()), renderedAudit);
+        Assertions.assertDoesNotThrow(() -> CompareInputStreams.compareFiles(
+            new FileInputStream(
+                "Project2/testing/test-resources/votingSystemRunnerTest/test_ir_majority_audit_expected.txt".replace('/', FILE_SEP)
+            ),
+            new ByteArrayInputStream(renderedAudit.toByteArray())
+        ));
+    }
+    
+    @Test
+    void testAuditIndex() throws IOException {
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final ByteArrayOutputStream auditOutput = new ByteArrayOutputStream();
+        final ByteArrayOutputStream auditIndexOutput = new ByteArrayOutputStream();
+        final VotingSystemRunner runner = new VotingSystemRunner();
+        runner.auditOutputPotentialSource = auditOutput;
+        runner.auditIndexOutputPotentialSource = auditIndexOutput;
+        runner.reportOutputPotentialSource = NULL_OUTPUT;
+        runner.votingSystemModifierBeforeParsing = VotingSystemRunnerTest::disableInvalidateBallots;
+        
+        try {
+            runner.run("--audit-index", "Project2/testing/test-resources/votingSystemRunnerTest/ir_test_majority.csv".replace('/', FILE_SEP));
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+        
+        //Testing that the indexed audit is the same as the text audit and that the index is written
+        Assertions.assertAll(
+            () -> Assertions.assertDoesNotThrow(() -> CompareInputStreams.compareFiles(
+                new FileInputStream(
+                    "Project2/testing/test-resources/votingSystemRunnerTest/test_ir_majority_audit_expected.txt".replace('/', FILE_SEP)
+                ),
+                new ByteArrayInputStream(auditOutput.toByteArray())
+            )),
+            () -> Assertions.assertArrayEquals(
+                IndexedAuditOutput.MAGIC, Arrays.copyOf(auditIndexOutput.toByteArray(), IndexedAuditOutput.MAGIC.length)
+            )
+        );
+    }
+    
+    @Test
+    void testSummarizeTransfers() throws IOException, ParseException {
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final ByteArrayOutputStream auditOutput = new ByteArrayOutputStream();
+        final ByteArrayOutputStream transfersOutput = new ByteArrayOutputStream();
+        final VotingSystemRunner runner = new VotingSystemRunner();
+        runner.auditOutputPotentialSource = auditOutput;
+        runner.reportOutputPotentialSource = NULL_OUTPUT;
+        runner.transfersOutputPotentialSource = transfersOutput;
+        
+        try {
+            runner.run("--summarize-transfers",
+                "Project2/testing/test-resources/votingSystemRunnerTest/ir_test_ballot_invalidation.csv".replace('/', FILE_SEP)
+            );
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+        
+        //Testing that the audit summarizes the transfers and that the transfers file gives them for each ballot
+        final ByteArrayOutputStream transfers = new ByteArrayOutputStream();
+        TransferReplay.printBallotTransfers(new ByteArrayInputStream(transfersOutput.toByteArray()), 1, Integer.MAX_VALUE, transfers);
+        Assertions.assertAll(
+            () -> Assertions.assertTrue(auditOutput.toString().contains("were transferred as follows:"), auditOutput.toString()),
+            () -> Assertions.assertTrue(transfers.toString().contains("their next choice as candidate"), transfers.toString())
+        );
+    }
+    
+    @Test
+    void testCompress() throws IOException {
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final ByteArrayOutputStream auditOutput = new ByteArrayOutputStream();
+        final ByteArrayOutputStream reportOutput = new ByteArrayOutputStream();
+        final VotingSystemRunner runner = new VotingSystemRunner();
+        runner.auditOutputPotentialSource = auditOutput;
+        runner.reportOutputPotentialSource = reportOutput;
+        runner.votingSystemModifierBeforeParsing = VotingSystemRunnerTest::disableInvalidateBallots;
+        
+        try {
+            runner.run("--compress", "Project2/testing/test-resources/votingSystemRunnerTest/ir_test_majority.csv".replace('/', FILE_SEP));
+        }
+        finally {
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+        
+        //Testing that the decompressed audit and report are the same as the uncompressed ones
+        Assertions.assertAll(
+            () -> Assertions.assertDoesNotThrow(() -> CompareInputStreams.compareFiles(
+                new FileInputStream(
+                    "Project2/testing/test-resources/votingSystemRunnerTest/test_ir_majority_audit_expected.txt".replace('/', FILE_SEP)
+                ),
+                new GZIPInputStream(new ByteArrayInputStream(auditOutput.toByteArray()))
+            )),
+            () -> Assertions.assertDoesNotThrow(() -> CompareInputStreams.compareFiles(
+                new FileInputStream(
+                    "Project2/testing/test-resources/votingSystemRunnerTest/test_ir_majority_report_expected.txt".replace('/', FILE_SEP)
+                ),
+                new GZIPInputStream(new ByteArrayInputStream(reportOutput.toByteArray()))
+            ))
+        );
+    }
+    
+    @Test
+    void testProgress() throws JMException {
+        final String inputPath = "Project2/testing/test-resources/votingSystemRunnerTest/ir_test_majority.csv".replace('/', FILE_SEP);
+        
+        //Store the original STDOUT and redirect it to go to a null device print stream
+        final PrintStream originalSystemOut = System.out;
+        System.setOut(new PrintStream(NULL_OUTPUT));
+        
+        final ElectionProgressMXBean progress = JMX.newMXBeanProxy(
+            ManagementFactory.getPlatformMBeanServer(), new ObjectName(ElectionProgress.OBJECT_NAME), ElectionProgressMXBean.class
+        );
+        final List<Object> progressBeforeElection = new ArrayList<>();
+        
+        final VotingSystemRunner runner = new VotingSystemRunner();
+        runner.auditOutputPotentialSource = NULL_OUTPUT;
+        runner.reportOutputPotentialSource = NULL_OUTPUT;
+        runner.metricsOutputPotentialSource = NULL_OUTPUT;
+        runner.votingSystemModifierBeforeParsing = VotingSystemRunnerTest::disableInvalidateBallots;
+        
+        try {
+            ElectionProgress.unregister();
+            
+            //Without the flag, the progress is not registered
+            runner.run(inputPath);
+            final boolean registeredWithoutFlag = ManagementFactory.getPlatformMBeanServer().isRegistered(
+                new ObjectName(ElectionProgress.OBJECT_NAME)
+            );
+            
+            //Read the progress over JMX after parsing, while the run is still in progress
+            runner.votingSystemModifierBeforeElection = votingSystem -> {
+                progressBeforeElection.add(progress.getBallotsParsed());
+                progressBeforeElection.add(progress.getBallotsParsedBySource());
+                progressBeforeElection.add(progress.getRound());
+            };
+            runner.run("--progress", "--metrics", inputPath);
+            
+            Assertions.assertAll(
+                () -> Assertions.assertFalse(registeredWithoutFlag),
+                () -> Assertions.assertEquals(List.of(9L, Map.of(inputPath, 9L), 0), progressBeforeElection),
+                () -> Assertions.assertEquals("Finished", progress.getPhase()),
+                () -> Assertions.assertEquals(9, progress.getBallotsParsed()),
+                () -> Assertions.assertTrue(progress.getParseRate() > 0),
+                //Testing that the tallies are those of the last round, in which Rosen has the majority after Kleinberg is eliminated
+                () -> Assertions.assertEquals(2, progress.getRound()),
+                () -> Assertions.assertEquals(3, progress.getRemainingCandidates()),
+                () -> Assertions.assertEquals(Map.of("Rosen (D)", 5L, "Chou (I)", 2L, "Royce (L)", 2L), progress.getTallies())
+            );
+        }
+        finally {
+            ElectionProgress.unregister();
+            
+            //Redirect STDOUT back to STDOUT
+            System.setOut(originalSystemOut);
+        }
+    }
+    
     @Test
     void testOplTypical() {
         runAuditReportSystemTest(
@@ -692,36 +941,27 @@ final class VotingSystemRunnerTest {
             testFileLocation.close();
             
             //Setting the output sources to the null output stream as the generated files are massive
-            VotingSystemRunner.auditOutputPotentialSource = NULL_OUTPUT;
-            VotingSystemRunner.reportOutputPotentialSource = NULL_OUTPUT;
+            final VotingSystemRunner runner = new VotingSystemRunner();
+            runner.auditOutputPotentialSource = NULL_OUTPUT;
+            runner.reportOutputPotentialSource = NULL_OUTPUT;
             
             //Set the consumer used to modify the voting system
-            VotingSystemRunner.votingSystemModifierBeforeParsing = votingSystemModifier;
+            runner.votingSystemModifierBeforeParsing = votingSystemModifier;
             
-            try {
-                //Time the running of CompuVote with the current file
-                final long initTime = System.nanoTime();
-                VotingSystemRunner.main(testFile.toString());
-                final long finalTime = System.nanoTime();
-                
-                //Get the runtime in seconds, and if it exceeds the time limit, then fail
-                final double runtime = (double) (finalTime - initTime) / 1000000000;
-                if(runtime > timeLimitSeconds) {
-                    Assertions.fail(
-                        String.format("%s took %.2f seconds but a maximum of %d seconds was expected", testName, runtime, timeLimitSeconds)
-                    );
-                }
-                else {
-                    originalSystemOut.printf("%s runtime: %f\n", testName, runtime);
-                }
+            //Time the running of CompuVote with the current file
+            final long initTime = System.nanoTime();
+            runner.run(testFile.toString());
+            final long finalTime = System.nanoTime();
+            
+            //Get the runtime in seconds, and if it exceeds the time limit, then fail
+            final double runtime = (double) (finalTime - initTime) / 1000000000;
+            if(runtime > timeLimitSeconds) {
+                Assertions.fail(
+                    String.format("%s took %.2f seconds but a maximum of %d seconds was expected", testName, runtime, timeLimitSeconds)
+                );
             }
-            finally {
-                //Setting the output sources back to null so they are not changed for other tests
-                VotingSystemRunner.auditOutputPotentialSource = null;
-                VotingSystemRunner.reportOutputPotentialSource = null;
-                
-                //Set the consumer used to modify the voting system back to null so they are not changed for other tests
-                VotingSystemRunner.votingSystemModifierBeforeParsing = null;
+            else {
+                originalSystemOut.printf("%s runtime: %f\n", testName, runtime);
             }
         }
         catch(FileNotFoundException e) {